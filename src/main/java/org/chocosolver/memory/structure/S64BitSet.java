@@ -569,6 +569,18 @@ public class S64BitSet implements IStateBitSet {
         }
     }
 
+    /**
+     * Returns the word of index <code>wordIndex</code>, that is, the bits from <code>64 * wordIndex</code>
+     * (inclusive) to <code>64 * (wordIndex + 1)</code> (exclusive), bit <code>i</code> being the one of mask
+     * <code>1L << i</code>.
+     *
+     * @param wordIndex index of a word
+     * @return the word of index <code>wordIndex</code>, 0 if it is not in use
+     */
+    public long getWord(int wordIndex) {
+        return wordIndex < wordsInUse.get() ? words[wordIndex].get() : 0L;
+    }
+
     /**
      * Returns the index of the first bit that is set to {@code false}
      * that occurs on or after the specified starting index.
@@ -66,6 +66,11 @@ public class Model implements IModel {
 
     public static final String NOGOODS_HOOK_NAME = "H_NOGOODS";
 
+    /**
+     * Name of internal hook dedicated to store the layered graphs shared by regular constraints.
+     */
+    public static final String REGULAR_GRAPHS_HOOK_NAME = "H_REGULAR";
+
     /**
      * Settings to use with this solver
      */
@@ -0,0 +1,557 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.objects.IntMap;
+import org.chocosolver.util.objects.queues.IndexedMaxHeap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A pool of solutions over integer variables, with a small memory footprint.
+ * <br/>
+ * Solutions are stored in rows of a columnar structure: values of a variable are stored in a primitive
+ * <code>int[]</code> column, and columns are allocated by chunks of {@link #CHUNK} rows.
+ * Thus, storing a solution costs 4 bytes per variable, compared to a {@link Solution} which relies on hash maps.
+ * <br/>
+ * Optionally, the pool can:
+ * <ul>
+ * <li>ignore a solution equal to a solution already stored ({@link #setDeduplication(boolean)}),</li>
+ * <li>keep only the <i>k</i> best solutions wrt an objective variable ({@link #keepBest(IntVar, boolean, int)}),
+ * the worst one being evicted when a better solution is recorded,</li>
+ * <li>write full chunks to a temporary file when too many chunks are kept in memory ({@link #spillToDisk(int)}).</li>
+ * </ul>
+ * Spilling to disk can be combined neither with deduplication nor with <i>k</i> best solutions.
+ * <br/>
+ * A pool is a solution monitor, so it can record each solution found by a solver:
+ * <pre>
+ *     {@code
+ *     SolutionPool pool = new SolutionPool(model, vars);
+ *     model.getSolver().plugMonitor(pool);
+ *     }
+ * </pre>
+ * or, equivalently, {@code model.getSolver().findAllSolutions(pool)}.
+ * <br/>
+ * Each stored solution is identified by a <i>slot</i>, in [0, {@link #size()}[, which is stable
+ * except when the solution is evicted (then its slot is reused).
+ *
+ * @since 19/10/2026
+ */
+public class SolutionPool implements IMonitorSolution, Closeable {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /** log2 of the number of rows in a chunk */
+    private static final int SHIFT = 10;
+
+    /** Number of rows in a chunk */
+    public static final int CHUNK = 1 << SHIFT;
+
+    /** Mask to get the position of a row in its chunk */
+    private static final int MASK = CHUNK - 1;
+
+    // INPUT
+    /** Model to store */
+    private final Model model;
+    /** Variables to store */
+    private final IntVar[] vars;
+    /** Column of each variable, indexed by variable id */
+    private final IntMap v2c;
+
+    // STORAGE
+    /** Chunks of columns: chunks[c][v][r] is the value of the v^th variable in the row c * CHUNK + r */
+    private int[][][] chunks;
+    /** Number of slots used */
+    private int size;
+    /** Temporary row */
+    private final int[] row;
+
+    // DEDUPLICATION
+    /** Set to <tt>true</tt> to ignore solutions already stored */
+    private boolean dedup;
+    /** Hash tables of rows, as chains of slots: first slot per bucket, next slot per slot and hash per slot */
+    private int[] buckets, next, hashes;
+
+    // K BEST
+    /** Objective variable, null if all solutions are kept */
+    private IntVar objective;
+    /** Set to <tt>true</tt> to keep solutions with the largest objective values */
+    private boolean maximize;
+    /** Maximum number of solutions to keep */
+    private int capacity = Integer.MAX_VALUE;
+    /** Objective value per slot */
+    private int[] objValues;
+    /** Slots ordered from the worst objective value to the best one */
+    private IndexedMaxHeap worst;
+
+    // SPILL TO DISK
+    /** Maximum number of chunks kept in memory, -1 to never spill */
+    private int maxChunks = -1;
+    /** Number of chunks written on disk, which are the first ones */
+    private int spilled;
+    /** Temporary file */
+    private Path file;
+    private FileChannel channel;
+    /** Buffer to read or write one chunk */
+    private ByteBuffer buffer;
+    /** Last chunk read from disk */
+    private int[][] cache;
+    private int cached = -1;
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Create an empty pool able to store the value of each variable in <code>varsToStore</code> on each call to
+     * {@link #record()}.
+     *
+     * Stores all integer variables (including boolean ones) by default, when <code>varsToStore</code> is empty
+     *
+     * @param model       model of the solutions
+     * @param varsToStore variables to store in this pool
+     */
+    public SolutionPool(Model model, IntVar... varsToStore) {
+        this.model = model;
+        this.vars = varsToStore.length == 0 ? model.retrieveIntVars(true) : varsToStore.clone();
+        this.v2c = new IntMap(vars.length);
+        for (int i = 0; i < vars.length; i++) {
+            v2c.put(vars[i].getId(), i);
+        }
+        this.row = new int[vars.length];
+        this.chunks = new int[4][][];
+    }
+
+    //***********************************************************************************
+    // SETTINGS
+    //***********************************************************************************
+
+    /**
+     * Set to <tt>true</tt> to ignore solutions equal to a solution already stored.
+     * Must be called before recording the first solution.
+     *
+     * @param deduplicate <tt>true</tt> to ignore duplicated solutions
+     * @return this pool
+     */
+    public SolutionPool setDeduplication(boolean deduplicate) {
+        checkEmpty();
+        if (deduplicate && maxChunks > -1) {
+            throw new SolverException("SolutionPool: deduplication cannot be combined with spilling to disk");
+        }
+        this.dedup = deduplicate;
+        if (dedup) {
+            buckets = new int[64];
+            Arrays.fill(buckets, -1);
+            next = new int[CHUNK];
+            hashes = new int[CHUNK];
+        }
+        return this;
+    }
+
+    /**
+     * Keep only the <i>k</i> best solutions wrt <i>objective</i>.
+     * When the pool is full, a solution better than the worst stored one replaces it, other solutions are ignored.
+     * Must be called before recording the first solution.
+     *
+     * @param objective an integer variable
+     * @param maximize  set to <tt>true</tt> to keep solutions with the largest values of <i>objective</i>
+     * @param k         maximum number of solutions to keep
+     * @return this pool
+     */
+    public SolutionPool keepBest(IntVar objective, boolean maximize, int k) {
+        checkEmpty();
+        if (k < 1) {
+            throw new SolverException("SolutionPool: the number of solutions to keep should be positive");
+        }
+        if (maxChunks > -1) {
+            throw new SolverException("SolutionPool: keeping k best solutions cannot be combined with spilling to disk");
+        }
+        this.objective = objective;
+        this.maximize = maximize;
+        this.capacity = k;
+        this.objValues = new int[k];
+        this.worst = new IndexedMaxHeap(k);
+        return this;
+    }
+
+    /**
+     * Write the oldest chunks to a temporary file when more than <i>maxChunksInMemory</i> chunks are in memory.
+     * Must be called before recording the first solution.
+     * The temporary file is deleted on {@link #close()}.
+     *
+     * @param maxChunksInMemory maximum number of chunks (of {@link #CHUNK} rows each) kept in memory
+     * @return this pool
+     */
+    public SolutionPool spillToDisk(int maxChunksInMemory) {
+        checkEmpty();
+        if (maxChunksInMemory < 1) {
+            throw new SolverException("SolutionPool: at least one chunk should be kept in memory");
+        }
+        if (dedup || objective != null) {
+            throw new SolverException("SolutionPool: spilling to disk cannot be combined with deduplication " +
+                    "or k best solutions");
+        }
+        this.maxChunks = maxChunksInMemory;
+        return this;
+    }
+
+    private void checkEmpty() {
+        if (size > 0) {
+            throw new SolverException("SolutionPool: settings must be declared before recording any solution");
+        }
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public void onSolution() {
+        record();
+    }
+
+    /**
+     * Records the current solution of the solver in this pool.
+     *
+     * @return the slot of the solution, or -1 if the solution was ignored (duplicated or not good enough)
+     * @exception SolverException if a variable to store is not instantiated
+     */
+    public int record() {
+        for (int i = 0; i < vars.length; i++) {
+            if (!vars[i].isInstantiated()) {
+                throw new SolverException("SolutionPool: " + vars[i].getName() + " is not instantiated");
+            }
+            row[i] = vars[i].getValue();
+        }
+        int obj = 0;
+        if (objective != null) {
+            obj = objective.getValue();
+            if (size == capacity && !better(obj, objValues[worst.peek()])) {
+                return -1;
+            }
+        }
+        int h = 0;
+        if (dedup) {
+            h = Arrays.hashCode(row);
+            if (find(h) > -1) {
+                return -1;
+            }
+        }
+        int slot;
+        if (size < capacity) {
+            slot = size++;
+            ensureCapacity(slot);
+        } else {
+            slot = worst.pop();
+            if (dedup) {
+                unlink(slot);
+            }
+        }
+        int[][] cols = chunks[slot >>> SHIFT];
+        int r = slot & MASK;
+        for (int i = 0; i < vars.length; i++) {
+            cols[i][r] = row[i];
+        }
+        if (dedup) {
+            link(slot, h);
+        }
+        if (objective != null) {
+            objValues[slot] = obj;
+            worst.add(slot, maximize ? -(double) obj : obj);
+        }
+        if (maxChunks > -1 && (slot & MASK) == MASK) {
+            spill();
+        }
+        return slot;
+    }
+
+    private boolean better(int obj, int other) {
+        return maximize ? obj > other : obj < other;
+    }
+
+    /**
+     * @return the number of solutions stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the variables stored, in column order
+     */
+    public IntVar[] getVars() {
+        return vars;
+    }
+
+    /**
+     * Copy the solution stored in <i>slot</i> into <i>dest</i>, in column order.
+     *
+     * @param slot slot of a solution
+     * @param dest an array of size at least the number of variables stored
+     * @return <i>dest</i>
+     */
+    public int[] getRow(int slot, int[] dest) {
+        checkSlot(slot);
+        int[][] cols = chunk(slot >>> SHIFT);
+        int r = slot & MASK;
+        for (int i = 0; i < vars.length; i++) {
+            dest[i] = cols[i][r];
+        }
+        return dest;
+    }
+
+    /**
+     * @param slot slot of a solution
+     * @param var  a variable stored
+     * @return the value of <i>var</i> in the solution stored in <i>slot</i>
+     * @exception SolverException if <i>var</i> is not stored in this pool
+     */
+    public int getIntVal(int slot, IntVar var) {
+        checkSlot(slot);
+        int c = v2c.get(var.getId());
+        if (c == -1) {
+            if ((var.getTypeAndKind() & Variable.TYPE) == Variable.CSTE) {
+                return var.getValue();
+            }
+            throw new SolverException("Cannot access value of " + var + ": This variable has not been declared " +
+                    "to be recorded in the SolutionPool (see SolutionPool constructor).");
+        }
+        return chunk(slot >>> SHIFT)[c][slot & MASK];
+    }
+
+    /**
+     * @param slot slot of a solution
+     * @return the value of the objective variable in the solution stored in <i>slot</i>
+     * @exception SolverException if no objective variable was declared
+     */
+    public int getObjectiveValue(int slot) {
+        checkSlot(slot);
+        if (objective == null) {
+            throw new SolverException("SolutionPool: no objective variable declared (see keepBest)");
+        }
+        return objValues[slot];
+    }
+
+    /**
+     * Create a {@link Solution} from the solution stored in <i>slot</i>
+     *
+     * @param slot slot of a solution
+     * @return a new {@link Solution}
+     */
+    public Solution toSolution(int slot) {
+        getRow(slot, row);
+        Solution solution = new Solution(model, vars);
+        for (int i = 0; i < vars.length; i++) {
+            solution.setIntVal(vars[i], row[i]);
+        }
+        return solution;
+    }
+
+    /**
+     * Remove all solutions from this pool and delete the temporary file, if any.
+     * Settings are kept.
+     */
+    public void clear() {
+        if (channel != null) {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new SolverException("SolutionPool: unable to delete " + file + " (" + e.getMessage() + ")");
+            }
+            channel = null;
+            cached = -1;
+        }
+        Arrays.fill(chunks, null);
+        size = 0;
+        spilled = 0;
+        if (dedup) {
+            Arrays.fill(buckets, -1);
+        }
+        if (objective != null) {
+            worst.clear();
+        }
+    }
+
+    /**
+     * Delete the temporary file used to spill chunks, if any.
+     * Since the solutions written in it are lost, all solutions are then removed from this pool, as by
+     * {@link #clear()}. Otherwise, this pool is left unchanged.
+     */
+    @Override
+    public void close() {
+        if (channel != null) {
+            clear();
+        }
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new SolverException("SolutionPool: no solution stored in slot " + slot);
+        }
+    }
+
+    private void ensureCapacity(int slot) {
+        int c = slot >>> SHIFT;
+        if (c >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[c] == null) {
+            chunks[c] = new int[vars.length][CHUNK];
+        }
+        if (dedup && slot >= next.length) {
+            next = Arrays.copyOf(next, next.length * 2);
+            hashes = Arrays.copyOf(hashes, hashes.length * 2);
+        }
+    }
+
+    //***********************************************************************************
+    // DEDUPLICATION
+    //***********************************************************************************
+
+    private int find(int h) {
+        int s = buckets[h & (buckets.length - 1)];
+        while (s > -1) {
+            if (hashes[s] == h && sameRow(s)) {
+                return s;
+            }
+            s = next[s];
+        }
+        return -1;
+    }
+
+    private boolean sameRow(int slot) {
+        int[][] cols = chunks[slot >>> SHIFT];
+        int r = slot & MASK;
+        for (int i = 0; i < vars.length; i++) {
+            if (cols[i][r] != row[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void link(int slot, int h) {
+        if (size > buckets.length - (buckets.length >> 2)) {
+            rehash(slot);
+        }
+        int b = h & (buckets.length - 1);
+        hashes[slot] = h;
+        next[slot] = buckets[b];
+        buckets[b] = slot;
+    }
+
+    private void unlink(int slot) {
+        int b = hashes[slot] & (buckets.length - 1);
+        if (buckets[b] == slot) {
+            buckets[b] = next[slot];
+        } else {
+            int s = buckets[b];
+            while (next[s] != slot) {
+                s = next[s];
+            }
+            next[s] = next[slot];
+        }
+    }
+
+    private void rehash(int recorded) {
+        buckets = new int[buckets.length * 2];
+        Arrays.fill(buckets, -1);
+        for (int s = 0; s < size; s++) {
+            // the slot being recorded is linked by the caller
+            if (s != recorded && (objective == null || worst.contains(s))) {
+                int b = hashes[s] & (buckets.length - 1);
+                next[s] = buckets[b];
+                buckets[b] = s;
+            }
+        }
+    }
+
+    //***********************************************************************************
+    // SPILL TO DISK
+    //***********************************************************************************
+
+    /**
+     * Write the oldest chunk in memory to the temporary file, if there are too many chunks in memory
+     */
+    private void spill() {
+        int inMemory = ((size - 1) >>> SHIFT) + 1 - spilled;
+        if (inMemory > maxChunks) {
+            try {
+                if (channel == null) {
+                    file = Files.createTempFile("choco-pool", ".bin");
+                    channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    buffer = ByteBuffer.allocate(vars.length * CHUNK * 4);
+                }
+                int[][] cols = chunks[spilled];
+                buffer.clear();
+                IntBuffer ib = buffer.asIntBuffer();
+                for (int i = 0; i < vars.length; i++) {
+                    ib.put(cols[i]);
+                }
+                long pos = (long) spilled * buffer.capacity();
+                while (buffer.hasRemaining()) {
+                    pos += channel.write(buffer, pos);
+                }
+            } catch (IOException e) {
+                throw new SolverException("SolutionPool: unable to spill solutions to disk (" + e.getMessage() + ")");
+            }
+            chunks[spilled++] = null;
+        }
+    }
+
+    /**
+     * @param c index of a chunk
+     * @return the chunk, read from the temporary file if needed
+     */
+    private int[][] chunk(int c) {
+        if (c >= spilled) {
+            return chunks[c];
+        }
+        if (cached != c) {
+            if (cache == null) {
+                cache = new int[vars.length][CHUNK];
+            }
+            try {
+                buffer.clear();
+                long pos = (long) c * buffer.capacity();
+                while (buffer.hasRemaining()) {
+                    int n = channel.read(buffer, pos);
+                    if (n < 0) {
+                        throw new IOException("unexpected end of file");
+                    }
+                    pos += n;
+                }
+            } catch (IOException e) {
+                throw new SolverException("SolutionPool: unable to read solutions from disk (" + e.getMessage() + ")");
+            }
+            buffer.flip();
+            IntBuffer ib = buffer.asIntBuffer();
+            for (int i = 0; i < vars.length; i++) {
+                ib.get(cache[i]);
+            }
+            cached = c;
+        }
+        return cache;
+    }
+}
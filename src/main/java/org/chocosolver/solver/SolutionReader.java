@@ -0,0 +1,205 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader of solutions written by a {@link SolutionWriter}.
+ * <pre> {@code
+ * try (SolutionReader reader = new SolutionReader(path)) {
+ *      int[] row = new int[reader.getNbVars()];
+ *      while (reader.next(row)) {
+ *          // row[i] is the value of the variable named reader.getName(i)
+ *      }
+ * }
+ * }</pre>
+ *
+ * @since 19/10/2026
+ */
+public class SolutionReader implements Closeable {
+
+    /**
+     * Default size of the buffer, in bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Input channel
+     */
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    /**
+     * Set to <tt>true</tt> when the end of the channel has been reached
+     */
+    private boolean eof;
+    /**
+     * Ids and names of the variables, in column order
+     */
+    private final int[] ids;
+    private final String[] names;
+    /**
+     * Values in the previous row
+     */
+    private final int[] previous;
+    /**
+     * Number of rows read
+     */
+    private long count;
+
+    /**
+     * Create a reader of solutions stored in <i>file</i>.
+     *
+     * @param file path of the file to read
+     * @throws IOException if the file cannot be opened or its header is not valid
+     */
+    public SolutionReader(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Create a reader of solutions stored in <i>channel</i>. The header is read immediately.
+     *
+     * @param channel input channel, closed on {@link #close()}
+     * @throws IOException if the header cannot be read or is not valid
+     */
+    public SolutionReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+        fill(5);
+        if (buffer.remaining() < 5 || buffer.getInt() != SolutionWriter.MAGIC) {
+            throw new IOException("SolutionReader: not a solution file");
+        }
+        byte version = buffer.get();
+        if (version != SolutionWriter.VERSION) {
+            throw new IOException("SolutionReader: unsupported version " + version);
+        }
+        fill(SolutionWriter.MAX_VARINT);
+        int n = getVarInt();
+        this.ids = new int[n];
+        this.names = new String[n];
+        this.previous = new int[n];
+        for (int i = 0; i < n; i++) {
+            fill(2 * SolutionWriter.MAX_VARINT);
+            ids[i] = getVarInt();
+            int len = getVarInt();
+            if (len > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocate(len);
+                larger.put(buffer);
+                larger.flip();
+                buffer = larger;
+            }
+            fill(len);
+            if (buffer.remaining() < len) {
+                throw new EOFException("SolutionReader: truncated header");
+            }
+            names[i] = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), len, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + len);
+        }
+        if (buffer.capacity() < n * SolutionWriter.MAX_VARINT) {
+            ByteBuffer larger = ByteBuffer.allocate(n * SolutionWriter.MAX_VARINT);
+            larger.put(buffer);
+            larger.flip();
+            buffer = larger;
+        }
+    }
+
+    /**
+     * @return the number of variables, that is, the size of a row
+     */
+    public int getNbVars() {
+        return ids.length;
+    }
+
+    /**
+     * @param i index of a column
+     * @return the id of the variable stored in the i<sup>th</sup> column
+     */
+    public int getId(int i) {
+        return ids[i];
+    }
+
+    /**
+     * @param i index of a column
+     * @return the name of the variable stored in the i<sup>th</sup> column
+     */
+    public String getName(int i) {
+        return names[i];
+    }
+
+    /**
+     * @return the number of rows read so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Read the next row into <i>dest</i>.
+     *
+     * @param dest an array of size at least {@link #getNbVars()}
+     * @return <tt>false</tt> if there is no more row to read, <tt>true</tt> otherwise
+     * @throws IOException if an I/O error occurs or if the last row is truncated
+     */
+    public boolean next(int[] dest) throws IOException {
+        fill(ids.length * SolutionWriter.MAX_VARINT);
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            previous[i] += SolutionWriter.unzigzag(getVarInt());
+            dest[i] = previous[i];
+        }
+        count++;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Read from the channel until at least <i>nbBytes</i> are available in the buffer, or the end of the channel
+     * is reached
+     */
+    private void fill(int nbBytes) throws IOException {
+        if (buffer.remaining() < nbBytes && !eof) {
+            buffer.compact();
+            while (buffer.position() < nbBytes && !eof) {
+                eof = channel.read(buffer) < 0;
+            }
+            buffer.flip();
+        }
+    }
+
+    private int getVarInt() throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException("SolutionReader: truncated row");
+            }
+            byte b = buffer.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return v;
+            }
+        }
+        throw new IOException("SolutionReader: malformed varint");
+    }
+}
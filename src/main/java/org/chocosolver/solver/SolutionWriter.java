@@ -0,0 +1,217 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A solution monitor which writes solutions, as they are found, in a compact binary format.
+ * <br/>
+ * The format is made of:
+ * <ul>
+ * <li>a header: the magic number {@link #MAGIC}, the version {@link #VERSION}, the number of variables
+ * and, for each variable, its id and its name (in UTF-8),</li>
+ * <li>one row per solution: for each variable, the difference between its value and its value in the previous row
+ * (0 for the first row).</li>
+ * </ul>
+ * Integers, except the magic number and the version, are encoded as varints; differences are zigzag-encoded first,
+ * so that a value which changes by less than 64 between two consecutive solutions is stored in a single byte.
+ * <br/>
+ * Rows are written to a buffer which is flushed to the channel when full, thus recording a solution does not allocate.
+ * Solutions can be read back with {@link SolutionReader}.
+ * <pre> {@code
+ * try (SolutionWriter writer = new SolutionWriter(path, vars)) {
+ *      model.getSolver().plugMonitor(writer);
+ *      while (model.getSolver().solve()) ;
+ * }
+ * }</pre>
+ *
+ * @since 19/10/2026
+ */
+public class SolutionWriter implements IMonitorSolution, Closeable {
+
+    /**
+     * Magic number, "CHSL" in ASCII
+     */
+    public static final int MAGIC = 0x4348534C;
+
+    /**
+     * Version of the format
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Default size of the buffer, in bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Maximum number of bytes of a zigzag varint encoding an int
+     */
+    static final int MAX_VARINT = 5;
+
+    /**
+     * Variables to write
+     */
+    private final IntVar[] vars;
+    /**
+     * Values of the variables in the previous row
+     */
+    private final int[] previous;
+    /**
+     * Output channel
+     */
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    /**
+     * Number of rows written
+     */
+    private long count;
+
+    /**
+     * Create a writer of solutions into <i>file</i>, which is created or truncated.
+     *
+     * @param file path of the file to write
+     * @param vars variables to write
+     * @throws IOException if the file cannot be opened
+     */
+    public SolutionWriter(Path file, IntVar... vars) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE), vars);
+    }
+
+    /**
+     * Create a writer of solutions into <i>channel</i>. The header is written immediately.
+     *
+     * @param channel output channel, closed on {@link #close()}
+     * @param vars    variables to write
+     * @throws IOException if the header cannot be written
+     */
+    public SolutionWriter(WritableByteChannel channel, IntVar... vars) throws IOException {
+        this.vars = vars.clone();
+        this.previous = new int[vars.length];
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, vars.length * MAX_VARINT));
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        putVarInt(vars.length);
+        for (IntVar var : vars) {
+            byte[] name = var.getName().getBytes(StandardCharsets.UTF_8);
+            ensure(2 * MAX_VARINT);
+            putVarInt(var.getId());
+            putVarInt(name.length);
+            for (int i = 0; i < name.length; ) {
+                ensure(1);
+                int len = Math.min(buffer.remaining(), name.length - i);
+                buffer.put(name, i, len);
+                i += len;
+            }
+        }
+        flush();
+    }
+
+    @Override
+    public void onSolution() {
+        try {
+            write();
+        } catch (IOException e) {
+            throw new SolverException("SolutionWriter: unable to write solution (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * Write the current value of the variables as a new row.
+     *
+     * @throws IOException if the buffer cannot be flushed
+     */
+    public void write() throws IOException {
+        ensure(vars.length * MAX_VARINT);
+        for (int i = 0; i < vars.length; i++) {
+            int v = vars[i].getValue();
+            putVarInt(zigzag(v - previous[i]));
+            previous[i] = v;
+        }
+        count++;
+    }
+
+    /**
+     * @return the number of rows written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Write buffered rows to the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flush buffered rows and close the channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private void ensure(int nbBytes) throws IOException {
+        if (buffer.remaining() < nbBytes) {
+            flush();
+        }
+    }
+
+    private void putVarInt(int v) {
+        while ((v & ~0x7F) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    /**
+     * Map signed integers to unsigned ones, so that small absolute values have short encodings
+     */
+    static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    /**
+     * Inverse of {@link #zigzag(int)}
+     */
+    static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -33,6 +33,7 @@ import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.PropMultiCostRegular;
 import org.chocosolver.solver.constraints.nary.automata.PropRegular;
+import org.chocosolver.solver.constraints.nary.binPacking.PropBinPacking;
 import org.chocosolver.solver.constraints.nary.binPacking.PropItemToLoad;
 import org.chocosolver.solver.constraints.nary.binPacking.PropLoadToItem;
 import org.chocosolver.solver.constraints.nary.channeling.*;
@@ -43,6 +44,7 @@ import org.chocosolver.solver.constraints.nary.cumulative.Cumulative;
 import org.chocosolver.solver.constraints.nary.element.PropElementV_fast;
 import org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality;
 import org.chocosolver.solver.constraints.nary.lex.PropLex;
+import org.chocosolver.solver.constraints.nary.lex.PropLexBool;
 import org.chocosolver.solver.constraints.nary.lex.PropLexChain;
 import org.chocosolver.solver.constraints.nary.min_max.PropBoolMax;
 import org.chocosolver.solver.constraints.nary.min_max.PropBoolMin;
@@ -53,11 +55,13 @@ import org.chocosolver.solver.constraints.nary.nValue.PropAtLeastNValues;
 import org.chocosolver.solver.constraints.nary.nValue.PropAtLeastNValues_AC;
 import org.chocosolver.solver.constraints.nary.nValue.PropAtMostNValues;
 import org.chocosolver.solver.constraints.nary.nValue.amnv.graph.Gci;
+import org.chocosolver.solver.constraints.nary.nValue.PropAMNVWeighted;
 import org.chocosolver.solver.constraints.nary.nValue.amnv.mis.MDRk;
 import org.chocosolver.solver.constraints.nary.nValue.amnv.rules.R;
 import org.chocosolver.solver.constraints.nary.nValue.amnv.rules.R1;
 import org.chocosolver.solver.constraints.nary.nValue.amnv.rules.R3;
 import org.chocosolver.solver.constraints.nary.sort.PropKeysorting;
+import org.chocosolver.solver.constraints.nary.sort.PropSort;
 import org.chocosolver.solver.constraints.nary.sum.IntLinCombFactory;
 import org.chocosolver.solver.constraints.nary.tree.PropAntiArborescences;
 import org.chocosolver.solver.constraints.ternary.*;
@@ -322,12 +326,15 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 	/**
 	 * Create a table constraint over a couple of variables var1 and var2
 	 *
-	 * Uses AC3rm algorithm by default
+	 * Uses AC3rm algorithm by default, CT+ for compressed tuples
 	 *
 	 * @param var1   first variable
 	 * @param var2   second variable
 	 */
 	default Constraint table(IntVar var1, IntVar var2, Tuples tuples) {
+		if(tuples.isCompressed()){
+			return table(new IntVar[]{var1, var2}, tuples, "CT+");
+		}
 		return table(var1,var2,tuples,"AC3bit+rm");
 	}
 
@@ -344,6 +351,9 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 	 * @param tuples the relation between the two variables, among {"AC3", "AC3rm", "AC3bit+rm", "AC2001", "FC"}
 	 */
 	default Constraint table(IntVar var1, IntVar var2, Tuples tuples, String algo) {
+		if(tuples.isCompressed()){
+			throw new SolverException(algo+" table algorithm cannot be used with compressed tuples.");
+		}
 		Propagator p;
 		switch (algo) {
 			case "AC2001": p = new PropBinAC2001(var1, var2, tuples);
@@ -755,12 +765,41 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 		}
 	}
 
+	/**
+	 * Creates a weighted atMostNValue constraint.
+	 * Let W be the sum of the weights of the distinct values assigned to the variables of the vars collection.
+	 * Enforce condition W <= cost to hold.
+	 * <p>
+	 * Filters the conjunction of the constraint and disequalities,
+	 * which are automatically detected, with independent sets of the intersection graph of vars
+	 * (weighted version of Fages and Lap&egrave;gue Artificial Intelligence 2014).
+	 *
+	 * @param vars    collection of variables
+	 * @param values  values with a weight, the other ones weigh 0
+	 * @param weights weights of the values, which cannot be negative
+	 * @param cost    maximum weight of the values assigned to vars
+	 */
+	default Constraint atMostNValues(IntVar[] vars, int[] values, int[] weights, IntVar cost) {
+		if (values.length != weights.length) {
+			throw new SolverException("values and weights should have the same size");
+		}
+		for (int w : weights) {
+			if (w < 0) {
+				throw new SolverException("weights of atMostNValues cannot be negative");
+			}
+		}
+		return new Constraint("WeightedAtMostNValues", new PropAMNVWeighted(vars, values, weights, cost, new Gci(vars)));
+	}
+
 	/**
 	 * Creates a BinPacking constraint.
 	 * Bin Packing formulation:
 	 * forall b in [0,binLoad.length-1],
 	 * binLoad[b]=sum(itemSize[i] | i in [0,itemSize.length-1], itemBin[i] = b+offset
 	 * forall i in [0,itemSize.length-1], itemBin is in [offset,binLoad.length-1+offset],
+	 * <p>
+	 * When no size is negative, filtering is based on knapsack reasoning on each bin and
+	 * on a lower bound on the number of bins needed (see {@link PropBinPacking}).
 	 *
 	 * @param itemBin  IntVar representing the bin of each item
 	 * @param itemSize int representing the size of each item
@@ -778,9 +817,19 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 		for (int is : itemSize) {
 			sum += is;
 		}
+		boolean positive = true;
+		for (int is : itemSize) {
+			positive &= is >= 0;
+		}
+		if (!positive) {
+			return Constraint.merge("BinPacking", new Constraint("BinPacking",
+					new PropItemToLoad(itemBin,itemSize,binLoad, offset),
+					new PropLoadToItem(itemBin,itemSize,binLoad, offset)),
+					model.sum(binLoad, "=", sum)
+			);
+		}
 		return Constraint.merge("BinPacking", new Constraint("BinPacking",
-				new PropItemToLoad(itemBin,itemSize,binLoad, offset),
-				new PropLoadToItem(itemBin,itemSize,binLoad, offset)),
+				new PropBinPacking(itemBin,itemSize,binLoad, offset)),
 				model.sum(binLoad, "=", sum)
 		);
 	}
@@ -910,6 +959,31 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 		return new Constraint("Circuit", ArrayUtils.append(allDifferent(vars, "AC").propagators, props));
 	}
 
+	/**
+	 * Creates a circuit constraint which ensures that
+	 * <p/> the elements of vars define a covering circuit
+	 * <p/> where vars[i] = offset+j means that j is the successor of i,
+	 * <p/> and cost = sum(costMatrix[i][vars[i]-offset]).
+	 * <p>
+	 * Filtering algorithms:
+	 * <p/> those of {@link #circuit(IntVar[], int)}
+	 * <p/> assignment problem lower bound, kept from one call to the other,
+	 * and reduced-cost filtering of the successors: Focacci, Lodi and Milano (CP'99)
+	 *
+	 * @param vars       vector of variables which take their value in [offset,offset+|vars|-1]
+	 * @param offset     0 by default but typically 1 if used within MiniZinc
+	 *                   (which counts from 1 to n instead of from 0 to n-1)
+	 * @param costMatrix costMatrix[i][j] is the cost of having j as the successor of i
+	 * @param cost       cost of the circuit
+	 * @return a circuit constraint with a cost
+	 */
+	default Constraint circuit(IntVar[] vars, int offset, int[][] costMatrix, IntVar cost) {
+		return new Constraint("CostCircuit", ArrayUtils.append(
+				circuit(vars, offset).getPropagators(),
+				new Propagator[]{new PropCircuitCost(vars, offset, costMatrix, cost)}
+		));
+	}
+
 	/**
 	 * Creates a regular constraint that supports a cost function.
 	 * Ensures that the assignment of a sequence of variables is recognized by costAutomaton, a deterministic finite automaton,
@@ -1163,6 +1237,35 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 		}
 	}
 
+	/**
+	 * Creates a global cardinality constraint (GCC):
+	 * Each value values[i] should be taken by exactly occurrences[i] variables of vars.
+	 * <br/>
+	 * Consistency level on the variables, given the bounds of the occurrence variables, should be chosen among:
+	 * <br/>
+	 * <b>BC</b>: bound consistency, based on a flow over groups of consecutive values, runs in O(n.log(n))
+	 * with respect to the number of variables, whatever the width of the domains,
+	 * <br/>
+	 * <b>AC</b>: arc consistency, based on a flow kept from one call to the other,
+	 * <br/>
+	 * <b>DEFAULT</b>: same as {@link #globalCardinality(IntVar[], int[], IntVar[], boolean)}.
+	 * <br/>
+	 * Occurrence variables are only bounded by the number of variables instantiated to, or able to take, their value.
+	 *
+	 * @param vars        collection of variables
+	 * @param values      collection of constrained values
+	 * @param occurrences collection of cardinality variables
+	 * @param closed      restricts domains of vars to values if set to true
+	 * @param consistency consistency level, among {"BC", "AC", "DEFAULT"}
+	 */
+	default Constraint globalCardinality(IntVar[] vars, int[] values, IntVar[] occurrences, boolean closed, String consistency) {
+		assert values.length == occurrences.length;
+		if (GlobalCardinality.DEFAULT.equals(consistency)) {
+			return globalCardinality(vars, values, occurrences, closed);
+		}
+		return new GlobalCardinality(vars, values, occurrences, closed, consistency);
+	}
+
 	/**
 	 * Creates an inverse channeling between vars1 and vars2:
 	 * vars1[i] = j <=> vars2[j] = i
@@ -1286,6 +1389,38 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 		));
 	}
 
+	/**
+	 * Creates a multidimensional knapsack constraint, made of one knapsack per row of <i>weights</i>,
+	 * all sharing the same items and the same energy.
+	 * Ensures that :
+	 * <br/>- occurrences[i] * weights[k][i] = weightSums[k], for each row k
+	 * <br/>- occurrences[i] * energy[i] = energySum
+	 * <br/>and maximizing the value of energySum.
+	 * <p>
+	 * Each row bounds <i>energySum</i> with its own LP relaxation.
+	 *
+	 * @param occurrences  number of occurrences of every item
+	 * @param weightSums   load of the knapsack in each dimension
+	 * @param energySum    profit of the knapsack
+	 * @param weights      weight of each item in each dimension (must be >=0)
+	 * @param energy       energy of each item (must be >=0)
+	 * @see #knapsack(IntVar[], IntVar, IntVar, int[], int[])
+	 */
+	default Constraint knapsack(IntVar[] occurrences, IntVar[] weightSums, IntVar energySum,
+								int[][] weights, int[] energy) {
+		if (weightSums.length != weights.length) {
+			throw new SolverException("weightSums and weights should have the same length");
+		}
+		Propagator[] props = scalar(occurrences, energy, "=", energySum).propagators;
+		for (int k = 0; k < weights.length; k++) {
+			props = ArrayUtils.append(props,
+					scalar(occurrences, weights[k], "=", weightSums[k]).propagators,
+					new Propagator[]{new PropKnapsack(occurrences, weightSums[k], energySum, weights[k], energy)}
+			);
+		}
+		return new Constraint("Knapsack", props);
+	}
+
 	/**
 	 * Creates a keySort constraint which ensures that the variables of SORTEDvars correspond to the variables
 	 * of vars according to a permutation stored in PERMvars (optional, can be null).
@@ -1360,6 +1495,60 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 		return new Constraint("Lex(<=)", new PropLex(vars1, vars2, false));
 	}
 
+	/**
+	 * Creates a lexChainLess constraint over boolean variables.
+	 * For each pair of consecutive vectors vars<sub>i</sub> and vars<sub>i+1</sub> of the vars collection
+	 * vars<sub>i</sub> is lexicographically strictly less than than vars<sub>i+1</sub>.
+	 * <p>
+	 * Vectors are packed into words, and each pair of consecutive vectors is filtered to arc consistency.
+	 * Unlike {@link #lexChainLess(IntVar[]...)}, the chain is not filtered as a whole.
+	 *
+	 * @param vars collection of vectors of boolean variables
+	 */
+	default Constraint lexChainLessBool(BoolVar[]... vars) {
+		return new Constraint("LexChain(<) ", new PropLexBool(vars, true));
+	}
+
+	/**
+	 * Creates a lexChainLessEq constraint over boolean variables.
+	 * For each pair of consecutive vectors vars<sub>i</sub> and vars<sub>i+1</sub> of the vars collection
+	 * vars<sub>i</sub> is lexicographically less or equal than than vars<sub>i+1</sub>.
+	 * <p>
+	 * Vectors are packed into words, and each pair of consecutive vectors is filtered to arc consistency.
+	 * Unlike {@link #lexChainLessEq(IntVar[]...)}, the chain is not filtered as a whole.
+	 *
+	 * @param vars collection of vectors of boolean variables
+	 */
+	default Constraint lexChainLessEqBool(BoolVar[]... vars) {
+		return new Constraint("LexChain(<=)", new PropLexBool(vars, false));
+	}
+
+	/**
+	 * Creates a lexLess constraint over boolean variables.
+	 * Ensures that vars1 is lexicographically strictly less than vars2.
+	 * <p>
+	 * Vectors are packed into words.
+	 *
+	 * @param vars1 vector of boolean variables
+	 * @param vars2 vector of boolean variables
+	 */
+	default Constraint lexLessBool(BoolVar[] vars1, BoolVar[] vars2) {
+		return new Constraint("Lex(<)", new PropLexBool(new BoolVar[][]{vars1, vars2}, true));
+	}
+
+	/**
+	 * Creates a lexLessEq constraint over boolean variables.
+	 * Ensures that vars1 is lexicographically less or equal than vars2.
+	 * <p>
+	 * Vectors are packed into words.
+	 *
+	 * @param vars1 vector of boolean variables
+	 * @param vars2 vector of boolean variables
+	 */
+	default Constraint lexLessEqBool(BoolVar[] vars1, BoolVar[] vars2) {
+		return new Constraint("Lex(<=)", new PropLexBool(new BoolVar[][]{vars1, vars2}, false));
+	}
+
 	/**
 	 * Creates a maximum constraint.
 	 * max is the maximum value of the collection of domain variables vars
@@ -1394,7 +1583,7 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 	 * @param MDD  the multi-valued decision diagram encoding solutions
 	 */
 	default Constraint mddc(IntVar[] vars, MultivaluedDecisionDiagram MDD) {
-		return new Constraint("mddc", new PropLargeMDDC(MDD, vars));
+		return new Constraint("mddc", new PropCompactMDD(MDD, vars));
 	}
 
 	/**
@@ -1611,14 +1800,7 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 		if(vars.length!=sortedVars.length) {
 			throw new SolverException("vars and sortedVars arrays should have same size");
 		}
-		//        return new Constraint("Sort", new PropSort(vars, sortedVars));
-		IntVar[][] X = new IntVar[vars.length][1];
-		IntVar[][] Y = new IntVar[sortedVars.length][1];
-		for (int i = 0; i < vars.length; i++) {
-			X[i][0] = vars[i];
-			Y[i][0] = sortedVars[i];
-		}
-		return keySort(X, null, Y, 1);
+		return new Constraint("Sort", new PropSort(vars, sortedVars));
 	}
 
 	/**
@@ -1760,7 +1942,8 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 	 * Creates a table constraint specifying that the sequence of variables vars must belong to the list of tuples
 	 * (or must NOT belong in case of infeasible tuples)
 	 *
-	 * Default configuration with GACSTR+ algorithm for feasible tuples and GAC3rm otherwise
+	 * Default configuration with GACSTR+ algorithm for feasible tuples and GAC3rm otherwise,
+	 * CT+ is used for large or compressed feasible tuples and for large infeasible tuples
 	 *
 	 * @param vars      variables forming the tuples
 	 * @param tuples    the relation between the variables (list of allowed/forbidden tuples)
@@ -1768,11 +1951,13 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 	default Constraint table(IntVar[] vars, Tuples tuples) {
 		String algo = "GAC3rm";
 		if(tuples.isFeasible()){
-			if(tuples.nbTuples()>500){
+			if(tuples.nbTuples()>500 || tuples.isCompressed()){
 				algo = "CT+";
 			}else{
 				algo = "GACSTR+";
 			}
+		}else if(tuples.nbTuples()>500){
+			algo = "CT+";
 		}
 		return table(vars,tuples,algo);
 	}
@@ -1780,7 +1965,8 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 	/**
 	 * Creates a table constraint, with the specified algorithm defined algo
 	 * <p>
-	 * - <b>CT+</b>: Compact-Table algorithm (AC),
+	 * - <b>CT+</b>: Compact-Table algorithm (AC), the only one to support compressed tuples (see {@link Tuples}),
+	 * and the only "+" one which also accepts forbidden tuples (CT-neg),
 	 * <br/>
 	 * - <b>GAC2001</b>: Arc Consistency version 2001 for tuples,
 	 * <br/>
@@ -1803,17 +1989,20 @@ public interface IIntConstraintFactory extends ISelf<Model> {
 	 * @param algo to choose among {"TC+", "GAC3rm", "GAC2001", "GACSTR", "GAC2001+", "GAC3rm+", "FC", "STR2+"}
 	 */
 	default Constraint table(IntVar[] vars, Tuples tuples, String algo) {
-		if (vars.length == 2) {
+		if(tuples.isCompressed() && !algo.equals("CT+")){
+			throw new SolverException(algo+" table algorithm cannot be used with compressed tuples.");
+		}
+		if (vars.length == 2 && !tuples.isCompressed()) {
 			return table(vars[0], vars[1], tuples);
 		}
-		if(algo.contains("+") && !tuples.isFeasible()){
+		if(algo.contains("+") && !algo.equals("CT+") && !tuples.isFeasible()){
 			throw new SolverException(algo+" table algorithm cannot be used with forbidden tuples.");
 		}
 		Propagator p;
 		switch (algo) {
-			case "CT+": p = new PropCompactTable(vars, tuples);
+			case "CT+": p = tuples.isFeasible() ? new PropCompactTable(vars, tuples) : new PropCompactTableNeg(vars, tuples);
 				break;
-			case "MDD+": p = new PropLargeMDDC(new MultivaluedDecisionDiagram(vars, tuples), vars);
+			case "MDD+": p = new PropCompactMDD(new MultivaluedDecisionDiagram(vars, tuples), vars);
 				break;
 			case "FC": p = new PropLargeFC(vars, tuples);
 				break;
@@ -113,4 +113,17 @@ public class ReificationConstraint extends Constraint {
         return bool.toString() + "=>" + trueCons.toString() + ", !" + bool.toString() + "=>" + falseCons.toString();
     }
 
+    /**
+     * @return the constraint to apply if the boolean variable is true
+     */
+    public Constraint getTrueConstraint() {
+        return trueCons;
+    }
+
+    /**
+     * @return the constraint to apply if the boolean variable is false
+     */
+    public Constraint getFalseConstraint() {
+        return falseCons;
+    }
 }
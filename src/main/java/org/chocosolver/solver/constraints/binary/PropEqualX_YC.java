@@ -192,4 +192,11 @@ public final class PropEqualX_YC extends Propagator<IntVar> {
         bf.append(")");
         return bf.toString();
     }
+
+    /**
+     * @return the constant C in X = Y + C
+     */
+    public int getConstant() {
+        return cste;
+    }
 }
@@ -99,4 +99,10 @@ public final class PropGreaterOrEqualX_YC extends Propagator<IntVar> {
         return newrules;
     }
 
+    /**
+     * @return the constant C in X >= Y + C
+     */
+    public int getConstant() {
+        return cste;
+    }
 }
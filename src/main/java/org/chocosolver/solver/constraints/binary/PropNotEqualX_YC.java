@@ -108,4 +108,11 @@ public class PropNotEqualX_YC extends Propagator<IntVar> {
         }
         return newrules;
     }
+
+    /**
+     * @return the constant C in X =/= Y + C
+     */
+    public int getConstant() {
+        return cste;
+    }
 }
@@ -17,6 +17,13 @@ import org.chocosolver.solver.variables.IntVar;
  * Project: choco.
  */
 public class ElementFactory {
+
+    /**
+     * Tables with at least this number of values are filtered with bitsets,
+     * when both the index and the value have enumerated domains
+     */
+    private static final int BITSET_THRESHOLD = 256;
+
     private ElementFactory() {
     }
 
@@ -66,6 +73,9 @@ public class ElementFactory {
             assert TABLE[0] == TABLE[TABLE.length - 1];
             return VALUE.getModel().arithm(VALUE, "=", TABLE[0]);
         }
+        if (TABLE.length >= BITSET_THRESHOLD && VALUE.hasEnumeratedDomain() && INDEX.hasEnumeratedDomain()) {
+            return new Constraint("Element", new PropElementBitset(VALUE, TABLE, INDEX, OFFSET));
+        }
         return new Constraint("Element", new PropElement(VALUE, TABLE, INDEX, OFFSET));
     }
 }
@@ -0,0 +1,310 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.binary.element;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.extension.nary.RSparseBitSet;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.explanations.RuleStore;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * VALUE = TABLE[INDEX-OFFSET], ensuring arc consistency on result and index, for large tables.
+ * <br/>
+ * Adapted from "Compact-Table: Efficiently Filtering Table Constraints with Reversible Sparse Bit-Sets",
+ * each position of the table being a tuple: a reversible sparse bit-set stores the positions whose index
+ * and value are both in the domains, and each value of the table is supported by the (static) positions
+ * where it appears, stored sparsely.
+ * Removed indices clear their bit, removed values clear their supports word by word and remove
+ * the matching indices, and a value is kept as long as its supports intersect the current positions,
+ * which is first checked on a residual word.
+ * So, no propagation scans the domain of the index.
+ *
+ * @since 19/10/2026
+ */
+public class PropElementBitset extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /**
+     * Table of values
+     */
+    private final int[] values;
+
+    /**
+     * To match indices in {@link #values} and {@link #index}
+     */
+    private final int offset;
+
+    /**
+     * Index variable
+     */
+    private final IntVar index;
+
+    /**
+     * Resulting variable
+     */
+    private final IntVar result;
+
+    /**
+     * Positions of the table whose index and value are both in the domains
+     */
+    private final RSparseBitSet currPos;
+
+    /**
+     * Maps a value of the table to its identifier
+     */
+    private final TIntIntHashMap ids;
+
+    /**
+     * Supports of each value, stored sparsely: supWords[id][k] is the index of the k<sup>th</sup> non-zero word
+     * and supBits[id][k] its value
+     */
+    private final int[][] supWords;
+    private final long[][] supBits;
+
+    /**
+     * Position, in the supports of each value, of the last word found to intersect {@link #currPos}
+     */
+    private final int[] residues;
+
+    private final IIntDeltaMonitor[] monitors;
+    private final UnaryIntProcedure<Integer> onValRem;
+    private final TIntArrayList removed;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Create a propagator which ensures that VALUE = TABLE[INDEX-OFFSET] holds.
+     *
+     * @param value  integer variable
+     * @param values array of ints
+     * @param index  integer variable
+     * @param offset int
+     */
+    public PropElementBitset(IntVar value, int[] values, IntVar index, int offset) {
+        super(ArrayUtils.toArray(value, index), PropagatorPriority.BINARY, true);
+        this.values = values;
+        this.offset = offset;
+        this.index = index;
+        this.result = value;
+        this.currPos = new RSparseBitSet(model.getEnvironment(), values.length);
+        this.ids = new TIntIntHashMap(16, .5f, Integer.MIN_VALUE, -1);
+        // counts the non-zero words of the supports of each value
+        TIntArrayList counts = new TIntArrayList();
+        TIntArrayList lastWords = new TIntArrayList();
+        for (int i = 0; i < values.length; i++) {
+            int id = ids.get(values[i]);
+            if (id == -1) {
+                id = counts.size();
+                ids.put(values[i], id);
+                counts.add(0);
+                lastWords.add(-1);
+            }
+            if (lastWords.getQuick(id) != i >>> 6) {
+                lastWords.setQuick(id, i >>> 6);
+                counts.setQuick(id, counts.getQuick(id) + 1);
+            }
+        }
+        int nbIds = counts.size();
+        this.supWords = new int[nbIds][];
+        this.supBits = new long[nbIds][];
+        this.residues = new int[nbIds];
+        for (int id = 0; id < nbIds; id++) {
+            supWords[id] = new int[counts.getQuick(id)];
+            supBits[id] = new long[counts.getQuick(id)];
+        }
+        int[] sizes = new int[nbIds];
+        for (int i = 0; i < values.length; i++) {
+            int id = ids.get(values[i]);
+            int w = i >>> 6;
+            int k = sizes[id] - 1;
+            if (k == -1 || supWords[id][k] != w) {
+                k = sizes[id]++;
+                supWords[id][k] = w;
+            }
+            supBits[id][k] |= 1L << (63 - (i & 63));
+        }
+        this.monitors = new IIntDeltaMonitor[]{result.monitorDelta(this), index.monitorDelta(this)};
+        this.removed = new TIntArrayList();
+        this.onValRem = new UnaryIntProcedure<Integer>() {
+            int var;
+
+            @Override
+            public UnaryIntProcedure set(Integer o) {
+                var = o;
+                return this;
+            }
+
+            @Override
+            public void execute(int v) {
+                if (var == 0) {
+                    int id = ids.get(v);
+                    if (id != -1) {
+                        removed.add(id);
+                    }
+                } else {
+                    int i = v - offset;
+                    if (i >= 0 && i < values.length) {
+                        currPos.addToMask(i);
+                    }
+                }
+            }
+        };
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            index.updateBounds(offset, values.length - 1 + offset, this);
+            currPos.clearMask();
+            int iub = index.getUB();
+            for (int i = index.getLB(); i <= iub; i = index.nextValue(i)) {
+                if (result.contains(values[i - offset])) {
+                    currPos.addToMask(i - offset);
+                }
+            }
+            currPos.intersectWithMask();
+            for (int i = index.getLB(); i <= iub; i = index.nextValue(i)) {
+                if (!currPos.contains(i - offset)) {
+                    index.removeValue(i, this);
+                }
+            }
+        }
+        filterResult();
+        monitors[0].unfreeze();
+        monitors[1].unfreeze();
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        currPos.clearMask();
+        monitors[vIdx].freeze();
+        if (vIdx == 0) {
+            removed.resetQuick();
+            monitors[0].forEachRemVal(onValRem.set(0));
+            monitors[0].unfreeze();
+            // the positions of the removed values are no longer valid indices
+            for (int r = removed.size() - 1; r >= 0; r--) {
+                int id = removed.getQuick(r);
+                int[] ws = supWords[id];
+                long[] bits = supBits[id];
+                for (int k = ws.length - 1; k >= 0; k--) {
+                    long w = currPos.word(ws[k]) & bits[k];
+                    while (w != 0L) {
+                        int b = Long.numberOfLeadingZeros(w);
+                        index.removeValue((ws[k] << 6) + b + offset, this);
+                        w &= ~(1L << (63 - b));
+                    }
+                }
+                currPos.addToMask(ws, bits);
+            }
+        } else {
+            monitors[1].forEachRemVal(onValRem.set(1));
+            monitors[1].unfreeze();
+        }
+        currPos.reverseMask();
+        currPos.intersectWithMask();
+        if (currPos.isEmpty()) {
+            fails();
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    /**
+     * Removes the values whose supports do not intersect the current positions anymore
+     */
+    private void filterResult() throws ContradictionException {
+        if (currPos.isEmpty()) {
+            fails();
+        }
+        int ub = result.getUB();
+        for (int v = result.getLB(); v <= ub; v = result.nextValue(v)) {
+            int id = ids.get(v);
+            if (id == -1) {
+                result.removeValue(v, this);
+            } else {
+                int k = residues[id];
+                if ((currPos.word(supWords[id][k]) & supBits[id][k]) == 0L) {
+                    k = currPos.intersectIndex(supWords[id], supBits[id]);
+                    if (k == -1) {
+                        result.removeValue(v, this);
+                    } else {
+                        residues[id] = k;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (index.getUB() < offset || index.getLB() >= offset + values.length) {
+            return ESat.FALSE;
+        }
+        boolean found = false, other = false;
+        int iub = index.getUB();
+        for (int i = index.getLB(); i <= iub && !(found && other); i = index.nextValue(i)) {
+            if (i >= offset && i < values.length + offset && result.contains(values[i - offset])) {
+                found = true;
+                other |= !result.isInstantiated();
+            } else {
+                other = true;
+            }
+        }
+        if (!found) {
+            return ESat.FALSE;
+        }
+        return other ? ESat.UNDEFINED : ESat.TRUE;
+    }
+
+    @Override
+    public boolean why(RuleStore ruleStore, IntVar var, IEventType evt, int value) {
+        return ruleStore.addPropagatorActivationRule(this)
+                | ruleStore.addFullDomainRule((var == result) ? index : result);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(32);
+        sb.append("element(").append(this.result).append(" = ");
+        sb.append(" <");
+        int i = 0;
+        for (; i < Math.min(this.values.length - 1, 5); i++) {
+            sb.append(this.values[i]).append(", ");
+        }
+        if (i == 5 && this.values.length - 1 > 5) sb.append("..., ");
+        sb.append(this.values[values.length - 1]);
+        sb.append("> [").append(this.index).append("])");
+        return sb.toString();
+    }
+}
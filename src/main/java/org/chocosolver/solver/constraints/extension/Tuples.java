@@ -16,11 +16,21 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.IntPredicate;
 
 /**
  * A unique interface to declare tuples for table constraints.
  * Handles both feasible tuples and forbidden tuples.
  * <br/>
+ * Feasible tuples can also be compressed, which avoids expanding a relation to the Cartesian product of its domains:
+ * <ul>
+ *     <li>short tuples: a universal value (see {@link #setUniversalValue(int)}) stands for any value of the variable
+ *     at that position,</li>
+ *     <li>smart tuples (see {@link #addSmart(IntPredicate...)}): each position is a unary constraint,
+ *     for instance a range of values.</li>
+ * </ul>
+ * Compressed tuples are only supported by the <b>CT+</b> table algorithm.
+ * <br/>
  *
  * @author Charles Prud'homme
  * @since 22/04/2014
@@ -35,6 +45,15 @@ public class Tuples {
 	protected final List<int[]> tuples;
 	private int arity;
 	private int[] ranges;
+	/**
+	 * Smart tuples, one unary constraint per position
+	 */
+	private final List<IntPredicate[]> smartTuples;
+	/**
+	 * The universal value, if any
+	 */
+	private int star;
+	private boolean allowUniversalValue;
 
 	//***********************************************************************************
 	// CONSTRUCTOR
@@ -50,6 +69,7 @@ public class Tuples {
     public Tuples(int[][] values, boolean feasible) {
         this.feasible = feasible;
         tuples = new ArrayList<>();
+        smartTuples = new ArrayList<>();
         for(int[] t : values){
             add(t);
         }
@@ -64,6 +84,7 @@ public class Tuples {
 	public Tuples(boolean feasible) {
 		this.feasible = feasible;
 		tuples = new ArrayList<>();
+		smartTuples = new ArrayList<>();
 	}
 
 	/**
@@ -83,7 +104,7 @@ public class Tuples {
 	 * @return an ESat object indicating the entailement of the table over vars and this
 	 */
 	public ESat check(IntVar... vars) {
-		if(nbTuples() == 0){
+		if(nbTuples() == 0 && nbSmartTuples() == 0){
 			return isFeasible()? ESat.FALSE: ESat.TRUE;
 		}
 		if(vars.length != arity){
@@ -101,7 +122,16 @@ public class Tuples {
 			int[] tuple = tuples.get(ti);
 			boolean valid = true;
 			for (int i = 0; i < values.length && valid; i++) {
-				if (tuple[i] != values[i]) valid = false;
+				if (tuple[i] != values[i] && !(allowUniversalValue && tuple[i] == star)) valid = false;
+			}
+			if (valid) {
+				return isFeasible()? ESat.TRUE: ESat.FALSE;
+			}
+		}
+		for (IntPredicate[] tuple : smartTuples) {
+			boolean valid = true;
+			for (int i = 0; i < values.length && valid; i++) {
+				if (!tuple[i].test(values[i])) valid = false;
 			}
 			if (valid) {
 				return isFeasible()? ESat.TRUE: ESat.FALSE;
@@ -117,19 +147,80 @@ public class Tuples {
 	 * @throws org.chocosolver.solver.exception.SolverException if the size of the tuple added does not correspond to a the previous ones (if any).
 	 */
 	public void add(int... tuple) {
-		if (tuples.size() == 0) {
-			arity = tuple.length;
+		checkArity(tuple.length);
+		tuples.add(tuple);
+		for (int i = 0; i < arity; i++) {
+			ranges[i] = Math.min(ranges[i], tuple[i]);
+			ranges[i + arity] = Math.max(ranges[i + arity], tuple[i]);
+		}
+	}
+
+	/**
+	 * Add a smart tuple, that is, a tuple whose i<sup>th</sup> position is a unary constraint
+	 * over the i<sup>th</sup> variable, for instance:
+	 * <pre> {@code
+	 * tuples.addSmart(v -> v == 1, v -> v >= 2 && v <= 5, v -> v != 3);
+	 * }</pre>
+	 * A smart tuple stands for all the tuples it accepts. Smart tuples can only be feasible.
+	 *
+	 * @param tuple a smart tuple
+	 * @throws SolverException if the tuples are forbidden, or if the size of the tuple added does not correspond
+	 *                         to the previous ones (if any)
+	 */
+	public void addSmart(IntPredicate... tuple) {
+		if (!feasible) {
+			throw new SolverException("Smart tuples cannot be forbidden");
+		}
+		checkArity(tuple.length);
+		smartTuples.add(tuple);
+	}
+
+	private void checkArity(int length) {
+		if (tuples.size() == 0 && smartTuples.size() == 0) {
+			arity = length;
 			ranges = new int[2 * arity];
 			Arrays.fill(ranges, 0, arity, Integer.MAX_VALUE);
 			Arrays.fill(ranges, arity, 2 * arity, Integer.MIN_VALUE);
-		} else if (arity != tuple.length) {
+		} else if (arity != length) {
 			throw new SolverException("The given tuple does not match the arity: " + arity);
 		}
-		tuples.add(tuple);
-		for (int i = 0; i < arity; i++) {
-			ranges[i] = Math.min(ranges[i], tuple[i]);
-			ranges[i + arity] = Math.max(ranges[i + arity], tuple[i]);
+	}
+
+	/**
+	 * Declare a value as universal: in a tuple, it stands for any value of the variable at that position.
+	 * Short tuples can only be feasible.
+	 *
+	 * @param star the universal value, it should not belong to the domain of any variable
+	 * @throws SolverException if the tuples are forbidden
+	 */
+	public void setUniversalValue(int star) {
+		if (!feasible) {
+			throw new SolverException("Short tuples cannot be forbidden");
 		}
+		this.star = star;
+		this.allowUniversalValue = true;
+	}
+
+	/**
+	 * @return <tt>true</tt> if a universal value has been declared
+	 */
+	public boolean allowUniversalValue() {
+		return allowUniversalValue;
+	}
+
+	/**
+	 * @return the universal value, only relevant if {@link #allowUniversalValue()} returns <tt>true</tt>
+	 */
+	public int getStarValue() {
+		return star;
+	}
+
+	/**
+	 * @return <tt>true</tt> if these tuples may be compressed, that is,
+	 * if a universal value has been declared or if there is at least one smart tuple
+	 */
+	public boolean isCompressed() {
+		return allowUniversalValue || smartTuples.size() > 0;
 	}
 
 	/**
@@ -173,7 +264,7 @@ public class Tuples {
 	}
 
 	/**
-	 * Return the number of tuples stored
+	 * Return the number of tuples stored, smart tuples excluded
 	 *
 	 * @return number of tuples stored
 	 */
@@ -181,6 +272,22 @@ public class Tuples {
 		return tuples.size();
 	}
 
+	/**
+	 * Return the number of smart tuples stored
+	 *
+	 * @return number of smart tuples stored
+	 */
+	public int nbSmartTuples() {
+		return smartTuples.size();
+	}
+
+	/**
+	 * Return the idx^th smart tuple
+	 */
+	public IntPredicate[] getSmart(int idx) {
+		return smartTuples.get(idx);
+	}
+
 	/**
 	 * Return the idx^th tuple
 	 */
@@ -194,6 +301,9 @@ public class Tuples {
 		for (int i = 0; i < tuples.size(); i++) {
 			st.append(Arrays.toString(tuples.get(i)));
 		}
+		if (smartTuples.size() > 0) {
+			st.append(" + ").append(smartTuples.size()).append(" smart tuples");
+		}
 
 		st.append("}");
 		return st.toString();
@@ -0,0 +1,418 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+
+import java.util.Arrays;
+
+/**
+ * Incremental propagator maintaining GAC on a MDD, based on
+ * "Improving GAC-4 for Table and MDD Constraints", Perez and Régin, CP14 (MDD4R).
+ * <p/>
+ * The (reachable part of the) diagram is unfolded into nodes and edges.
+ * Live edges are maintained in three kinds of reversible sparse sets:
+ * the out-edges of each node, the in-edges of each node and the edges labelled with each value of each variable.
+ * Only the size of a sparse set is trailed, removing an edge swaps it with the last live one.
+ * <br/>
+ * When a value is removed from a variable, the edges it labels are removed.
+ * A node which loses its last out-edge (resp. in-edge) is removed in turn, together with its in-edges
+ * (resp. out-edges).
+ * A value is supported as long as it labels at least one live edge.
+ * Thus, a call only visits the edges which get removed, and the diagram is never traversed from the root again.
+ *
+ * @since 19/10/2026
+ */
+public class PropCompactMDD extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final MultivaluedDecisionDiagram MDD;
+    private final int nvars;
+
+    /**
+     * Tail node, head node and layer of each edge; value of an edge is <code>valOf[e] + offset of its layer</code>
+     */
+    private int[] tail, head, layerOf, valOf;
+    /**
+     * Out-edges per node: edges of node u are stored in <code>outs[outStart[u]..outStart[u+1][</code>,
+     * the first <code>outSize[u]</code> ones are alive. <code>outPos[e]</code> is the position of e in <code>outs</code>.
+     */
+    private int[] outs, outStart, outPos;
+    private IStateInt[] outSize;
+    /**
+     * In-edges per node, same layout as out-edges
+     */
+    private int[] ins, inStart, inPos;
+    private IStateInt[] inSize;
+    /**
+     * Edges per value: edges labelled with the v^th value of the l^th variable are stored in
+     * <code>vals[valStart[l][v]..valStart[l][v+1][</code>, the first <code>valSize[l][v]</code> ones are alive.
+     */
+    private int[] vals, valPos;
+    private int[][] valStart;
+    private IStateInt[][] valSize;
+    /**
+     * Root and terminal nodes
+     */
+    private int root, terminal;
+    /**
+     * Nodes to remove
+     */
+    private int[] stack;
+    private int nbStack;
+    /**
+     * Values, as (layer, index), that lost their last edge
+     */
+    private int[] lostLayer, lostVal;
+    private int nbLost;
+
+    private final IIntDeltaMonitor[] monitors;
+    private final UnaryIntProcedure<Integer> onValRem;
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Create a propagator maintaining GAC based on a MDD.
+     * The MDD can be shared between multiple propagators, no copy is achieved.
+     *
+     * @param MDD  Multi-valued Decision Diagram, stores the solutions
+     * @param VARS the related variables -- the order is important, and need to match the MDD.
+     */
+    public PropCompactMDD(MultivaluedDecisionDiagram MDD, IntVar... VARS) {
+        super(VARS, PropagatorPriority.QUADRATIC, true);
+        this.MDD = MDD;
+        this.nvars = vars.length;
+        unfold();
+        this.monitors = new IIntDeltaMonitor[nvars];
+        for (int i = 0; i < nvars; i++) {
+            monitors[i] = vars[i].monitorDelta(this);
+        }
+        onValRem = new UnaryIntProcedure<Integer>() {
+            int layer;
+
+            @Override
+            public UnaryIntProcedure set(Integer o) {
+                layer = o;
+                return this;
+            }
+
+            @Override
+            public void execute(int v) throws ContradictionException {
+                removeValue(layer, v - MDD.getOffset(layer));
+            }
+        };
+    }
+
+    //***********************************************************************************
+    // INITIALIZATION
+    //***********************************************************************************
+
+    /**
+     * Build nodes and edges of the part of the diagram reachable from the root
+     */
+    private void unfold() {
+        int[] diag = MDD.getDiagram();
+        // 1. number nodes, layer by layer
+        int[] idOf = new int[diag.length];
+        Arrays.fill(idOf, -1);
+        int[] cells = new int[16]; // position of each node in the diagram
+        int[] layerStart = new int[nvars + 2];
+        int nbNodes = 0;
+        idOf[0] = nbNodes;
+        cells[nbNodes++] = 0;
+        int nbEdges = 0;
+        for (int l = 0; l < nvars; l++) {
+            layerStart[l + 1] = nbNodes;
+            int size = MDD.getNodeSize(l);
+            for (int u = layerStart[l]; u < layerStart[l + 1]; u++) {
+                for (int i = 0; i < size; i++) {
+                    int c = diag[cells[u] + i];
+                    if (c != MultivaluedDecisionDiagram.EMPTY) {
+                        nbEdges++;
+                        if (c != MultivaluedDecisionDiagram.TERMINAL && idOf[c] == -1) {
+                            if (nbNodes == cells.length) {
+                                cells = Arrays.copyOf(cells, nbNodes * 3 / 2 + 1);
+                            }
+                            idOf[c] = nbNodes;
+                            cells[nbNodes++] = c;
+                        }
+                    }
+                }
+            }
+        }
+        root = 0;
+        terminal = nbNodes++;
+        layerStart[nvars + 1] = nbNodes;
+        // 2. create edges
+        tail = new int[nbEdges];
+        head = new int[nbEdges];
+        layerOf = new int[nbEdges];
+        valOf = new int[nbEdges];
+        int[] outDeg = new int[nbNodes];
+        int[] inDeg = new int[nbNodes];
+        int[][] valDeg = new int[nvars][];
+        for (int l = 0; l < nvars; l++) {
+            valDeg[l] = new int[MDD.getNodeSize(l)];
+        }
+        int e = 0;
+        for (int l = 0; l < nvars; l++) {
+            int size = MDD.getNodeSize(l);
+            for (int u = layerStart[l]; u < layerStart[l + 1]; u++) {
+                for (int i = 0; i < size; i++) {
+                    int c = diag[cells[u] + i];
+                    if (c != MultivaluedDecisionDiagram.EMPTY) {
+                        tail[e] = u;
+                        head[e] = c == MultivaluedDecisionDiagram.TERMINAL ? terminal : idOf[c];
+                        layerOf[e] = l;
+                        valOf[e] = i;
+                        outDeg[u]++;
+                        inDeg[head[e]]++;
+                        valDeg[l][i]++;
+                        e++;
+                    }
+                }
+            }
+        }
+        // 3. fill sparse sets
+        IEnvironment environment = model.getEnvironment();
+        outs = new int[nbEdges];
+        outPos = new int[nbEdges];
+        outStart = prefixSum(outDeg);
+        ins = new int[nbEdges];
+        inPos = new int[nbEdges];
+        inStart = prefixSum(inDeg);
+        vals = new int[nbEdges];
+        valPos = new int[nbEdges];
+        valStart = new int[nvars][];
+        int from = 0;
+        for (int l = 0; l < nvars; l++) {
+            valStart[l] = prefixSum(valDeg[l]);
+            for (int i = 0; i < valStart[l].length; i++) {
+                valStart[l][i] += from;
+            }
+            from = valStart[l][valStart[l].length - 1];
+        }
+        int[] outNext = Arrays.copyOf(outStart, nbNodes);
+        int[] inNext = Arrays.copyOf(inStart, nbNodes);
+        int[][] valNext = new int[nvars][];
+        for (int l = 0; l < nvars; l++) {
+            valNext[l] = Arrays.copyOf(valStart[l], valDeg[l].length);
+        }
+        for (e = 0; e < nbEdges; e++) {
+            outPos[e] = outNext[tail[e]]++;
+            outs[outPos[e]] = e;
+            inPos[e] = inNext[head[e]]++;
+            ins[inPos[e]] = e;
+            valPos[e] = valNext[layerOf[e]][valOf[e]]++;
+            vals[valPos[e]] = e;
+        }
+        outSize = new IStateInt[nbNodes];
+        inSize = new IStateInt[nbNodes];
+        for (int u = 0; u < nbNodes; u++) {
+            outSize[u] = environment.makeInt(outDeg[u]);
+            inSize[u] = environment.makeInt(inDeg[u]);
+        }
+        valSize = new IStateInt[nvars][];
+        for (int l = 0; l < nvars; l++) {
+            valSize[l] = new IStateInt[valDeg[l].length];
+            for (int i = 0; i < valDeg[l].length; i++) {
+                valSize[l][i] = environment.makeInt(valDeg[l][i]);
+            }
+        }
+        // a node is pushed at most once when it loses its last in-edge, once when it loses its last out-edge
+        // and once when looking for dead-ends
+        stack = new int[3 * nbNodes];
+        int nbValues = 0;
+        for (int l = 0; l < nvars; l++) {
+            nbValues += valDeg[l].length;
+        }
+        lostLayer = new int[nbValues];
+        lostVal = new int[nbValues];
+    }
+
+    private static int[] prefixSum(int[] degrees) {
+        int[] start = new int[degrees.length + 1];
+        for (int i = 0; i < degrees.length; i++) {
+            start[i + 1] = start[i] + degrees[i];
+        }
+        return start;
+    }
+
+    //***********************************************************************************
+    // FILTERING
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            // a previous call may have been interrupted by a failure
+            nbStack = nbLost = 0;
+            // remove dead-ends, if any
+            for (int u = 0; u < outSize.length; u++) {
+                if ((u != terminal && outSize[u].get() == 0) || (u != root && inSize[u].get() == 0)) {
+                    push(u);
+                }
+            }
+            removeNodes();
+            // remove edges labelled with values out of domains
+            for (int l = 0; l < nvars; l++) {
+                int o = MDD.getOffset(l);
+                for (int i = 0; i < valSize[l].length; i++) {
+                    if (valSize[l][i].get() > 0 && !vars[l].contains(i + o)) {
+                        removeValue(l, i);
+                    }
+                }
+            }
+            // remove values without edges
+            for (int l = 0; l < nvars; l++) {
+                int o = MDD.getOffset(l);
+                int ub = vars[l].getUB();
+                for (int v = vars[l].getLB(); v <= ub; v = vars[l].nextValue(v)) {
+                    int i = v - o;
+                    if (i < 0 || i >= valSize[l].length || valSize[l][i].get() == 0) {
+                        vars[l].removeValue(v, this);
+                    }
+                }
+            }
+            nbLost = 0;
+            for (int i = 0; i < nvars; i++) {
+                monitors[i].unfreeze();
+            }
+        }
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        // a previous call may have been interrupted by a failure
+        nbStack = nbLost = 0;
+        monitors[vIdx].freeze();
+        monitors[vIdx].forEachRemVal(onValRem.set(vIdx));
+        monitors[vIdx].unfreeze();
+        filter();
+    }
+
+    /**
+     * Remove the values which lost their last edge
+     */
+    private void filter() throws ContradictionException {
+        if (outSize[root].get() == 0) {
+            fails();
+        }
+        for (int k = 0; k < nbLost; k++) {
+            // the value may have been removed by a previous call
+            vars[lostLayer[k]].removeValue(lostVal[k] + MDD.getOffset(lostLayer[k]), this);
+        }
+        nbLost = 0;
+    }
+
+    /**
+     * Remove the edges labelled with the i^th value of the l^th variable, and the nodes which become unreachable
+     */
+    private void removeValue(int l, int i) {
+        if (i >= 0 && i < valSize[l].length) {
+            IStateInt size = valSize[l][i];
+            int start = valStart[l][i];
+            while (size.get() > 0) {
+                removeEdge(vals[start + size.get() - 1]);
+            }
+            removeNodes();
+        }
+    }
+
+    private void removeNodes() {
+        while (nbStack > 0) {
+            int u = stack[--nbStack];
+            int start = inStart[u];
+            while (inSize[u].get() > 0) {
+                removeEdge(ins[start + inSize[u].get() - 1]);
+            }
+            start = outStart[u];
+            while (outSize[u].get() > 0) {
+                removeEdge(outs[start + outSize[u].get() - 1]);
+            }
+        }
+    }
+
+    /**
+     * Remove a live edge from the three sparse sets it belongs to
+     */
+    private void removeEdge(int e) {
+        int u = tail[e];
+        if (remove(e, outs, outPos, outStart[u], outSize[u]) == 0 && u != root) {
+            push(u);
+        }
+        int w = head[e];
+        if (remove(e, ins, inPos, inStart[w], inSize[w]) == 0 && w != terminal) {
+            push(w);
+        }
+        int l = layerOf[e];
+        int i = valOf[e];
+        if (remove(e, vals, valPos, valStart[l][i], valSize[l][i]) == 0) {
+            lostLayer[nbLost] = l;
+            lostVal[nbLost++] = i;
+        }
+    }
+
+    /**
+     * Swap <i>e</i> with the last live element of the sparse set and decrease its size
+     *
+     * @return the new size of the sparse set
+     */
+    private static int remove(int e, int[] elts, int[] pos, int start, IStateInt size) {
+        int last = start + size.get() - 1;
+        int p = pos[e];
+        int f = elts[last];
+        elts[p] = f;
+        pos[f] = p;
+        elts[last] = e;
+        pos[e] = last;
+        return size.add(-1);
+    }
+
+    private void push(int u) {
+        stack[nbStack++] = u;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            int[] diag = MDD.getDiagram();
+            int l = 0;
+            int n = vars[l].getValue() - MDD.getOffset(l);
+            if (n < 0 || n >= MDD.getNodeSize(l)) {
+                return ESat.FALSE;
+            }
+            while (l < nvars - 1 && diag[n] > 0) {
+                l++;
+                int i = vars[l].getValue() - MDD.getOffset(l);
+                if (i < 0 || i >= MDD.getNodeSize(l)) {
+                    return ESat.FALSE;
+                }
+                n = diag[n] + i;
+            }
+            return ESat.eval(l == nvars - 1 && diag[n] == MultivaluedDecisionDiagram.TERMINAL);
+        }
+        return ESat.UNDEFINED;
+    }
+}
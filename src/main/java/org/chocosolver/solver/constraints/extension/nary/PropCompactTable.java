@@ -8,9 +8,6 @@
  */
 package org.chocosolver.solver.constraints.extension.nary;
 
-import org.chocosolver.memory.IEnvironment;
-import org.chocosolver.memory.IStateInt;
-import org.chocosolver.memory.IStateLong;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.extension.Tuples;
@@ -21,10 +18,17 @@ import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.procedure.UnaryIntProcedure;
 
+import java.util.function.IntPredicate;
+
 /**
  * Propagator for table constraint based on
  * "Compact-Table: Efficiently Filtering Table Constraints with Reversible Sparse Bit-Sets"
- * Only for feasible Tuples
+ * Only for feasible Tuples.
+ * <br/>
+ * Compressed tuples are supported as in "Extending Compact-Table to Negative and Short Tables", Verhaeghe et al., AAAI'17:
+ * a tuple with a universal value (or a unary constraint) at position i supports several values of the i<sup>th</sup>
+ * variable, so incremental updates only rely on the tuples that support a removed value <i>strictly</i>.
+ * A variable for which some tuple accepts more than one value, but not all values, is always updated by reset.
  *
  * @author Jean-Guillaume FAGES
  * @since 28/04/2016
@@ -38,6 +42,15 @@ public class PropCompactTable extends Propagator<IntVar> {
     private RSparseBitSet currTable;
     private Tuples tuples;
     private long[][][] supports;
+    /**
+     * Tuples which support a value and no other value of the variable,
+     * same as {@link #supports} when the tuples are not compressed
+     */
+    private long[][][] supportsShort;
+    /**
+     * Set to <tt>true</tt> for variables whose removed values cannot be processed incrementally
+     */
+    private boolean[] resetOnly;
     private int[][] residues;
     private int[] offset;
     private IIntDeltaMonitor[] monitors;
@@ -71,7 +84,7 @@ public class PropCompactTable extends Propagator<IntVar> {
             }
             @Override
             public void execute(int i) throws ContradictionException {
-                currTable.addToMask(supports[var][i - off]);
+                currTable.addToMask(supportsShort[var][i - off]);
             }
         };
     }
@@ -82,17 +95,43 @@ public class PropCompactTable extends Propagator<IntVar> {
 
     private void copyValidTuples(Tuples tuples) {
         this.tuples = new Tuples(tuples.isFeasible());
+        boolean star = tuples.allowUniversalValue();
+        if (star) {
+            this.tuples.setUniversalValue(tuples.getStarValue());
+        }
         for (int ti = 0; ti < tuples.nbTuples(); ti++) {
             int[] tuple = tuples.get(ti);
             boolean valid = true;
             for (int i = 0; i < vars.length && valid; i++) {
-                if (!vars[i].contains(tuple[i])) valid = false;
+                if (!vars[i].contains(tuple[i]) && !(star && tuple[i] == tuples.getStarValue())) valid = false;
             }
             if (valid) {
                 this.tuples.add(tuple);
             }
         }
-        currTable = new RSparseBitSet(model.getEnvironment(), this.tuples.nbTuples());
+        for (int ti = 0; ti < tuples.nbSmartTuples(); ti++) {
+            IntPredicate[] tuple = tuples.getSmart(ti);
+            boolean valid = true;
+            for (int i = 0; i < vars.length && valid; i++) {
+                valid = nbAccepted(i, tuple[i]) > 0;
+            }
+            if (valid) {
+                this.tuples.addSmart(tuple);
+            }
+        }
+        currTable = new RSparseBitSet(model.getEnvironment(), this.tuples.nbTuples() + this.tuples.nbSmartTuples());
+    }
+
+    /**
+     * @return the number of values of the i<sup>th</sup> variable accepted by <i>pred</i>
+     */
+    private int nbAccepted(int i, IntPredicate pred) {
+        int nb = 0;
+        int ub = vars[i].getUB();
+        for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+            if (pred.test(v)) nb++;
+        }
+        return nb;
     }
 
     private void computeSupports() {
@@ -100,18 +139,31 @@ public class PropCompactTable extends Propagator<IntVar> {
         offset = new int[n];
         supports = new long[n][][];
         residues = new int[n][];
+        boolean compressed = tuples.isCompressed();
+        supportsShort = compressed ? new long[n][][] : supports;
+        resetOnly = new boolean[n];
+        int star = tuples.getStarValue();
+        int nbT = tuples.nbTuples();
         for (int i = 0; i < n; i++) {
             int lb = vars[i].getLB();
             int ub = vars[i].getUB();
             offset[i] = lb;
             supports[i] = new long[ub - lb + 1][currTable.words.length];
             residues[i] = new int[ub - lb + 1];
+            if (compressed) {
+                supportsShort[i] = new long[ub - lb + 1][currTable.words.length];
+            }
             for (int v=lb ; v<=ub; v=vars[i].nextValue(v)) {
                 long[] tmp = supports[i][v - lb];
+                long[] tmpS = supportsShort[i][v - lb];
                 int wI = 0;
                 int bI = 63;
-                for (int ti = 0; ti < tuples.nbTuples(); ti++) {
-                    if (tuples.get(ti)[i] == v) {
+                for (int ti = 0; ti < nbT; ti++) {
+                    int tv = tuples.get(ti)[i];
+                    if (tv == v) {
+                        tmp[wI] |= 1L << (bI);
+                        tmpS[wI] |= 1L << (bI);
+                    } else if (compressed && tuples.allowUniversalValue() && tv == star) {
                         tmp[wI] |= 1L << (bI);
                     }
                     bI--;
@@ -121,6 +173,23 @@ public class PropCompactTable extends Propagator<IntVar> {
                     }
                 }
             }
+            // smart tuples come after the others
+            int size = vars[i].getDomainSize();
+            for (int ti = 0; ti < tuples.nbSmartTuples(); ti++) {
+                IntPredicate pred = tuples.getSmart(ti)[i];
+                int nb = nbAccepted(i, pred);
+                resetOnly[i] |= nb > 1 && nb < size;
+                int wI = (nbT + ti) / 64;
+                long bit = 1L << (63 - (nbT + ti) % 64);
+                for (int v = lb; v <= ub; v = vars[i].nextValue(v)) {
+                    if (pred.test(v)) {
+                        supports[i][v - lb][wI] |= bit;
+                        if (nb == 1) {
+                            supportsShort[i][v - lb][wI] |= bit;
+                        }
+                    }
+                }
+            }
         }
     }
 
@@ -150,7 +219,7 @@ public class PropCompactTable extends Propagator<IntVar> {
     public void propagate(int vIdx, int mask) throws ContradictionException {
         currTable.clearMask();
 		monitors[vIdx].freeze();
-        if (vars[vIdx].getDomainSize()>monitors[vIdx].sizeApproximation()) {
+        if (!resetOnly[vIdx] && vars[vIdx].getDomainSize()>monitors[vIdx].sizeApproximation()) {
             monitors[vIdx].forEachRemVal(onValRem.set(vIdx));
             currTable.reverseMask();
         } else {
@@ -235,78 +304,4 @@ public class PropCompactTable extends Propagator<IntVar> {
 		// TODO optim : check current according to currTable?
         return tuples.check(vars);
     }
-
-    //***********************************************************************************
-   	// RSparseBitSet
-   	//***********************************************************************************
-
-    private class RSparseBitSet {
-        private IStateLong[] words;
-        private int[] index;
-        private IStateInt limit;
-        private long[] mask;
-
-		private RSparseBitSet(IEnvironment environment, int nbBits) {
-            int nw = nbBits / 64;
-            if (nw * 64 < nbBits) nw++;
-            index = new int[nw];
-            mask = new long[nw];
-            limit = environment.makeInt(nw - 1);
-            words = new IStateLong[nw];
-            for (int i = 0; i < nw; i++) {
-                index[i] = i;
-                words[i] = environment.makeLong(-1L);
-            }
-        }
-
-		private boolean isEmpty() {
-            return limit.get() == -1;
-        }
-
-		private void clearMask() {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                mask[offset] = 0L;
-            }
-        }
-
-		private void reverseMask() {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                mask[offset] = ~mask[offset];
-            }
-        }
-
-		private void addToMask(long[] wordsToAdd) {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                mask[offset] = mask[offset] | wordsToAdd[offset];
-            }
-        }
-
-		private void intersectWithMask() {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                long w = words[offset].get() & mask[offset];
-                if (words[offset].get() != w) {
-                    words[offset].set(w);
-                    if (w == 0L) {
-                        index[i] = index[limit.get()];
-                        index[limit.get()] = offset;
-                        limit.add(-1);
-                    }
-                }
-            }
-        }
-
-		private int intersectIndex(long[] m) {
-            for (int i = limit.get(); i >= 0; i--) {
-                int offset = index[i];
-                if ((words[offset].get() & m[offset]) != 0L) {
-                    return offset;
-                }
-            }
-            return -1;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,258 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for table constraint based on
+ * "Extending Compact-Table to Negative and Short Tables", Verhaeghe et al., AAAI'17.
+ * Only for infeasible Tuples.
+ * <br/>
+ * The reversible sparse bit-set stores the forbidden tuples which are still valid, that is,
+ * whose values all belong to the current domains.
+ * A value (x,a) has no support as soon as every valid tuple with x = a is forbidden, that is, when
+ * the number of forbidden tuples in <i>currTable</i> &cap; <i>supports[x][a]</i>, counted word by word,
+ * reaches the product of the domain sizes of the other variables.
+ *
+ * @since 19/10/2026
+ */
+public class PropCompactTableNeg extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private RSparseBitSet currTable;
+    private Tuples tuples;
+    private long[][][] supports;
+    /**
+     * Initial number of forbidden tuples per value
+     */
+    private int[][] nbSupports;
+    private int[] offset;
+    private IIntDeltaMonitor[] monitors;
+    private UnaryIntProcedure<Integer> onValRem;
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Create a propagator for table constraint
+     * Only for infeasible Tuples
+     *
+     * @param vars   scope
+     * @param tuples list of infeasible tuples
+     */
+    public PropCompactTableNeg(IntVar[] vars, Tuples tuples) {
+        super(vars, PropagatorPriority.QUADRATIC, true);
+        copyValidTuples(tuples);
+        computeSupports();
+        monitors = new IIntDeltaMonitor[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            monitors[i] = vars[i].monitorDelta(this);
+        }
+        onValRem = new UnaryIntProcedure<Integer>() {
+            int var, off;
+
+            @Override
+            public UnaryIntProcedure set(Integer o) {
+                var = o;
+                off = offset[var];
+                return this;
+            }
+
+            @Override
+            public void execute(int i) throws ContradictionException {
+                currTable.addToMask(supports[var][i - off]);
+            }
+        };
+    }
+
+    //***********************************************************************************
+    // INITIALIZATION
+    //***********************************************************************************
+
+    /**
+     * Keep the tuples which fit the initial domains, without duplicates (otherwise, they would be counted twice)
+     */
+    private void copyValidTuples(Tuples tuples) {
+        Tuples valid = new Tuples(tuples.isFeasible());
+        for (int ti = 0; ti < tuples.nbTuples(); ti++) {
+            int[] tuple = tuples.get(ti);
+            boolean ok = true;
+            for (int i = 0; i < vars.length && ok; i++) {
+                if (!vars[i].contains(tuple[i])) ok = false;
+            }
+            if (ok) {
+                valid.add(tuple);
+            }
+        }
+        valid.sort();
+        this.tuples = new Tuples(tuples.isFeasible());
+        int[] previous = null;
+        for (int ti = 0; ti < valid.nbTuples(); ti++) {
+            int[] tuple = valid.get(ti);
+            if (previous == null || !Arrays.equals(previous, tuple)) {
+                this.tuples.add(tuple);
+            }
+            previous = tuple;
+        }
+        currTable = new RSparseBitSet(model.getEnvironment(), this.tuples.nbTuples());
+    }
+
+    private void computeSupports() {
+        int n = vars.length;
+        offset = new int[n];
+        supports = new long[n][][];
+        nbSupports = new int[n][];
+        for (int i = 0; i < n; i++) {
+            int lb = vars[i].getLB();
+            int ub = vars[i].getUB();
+            offset[i] = lb;
+            supports[i] = new long[ub - lb + 1][currTable.words.length];
+            nbSupports[i] = new int[ub - lb + 1];
+        }
+        for (int ti = 0; ti < tuples.nbTuples(); ti++) {
+            int[] tuple = tuples.get(ti);
+            for (int i = 0; i < n; i++) {
+                supports[i][tuple[i] - offset[i]][ti / 64] |= 1L << (63 - ti % 64);
+                nbSupports[i][tuple[i] - offset[i]]++;
+            }
+        }
+    }
+
+    //***********************************************************************************
+    // FILTERING
+    //***********************************************************************************
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < vars.length; i++) {
+                resetTable(i);
+            }
+        }
+        filterDomains();
+        for (int i = 0; i < vars.length; i++) {
+            monitors[i].unfreeze();
+        }
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        currTable.clearMask();
+        monitors[vIdx].freeze();
+        if (vars[vIdx].getDomainSize() > monitors[vIdx].sizeApproximation()) {
+            monitors[vIdx].forEachRemVal(onValRem.set(vIdx));
+            currTable.reverseMask();
+        } else {
+            int ub = vars[vIdx].getUB();
+            for (int v = vars[vIdx].getLB(); v <= ub; v = vars[vIdx].nextValue(v)) {
+                currTable.addToMask(supports[vIdx][v - offset[vIdx]]);
+            }
+        }
+        currTable.intersectWithMask();
+        monitors[vIdx].unfreeze();
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    /**
+     * Keep in currTable the tuples whose i^th value is in the domain of the i^th variable
+     */
+    private void resetTable(int i) {
+        currTable.clearMask();
+        int ub = vars[i].getUB();
+        for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+            currTable.addToMask(supports[i][v - offset[i]]);
+        }
+        currTable.intersectWithMask();
+    }
+
+    private void filterDomains() throws ContradictionException {
+        boolean change = true;
+        while (change && !currTable.isEmpty()) {
+            change = false;
+            int card = currTable.cardinality();
+            for (int i = 0; i < vars.length && !currTable.isEmpty(); i++) {
+                long others = nbTuplesOthers(i, card);
+                // otherwise, there are more valid tuples than forbidden ones: every value is supported
+                if (others <= card) {
+                    boolean removed = vars[i].hasEnumeratedDomain() ? enumFilter(i, (int) others) : boundFilter(i, (int) others);
+                    if (removed) {
+                        // own removals are not notified back, the tuples they invalidate are removed here
+                        resetTable(i);
+                        card = currTable.cardinality();
+                        change = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of valid tuples when the i^th variable is fixed, that is, the product of the domain sizes
+     * of the other variables, or <i>bound</i> + 1 if it exceeds <i>bound</i>
+     */
+    private long nbTuplesOthers(int i, int bound) {
+        long p = 1;
+        for (int j = 0; j < vars.length && p <= bound; j++) {
+            if (j != i) {
+                p *= vars[j].getDomainSize();
+            }
+        }
+        return Math.min(p, bound + 1L);
+    }
+
+    private boolean isForbidden(int i, int v, int others) {
+        return nbSupports[i][v - offset[i]] >= others
+                && currTable.intersectCount(supports[i][v - offset[i]]) == others;
+    }
+
+    private boolean enumFilter(int i, int others) throws ContradictionException {
+        boolean removed = false;
+        int ub = vars[i].getUB();
+        for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+            if (isForbidden(i, v, others)) {
+                removed |= vars[i].removeValue(v, this);
+            }
+        }
+        return removed;
+    }
+
+    private boolean boundFilter(int i, int others) throws ContradictionException {
+        int lb = vars[i].getLB();
+        int ub = vars[i].getUB();
+        while (lb <= ub && isForbidden(i, lb, others)) {
+            lb++;
+        }
+        while (ub >= lb && isForbidden(i, ub, others)) {
+            ub--;
+        }
+        boolean removed = vars[i].updateLowerBound(lb, this);
+        removed |= vars[i].updateUpperBound(ub, this);
+        return removed;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        return tuples.check(vars);
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.extension.nary;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+
+/**
+ * Reversible sparse bit-set, as described in
+ * "Compact-Table: Efficiently Filtering Table Constraints with Reversible Sparse Bit-Sets".
+ * Bit <i>t</i> is stored in word <i>t / 64</i>, at position <i>63 - t % 64</i>.
+ * Only the non-zero words are iterated over, they are indexed in <i>index[0..limit]</i>.
+ * <br/>
+ * Masks can also be given sparsely, as a set of bits or as the list of their non-zero words,
+ * so that a small mask over a large bit-set is processed in time proportional to its size.
+ *
+ * @author Jean-Guillaume FAGES
+ * @since 28/04/2016
+ */
+public class RSparseBitSet {
+    IStateLong[] words;
+    private int[] index;
+    private IStateInt limit;
+    private long[] mask;
+
+    /**
+     * Creates a reversible sparse bit-set with all its bits set
+     *
+     * @param environment the environment
+     * @param nbBits      number of bits
+     */
+    public RSparseBitSet(IEnvironment environment, int nbBits) {
+        int nw = nbBits / 64;
+        if (nw * 64 < nbBits) nw++;
+        index = new int[nw];
+        mask = new long[nw];
+        limit = environment.makeInt(nw - 1);
+        words = new IStateLong[nw];
+        for (int i = 0; i < nw; i++) {
+            index[i] = i;
+            // the trailing bits of the last word do not match any tuple
+            words[i] = environment.makeLong(i < nw - 1 ? -1L : -1L << (nw * 64 - nbBits));
+        }
+    }
+
+    public boolean isEmpty() {
+        return limit.get() == -1;
+    }
+
+    public void clearMask() {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            mask[offset] = 0L;
+        }
+    }
+
+    public void reverseMask() {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            mask[offset] = ~mask[offset];
+        }
+    }
+
+    public void addToMask(long[] wordsToAdd) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            mask[offset] = mask[offset] | wordsToAdd[offset];
+        }
+    }
+
+    public void intersectWithMask() {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            long w = words[offset].get() & mask[offset];
+            if (words[offset].get() != w) {
+                words[offset].set(w);
+                if (w == 0L) {
+                    index[i] = index[limit.get()];
+                    index[limit.get()] = offset;
+                    limit.add(-1);
+                }
+            }
+        }
+    }
+
+    public int intersectIndex(long[] m) {
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            if ((words[offset].get() & m[offset]) != 0L) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of bits set
+     */
+    public int cardinality() {
+        int card = 0;
+        for (int i = limit.get(); i >= 0; i--) {
+            card += Long.bitCount(words[index[i]].get());
+        }
+        return card;
+    }
+
+    /**
+     * @param m a mask
+     * @return the number of bits set both in this and in <i>m</i>
+     */
+    public int intersectCount(long[] m) {
+        int card = 0;
+        for (int i = limit.get(); i >= 0; i--) {
+            int offset = index[i];
+            card += Long.bitCount(words[offset].get() & m[offset]);
+        }
+        return card;
+    }
+
+    /**
+     * @param bit a bit
+     * @return <tt>true</tt> if <i>bit</i> is set
+     */
+    public boolean contains(int bit) {
+        return (words[bit >>> 6].get() & (1L << (63 - (bit & 63)))) != 0L;
+    }
+
+    /**
+     * @param w a word index
+     * @return the current value of the w<sup>th</sup> word
+     */
+    public long word(int w) {
+        return words[w].get();
+    }
+
+    /**
+     * Adds a single bit to the mask
+     *
+     * @param bit the bit to add
+     */
+    public void addToMask(int bit) {
+        mask[bit >>> 6] |= 1L << (63 - (bit & 63));
+    }
+
+    /**
+     * Adds a sparse mask to the mask: <i>bits[k]</i> is the value of the word <i>ws[k]</i>, the other words are empty
+     *
+     * @param ws   indices of the non-zero words of the sparse mask
+     * @param bits values of the non-zero words of the sparse mask
+     */
+    public void addToMask(int[] ws, long[] bits) {
+        for (int k = ws.length - 1; k >= 0; k--) {
+            mask[ws[k]] |= bits[k];
+        }
+    }
+
+    /**
+     * @param ws   indices of the non-zero words of a sparse mask
+     * @param bits values of the non-zero words of the sparse mask
+     * @return a position <i>k</i> such that this intersects <i>bits[k]</i> on the word <i>ws[k]</i>,
+     * or -1 if this does not intersect the sparse mask
+     */
+    public int intersectIndex(int[] ws, long[] bits) {
+        for (int k = ws.length - 1; k >= 0; k--) {
+            if ((words[ws[k]].get() & bits[k]) != 0L) {
+                return k;
+            }
+        }
+        return -1;
+    }
+}
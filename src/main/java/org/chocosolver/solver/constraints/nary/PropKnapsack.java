@@ -8,6 +8,7 @@
  */
 package org.chocosolver.solver.constraints.nary;
 
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -15,13 +16,25 @@ import org.chocosolver.solver.explanations.RuleStore;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.sort.ArraySort;
 import org.chocosolver.util.tools.ArrayUtils;
+import org.chocosolver.util.tools.MathUtils;
+
+import java.util.Arrays;
 
 /**
  * Propagator for the Knapsack constraint
  * based on Dantzig-Wolfe relaxation
+ * <br/>
+ * Items are sorted by decreasing efficiency (energy / weight).
+ * The free weight and energy of each item, that is, weight * (UB - LB) and energy * (UB - LB), are stored
+ * by rank in Fenwick trees, so that the critical item of the LP relaxation is found in O(log n)
+ * and bound changes are handled in O(log n).
+ * Items are then filtered by reduced-cost reasoning: the LP bound decreases by at least
+ * |energy - ratio(critical) * weight| per unit an item is moved away from its LP value.
+ * Known bounds are recorded on a trail, which is undone lazily upon backtrack.
  *
  * @author Jean-Guillaume Fages
  */
@@ -35,6 +48,34 @@ public class PropKnapsack extends Propagator<IntVar> {
     private double[] ratio;
     private int n;
     private IntVar capacity, power;
+    /**
+     * Rank of each item in order
+     */
+    private int[] rank;
+    /**
+     * Bounds of the items known by the data structure
+     */
+    private int[] lbs, ubs;
+    /**
+     * Weight and energy of the items at their lower bound
+     */
+    private long lbWeight, lbEnergy;
+    /**
+     * Fenwick trees over the ranks, summing the free weight and energy of the items
+     */
+    private long[] freeWeight, freeEnergy;
+    /**
+     * Previous bounds of the items, as triplets (item, lb, ub).
+     * Only the first <i>trailSize</i> ones are valid in the current state
+     */
+    private int[] trail;
+    private int top;
+    private IStateInt trailSize;
+    /**
+     * Items which are not instantiated are in free[0..nbFree-1]
+     */
+    private int[] free, position;
+    private IStateInt nbFree;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -42,7 +83,7 @@ public class PropKnapsack extends Propagator<IntVar> {
 
     public PropKnapsack(IntVar[] itemOccurence, IntVar capacity, IntVar power,
                         int[] weight, int[] energy) {
-        super(ArrayUtils.append(itemOccurence, new IntVar[]{capacity, power}), PropagatorPriority.LINEAR, false);
+        super(ArrayUtils.append(itemOccurence, new IntVar[]{capacity, power}), PropagatorPriority.LINEAR, true);
         this.weigth = weight;
         this.energy = energy;
         this.n = itemOccurence.length;
@@ -56,6 +97,77 @@ public class PropKnapsack extends Propagator<IntVar> {
         this.order = ArrayUtils.array(0,n-1);
         ArraySort sorter = new ArraySort(n,false,true);
         sorter.sort(order, n, (i1, i2) -> {return Double.compare(ratio[i2],ratio[i1]);});
+        this.rank = new int[n];
+        for (int r = 0; r < n; r++) {
+            rank[order[r]] = r;
+        }
+        this.lbs = new int[n];
+        this.ubs = new int[n];
+        this.freeWeight = new long[n + 1];
+        this.freeEnergy = new long[n + 1];
+        this.trail = new int[3 * n];
+        this.trailSize = model.getEnvironment().makeInt(0);
+        this.free = ArrayUtils.array(0, n - 1);
+        this.position = ArrayUtils.array(0, n - 1);
+        this.nbFree = model.getEnvironment().makeInt(n);
+    }
+
+    //***********************************************************************************
+    // DATA STRUCTURE
+    //***********************************************************************************
+
+    /**
+     * Sets the known bounds of item <i>i</i> to [<i>lb</i>, <i>ub</i>]
+     */
+    private void set(int i, int lb, int ub) {
+        long dlb = lb - lbs[i];
+        long dfree = (ub - lb) - (ubs[i] - lbs[i]);
+        lbWeight += dlb * weigth[i];
+        lbEnergy += dlb * energy[i];
+        for (int k = rank[i] + 1; k <= n; k += k & -k) {
+            freeWeight[k] += dfree * weigth[i];
+            freeEnergy[k] += dfree * energy[i];
+        }
+        lbs[i] = lb;
+        ubs[i] = ub;
+    }
+
+    /**
+     * Synchronizes the known bounds of item <i>i</i> with its domain
+     */
+    private void update(int i) {
+        int lb = vars[i].getLB();
+        int ub = vars[i].getUB();
+        if (lb != lbs[i] || ub != ubs[i]) {
+            if (top == trail.length) {
+                trail = Arrays.copyOf(trail, trail.length * 2);
+            }
+            trail[top++] = i;
+            trail[top++] = lbs[i];
+            trail[top++] = ubs[i];
+            trailSize.set(top);
+            set(i, lb, ub);
+            if (lb == ub) {
+                int last = free[nbFree.get() - 1];
+                int p = position[i];
+                free[p] = last;
+                position[last] = p;
+                free[nbFree.get() - 1] = i;
+                position[i] = nbFree.get() - 1;
+                nbFree.add(-1);
+            }
+        }
+    }
+
+    /**
+     * Restores the known bounds of the items modified in the worlds that have been backtracked
+     */
+    private void restore() {
+        int size = trailSize.get();
+        while (top > size) {
+            top -= 3;
+            set(trail[top], trail[top + 1], trail[top + 2]);
+        }
     }
 
     //***********************************************************************************
@@ -69,39 +181,69 @@ public class PropKnapsack extends Propagator<IntVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        int remainingCapacity = capacity.getUB();
-		int maxPower = 0;
-        for (int i = 0; i < n; i++) {
-            remainingCapacity -= weigth[i] * vars[i].getLB();
-            maxPower += energy[i] * vars[i].getLB();
+        restore();
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < n; i++) {
+                update(i);
+            }
         }
-        power.updateLowerBound(maxPower, this);
+        power.updateLowerBound(MathUtils.safeCast(lbEnergy), this);
+        long remainingCapacity = capacity.getUB() - lbWeight;
         if (remainingCapacity < 0) {
             fails();
-        } else {
-            int idx;
-            for (int i = 0; i < n; i++) {
-                assert remainingCapacity >= 0;
-                idx = order[i];
-                if (vars[idx].getUB() - vars[idx].getLB() > 0) {
-					int delta = weigth[idx] * (vars[idx].getUB() - vars[idx].getLB());
-                    if (delta <= remainingCapacity) {
-                        maxPower += energy[idx] * (vars[idx].getUB() - vars[idx].getLB());
-                        remainingCapacity -= delta;
-                        if (remainingCapacity == 0) {
-                            power.updateUpperBound(maxPower, this);
-                            return;
-                        }
-                    } else {
-                        int deltaPow = (int) Math.ceil((double)remainingCapacity * ratio[idx]);
-                        power.updateUpperBound(maxPower + deltaPow, this);
-                        return;
-                    }
-                }
+        }
+        // largest prefix of the sorted items whose free weight fits in the remaining capacity
+        int pos = 0;
+        long maxPower = lbEnergy;
+        for (int step = Integer.highestOneBit(n); step > 0; step >>= 1) {
+            if (pos + step <= n && freeWeight[pos + step] <= remainingCapacity) {
+                pos += step;
+                remainingCapacity -= freeWeight[pos];
+                maxPower += freeEnergy[pos];
+            }
+        }
+        // the LP bound is (maxPower * wc + remainingCapacity * ec) / wc, where c is the critical item
+        long wc = 1, ec = 0;
+        if (pos < n) {
+            wc = weigth[order[pos]];
+            ec = energy[order[pos]];
+        }
+        power.updateUpperBound(MathUtils.safeCast(maxPower + remainingCapacity * ec / wc), this);
+        filterItems((maxPower - power.getLB()) * wc + remainingCapacity * ec, wc, ec);
+        power.updateLowerBound(MathUtils.safeCast(lbEnergy), this);
+    }
+
+    /**
+     * Reduced-cost filtering of the free items
+     *
+     * @param gap gap between the LP bound and the lower bound of the power, multiplied by <i>wc</i>
+     * @param wc  weight of the critical item (1 if none)
+     * @param ec  energy of the critical item (0 if none)
+     */
+    private void filterItems(long gap, long wc, long ec) throws ContradictionException {
+        for (int k = nbFree.get() - 1; k >= 0; k--) {
+            int i = free[k];
+            // reduced cost, multiplied by wc
+            long rc = energy[i] * wc - ec * weigth[i];
+            if (rc > 0 && gap / rc < ubs[i] - lbs[i]) {
+                vars[i].updateLowerBound((int) (ubs[i] - gap / rc), this);
+                update(i);
+            } else if (rc < 0 && gap / -rc < ubs[i] - lbs[i]) {
+                vars[i].updateUpperBound((int) (lbs[i] + gap / -rc), this);
+                update(i);
             }
         }
     }
 
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        restore();
+        if (vIdx < n) {
+            update(vIdx);
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
     @Override
     public ESat isEntailed() {
         double camax = capacity.getUB();
@@ -124,8 +266,10 @@ public class PropKnapsack extends Propagator<IntVar> {
     @Override
     public boolean why(RuleStore ruleStore, IntVar var, IEventType evt, int value) {
         boolean newrules = ruleStore.addPropagatorActivationRule(this);
-        assert var == this.power;
-        if (IntEventType.isInclow(evt.getMask())) {
+        if (var != power) {
+            // reduced-cost filtering of an item
+            newrules |= super.why(ruleStore, var, evt, value);
+        } else if (IntEventType.isInclow(evt.getMask())) {
             for (int i = 0; i < n; i++) {
                 newrules |= ruleStore.addLowerBoundRule(vars[i]);
             }
@@ -13,6 +13,7 @@ import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.alldifferent.algo.AlgoAllDiffAC;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 
 /**
@@ -24,6 +25,8 @@ import org.chocosolver.util.ESat;
  * <p/>
  * Runs incrementally for maintaining a matching
  * <p/>
+ * Only the strongly connected components containing modified variables are repaired and filtered
+ * <p/>
  *
  * @author Jean-Guillaume Fages
  */
@@ -46,8 +49,8 @@ public class PropAllDiffAC extends Propagator<IntVar> {
      * @param variables array of integer variables
      */
     public PropAllDiffAC(IntVar[] variables) {
-        super(variables, PropagatorPriority.QUADRATIC, false);
-        this.filter = new AlgoAllDiffAC(variables, this);
+        super(variables, PropagatorPriority.QUADRATIC, true);
+        this.filter = new AlgoAllDiffAC(variables, this, model.getEnvironment());
     }
 
     //***********************************************************************************
@@ -56,7 +59,17 @@ public class PropAllDiffAC extends Propagator<IntVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        filter.propagate();
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            filter.propagate();
+        } else {
+            filter.propagateTouched();
+        }
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        filter.touch(vIdx);
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     @Override
@@ -9,15 +9,12 @@
 package org.chocosolver.solver.constraints.nary.alldifferent.algo;
 
 import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBitSet;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
-import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinder;
-import org.chocosolver.util.objects.graphs.DirectedGraph;
-import org.chocosolver.util.objects.setDataStructures.ISetIterator;
-import org.chocosolver.util.objects.setDataStructures.SetType;
-
-import java.util.BitSet;
+import org.chocosolver.util.sort.ArraySort;
 
 /**
  * Algorithm of Alldifferent with AC
@@ -28,7 +25,14 @@ import java.util.BitSet;
  * <p/>
  * Keeps track of previous matching for further calls
  * <p/>
- * 
+ * The value graph is not stored: arcs are read from the domains on the fly.
+ * Variables are nodes [0, n), values are nodes [n, n2) and node n2 links free values to matched ones.
+ * <p/>
+ * When built with an environment, the variables are partitioned into reversible blocks, one per strongly connected
+ * component found so far. Since no arc links two blocks after filtering, and removing arcs only splits components,
+ * only the blocks of the variables given to {@link #touch(int)} need to be repaired and split on the next call to
+ * {@link #propagateTouched()}.
+ *
  * @author Jean-Guillaume Fages
  */
 public class AlgoAllDiffAC {
@@ -38,18 +42,28 @@ public class AlgoAllDiffAC {
     //***********************************************************************************
 
     private int n, n2;
-    private DirectedGraph digraph;
     private int[] matching;
-    private int[] nodeSCC;
-    private BitSet free;
-    private StrongConnectivityFinder SCCfinder;
-    // for augmenting matching (BFS)
-    private int[] father;
-    private BitSet in;
+    private int[] matchedVar;
+    private int[] values;
     private TIntIntHashMap map;
-    private int[] fifo;
     private IntVar[] vars;
     private ICause aCause;
+    // for augmenting matching (BFS)
+    private int[] father;
+    private int[] fifo;
+    private int[] visited;
+    private int stamp;
+    // for finding SCCs (Tarjan)
+    private int[] nodeSCC, dfsIndex, lowLink, stack, callStack, next;
+    private boolean[] onStack;
+    private int nbSCC;
+    // blocks of variables, varAt[start..end) where start is a set bit of blockStart (next one is end)
+    private int[] varAt, position;
+    private IStateBitSet blockStart;
+    private int[] touched, starts;
+    private boolean[] isTouched;
+    private int nbTouched;
+    private ArraySort sorter;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -78,12 +92,43 @@ public class AlgoAllDiffAC {
             }
         }
         n2 = idx;
+        values = new int[n2 - n];
+        matchedVar = new int[n2 - n];
+        map.forEachEntry((k, j) -> {
+            values[j - n] = k;
+            matchedVar[j - n] = -1;
+            return true;
+        });
         fifo = new int[n2];
-        digraph = new DirectedGraph(n2 + 1, SetType.BITSET, false);
-        free = new BitSet(n2);
         father = new int[n2];
-        in = new BitSet(n2);
-        SCCfinder = new StrongConnectivityFinder(digraph);
+        visited = new int[n2 + 1];
+        nodeSCC = new int[n2 + 1];
+        dfsIndex = new int[n2 + 1];
+        lowLink = new int[n2 + 1];
+        stack = new int[n2 + 1];
+        callStack = new int[n2 + 1];
+        next = new int[n2 + 1];
+        onStack = new boolean[n2 + 1];
+        varAt = new int[n];
+        position = new int[n];
+        for (int i = 0; i < n; i++) {
+            varAt[i] = position[i] = i;
+        }
+    }
+
+    /**
+     * Creates an algorithm which maintains reversible blocks of variables, to be used with {@link #touch(int)} and
+     * {@link #propagateTouched()}
+     */
+    public AlgoAllDiffAC(IntVar[] variables, ICause cause, IEnvironment environment) {
+        this(variables, cause);
+        blockStart = environment.makeBitSet(n + 1);
+        blockStart.set(0);
+        blockStart.set(n);
+        touched = new int[n];
+        isTouched = new boolean[n];
+        starts = new int[n];
+        sorter = new ArraySort(n, false, true);
     }
 
     //***********************************************************************************
@@ -91,80 +136,132 @@ public class AlgoAllDiffAC {
     //***********************************************************************************
 
     public boolean propagate() throws ContradictionException {
-        findMaximumMatching();
-        return filter();
+        clearTouched();
+        boolean filter = false;
+        if (blockStart == null) {
+            filter = propagate(0, n);
+        } else {
+            int nb = 0;
+            for (int s = 0; s < n; s = blockStart.nextSetBit(s + 1)) {
+                starts[nb++] = s;
+            }
+            for (int b = 0; b < nb; b++) {
+                filter |= propagate(starts[b], blockStart.nextSetBit(starts[b] + 1));
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Records that the domain of the i^th variable has changed since the last call
+     */
+    public void touch(int i) {
+        if (!isTouched[i]) {
+            isTouched[i] = true;
+            touched[nbTouched++] = i;
+        }
+    }
+
+    /**
+     * Only repairs and filters the blocks of the variables recorded with {@link #touch(int)}
+     */
+    public boolean propagateTouched() throws ContradictionException {
+        int nb = 0;
+        stamp++;
+        for (int t = 0; t < nbTouched; t++) {
+            int s = blockStart.prevSetBit(position[touched[t]]);
+            if (visited[s] != stamp) {
+                visited[s] = stamp;
+                starts[nb++] = s;
+            }
+        }
+        clearTouched();
+        boolean filter = false;
+        for (int b = 0; b < nb; b++) {
+            filter |= propagate(starts[b], blockStart.nextSetBit(starts[b] + 1));
+        }
+        return filter;
+    }
+
+    private void clearTouched() {
+        for (int t = 0; t < nbTouched; t++) {
+            isTouched[touched[t]] = false;
+        }
+        nbTouched = 0;
+    }
+
+    private boolean propagate(int start, int end) throws ContradictionException {
+        repairMatching(start, end);
+        findSCC(start, end);
+        boolean filter = filter(start, end);
+        if (blockStart != null) {
+            splitBlock(start, end);
+        }
+        return filter;
     }
 
     //***********************************************************************************
-    // Initialization
+    // Matching
     //***********************************************************************************
 
-    private void findMaximumMatching() throws ContradictionException {
-        for (int i = 0; i < n2; i++) {
-            digraph.getSuccOf(i).clear();
-            digraph.getPredOf(i).clear();
-        }
-        free.set(0, n2);
-        int k, ub;
-        IntVar v;
-        for (int i = 0; i < n; i++) {
-            v = vars[i];
-            ub = v.getUB();
-            int mate = matching[i];
-            for (k = v.getLB(); k <= ub; k = v.nextValue(k)) {
-                int j = map.get(k);
-                if (mate == j) {
-                    assert free.get(i) && free.get(j);
-                    digraph.addArc(j, i);
-                    free.clear(i);
-                    free.clear(j);
-                } else {
-                    digraph.addArc(i, j);
-                }
+    private void repairMatching(int start, int end) throws ContradictionException {
+        for (int p = start; p < end; p++) {
+            int i = varAt[p];
+            if (matching[i] != -1 && !vars[i].contains(values[matching[i] - n])) {
+                matchedVar[matching[i] - n] = -1;
+                matching[i] = -1;
             }
         }
-        for (int i = free.nextSetBit(0); i >= 0 && i < n; i = free.nextSetBit(i + 1)) {
-            tryToMatch(i);
-        }
-        for (int i = 0; i < n; i++) {
-            matching[i] = digraph.getPredOf(i).isEmpty()?-1:digraph.getPredOf(i).iterator().next();
+        for (int p = start; p < end; p++) {
+            if (matching[varAt[p]] == -1) {
+                tryToMatch(varAt[p]);
+            }
         }
     }
 
     private void tryToMatch(int i) throws ContradictionException {
         int mate = augmentPath_BFS(i);
         if (mate != -1) {
-            free.clear(mate);
-            free.clear(i);
-            int tmp = mate;
-            while (tmp != i) {
-                digraph.removeArc(father[tmp], tmp);
-                digraph.addArc(tmp, father[tmp]);
-                tmp = father[tmp];
+            int y = mate;
+            while (true) {
+                int x = father[y];
+                int previous = matching[x];
+                matching[x] = y;
+                matchedVar[y - n] = x;
+                if (x == i) {
+                    break;
+                }
+                y = previous;
             }
         } else {
             vars[0].instantiateTo(vars[0].getLB()-1,aCause);
         }
     }
 
+    /**
+     * @return a free value reachable from variable <i>root</i> through an alternating path, or -1
+     */
     private int augmentPath_BFS(int root) {
-        in.clear();
+        stamp++;
         int indexFirst = 0, indexLast = 0;
         fifo[indexLast++] = root;
-        int x;
-        ISetIterator succs;
         while (indexFirst != indexLast) {
-            x = fifo[indexFirst++];
-            succs = digraph.getSuccOf(x).iterator();
-            while (succs.hasNext()) {
-                int y = succs.nextInt();
-                if (!in.get(y)) {
+            int x = fifo[indexFirst++];
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
+                int y = map.get(k);
+                if (visited[y] != stamp && y != matching[x]) {
+                    visited[y] = stamp;
                     father[y] = x;
-                    fifo[indexLast++] = y;
-                    in.set(y);
-                    if (free.get(y)) {
+                    int z = matchedVar[y - n];
+                    if (z == -1) {
                         return y;
                     }
+                    if (visited[z] != stamp) {
+                        visited[z] = stamp;
+                        fifo[indexLast++] = z;
+                    }
                 }
             }
         }
@@ -175,62 +272,156 @@ public class AlgoAllDiffAC {
     // PRUNING
     //***********************************************************************************
 
-    private void buildSCC() {
-        if (n2 > n * 2) {
-            digraph.removeNode(n2);
-            digraph.addNode(n2);
-            for (int i = n; i < n2; i++) {
-                if (free.get(i)) {
-                    digraph.addArc(i, n2);
-                } else {
-                    digraph.addArc(n2, i);
+    /**
+     * @return the next successor of <i>node</i> in the residual graph of the block [start, end), or -1
+     */
+    private int nextSucc(int node, int start, int end) {
+        if (node < n) {
+            IntVar v = vars[node];
+            int ub = v.getUB();
+            for (int k = next[node]; k <= ub; k = v.nextValue(k)) {
+                int j = map.get(k);
+                if (j != matching[node]) {
+                    next[node] = v.nextValue(k);
+                    return j;
                 }
             }
+            next[node] = Integer.MAX_VALUE;
+            return -1;
+        } else if (node < n2) {
+            if (next[node]++ == 0) {
+                int x = matchedVar[node - n];
+                return x == -1 ? n2 : x;
+            }
+            return -1;
+        } else {
+            // the free values are linked to the values matched in the block
+            if (next[node] < end) {
+                return matching[varAt[next[node]++]];
+            }
+            return -1;
         }
-        SCCfinder.findAllSCC();
-        nodeSCC = SCCfinder.getNodesSCC();
-        digraph.removeNode(n2);
     }
 
-    private boolean filter() throws ContradictionException {
-        boolean filter =false;
-        buildSCC();
-        int j, ub;
-        IntVar v;
-        for (int i = 0; i < n; i++) {
-            v = vars[i];
-            ub = v.getUB();
-            for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
-                j = map.get(k);
-                if (nodeSCC[i] != nodeSCC[j]) {
-                    if (matching[i] == j) {
-                        filter |= v.instantiateTo(k, aCause);
-                    } else {
-                        filter |= v.removeValue(k, aCause);
-                        digraph.removeArc(i, j);
+    private void findSCC(int start, int end) {
+        stamp++;
+        nbSCC = 0;
+        int time = 0;
+        for (int p = start; p < end; p++) {
+            int root = varAt[p];
+            if (visited[root] == stamp) {
+                continue;
+            }
+            int top = 0, cTop = 0;
+            time = visit(root, time, start);
+            stack[top++] = root;
+            callStack[cTop++] = root;
+            while (cTop > 0) {
+                int x = callStack[cTop - 1];
+                int y = nextSucc(x, start, end);
+                if (y != -1) {
+                    if (visited[y] != stamp) {
+                        time = visit(y, time, start);
+                        stack[top++] = y;
+                        callStack[cTop++] = y;
+                    } else if (onStack[y]) {
+                        lowLink[x] = Math.min(lowLink[x], dfsIndex[y]);
+                    }
+                } else {
+                    cTop--;
+                    if (cTop > 0) {
+                        int u = callStack[cTop - 1];
+                        lowLink[u] = Math.min(lowLink[u], lowLink[x]);
+                    }
+                    if (lowLink[x] == dfsIndex[x]) {
+                        int y2;
+                        do {
+                            y2 = stack[--top];
+                            onStack[y2] = false;
+                            nodeSCC[y2] = nbSCC;
+                        } while (y2 != x);
+                        nbSCC++;
                     }
                 }
             }
         }
-        for (int i = 0; i < n; i++) {
+    }
+
+    private int visit(int node, int time, int start) {
+        visited[node] = stamp;
+        dfsIndex[node] = lowLink[node] = time;
+        onStack[node] = true;
+        next[node] = node < n ? vars[node].getLB() : node < n2 ? 0 : start;
+        return time + 1;
+    }
+
+    /**
+     * @return the SCC of value node <i>j</i>, or -1 if it has not been reached (then, it is alone in its SCC)
+     */
+    private int scc(int j) {
+        return visited[j] == stamp ? nodeSCC[j] : -1;
+    }
+
+    private boolean filter(int start, int end) throws ContradictionException {
+        boolean filter = false;
+        int j, ub;
+        IntVar v;
+        for (int p = start; p < end; p++) {
+            int i = varAt[p];
             v = vars[i];
-            if (!v.hasEnumeratedDomain()) {
+            if (v.hasEnumeratedDomain()) {
                 ub = v.getUB();
-                for (int k = v.getLB(); k <= ub; k++) {
+                for (int k = v.getLB(); k <= ub; k = v.nextValue(k)) {
                     j = map.get(k);
-                    if (!(digraph.arcExists(i, j) || digraph.arcExists(j, i))) {
-                        filter |= v.removeValue(k, aCause);
+                    if (nodeSCC[i] != scc(j)) {
+                        if (matching[i] == j) {
+                            filter |= v.instantiateTo(k, aCause);
+                        } else {
+                            filter |= v.removeValue(k, aCause);
+                        }
                     }
                 }
-                int lb = v.getLB();
-                for (int k = v.getUB(); k >= lb; k--) {
-                    j = map.get(k);
-                    if (!(digraph.arcExists(i, j) || digraph.arcExists(j, i))) {
-                        filter |= v.removeValue(k, aCause);
-                    }
+            } else {
+                // only the bounds can be removed
+                int k = v.getLB();
+                while (nodeSCC[i] != scc(j = map.get(k)) && matching[i] != j) {
+                    filter |= v.removeValue(k, aCause);
+                    k = v.getLB();
+                }
+                k = v.getUB();
+                while (nodeSCC[i] != scc(j = map.get(k)) && matching[i] != j) {
+                    filter |= v.removeValue(k, aCause);
+                    k = v.getUB();
+                }
+                j = matching[i];
+                if (nodeSCC[i] != scc(j)) {
+                    filter |= v.instantiateTo(values[j - n], aCause);
                 }
             }
         }
         return filter;
     }
+
+    /**
+     * Splits the block [start, end) into one block per strongly connected component
+     */
+    private void splitBlock(int start, int end) {
+        int scc = nodeSCC[varAt[start]];
+        boolean same = true;
+        for (int p = start + 1; p < end && same; p++) {
+            same = nodeSCC[varAt[p]] == scc;
+        }
+        if (!same) {
+            int[] block = new int[end - start];
+            System.arraycopy(varAt, start, block, 0, block.length);
+            sorter.sort(block, block.length, (i1, i2) -> Integer.compare(nodeSCC[i1], nodeSCC[i2]));
+            for (int p = start; p < end; p++) {
+                varAt[p] = block[p - start];
+                position[varAt[p]] = p;
+                if (p > start && nodeSCC[varAt[p]] != nodeSCC[varAt[p - 1]]) {
+                    blockStart.set(p);
+                }
+            }
+        }
+    }
 }
@@ -43,6 +43,24 @@ public class FiniteAutomaton implements IAutomaton {
     private int min = Character.MIN_VALUE;
     private int max = Character.MAX_VALUE;
 
+    /**
+     * Maximum number of automata kept in {@link #REGEXP_CACHE}
+     */
+    public final static int REGEXP_CACHE_SIZE = 64;
+
+    /**
+     * Minimal deterministic automata built from the last used regular expressions, shared by all the models.
+     * The alphabet restriction (min and max) is applied on a copy, so the regular expression is the key.
+     * The least recently used automaton is dropped when more than {@link #REGEXP_CACHE_SIZE} are stored.
+     */
+    private final static Map<String, Automaton> REGEXP_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, Automaton>(16, .75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Automaton> eldest) {
+                    return size() > REGEXP_CACHE_SIZE;
+                }
+            });
+
     private final static TIntIntHashMap charFromIntMap = new TIntIntHashMap(16, .5f, -1, -1);
     private final static TIntIntHashMap intFromCharMap = new TIntIntHashMap(16, .5f, -1, -1);
 
@@ -76,6 +94,8 @@ public class FiniteAutomaton implements IAutomaton {
      * The regexp accepts digits  and numbers, in [0,65535].
      * However, to distinguish a number from a suite of digits, the former must be surrounded by '<' and '>'.
      * For instance, "12<34>" stands for a '1' (digit), followed by a '2' (digit) followed by a '34' (number).
+     * The minimal deterministic automata of the last used regular expressions are kept, and copied on next calls
+     * (see {@link #REGEXP_CACHE_SIZE} and {@link #clearCache()}).
      *
      * @param regexp the regular expression
      * @param min    an overall minimum value for transitions
@@ -84,7 +104,18 @@ public class FiniteAutomaton implements IAutomaton {
     public FiniteAutomaton(String regexp, int min, int max) {
         this();
         String correct = StringUtils.toCharExp(regexp);
-        this.representedBy = new RegExp(correct).toAutomaton();
+        Automaton cached = REGEXP_CACHE.get(correct);
+        if (cached == null) {
+            // built out of the lock, two threads may build the same automaton
+            cached = new RegExp(correct).toAutomaton();
+            cached.determinize();
+            cached.minimize();
+            REGEXP_CACHE.put(correct, cached);
+        }
+        // cloning may expand the cached automaton
+        synchronized (cached) {
+            this.representedBy = cached.clone();
+        }
         this.min = Math.max(Character.MIN_VALUE, min);
         this.max = Math.min(Character.MAX_VALUE, max);
         syncStates();
@@ -115,6 +146,15 @@ public class FiniteAutomaton implements IAutomaton {
    	// STATIC METHODS
    	//***********************************************************************************
 
+    /**
+     * Forget the automata built from regular expressions so far.
+     * Automata are cached to be built once when the same regular expression is declared many times,
+     * this releases the memory they hold.
+     */
+    public static void clearCache() {
+        REGEXP_CACHE.clear();
+    }
+
     public static int getIntFromChar(char c) {
         return intFromCharMap.get(c);
     }
@@ -8,30 +8,33 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.stack.TIntStack;
-import gnu.trove.stack.array.TIntArrayStack;
-import org.chocosolver.memory.IEnvironment;
-import org.chocosolver.memory.IStateBool;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.Bounds;
-import org.chocosolver.solver.constraints.nary.automata.structure.costregular.StoredValuedDirectedMultiGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.StoredLayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.iterators.DisposableIntIterator;
-import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
 import org.chocosolver.util.procedure.UnaryIntProcedure;
 
+import java.util.Arrays;
+
 import static java.lang.Math.ceil;
 import static java.lang.Math.floor;
 
 /**
+ * Propagator for the cost-regular constraint, based on the layered graph obtained by unfolding the automaton
+ * over the variables, its alive arcs being maintained in a {@link StoredLayeredGraph}.
  * <br/>
+ * The cost of each arc is stored in a primitive array.
+ * The shortest and longest paths from the root to each node, and from each node to a final node, are not trailed:
+ * they are computed again, over the alive arcs, on each propagation.
+ * An arc is removed when no path through it has a cost within the bounds of the cost variable.
  *
  * @author Charles Prud'homme
  * @since 06/06/11
@@ -40,20 +43,40 @@ public class PropCostRegular extends Propagator<IntVar> {
 
     private final int zIdx;
 
-    private final StoredValuedDirectedMultiGraph graph;
+    private final StoredLayeredGraph graph;
     private final ICostAutomaton cautomaton;
-    private TIntStack toRemove;
-
-    private final IStateBool boundChange;
-    private int lastWorld = -1;
 
-    private long lastNbOfBacktracks = -1, lastNbOfRestarts = -1;
+    /**
+     * Cost of each arc
+     */
+    private final double[] costs;
+    /**
+     * Shortest and longest paths from the root to each node, and from each node to a final node
+     */
+    private final double[] spfs, lpfs, spft, lpft;
 
     private final RemProc rem_proc;
     private final IIntDeltaMonitor[] idms;
 
+    /**
+     * Create a cost-regular propagator
+     *
+     * @param variables  variables, the last one being the cost variable
+     * @param cautomaton the automaton with costs
+     */
+    public PropCostRegular(IntVar[] variables, ICostAutomaton cautomaton) {
+        this(variables, cautomaton, new LayeredGraph(Arrays.copyOf(variables, variables.length - 1), cautomaton));
+    }
 
-    public PropCostRegular(IntVar[] variables, ICostAutomaton cautomaton, StoredValuedDirectedMultiGraph graph) {
+    /**
+     * Create a cost-regular propagator based on an already unfolded graph
+     *
+     * @param variables  variables, the last one being the cost variable, whose domains must be the ones <i>graph</i>
+     *                   was unfolded over
+     * @param cautomaton the automaton with costs
+     * @param graph      the unfolded automaton, whose states are the ones of <i>cautomaton</i>
+     */
+    public PropCostRegular(IntVar[] variables, ICostAutomaton cautomaton, LayeredGraph graph) {
         super(variables, PropagatorPriority.CUBIC, true);
         this.idms = new IIntDeltaMonitor[this.vars.length - 1];
         for (int i = 0; i < this.vars.length - 1; i++) {
@@ -61,11 +84,18 @@ public class PropCostRegular extends Propagator<IntVar> {
         }
         this.zIdx = vars.length - 1;
         this.rem_proc = new RemProc(this);
-        IEnvironment environment = model.getEnvironment();
-        this.toRemove = new TIntArrayStack();
-        this.boundChange = environment.makeBool(false);
-        this.graph = graph;
+        this.graph = new StoredLayeredGraph(graph, this);
         this.cautomaton = cautomaton;
+        costs = new double[graph.getNbArcs()];
+        for (int a = 0; a < costs.length; a++) {
+            int s = graph.getLabel(a);
+            costs[a] = cautomaton.getCostByState(graph.getVar(s), graph.getValue(s), graph.getState(graph.getSource(a)));
+        }
+        int nbNodes = graph.getNbNodes();
+        spfs = new double[nbNodes];
+        lpfs = new double[nbNodes];
+        spft = new double[nbNodes];
+        lpft = new double[nbNodes];
     }
 
     @Override
@@ -73,43 +103,35 @@ public class PropCostRegular extends Propagator<IntVar> {
         return (vIdx != vars.length - 1 ? IntEventType.all() : IntEventType.boundAndInst());
     }
 
-    /**
-     * Build internal structure of the propagator, if necessary
-     *
-     * @throws org.chocosolver.solver.exception.ContradictionException if initialisation encounters a contradiction
-     */
-    protected void initialize() throws ContradictionException {
-        Bounds bounds = this.cautomaton.getCounters().get(0).bounds();
-        vars[zIdx].updateBounds(bounds.min.value, bounds.max.value, this);
-        this.prefilter();
-    }
-
     @Override
     public void propagate(int evtmask) throws ContradictionException {
+        graph.restore();
         if (PropagatorEventType.isFullPropagation(evtmask)) {
-            // as the graph was build on initial domain, this is allowed (specific case)
+            Bounds bounds = this.cautomaton.getCounters().get(0).bounds();
+            vars[zIdx].updateBounds(bounds.min.value, bounds.max.value, this);
             for (int i = 0; i < idms.length; i++) {
                 idms[i].freeze();
-                idms[i].forEachRemVal(rem_proc.set(i));
             }
-            initialize();
+            graph.removeArcsNotInDomains();
+            for (int i = 0; i < idms.length; i++) {
+                idms[i].unfreeze();
+            }
+            graph.removeArcs();
+            graph.collectUnsupported();
         }
         filter();
-		// added by JG: the propagator should be idempotent so it should not iterate over its own removals
-		for (int i = 0; i < idms.length; i++) {
-			idms[i].unfreeze();
-		}
+        graph.prune();
     }
 
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
-        checkWorld();
-        if (varIdx == zIdx) { // z only deals with bound events
-            boundChange.set(true);
-        } else { // other variables only deals with removal events
+        graph.restore();
+        if (varIdx != zIdx) { // z only deals with bound events
             idms[varIdx].freeze();
             idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
             idms[varIdx].unfreeze();
+            graph.removeArcs();
+            graph.prune();
         }
         forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
@@ -117,26 +139,25 @@ public class PropCostRegular extends Propagator<IntVar> {
     @Override
     public ESat isEntailed() {
         if (isCompletelyInstantiated()) {
-            int first = this.graph.sourceIndex;
-            boolean found;
+            LayeredGraph g = graph.getGraph();
+            int node = 0;
             double cost = 0.0;
             int[] str = new int[vars.length - 1];
             for (int i = 0; i < vars.length - 1; i++) {
-                found = false;
                 str[i] = vars[i].getValue();
-                StoredIndexedBipartiteSet bs = this.graph.GNodes.outArcs[first];
-                DisposableIntIterator it = bs.getIterator();
-                while (!found && it.hasNext()) {
-                    int idx = it.next();
-                    if (this.graph.GArcs.values[idx] == vars[i].getValue()) {
-                        found = true;
-                        first = this.graph.GArcs.dests[idx];
-                        cost += this.graph.GArcs.costs[idx];
+                int s = g.getSlot(i, str[i]);
+                int next = -1;
+                for (int j = g.getOutStart(node); next < 0 && j < g.getOutStart(node + 1); j++) {
+                    int a = g.getOutArc(j);
+                    if (g.getLabel(a) == s) {
+                        next = g.getTarget(a);
+                        cost += costs[a];
                     }
                 }
-                if (!found)
+                if (next < 0) {
                     return ESat.FALSE;
-
+                }
+                node = next;
             }
             int intCost = vars[zIdx].getValue();
             return ESat.eval(cost == intCost && cautomaton.run(str));
@@ -146,126 +167,67 @@ public class PropCostRegular extends Propagator<IntVar> {
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private void prefilter() throws ContradictionException {
-        double zinf = this.graph.GNodes.spft.get(this.graph.sourceIndex);
-        double zsup = this.graph.GNodes.lpfs.get(this.graph.tinkIndex);
-
-        vars[zIdx].updateBounds((int) ceil(zinf), (int) floor(zsup), this);
-
-        DisposableIntIterator it = this.graph.inGraph.getIterator();
-        //for (int id = this.graph.inGraph.nextSetBit(0) ; id >=0 ; id = this.graph.inGraph.nextSetBit(id+1))  {
-        while (it.hasNext()) {
-            int id = it.next();
-            int orig = this.graph.GArcs.origs[id];
-            int dest = this.graph.GArcs.dests[id];
-
-            double acost = this.graph.GArcs.costs[id];
-
-            double spfs = this.graph.GNodes.spfs.get(orig);
-            double lpfs = this.graph.GNodes.lpfs.get(orig);
-
-            double spft = this.graph.GNodes.spft.get(dest);
-            double lpft = this.graph.GNodes.lpft.get(dest);
-
-
-            if ((spfs + spft + acost > vars[zIdx].getUB() || lpfs + lpft + acost < vars[zIdx].getLB()) && this.graph.isNotInStack(id)) {
-                this.graph.setInStack(id);
-                this.toRemove.push(id);
-            }
-        }
-
-        it.dispose();
-
-        try {
-            do {
-                while (toRemove.size() > 0) {
-                    int id = toRemove.pop();
-                    // toRemove.synchronize();
-                    this.graph.removeArc(id, toRemove, this, this);
-                }
-                while (this.graph.toUpdateLeft.size() > 0) {
-                    this.graph.updateLeft(this.graph.toUpdateLeft.pop(), toRemove, this);
-                }
-                while (this.graph.toUpdateRight.size() > 0) {
-                    this.graph.updateRight(this.graph.toUpdateRight.pop(), toRemove, this);
-                }
-            } while (toRemove.size() > 0);
-        } catch (ContradictionException e) {
-            toRemove.clear();
-            this.graph.inStack.clear();
-            this.graph.toUpdateLeft.clear();
-            this.graph.toUpdateRight.clear();
-
-            throw e;
-        }
-    }
-
-    private void checkWorld() {
-        int currentworld = model.getEnvironment().getWorldIndex();
-        long currentbt = model.getSolver().getBackTrackCount();
-        long currentrestart = model.getSolver().getRestartCount();
-        if (currentworld < lastWorld || currentbt != lastNbOfBacktracks || currentrestart > lastNbOfRestarts) {
-            this.toRemove.clear();
-            this.graph.inStack.clear();
-            this.graph.toUpdateLeft.clear();
-            this.graph.toUpdateRight.clear();
-        }
-        lastWorld = currentworld;
-        lastNbOfBacktracks = currentbt;
-        lastNbOfRestarts = currentrestart;
-    }
-
+    /**
+     * Remove the arcs which belong to no path whose cost is within the bounds of the cost variable, and update
+     * these bounds, until a fixpoint is reached
+     */
     private void filter() throws ContradictionException {
-
-        if (boundChange.get()) {
-            boundChange.set(false);
-            DisposableIntIterator it = this.graph.inGraph.getIterator();
-            //for (int id = this.graph.inGraph.nextSetBit(0) ; id >=0 ; id = this.graph.inGraph.nextSetBit(id+1))  {
-            while (it.hasNext()) {
-                int id = it.next();
-                int orig = this.graph.GArcs.origs[id];
-                int dest = this.graph.GArcs.dests[id];
-
-                double acost = this.graph.GArcs.costs[id];
-                double lpfs = this.graph.GNodes.lpfs.get(orig);
-                double lpft = this.graph.GNodes.lpft.get(dest);
-
-                double spfs = this.graph.GNodes.spfs.get(orig);
-                double spft = this.graph.GNodes.spft.get(dest);
-
-
-                if ((lpfs + lpft + acost < vars[zIdx].getLB() || spfs + spft + acost > vars[zIdx].getUB()) && this.graph.isNotInStack(id)) {
-                    this.graph.setInStack(id);
-                    this.toRemove.push(id);
-                }
-            }
-            it.dispose();
-
-        }
-
+        LayeredGraph g = graph.getGraph();
+        int n = g.getNbLayers();
+        boolean removed;
         do {
-            while (toRemove.size() > 0) {
-                int id = toRemove.pop();
-                // toRemove.synchronize();
-                this.graph.removeArc(id, toRemove, this, this);
+            // forward pass
+            spfs[0] = lpfs[0] = 0.0;
+            for (int l = 1; l <= n; l++) {
+                for (int i = g.getLayerStart(l); i < g.getLayerStart(l) + graph.getNbAlive(l); i++) {
+                    int y = graph.getNode(i);
+                    double sp = Double.POSITIVE_INFINITY;
+                    double lp = Double.NEGATIVE_INFINITY;
+                    for (int j = g.getInStart(y); j < g.getInStart(y + 1); j++) {
+                        int a = g.getInArc(j);
+                        if (graph.isAlive(a)) {
+                            int x = g.getSource(a);
+                            sp = Math.min(sp, spfs[x] + costs[a]);
+                            lp = Math.max(lp, lpfs[x] + costs[a]);
+                        }
+                    }
+                    spfs[y] = sp;
+                    lpfs[y] = lp;
+                }
             }
-            while (this.graph.toUpdateLeft.size() > 0) {
-                this.graph.updateLeft(this.graph.toUpdateLeft.pop(), toRemove, this);
+            // backward pass, which removes the arcs out of the bounds
+            for (int i = g.getLayerStart(n); i < g.getLayerStart(n) + graph.getNbAlive(n); i++) {
+                int x = graph.getNode(i);
+                spft[x] = lpft[x] = 0.0;
             }
-            while (this.graph.toUpdateRight.size() > 0) {
-                this.graph.updateRight(this.graph.toUpdateRight.pop(), toRemove, this
-                );
+            int lb = vars[zIdx].getLB();
+            int ub = vars[zIdx].getUB();
+            for (int l = n - 1; l >= 0; l--) {
+                for (int i = g.getLayerStart(l); i < g.getLayerStart(l) + graph.getNbAlive(l); i++) {
+                    int x = graph.getNode(i);
+                    double sp = Double.POSITIVE_INFINITY;
+                    double lp = Double.NEGATIVE_INFINITY;
+                    for (int j = g.getOutStart(x); j < g.getOutStart(x + 1); j++) {
+                        int a = g.getOutArc(j);
+                        if (graph.isAlive(a)) {
+                            int y = g.getTarget(a);
+                            if (spfs[x] + costs[a] + spft[y] > ub || lpfs[x] + costs[a] + lpft[y] < lb) {
+                                graph.removeArc(a);
+                            } else {
+                                sp = Math.min(sp, costs[a] + spft[y]);
+                                lp = Math.max(lp, costs[a] + lpft[y]);
+                            }
+                        }
+                    }
+                    spft[x] = sp;
+                    lpft[x] = lp;
+                }
             }
-        } while (toRemove.size() > 0);
-
-
-        double zinf = this.graph.GNodes.spft.get(this.graph.sourceIndex);
-        double zsup = this.graph.GNodes.lpfs.get(this.graph.tinkIndex);
-
-        vars[zIdx].updateBounds((int) ceil(zinf), (int) floor(zsup), this);
+            removed = graph.removeArcs();
+            vars[zIdx].updateBounds((int) ceil(spft[0]), (int) floor(lpft[0]), this);
+        } while (removed);
     }
 
-
     private static class RemProc implements UnaryIntProcedure<Integer> {
 
         private final PropCostRegular p;
@@ -283,18 +245,9 @@ public class PropCostRegular extends Propagator<IntVar> {
 
         @Override
         public void execute(int i) throws ContradictionException {
-            StoredIndexedBipartiteSet sup = p.graph.getSupport(idxVar, i);
-            if (sup != null) {
-                DisposableIntIterator it = sup.getIterator();
-                while (it.hasNext()) {
-                    int arcId = it.next();
-                    if (p.graph.isNotInStack(arcId)) {
-                        p.graph.setInStack(arcId);
-                        p.toRemove.push(arcId);
-//                        mod = true;
-                    }
-                }
-                it.dispose();
+            int s = p.graph.getGraph().getSlot(idxVar, i);
+            if (s >= 0) {
+                p.graph.removeArcs(s);
             }
         }
     }
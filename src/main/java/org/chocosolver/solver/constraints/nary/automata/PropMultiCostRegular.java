@@ -8,35 +8,25 @@
  */
 package org.chocosolver.solver.constraints.nary.automata;
 
-import gnu.trove.iterator.TIntIterator;
 import gnu.trove.map.hash.TObjectIntHashMap;
-import gnu.trove.set.hash.TIntHashSet;
-import gnu.trove.stack.TIntStack;
-import gnu.trove.stack.array.TIntArrayStack;
-import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.Bounds;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.ICounter;
-import org.chocosolver.solver.constraints.nary.automata.structure.Node;
-import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.Arc;
-import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.FastPathFinder;
-import org.chocosolver.solver.constraints.nary.automata.structure.multicostregular.StoredDirectedMultiGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph;
+import org.chocosolver.solver.constraints.nary.automata.structure.regular.StoredLayeredGraph;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.iterators.DisposableIntIterator;
-import org.chocosolver.util.objects.StoredIndexedBipartiteSet;
-import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableBitSet;
 import org.chocosolver.util.procedure.UnaryIntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
-import org.jgrapht.graph.DirectedMultigraph;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
 
 
 /**
@@ -57,6 +47,10 @@ import java.util.*;
  * AC is NP hard for such a constraint.
  * The propagation is based on a Lagrangian Relaxation approach of the underlying
  * Resource constrained  shortest/longest path problems
+ * <p/>
+ * The layered graph of the unfolded automaton is a {@link LayeredGraph}, its alive arcs are maintained in a
+ * {@link StoredLayeredGraph} and the costs of the arcs are stored in primitive arrays, one per resource.
+ * Shortest and longest paths are not trailed, they are computed again over the alive arcs on each propagation.
  */
 public final class PropMultiCostRegular extends Propagator<IntVar> {
 
@@ -108,56 +102,60 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
     /**
      * Layered graph of the unfolded automaton
      */
-    private StoredDirectedMultiGraph graph;
+    private final StoredLayeredGraph graph;
 
     /**
-     * Boolean array which record whether a bound has been modified by the propagator
+     * Cost of each arc, per resource
      */
-    private final boolean[] modifiedBound;
+    private final double[][] costs;
 
     /**
-     * Lagrangian multiplier container to compute an UB
+     * Shortest and longest paths from the root to each node, and from each node to a final node, per resource
      */
-    private final double[] uUb;
+    private final double[][] spfs, spft, lpfs, lpft;
 
     /**
-     * Lagrangian multiplier container to compute a LB
+     * Lagrangian cost of each arc, shortest paths w.r.t. these costs and the arc following each node on them
      */
-    private final double[] uLb;
+    private final double[] lcosts, lspfs, lspft;
+    private final int[] lnext;
 
     /**
-     * Instance of the class containing all path finding algorithms
-     * Also contains graph filtering algorithms
+     * Arcs of the last lagrangian path
      */
-    private FastPathFinder slp;
+    private final int[] path;
+
+    private final double[] tmpU;
 
     /**
-     * Store the number of resources = z.length
+     * Boolean array which record whether a bound has been modified by the propagator
      */
-    private final int nbR;
+    private final boolean[] modifiedBound;
 
+    /**
+     * Lagrangian multiplier container to compute an UB
+     */
+    private final double[] uUb;
 
     /**
-     * Stack to store removed edges index, for delayed update
+     * Lagrangian multiplier container to compute a LB
      */
-    private final TIntStack toRemove;
+    private final double[] uLb;
 
-    private final TIntStack[] toUpdateLeft;
-    private final TIntStack[] toUpdateRight;
+    /**
+     * Store the number of resources = z.length
+     */
+    private final int nbR;
 
     private int lastWorld = -1;
     private long lastNbOfBacktracks = -1;
     private long lastNbOfRestarts = -1;
-    private TIntHashSet boundUpdate;
-    private boolean computed;
 
     private final IIntDeltaMonitor[] idms;
     private final RemProc rem_proc;
 
     public final double _MCR_DECIMAL_PREC;
 
-    private final IntIterableBitSet vrms;
-
     /**
      * Constructs a multi-cost-regular propagator
      *
@@ -173,31 +171,44 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         this.z = Arrays.copyOfRange(vars, offset, vars.length);
         this.nbR = this.z.length - 1;
 
-        this.idms = new IIntDeltaMonitor[this.vars.length];
-        for (int i = 0; i < this.vars.length; i++) {
+        this.idms = new IIntDeltaMonitor[offset];
+        for (int i = 0; i < offset; i++) {
             idms[i] = this.vars[i].monitorDelta(this);
         }
         this.modifiedBound = new boolean[]{true, true};
 
         this.uUb = new double[2 * nbR];
         this.uLb = new double[2 * nbR];
+        this.tmpU = new double[nbR];
 
         this.map = new TObjectIntHashMap<>();
         for (int i = 0; i < vars.length; i++) {
             this.map.put(vars[i], i);
         }
-        this.toRemove = new TIntArrayStack();
-        this.toUpdateLeft = new TIntArrayStack[nbR + 1];
-        this.toUpdateRight = new TIntArrayStack[nbR + 1];
-
-        for (int i = 0; i <= nbR; i++) {
-            this.toUpdateLeft[i] = new TIntArrayStack();
-            this.toUpdateRight[i] = new TIntArrayStack();
-        }
-        this.boundUpdate = new TIntHashSet();
         this.pi = cauto;
         rem_proc = new RemProc(this);
-        vrms = new IntIterableBitSet();
+
+        LayeredGraph g = new LayeredGraph(vs, pi);
+        this.graph = new StoredLayeredGraph(g, this);
+        int nbArcs = g.getNbArcs();
+        int nbNodes = g.getNbNodes();
+        costs = new double[z.length][nbArcs];
+        for (int a = 0; a < nbArcs; a++) {
+            int s = g.getLabel(a);
+            int state = g.getState(g.getSource(a));
+            for (int r = 0; r < z.length; r++) {
+                costs[r][a] = pi.getCostByResourceAndState(g.getVar(s), g.getValue(s), r, state);
+            }
+        }
+        spfs = new double[z.length][nbNodes];
+        spft = new double[z.length][nbNodes];
+        lpfs = new double[z.length][nbNodes];
+        lpft = new double[z.length][nbNodes];
+        lcosts = new double[nbArcs];
+        lspfs = new double[nbNodes];
+        lspft = new double[nbNodes];
+        lnext = new int[nbNodes];
+        path = new int[offset];
     }
 
     @Override
@@ -207,242 +218,195 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
                 IntEventType.boundAndInst());
     }
 
-    /**
-     * Build internal structure of the propagator, if necessary
-     *
-     * @throws org.chocosolver.solver.exception.ContradictionException if initialisation encounters a contradiction
-     */
-    protected void initialize() throws ContradictionException {
-        checkBounds();
-        initGraph();
-        this.slp = graph.getPathFinder();
-        for (int i = 0; i < offset; i++) {
-            vrms.clear();
-            vrms.setOffset(vs[i].getLB());
-            for (int j = vs[i].getLB(); j <= vs[i].getUB(); j = vs[i].nextValue(j)) {
-                StoredIndexedBipartiteSet sup = graph.getUBport(i, j);
-                if (sup == null || sup.isEmpty()) {
-                    vrms.add(j);
-                }
-            }
-            vs[i].removeValues(vrms, this);//, false);
-        }
-        this.slp.computeShortestAndLongestPath(toRemove, z, this);
-    }
-
     @Override
     public void propagate(int evtmask) throws ContradictionException {
+        graph.restore();
         if (PropagatorEventType.isFullPropagation(evtmask)) {
-            initialize();
+            checkBounds();
+            for (int i = 0; i < offset; i++) {
+                idms[i].freeze();
+            }
+            graph.removeArcsNotInDomains();
+            for (int i = 0; i < offset; i++) {
+                idms[i].unfreeze();
+            }
+            graph.removeArcs();
+            graph.collectUnsupported();
         }
         filter();
-		// added by JG: the propagator should be idempotent so it should not iterate over its own removals
-		for (int i = 0; i < idms.length; i++) {
-			idms[i].unfreeze();
-		}
+        graph.prune();
     }
 
     @Override
     public void propagate(int varIdx, int mask) throws ContradictionException {
+        graph.restore();
         if (varIdx < offset) {
-            checkWorld();
             idms[varIdx].freeze();
             idms[varIdx].forEachRemVal(rem_proc.set(varIdx));
             idms[varIdx].unfreeze();
-        } else {// if (EventType.isInstantiate(mask) || EventType.isBound(mask)) {
-            boundUpdate.add(varIdx - offset);
-            computed = false;
+            graph.removeArcs();
+            graph.prune();
         }
         forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    private void initGraph() {
-        int aid = 0;
-        int nid = 0;
-
-
-        int[] offsets = new int[offset];
-        int[] sizes = new int[offset];
-        int[] starts = new int[offset];
-
-        int totalSizes = 0;
-
-        starts[0] = 0;
-        for (int i = 0; i < offset; i++) {
-            offsets[i] = vs[i].getLB();
-            sizes[i] = vs[i].getUB() - vs[i].getLB() + 1;
-            if (i > 0) starts[i] = sizes[i - 1] + starts[i - 1];
-            totalSizes += sizes[i];
-        }
-
-
-        DirectedMultigraph<Node, Arc> graph;
-
-        int n = offset;
-        graph = new DirectedMultigraph<>(new Arc.ArcFactory());
-        ArrayList<HashSet<Arc>> tmp = new ArrayList<>(totalSizes);
-        for (int i = 0; i < totalSizes; i++) {
-            tmp.add(new HashSet<>());
-        }
-
-        int i, j, k;
-        TIntIterator layerIter;
-        TIntIterator qijIter;
-
-        ArrayList<TIntHashSet> layer = new ArrayList<>();
-        TIntHashSet[] tmpQ = new TIntHashSet[totalSizes];
-        // DLList[vars.length+1];
-
-        for (i = 0; i <= n; i++) {
-            layer.add(new TIntHashSet());// = new DLList(nbNodes);
-        }
-
-        //forward pass, construct all paths described by the automaton for word of length nbVars.
-        layer.get(0).add(pi.getInitialState());
-        TIntHashSet nexts = new TIntHashSet();
+    private void filter() throws ContradictionException {
+        this.filterResources();
+        this.modifiedBound[0] = true;
+        this.modifiedBound[1] = true;
+        this.computeSharpBounds();
+        assert (check());
+        assert (isGraphConsistent());
+    }
 
-        for (i = 0; i < n; i++) {
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                layerIter = layer.get(i).iterator();//getIterator();
-                while (layerIter.hasNext()) {
-                    k = layerIter.next();
-                    nexts.clear();
-                    pi.delta(k, j, nexts);
-                    TIntIterator it = nexts.iterator();
-                    for (; it.hasNext(); ) {
-                        int succ = it.next();
-                        layer.get(i + 1).add(succ);
+    /**
+     * Computes the shortest and longest paths w.r.t. each resource, removes the arcs which belong to no path
+     * within the bounds of a cost variable and updates these bounds, until a fixpoint is reached
+     *
+     * @throws ContradictionException if a domain becomes empty
+     */
+    private void filterResources() throws ContradictionException {
+        LayeredGraph g = graph.getGraph();
+        int nbr = z.length;
+        boolean removed;
+        do {
+            for (int d = 0; d < nbr; d++) {
+                spfs[d][0] = lpfs[d][0] = 0.0;
+            }
+            for (int l = 1; l <= offset; l++) {
+                for (int i = g.getLayerStart(l); i < g.getLayerStart(l) + graph.getNbAlive(l); i++) {
+                    int dest = graph.getNode(i);
+                    for (int d = 0; d < nbr; d++) {
+                        spfs[d][dest] = Double.POSITIVE_INFINITY;
+                        lpfs[d][dest] = Double.NEGATIVE_INFINITY;
                     }
-                    if (!nexts.isEmpty()) {
-                        int idx = starts[i] + j - offsets[i];
-                        if (tmpQ[idx] == null)
-                            tmpQ[idx] = new TIntHashSet();
-
-                        tmpQ[idx].add(k);
-
+                    for (int j = g.getInStart(dest); j < g.getInStart(dest + 1); j++) {
+                        int e = g.getInArc(j);
+                        if (graph.isAlive(e)) {
+                            int orig = g.getSource(e);
+                            for (int d = 0; d < nbr; d++) {
+                                spfs[d][dest] = Math.min(spfs[d][dest], spfs[d][orig] + costs[d][e]);
+                                lpfs[d][dest] = Math.max(lpfs[d][dest], lpfs[d][orig] + costs[d][e]);
+                            }
+                        }
                     }
                 }
             }
-        }
-
-        //removing reachable non accepting states
-        layerIter = layer.get(n).iterator();
-        while (layerIter.hasNext()) {
-            k = layerIter.next();
-            if (pi.isNotFinal(k)) {
-                layerIter.remove();
+            for (int i = g.getLayerStart(offset); i < g.getLayerStart(offset) + graph.getNbAlive(offset); i++) {
+                int x = graph.getNode(i);
+                for (int d = 0; d < nbr; d++) {
+                    spft[d][x] = lpft[d][x] = 0.0;
+                }
             }
-
-        }
-
-        //backward pass, removing arcs that does not lead to an accepting state
-        int nbNodes = pi.getNbStates();
-        BitSet mark = new BitSet(nbNodes);
-
-        Node[] in = new Node[pi.getNbStates() * (n + 1)];
-        Node tink = new Node(pi.getNbStates() + 1, n + 1, nid++);
-        graph.addVertex(tink);
-
-        for (i = n - 1; i >= 0; i--) {
-            mark.clear(0, nbNodes);
-            int UB = vs[i].getUB();
-            for (j = vs[i].getLB(); j <= UB; j = vs[i].nextValue(j)) {
-                int idx = starts[i] + j - offsets[i];
-                TIntHashSet l = tmpQ[idx];
-                if (l != null) {
-                    qijIter = l.iterator();
-                    while (qijIter.hasNext()) {
-                        k = qijIter.next();
-                        nexts.clear();
-                        pi.delta(k, j, nexts);
-                        if (nexts.size() > 1)
-                            System.err.println("STOP");
-                        boolean added = false;
-                        for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
-                            int qn = it.next();
-
-                            if (layer.get(i + 1).contains(qn)) {
-                                added = true;
-                                Node a = in[i * pi.getNbStates() + k];
-                                if (a == null) {
-                                    a = new Node(k, i, nid++);
-                                    in[i * pi.getNbStates() + k] = a;
-                                    graph.addVertex(a);
-                                }
-
-                                Node b = in[(i + 1) * pi.getNbStates() + qn];
-                                if (b == null) {
-                                    b = new Node(qn, i + 1, nid++);
-                                    in[(i + 1) * pi.getNbStates() + qn] = b;
-                                    graph.addVertex(b);
+            for (int l = offset - 1; l >= 0; l--) {
+                for (int i = g.getLayerStart(l); i < g.getLayerStart(l) + graph.getNbAlive(l); i++) {
+                    int orig = graph.getNode(i);
+                    for (int d = 0; d < nbr; d++) {
+                        spft[d][orig] = Double.POSITIVE_INFINITY;
+                        lpft[d][orig] = Double.NEGATIVE_INFINITY;
+                    }
+                    for (int j = g.getOutStart(orig); j < g.getOutStart(orig + 1); j++) {
+                        int e = g.getOutArc(j);
+                        if (graph.isAlive(e)) {
+                            int dest = g.getTarget(e);
+                            boolean out = false;
+                            for (int d = 0; d < nbr && !out; d++) {
+                                out = spfs[d][orig] + costs[d][e] + spft[d][dest] - z[d].getUB() >= _MCR_DECIMAL_PREC
+                                        || lpfs[d][orig] + costs[d][e] + lpft[d][dest] - z[d].getLB() <= -_MCR_DECIMAL_PREC;
+                            }
+                            if (out) {
+                                graph.removeArc(e);
+                            } else {
+                                for (int d = 0; d < nbr; d++) {
+                                    spft[d][orig] = Math.min(spft[d][orig], spft[d][dest] + costs[d][e]);
+                                    lpft[d][orig] = Math.max(lpft[d][orig], lpft[d][dest] + costs[d][e]);
                                 }
-
-
-                                Arc arc = new Arc(a, b, j, aid++);
-                                graph.addEdge(a, b, arc);
-                                tmp.get(idx).add(arc);
-
-                                mark.set(k);
                             }
                         }
-                        if (!added)
-                            qijIter.remove();
                     }
                 }
             }
-            layerIter = layer.get(i).iterator();
-
-            // If no more arcs go out of a given state in the layer, then we remove the state from that layer
-            while (layerIter.hasNext())
-                if (!mark.get(layerIter.next()))
-                    layerIter.remove();
-        }
-
-        TIntHashSet th = new TIntHashSet();
-        int[][] intLayer = new int[n + 2][];
-        for (k = 0; k < pi.getNbStates(); k++) {
-            Node o = in[n * pi.getNbStates() + k];
-            {
-                if (o != null) {
-                    Arc a = new Arc(o, tink, 0, aid++);
-                    graph.addEdge(o, tink, a);
+            removed = graph.removeArcs();
+            modifiedBound[0] |= z[0].updateLowerBound((int) Math.ceil(spft[0][0]), this);
+            modifiedBound[1] |= z[0].updateUpperBound((int) Math.floor(lpft[0][0]), this);
+            for (int d = 1; d < nbr; d++) {
+                z[d].updateBounds((int) Math.ceil(spft[d][0]), (int) Math.floor(lpft[d][0]), this);
+            }
+        } while (removed);
+        lastWorld = model.getEnvironment().getWorldIndex();
+        lastNbOfBacktracks = model.getSolver().getBackTrackCount();
+        lastNbOfRestarts = model.getSolver().getRestartCount();
+    }
+
+    /**
+     * Computes a shortest (resp. longest) path w.r.t. the lagrangian costs, and removes the arcs which belong to no
+     * path shorter than <i>bound</i> (resp. longer)
+     *
+     * @param bound bound on the lagrangian cost of a path
+     * @param u     lagrangian multipliers
+     * @param max   true to compute a longest path
+     * @return the value of the path, which is stored in {@link #path}
+     * @throws ContradictionException if no path remains
+     */
+    private double computeLagrangianPath(double bound, double[] u, boolean max) throws ContradictionException {
+        LayeredGraph g = graph.getGraph();
+        for (int k = 0; k < nbR; k++) {
+            tmpU[k] = u[k] - u[k + nbR];
+        }
+        // a longest path is a shortest one w.r.t. opposite costs
+        double sign = max ? -1.0 : 1.0;
+        bound *= sign;
+        lspfs[0] = 0.0;
+        for (int l = 1; l <= offset; l++) {
+            for (int i = g.getLayerStart(l); i < g.getLayerStart(l) + graph.getNbAlive(l); i++) {
+                int dest = graph.getNode(i);
+                lspfs[dest] = Double.POSITIVE_INFINITY;
+                for (int j = g.getInStart(dest); j < g.getInStart(dest + 1); j++) {
+                    int e = g.getInArc(j);
+                    if (graph.isAlive(e)) {
+                        double tmp = 0.0;
+                        for (int k = 1; k <= nbR; k++) {
+                            tmp += tmpU[k - 1] * costs[k][e];
+                        }
+                        lcosts[e] = sign * costs[0][e] + tmp;
+                        lspfs[dest] = Math.min(lspfs[dest], lspfs[g.getSource(e)] + lcosts[e]);
+                    }
                 }
             }
         }
-
-
-        for (i = 0; i <= n; i++) {
-            th.clear();
-            for (k = 0; k < pi.getNbStates(); k++) {
-                Node o = in[i * pi.getNbStates() + k];
-                if (o != null) {
-                    th.add(o.id);
+        for (int i = g.getLayerStart(offset); i < g.getLayerStart(offset) + graph.getNbAlive(offset); i++) {
+            lspft[graph.getNode(i)] = 0.0;
+        }
+        for (int l = offset - 1; l >= 0; l--) {
+            for (int i = g.getLayerStart(l); i < g.getLayerStart(l) + graph.getNbAlive(l); i++) {
+                int orig = graph.getNode(i);
+                lspft[orig] = Double.POSITIVE_INFINITY;
+                for (int j = g.getOutStart(orig); j < g.getOutStart(orig + 1); j++) {
+                    int e = g.getOutArc(j);
+                    if (graph.isAlive(e)) {
+                        double newCost = lspft[g.getTarget(e)] + lcosts[e];
+                        if (newCost + lspfs[orig] - bound >= _MCR_DECIMAL_PREC) {
+                            graph.removeArc(e);
+                        } else if (lspft[orig] > newCost) {
+                            lspft[orig] = newCost;
+                            lnext[orig] = e;
+                        }
+                    }
                 }
             }
-            intLayer[i] = th.toArray();
         }
-        intLayer[n + 1] = new int[]{tink.id};
-
-        if (intLayer[0].length > 0) {
-            IEnvironment environment = model.getEnvironment();
-            this.graph = new StoredDirectedMultiGraph(environment, graph, intLayer, starts, offsets, totalSizes, pi, z);
-            this.graph.makePathFinder();
+        graph.removeArcs();
+        if (lspft[0] == Double.POSITIVE_INFINITY) {
+            fails();
         }
-    }
-
-    private void filter() throws ContradictionException {
-        checkWorld();
-        this.delayedBoundUpdate();
-        this.delayedGraphUpdate();
-        this.modifiedBound[0] = true;
-        this.modifiedBound[1] = true;
-        this.computeSharpBounds();
-        assert (toRemove.size() == 0);
-        assert (check());
-        assert (isGraphConsistent());
+        int node = 0;
+        for (int i = 0; i < offset; i++) {
+            path[i] = lnext[node];
+            node = g.getTarget(path[i]);
+        }
+        return sign * lspft[0];
     }
 
     /**
@@ -459,7 +423,6 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         double newLB;
         double newLA;
         boolean modif;
-        int[] P;
         double coeff;
         double bk = RO;
         int nbNSig = 0;
@@ -476,10 +439,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
             modif = false;
 
-            slp.computeLongestPath(toRemove, z[0].getLB() - coeff, uUb, true, true, 0, this);
-
-            lp = slp.getLongestPathValue();
-            P = slp.getLongestPath();
+            lp = computeLagrangianPath(z[0].getLB() - coeff, uUb, true);
             filterUp(lp + coeff);
 
             if (bestVal - (lp + coeff) < 1.0 / 2.0) {
@@ -502,11 +462,8 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
             for (int l = 0; l < uUb.length / 2; l++) {
                 axu = 0.0;
-                for (int e : P) {
-                    int i = graph.GNodes.layers[graph.GArcs.origs[e]];//  e.getOrigin().getLayer();
-                    //int j = graph.GArcs.values[e];//e.getLabel();
-                    if (i < offset)
-                        axu += graph.GArcs.originalCost[e][l + 1];//costs[i][j][l+1];
+                for (int e : path) {
+                    axu += costs[l + 1][e];
                 }
                 newLB = Math.max(uUb[l] - uk * (z[l + 1].getUB() - axu), 0);
                 newLA = Math.max(uUb[l + nbR] - uk * (axu - z[l + 1].getLB()), 0);
@@ -541,14 +498,12 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         double axu;
         double newLB;
         double newLA;
-        int[] P;
         double coeff;
         double bk = RO;
         double bestVal = Double.NEGATIVE_INFINITY;
         int nbNSig = 0;
         int nbNSig2 = 0;
         //  Arrays.fill(uLb,0.0);
-        int[] bestPath = new int[offset + 1];
         do {
             coeff = 0.0;
             for (int i = 0; i < nbR; i++) {
@@ -558,11 +513,7 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
             modif = false;
 
-            slp.computeShortestPath(toRemove, z[0].getUB() + coeff, uLb, true, false, 0, this);
-
-
-            sp = slp.getShortestPathValue();
-            P = slp.getShortestPath();
+            sp = computeLagrangianPath(z[0].getUB() + coeff, uLb, false);
             filterDown(sp - coeff);
 
 
@@ -579,7 +530,6 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             }
             if (sp - coeff > bestVal) {
                 bestVal = sp - coeff;
-                System.arraycopy(P, 0, bestPath, 0, P.length);
             }
 
 
@@ -588,10 +538,8 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
             for (int l = 0; l < uLb.length / 2; l++) {
 
                 axu = 0.0;
-                for (int e : P) {
-                    int i = graph.GNodes.layers[graph.GArcs.origs[e]];
-                    if (i < offset)
-                        axu += graph.GArcs.originalCost[e][l + 1];
+                for (int e : path) {
+                    axu += costs[l + 1][e];
                 }
 
                 newLB = Math.max(uLb[l] + uk * (axu - z[l + 1].getUB()), 0);
@@ -612,28 +560,6 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
     }
 
 
-    /**
-     * Performs cost based filtering w.r.t. each cost dimension.
-     *
-     * @throws ContradictionException if a domain is emptied
-     */
-    protected boolean prefilter() throws ContradictionException {
-        FastPathFinder p = this.graph.getPathFinder();
-
-        boolean cont = true;
-        boolean[] modified;
-        while (cont) {
-            modified = p.computeShortestAndLongestPath(toRemove, z, this);
-            cont = toRemove.size() > 0;
-            modifiedBound[0] |= modified[0];
-            modifiedBound[1] |= modified[1];
-            this.delayedGraphUpdate();
-
-        }
-        return (modifiedBound[0] || modifiedBound[1]);
-    }
-
-
     /**
      * Filters w.r.t. a given lower bound.
      *
@@ -673,81 +599,12 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         }
     }
 
-    protected void checkWorld() throws ContradictionException {
-        int currentworld = model.getEnvironment().getWorldIndex();
-        long currentbt = model.getSolver().getBackTrackCount();
-        long currentrestart = model.getSolver().getRestartCount();
-        //System.err.println("TIME STAMP : "+currentbt+"   BT COUNT : "+solver.getBackTrackCount());
-        // assert (currentbt == model.getBackTrackCount());
-        if (currentworld < lastWorld || currentbt != lastNbOfBacktracks || currentrestart > lastNbOfRestarts) {
-
-            for (int i = 0; i <= nbR; i++) {
-                this.toUpdateLeft[i].clear();
-                this.toUpdateRight[i].clear();
-            }
-
-            this.toRemove.clear();
-            this.graph.inStack.clear();
-
-
-            this.getGraph().getPathFinder().computeShortestAndLongestPath(toRemove, z, this);
-            computed = true;
-            //assert(toRemove.size() == 0); // PAS SUR DE L'ASSERT
-            // this.graph.toUpdateLeft.reset();
-            //this.graph.toUpdateRight.reset();
-        }
-        lastWorld = currentworld;
-        lastNbOfBacktracks = currentbt;
-        lastNbOfRestarts = currentrestart;
-    }
-
-
-    /**
-     * Updates the graphs w.r.t. the caught event during event-based propagation
-     *
-     * @throws ContradictionException if removing an edge causes a domain to be emptied
-     */
-    protected void delayedGraphUpdate() throws ContradictionException {
-
-        try {
-            do
-            //while (toRemove.size() > 0)
-            {
-                while (toRemove.size() > 0) {
-                    int n = toRemove.pop();
-//                    needUpdate =
-                    this.graph.removeArc(n, toRemove, toUpdateLeft, toUpdateRight, this);
-                    // modifiedBound[0] = modifiedBound[1]  = true;
-                }
-                // if (needUpdate)
-                for (int k = 0; k <= nbR; k++) {
-                    while (this.toUpdateLeft[k].size() > 0) {
-                        this.graph.updateLeft(this.toUpdateLeft[k], toRemove, k, modifiedBound, this);
-                        if (toRemove.size() > 0) break;
-                    }
-                    while (this.toUpdateRight[k].size() > 0) {
-                        this.graph.updateRight(this.toUpdateRight[k], toRemove, k, modifiedBound, this);
-                        if (toRemove.size() > 0) break;
-                    }
-                }
-
-
-            } while (toRemove.size() > 0);
-        } catch (ArrayIndexOutOfBoundsException ignored) {
-        }
-        // System.err.println("MAX : "+max);
-        //  this.prefilter();
-    }
-
-
     /**
      * Iteratively compute upper and lower bound for the underlying RCSPP
      *
      * @throws ContradictionException if a domain gets empty
      */
     public void computeSharpBounds() throws ContradictionException {
-        // do
-        // {
         while (modifiedBound[0] || modifiedBound[1]) {
             if (modifiedBound[1]) {
                 modifiedBound[1] = false;
@@ -757,18 +614,9 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
                 modifiedBound[0] = false;
                 updateUpperBound();
             }
-            /*if (!modifiedBound[0] && !modifiedBound[1]) */
-            this.delayedGraphUpdate();
-        }  // } while(this.prefilter());
-    }
-
-
-    private boolean remContains(int e) {
-        int[] element = toRemove.toArray();
-        for (int i = 0; i < toRemove.size(); i++)
-            if (element[i] == e)
-                return true;
-        return false;
+            // the shortest and longest paths w.r.t. each resource are kept up to date
+            this.filterResources();
+        }
     }
 
     private void checkBounds() throws ContradictionException {
@@ -782,15 +630,9 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
         }
     }
 
-    private void delayedBoundUpdate() throws ContradictionException {
-        if (!computed && boundUpdate.size() > 0) {
-            this.getGraph().delayedBoundUpdate(toRemove, z, boundUpdate.toArray());
-            boundUpdate.clear();
-        }
-    }
-
     public void rebuildCostRegInfo() throws ContradictionException {
-        checkWorld();
+        graph.restore();
+        filterResources();
     }
 
     public final boolean needPropagation() {
@@ -804,32 +646,31 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
 
     public boolean isGraphConsistent() {
+        LayeredGraph g = graph.getGraph();
         for (int i = 0; i < offset; i++) {
-            DisposableIntIterator iter = this.graph.layers[i].getIterator();
-            while (iter.hasNext()) {
-                int n = iter.next();
-                DisposableIntIterator it = this.graph.GNodes.outArcs[n].getIterator();
-                while (it.hasNext()) {
-                    int arc = it.next();
-                    int val = this.graph.GArcs.values[arc];
-                    if (!vars[i].contains(val)) {
-                        System.err.println("Arc " + arc + " from node " + n + " to node" + this.graph.GArcs.dests[arc] + " with value " + val + " in layer " + i + " should not be here");
+            for (int s = g.getSlotStart(i); s < g.getSlotStart(i + 1); s++) {
+                for (int a = g.getArcStart(s); a < g.getArcStart(s + 1); a++) {
+                    if (graph.isAlive(a) && !vars[i].contains(g.getValue(s))) {
+                        System.err.println("Arc " + a + " from node " + g.getSource(a) + " to node" + g.getTarget(a) + " with value " + g.getValue(s) + " in layer " + i + " should not be here");
                         return false;
                     }
                 }
             }
-            iter.dispose();
         }
         return true;
     }
 
 
-    public final StoredDirectedMultiGraph getGraph() {
+    public final StoredLayeredGraph getGraph() {
         return graph;
     }
 
     public final int getRegret(int layer, int value, int... resources) {
-        return this.graph.getRegret(layer, value, resources);
+        int result = getMinPathCostForAssignment(layer, value, resources);
+        for (int r : resources) {
+            result -= spft[r][0];
+        }
+        return result;
     }
 
     @Override
@@ -866,21 +707,24 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
             return false;
         }
+        LayeredGraph g = graph.getGraph();
         int[] gcost = new int[z.length];
-        for (int l = 0; l < graph.layers.length - 2; l++) {
-            DisposableIntIterator it = graph.layers[l].getIterator();
-            while (it.hasNext()) {
-                int orig = it.next();
-                DisposableIntIterator arcIter = graph.GNodes.outArcs[orig].getIterator();
-                while (arcIter.hasNext()) {
-                    int arc = arcIter.next();
+        int node = 0;
+        for (int l = 0; l < offset; l++) {
+            int s = g.getSlot(l, word[l]);
+            int next = -1;
+            for (int j = g.getOutStart(node); next < 0 && j < g.getOutStart(node + 1); j++) {
+                int arc = g.getOutArc(j);
+                if (g.getLabel(arc) == s) {
+                    next = g.getTarget(arc);
                     for (int i = 0; i < z.length; i++)
-                        gcost[i] += graph.GArcs.originalCost[arc][i];
+                        gcost[i] += costs[i][arc];
                 }
-                arcIter.dispose();
-
             }
-            it.dispose();
+            if (next < 0) {
+                return false;
+            }
+            node = next;
         }
         for (int i = 0; i < gcost.length; i++) {
             if (!z[i].isInstantiated()) {
@@ -915,24 +759,61 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
     }
 
     public int getMinPathCostForAssignment(int col, int val, int... resources) {
-        return this.graph.getMinPathCostForAssignment(col, val, resources);
+        return getMinMaxPathCostForAssignment(col, val, resources)[0];
     }
 
+    private int[] minmax = new int[2];
+
     public int[] getMinMaxPathCostForAssignment(int col, int val, int... resources) {
-        return this.graph.getMinMaxPathCostForAssignment(col, val, resources);
+        LayeredGraph g = graph.getGraph();
+        minmax[0] = Integer.MAX_VALUE;
+        minmax[1] = Integer.MIN_VALUE;
+        int s = g.getSlot(col, val);
+        if (s >= 0) {
+            for (int arcId = g.getArcStart(s); arcId < g.getArcStart(s + 1); arcId++) {
+                if (graph.isAlive(arcId)) {
+                    int origId = g.getSource(arcId);
+                    int destId = g.getTarget(arcId);
+                    int cost = 0;
+                    for (int r : resources) {
+                        cost += spfs[r][origId] + costs[r][arcId] + spft[r][destId];
+                    }
+                    if (cost < minmax[0])
+                        minmax[0] = cost;
+                    if (cost > minmax[1])
+                        minmax[1] = cost;
+                }
+            }
+        }
+        return minmax;
     }
 
     public int getMinPathCost(int... resources) {
-        return this.graph.getMinPathCost(resources);
+        int result = 0;
+        for (int r : resources) {
+            result += spft[r][0];
+        }
+        return result;
     }
 
     public double[] getInstantiatedLayerCosts(int layer) {
-        return this.graph.getInstantiatedLayerCosts(layer);
+        LayeredGraph g = graph.getGraph();
+        int node = graph.getNode(g.getLayerStart(layer));
+        double[] layerCosts = new double[z.length];
+        for (int j = g.getOutStart(node); j < g.getOutStart(node + 1); j++) {
+            int arcId = g.getOutArc(j);
+            if (graph.isAlive(arcId)) {
+                for (int r = 0; r < z.length; r++) {
+                    layerCosts[r] = costs[r][arcId];
+                }
+                break;
+            }
+        }
+        return layerCosts;
     }
 
     public void forcePathRecomputation() throws ContradictionException {
-        lastWorld = Integer.MAX_VALUE;
-        checkWorld();
+        rebuildCostRegInfo();
     }
 
 
@@ -953,18 +834,9 @@ public final class PropMultiCostRegular extends Propagator<IntVar> {
 
         @Override
         public void execute(int i) throws ContradictionException {
-            StoredIndexedBipartiteSet support = p.graph.getUBport(idxVar, i);
-            if (support != null) {
-                final int[] list = support._getStructure();
-                final int size = support.size();
-                for (int j = 0; j < size; j++) {
-                    int e = list[j];//t.next();
-                    assert (p.graph.isInStack(e) == p.remContains(e));
-                    if (!p.graph.isInStack(e)) {
-                        p.graph.setInStack(e);
-                        p.toRemove.push(e);
-                    }
-                }
+            int s = p.graph.getGraph().getSlot(idxVar, i);
+            if (s >= 0) {
+                p.graph.removeArcs(s);
             }
         }
     }
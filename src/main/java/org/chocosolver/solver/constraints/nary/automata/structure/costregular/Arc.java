@@ -18,7 +18,10 @@ import org.jgrapht.graph.DefaultWeightedEdge;
  * User: julien
  * Date: Oct 30, 2009
  * Time: 3:48:11 PM
+ * @deprecated PropCostRegular stores its arcs in a
+ * {@link org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph}; this class is no longer used
  */
+@Deprecated
 public class Arc extends DefaultWeightedEdge implements IndexedObject {
 
     public int id;
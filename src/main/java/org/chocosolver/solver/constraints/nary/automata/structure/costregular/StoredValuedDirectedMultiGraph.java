@@ -33,7 +33,10 @@ import java.util.Set;
  * Mail: julien.menana{at}emn.fr
  * Date: Nov 4, 2009
  * Time: 1:07:19 PM
+ * @deprecated PropCostRegular stores its arcs in a
+ * {@link org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph}; this class is no longer used
  */
+@Deprecated
 public class StoredValuedDirectedMultiGraph {
 
     //***********************************************************************************
@@ -17,7 +17,10 @@ import org.jgrapht.EdgeFactory;
  * User: julien
  * Date: Oct 30, 2009
  * Time: 3:48:11 PM
+ * @deprecated PropMultiCostRegular stores its arcs in a
+ * {@link org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph}; this class is no longer used
  */
+@Deprecated
 public class Arc implements IndexedObject {
 
     public int id;
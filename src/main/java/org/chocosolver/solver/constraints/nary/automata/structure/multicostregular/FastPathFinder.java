@@ -25,7 +25,10 @@ import java.util.Arrays;
  * Mail: julien.menana{at}emn.fr
  * Date: Nov 19, 2009
  * Time: 5:50:53 PM
+ * @deprecated PropMultiCostRegular stores its arcs in a
+ * {@link org.chocosolver.solver.constraints.nary.automata.structure.regular.LayeredGraph}; this class is no longer used
  */
+@Deprecated
 public class FastPathFinder {
 
     //***********************************************************************************
@@ -17,7 +17,9 @@ import org.jgrapht.EdgeFactory;
  * User: julien
  * Date: Oct 30, 2009
  * Time: 3:48:11 PM
+ * @deprecated PropRegular stores its arcs in a {@link LayeredGraph}; this class is no longer used
  */
+@Deprecated
 public class Arc implements IndexedObject {
 
     public int id;
@@ -0,0 +1,441 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure.regular;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.nary.automata.FA.IAutomaton;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The layered graph obtained by unfolding an automaton over a sequence of variables,
+ * restricted to the arcs which belong to a path from the initial state (in the first layer) to an accepting state
+ * (in the last layer).
+ * <br/>
+ * The graph is immutable and stored in primitive arrays only:
+ * <ul>
+ *     <li>nodes are numbered layer by layer, nodes of layer <i>l</i> are in [layerStart(l), layerStart(l+1)),</li>
+ *     <li>arcs are numbered by layer and then by value, so the arcs labelled with a value of a variable are contiguous
+ *     (a <i>slot</i> identifies a value of a variable),</li>
+ *     <li>the out-arcs and the in-arcs of each node are stored in compressed rows.</li>
+ * </ul>
+ * The reversible data (which arcs are still alive) are maintained apart, in a {@link StoredLayeredGraph}, so a
+ * layered graph can be shared by several propagators over variables with identical domains
+ * (see {@link #unfold(IntVar[], IAutomaton)}).
+ *
+ * @since 19/10/2026
+ */
+public class LayeredGraph {
+
+    /**
+     * Number of variables (the graph has nbLayers + 1 layers of nodes)
+     */
+    private final int nbLayers;
+    /**
+     * Initial domain offset and first slot of each variable
+     */
+    private final int[] offsets;
+    private final int[] slotStart;
+    /**
+     * Variable of each slot
+     */
+    private final int[] slotVar;
+    /**
+     * Arcs labelled with the value of slot s are in [arcStart[s], arcStart[s + 1])
+     */
+    private final int[] arcStart;
+    /**
+     * Source node, target node and slot of each arc
+     */
+    private final int[] src, dst, label;
+    /**
+     * First node of each layer
+     */
+    private final int[] layerStart;
+    /**
+     * State of the automaton of each node
+     */
+    private final int[] states;
+    /**
+     * Out-arcs (resp. in-arcs) of node n are outArcs[outStart[n]..outStart[n+1]) (resp. inArcs)
+     */
+    private final int[] outStart, outArcs, inStart, inArcs;
+
+    /**
+     * Unfold <i>automaton</i> over the current domains of <i>vars</i>
+     *
+     * @param vars      a sequence of variables
+     * @param automaton an automaton
+     */
+    public LayeredGraph(IntVar[] vars, IAutomaton automaton) {
+        this.nbLayers = vars.length;
+        int n = nbLayers;
+        offsets = new int[n];
+        slotStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = vars[i].getLB();
+            slotStart[i + 1] = slotStart[i] + vars[i].getUB() - vars[i].getLB() + 1;
+        }
+        slotVar = new int[slotStart[n]];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(slotVar, slotStart[i], slotStart[i + 1], i);
+        }
+        int nbStates = automaton.getNbStates();
+        TIntHashSet nexts = new TIntHashSet();
+        // forward pass: states reachable from the initial state
+        BitSet[] reach = new BitSet[n + 1];
+        reach[0] = new BitSet(nbStates);
+        reach[0].set(automaton.getInitialState());
+        for (int i = 0; i < n; i++) {
+            reach[i + 1] = new BitSet(nbStates);
+            int ub = vars[i].getUB();
+            for (int k = reach[i].nextSetBit(0); k >= 0; k = reach[i].nextSetBit(k + 1)) {
+                for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                    nexts.clear();
+                    automaton.delta(k, j, nexts);
+                    for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
+                        reach[i + 1].set(it.next());
+                    }
+                }
+            }
+        }
+        // backward pass: states leading to an accepting state, and arcs between them
+        BitSet[] coreach = new BitSet[n + 1];
+        coreach[n] = new BitSet(nbStates);
+        for (int k = reach[n].nextSetBit(0); k >= 0; k = reach[n].nextSetBit(k + 1)) {
+            if (!automaton.isNotFinal(k)) {
+                coreach[n].set(k);
+            }
+        }
+        // per layer, (source state, value, target state) triples, sorted by value
+        TIntArrayList[] arcs = new TIntArrayList[n];
+        for (int i = n - 1; i >= 0; i--) {
+            arcs[i] = new TIntArrayList();
+            coreach[i] = new BitSet(nbStates);
+            int ub = vars[i].getUB();
+            for (int j = vars[i].getLB(); j <= ub; j = vars[i].nextValue(j)) {
+                for (int k = reach[i].nextSetBit(0); k >= 0; k = reach[i].nextSetBit(k + 1)) {
+                    nexts.clear();
+                    automaton.delta(k, j, nexts);
+                    for (TIntIterator it = nexts.iterator(); it.hasNext(); ) {
+                        int succ = it.next();
+                        if (coreach[i + 1].get(succ)) {
+                            arcs[i].add(k);
+                            arcs[i].add(j);
+                            arcs[i].add(succ);
+                            coreach[i].set(k);
+                        }
+                    }
+                }
+            }
+        }
+        // the initial state only belongs to the first layer if it leads to an accepting state
+        if (!coreach[0].get(automaton.getInitialState())) {
+            for (int i = 0; i < n; i++) {
+                arcs[i].clear();
+                coreach[i + 1].clear();
+            }
+        }
+        // number nodes, layer by layer; a node is a state both reachable and co-reachable
+        layerStart = new int[n + 2];
+        int[][] nodeOf = new int[n + 1][];
+        TIntArrayList nodeStates = new TIntArrayList();
+        for (int i = 0; i <= n; i++) {
+            nodeOf[i] = new int[nbStates];
+            int id = layerStart[i];
+            if (i == 0) {
+                // a graph with no arc still has its root
+                nodeOf[0][automaton.getInitialState()] = id++;
+                nodeStates.add(automaton.getInitialState());
+            } else {
+                coreach[i].and(reach[i]);
+                for (int k = coreach[i].nextSetBit(0); k >= 0; k = coreach[i].nextSetBit(k + 1)) {
+                    nodeOf[i][k] = id++;
+                    nodeStates.add(k);
+                }
+            }
+            layerStart[i + 1] = id;
+        }
+        states = nodeStates.toArray();
+        int nbArcs = 0;
+        for (int i = 0; i < n; i++) {
+            nbArcs += arcs[i].size() / 3;
+        }
+        src = new int[nbArcs];
+        dst = new int[nbArcs];
+        label = new int[nbArcs];
+        arcStart = new int[slotStart[n] + 1];
+        int a = 0;
+        for (int i = 0; i < n; i++) {
+            for (int t = 0; t < arcs[i].size(); t += 3) {
+                src[a] = nodeOf[i][arcs[i].getQuick(t)];
+                label[a] = slotStart[i] + arcs[i].getQuick(t + 1) - offsets[i];
+                dst[a] = nodeOf[i + 1][arcs[i].getQuick(t + 2)];
+                arcStart[label[a] + 1]++;
+                a++;
+            }
+        }
+        for (int s = 0; s < slotStart[n]; s++) {
+            arcStart[s + 1] += arcStart[s];
+        }
+        int nbNodes = layerStart[n + 1];
+        outStart = new int[nbNodes + 1];
+        inStart = new int[nbNodes + 1];
+        for (a = 0; a < nbArcs; a++) {
+            outStart[src[a] + 1]++;
+            inStart[dst[a] + 1]++;
+        }
+        for (int x = 0; x < nbNodes; x++) {
+            outStart[x + 1] += outStart[x];
+            inStart[x + 1] += inStart[x];
+        }
+        outArcs = new int[nbArcs];
+        inArcs = new int[nbArcs];
+        int[] o = Arrays.copyOf(outStart, nbNodes);
+        int[] in = Arrays.copyOf(inStart, nbNodes);
+        for (a = 0; a < nbArcs; a++) {
+            outArcs[o[src[a]]++] = a;
+            inArcs[in[dst[a]]++] = a;
+        }
+    }
+
+    /**
+     * Unfold <i>automaton</i> over the current domains of <i>vars</i>, or return the graph already unfolded in the
+     * same model for an identical automaton (up to a renaming of its states) over variables with identical domains.
+     *
+     * @param vars      a sequence of variables
+     * @param automaton an automaton
+     * @return a layered graph which can be shared by propagators
+     */
+    @SuppressWarnings("unchecked")
+    public static LayeredGraph unfold(IntVar[] vars, IAutomaton automaton) {
+        if (vars.length == 0) {
+            return new LayeredGraph(vars, automaton);
+        }
+        Model model = vars[0].getModel();
+        Map<Signature, LayeredGraph> graphs = (Map<Signature, LayeredGraph>) model.getHook(Model.REGULAR_GRAPHS_HOOK_NAME);
+        if (graphs == null) {
+            graphs = new HashMap<>();
+            model.addHook(Model.REGULAR_GRAPHS_HOOK_NAME, graphs);
+        }
+        return graphs.computeIfAbsent(new Signature(vars, automaton), k -> new LayeredGraph(vars, automaton));
+    }
+
+    /**
+     * @return number of variables
+     */
+    public int getNbLayers() {
+        return nbLayers;
+    }
+
+    /**
+     * @return number of nodes
+     */
+    public int getNbNodes() {
+        return layerStart[nbLayers + 1];
+    }
+
+    /**
+     * @return number of arcs
+     */
+    public int getNbArcs() {
+        return src.length;
+    }
+
+    /**
+     * @return number of slots, that is, of values over all initial domains
+     */
+    public int getNbSlots() {
+        return slotVar.length;
+    }
+
+    /**
+     * @param layer a layer of nodes, in [0, getNbLayers()]
+     * @return the first node of <i>layer</i>, nodes of <i>layer</i> are in [getLayerStart(layer), getLayerStart(layer+1))
+     */
+    public int getLayerStart(int layer) {
+        return layerStart[layer];
+    }
+
+    /**
+     * @param node a node
+     * @return the layer of <i>node</i>
+     */
+    public int getLayer(int node) {
+        int l = Arrays.binarySearch(layerStart, 0, nbLayers + 1, node);
+        if (l < 0) {
+            return -l - 2;
+        }
+        // skip empty layers
+        while (layerStart[l + 1] == node) {
+            l++;
+        }
+        return l;
+    }
+
+    /**
+     * @param node a node
+     * @return the state of the automaton <i>node</i> stands for; when the graph is shared (see
+     * {@link #unfold(IntVar[], IAutomaton)}), states are the ones of the automaton it was first unfolded from
+     */
+    public int getState(int node) {
+        return states[node];
+    }
+
+    /**
+     * @param var   index of a variable
+     * @param value a value
+     * @return the slot of <i>value</i> for the variable <i>var</i>, -1 if the value was not in its initial domain
+     */
+    public int getSlot(int var, int value) {
+        int s = slotStart[var] + value - offsets[var];
+        return value < offsets[var] || s >= slotStart[var + 1] ? -1 : s;
+    }
+
+    /**
+     * @param slot a slot
+     * @return the index of the variable of <i>slot</i>
+     */
+    public int getVar(int slot) {
+        return slotVar[slot];
+    }
+
+    /**
+     * @param slot a slot
+     * @return the value of <i>slot</i>
+     */
+    public int getValue(int slot) {
+        int var = slotVar[slot];
+        return slot - slotStart[var] + offsets[var];
+    }
+
+    /**
+     * @param var index of a variable
+     * @return the first slot of <i>var</i>, its slots are in [getSlotStart(var), getSlotStart(var+1))
+     */
+    public int getSlotStart(int var) {
+        return slotStart[var];
+    }
+
+    /**
+     * @param slot a slot
+     * @return the first arc labelled with <i>slot</i>, those arcs are in [getArcStart(slot), getArcStart(slot+1))
+     */
+    public int getArcStart(int slot) {
+        return arcStart[slot];
+    }
+
+    public int getSource(int arc) {
+        return src[arc];
+    }
+
+    public int getTarget(int arc) {
+        return dst[arc];
+    }
+
+    public int getLabel(int arc) {
+        return label[arc];
+    }
+
+    /**
+     * @param node a node
+     * @return the index, in {@link #getOutArc(int)}, of the first out-arc of <i>node</i>
+     */
+    public int getOutStart(int node) {
+        return outStart[node];
+    }
+
+    public int getOutArc(int i) {
+        return outArcs[i];
+    }
+
+    /**
+     * @param node a node
+     * @return the index, in {@link #getInArc(int)}, of the first in-arc of <i>node</i>
+     */
+    public int getInStart(int node) {
+        return inStart[node];
+    }
+
+    public int getInArc(int i) {
+        return inArcs[i];
+    }
+
+    /**
+     * Identifies an unfolding: the domains of the variables and the transitions of the states reachable from the
+     * initial state, restricted to the values of the domains.
+     * States are numbered in the order they are reached, so two copies of an automaton share their signature.
+     */
+    private static final class Signature {
+
+        private final int[] data;
+        private final int hash;
+
+        Signature(IntVar[] vars, IAutomaton automaton) {
+            TIntArrayList sig = new TIntArrayList();
+            TIntHashSet values = new TIntHashSet();
+            sig.add(vars.length);
+            for (IntVar var : vars) {
+                sig.add(var.getDomainSize());
+                int ub = var.getUB();
+                for (int j = var.getLB(); j <= ub; j = var.nextValue(j)) {
+                    sig.add(j);
+                    values.add(j);
+                }
+            }
+            int[] alphabet = values.toArray();
+            Arrays.sort(alphabet);
+            TIntIntHashMap ids = new TIntIntHashMap(16, .5f, -1, -1);
+            TIntArrayList queue = new TIntArrayList();
+            TIntHashSet nexts = new TIntHashSet();
+            ids.put(automaton.getInitialState(), 0);
+            queue.add(automaton.getInitialState());
+            for (int q = 0; q < queue.size(); q++) {
+                int k = queue.getQuick(q);
+                sig.add(automaton.isNotFinal(k) ? 0 : 1);
+                for (int j : alphabet) {
+                    nexts.clear();
+                    automaton.delta(k, j, nexts);
+                    int[] succs = nexts.toArray();
+                    Arrays.sort(succs);
+                    sig.add(succs.length);
+                    for (int succ : succs) {
+                        int id = ids.get(succ);
+                        if (id == -1) {
+                            id = queue.size();
+                            ids.put(succ, id);
+                            queue.add(succ);
+                        }
+                        sig.add(id);
+                    }
+                }
+            }
+            data = sig.toArray();
+            hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature && hash == ((Signature) o).hash && Arrays.equals(data, ((Signature) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
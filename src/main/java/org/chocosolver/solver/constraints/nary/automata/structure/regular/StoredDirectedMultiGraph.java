@@ -29,7 +29,9 @@ import java.util.Set;
  * Mail: julien.menana{at}emn.fr
  * Date: Nov 4, 2009
  * Time: 1:07:19 PM
+ * @deprecated PropRegular stores its graph in a {@link LayeredGraph}; this class is no longer used
  */
+@Deprecated
 public class StoredDirectedMultiGraph {
 
 	private int[] starts;
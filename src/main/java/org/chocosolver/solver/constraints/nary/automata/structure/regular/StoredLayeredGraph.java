@@ -0,0 +1,292 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.automata.structure.regular;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+
+/**
+ * The reversible part of a {@link LayeredGraph}: which arcs are still alive for a given propagator.
+ * <br/>
+ * Alive arcs are stored in a bitset, and the number of alive in-arcs and out-arcs of each node, and of alive arcs of
+ * each value, are kept in primitive arrays.
+ * An arc is removed when its value is removed or when its source (resp. target) has no more in-arcs (resp. out-arcs);
+ * a value is removed when no more arc is labelled with it.
+ * Instead of trailing every counter, removed arcs are pushed on a stack whose size only is trailed:
+ * on backtrack, the arcs above the restored size are put back, in reverse order.
+ * The alive nodes of each layer are maintained in a sparse set, restored the same way.
+ * <br/>
+ * The variable of layer <i>l</i> is the <i>l</i>-th variable of the propagator.
+ *
+ * @since 19/10/2026
+ */
+public class StoredLayeredGraph {
+
+    private final LayeredGraph graph;
+    private final Propagator<IntVar> propagator;
+
+    /**
+     * Alive arcs
+     */
+    private final long[] alive;
+    /**
+     * Number of alive out-arcs and in-arcs of each node, a virtual arc enters the root and leaves the final nodes
+     */
+    private final int[] outDeg, inDeg;
+    /**
+     * Number of alive arcs of each slot
+     */
+    private final int[] supports;
+    /**
+     * Alive nodes, per layer: the nodes of layer l are in nodes[layerStart(l)..layerStart(l)+nbAlive[l])
+     */
+    private final int[] nodes, position, nbAlive;
+    /**
+     * Removed arcs, in order of removal, the first <i>trailSize</i> ones are removed in the current world
+     */
+    private final int[] trail;
+    private int top;
+    private final IStateInt trailSize;
+    /**
+     * Arcs to remove and slots without support
+     */
+    private final int[] toRemove;
+    private int nbToRemove;
+    private final int[] unsupported;
+    private int nbUnsupported;
+
+    /**
+     * Create the reversible part of <i>graph</i>, with all its arcs alive
+     *
+     * @param graph      a layered graph
+     * @param propagator the propagator whose first variables are the ones <i>graph</i> was unfolded over
+     */
+    public StoredLayeredGraph(LayeredGraph graph, Propagator<IntVar> propagator) {
+        this.graph = graph;
+        this.propagator = propagator;
+        int nbArcs = graph.getNbArcs();
+        int nbNodes = graph.getNbNodes();
+        int n = graph.getNbLayers();
+        alive = new long[(nbArcs + 63) >>> 6];
+        for (int a = 0; a < nbArcs; a++) {
+            alive[a >>> 6] |= 1L << a;
+        }
+        outDeg = new int[nbNodes];
+        inDeg = new int[nbNodes];
+        for (int x = 0; x < nbNodes; x++) {
+            outDeg[x] = graph.getOutStart(x + 1) - graph.getOutStart(x);
+            inDeg[x] = graph.getInStart(x + 1) - graph.getInStart(x);
+        }
+        inDeg[0]++;
+        for (int x = graph.getLayerStart(n); x < nbNodes; x++) {
+            outDeg[x]++;
+        }
+        supports = new int[graph.getNbSlots()];
+        for (int s = 0; s < supports.length; s++) {
+            supports[s] = graph.getArcStart(s + 1) - graph.getArcStart(s);
+        }
+        nodes = new int[nbNodes];
+        position = new int[nbNodes];
+        nbAlive = new int[n + 1];
+        for (int x = 0; x < nbNodes; x++) {
+            nodes[x] = position[x] = x;
+        }
+        for (int l = 0; l <= n; l++) {
+            nbAlive[l] = graph.getLayerStart(l + 1) - graph.getLayerStart(l);
+        }
+        trail = new int[nbArcs];
+        trailSize = propagator.getModel().getEnvironment().makeInt(0);
+        toRemove = new int[nbArcs];
+        unsupported = new int[supports.length];
+    }
+
+    /**
+     * @return the layered graph
+     */
+    public LayeredGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Put back the arcs removed in worlds which have been backtracked.
+     * To be called before any other method in a propagation.
+     */
+    public void restore() {
+        int size = trailSize.get();
+        while (top > size) {
+            int a = trail[--top];
+            alive[a >>> 6] |= 1L << a;
+            int x = graph.getSource(a);
+            int y = graph.getTarget(a);
+            if (outDeg[x]++ == 0 && inDeg[x] > 0) {
+                revive(x);
+            }
+            if (inDeg[y]++ == 0 && outDeg[y] > 0) {
+                revive(y);
+            }
+            supports[graph.getLabel(a)]++;
+        }
+        // arcs marked when a failure occurred
+        while (nbToRemove > 0) {
+            int a = toRemove[--nbToRemove];
+            alive[a >>> 6] |= 1L << a;
+        }
+        nbUnsupported = 0;
+    }
+
+    /**
+     * @param arc an arc
+     * @return true if <i>arc</i> is alive, that is, neither removed nor marked to be removed
+     */
+    public boolean isAlive(int arc) {
+        return (alive[arc >>> 6] & 1L << arc) != 0;
+    }
+
+    /**
+     * Mark the alive arcs labelled with <i>slot</i> to be removed
+     *
+     * @param slot a slot
+     */
+    public void removeArcs(int slot) {
+        for (int a = graph.getArcStart(slot); a < graph.getArcStart(slot + 1); a++) {
+            removeArc(a);
+        }
+    }
+
+    /**
+     * Mark the arcs whose value is no longer in the domain of its variable to be removed
+     */
+    public void removeArcsNotInDomains() {
+        for (int i = 0; i < graph.getNbLayers(); i++) {
+            IntVar var = propagator.getVar(i);
+            for (int s = graph.getSlotStart(i); s < graph.getSlotStart(i + 1); s++) {
+                if (!var.contains(graph.getValue(s))) {
+                    removeArcs(s);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark <i>arc</i> to be removed, if it is alive
+     *
+     * @param arc an arc
+     */
+    public void removeArc(int arc) {
+        if (isAlive(arc)) {
+            toRemove[nbToRemove++] = arc;
+            alive[arc >>> 6] &= ~(1L << arc);
+        }
+    }
+
+    /**
+     * Remove the marked arcs, and the arcs which no longer belong to a path from the root to a final node
+     *
+     * @return true if at least one arc has been removed
+     * @throws ContradictionException if no path remains
+     */
+    public boolean removeArcs() throws ContradictionException {
+        boolean removed = nbToRemove > 0;
+        while (nbToRemove > 0) {
+            int a = toRemove[--nbToRemove];
+            trail[top++] = a;
+            int s = graph.getLabel(a);
+            if (--supports[s] == 0) {
+                unsupported[nbUnsupported++] = s;
+            }
+            int x = graph.getSource(a);
+            if (--outDeg[x] == 0) {
+                if (inDeg[x] > 0) {
+                    kill(x);
+                }
+                for (int i = graph.getInStart(x); i < graph.getInStart(x + 1); i++) {
+                    removeArc(graph.getInArc(i));
+                }
+            }
+            int y = graph.getTarget(a);
+            if (--inDeg[y] == 0) {
+                if (outDeg[y] > 0) {
+                    kill(y);
+                }
+                for (int i = graph.getOutStart(y); i < graph.getOutStart(y + 1); i++) {
+                    removeArc(graph.getOutArc(i));
+                }
+            }
+        }
+        trailSize.set(top);
+        if (outDeg[0] == 0) {
+            propagator.fails();
+        }
+        return removed;
+    }
+
+    /**
+     * Mark every slot without alive arc as unsupported, whether it is newly or not
+     */
+    public void collectUnsupported() {
+        nbUnsupported = 0;
+        for (int s = 0; s < supports.length; s++) {
+            if (supports[s] == 0) {
+                unsupported[nbUnsupported++] = s;
+            }
+        }
+    }
+
+    /**
+     * Remove the values which are no more supported
+     *
+     * @throws ContradictionException if a domain becomes empty
+     */
+    public void prune() throws ContradictionException {
+        while (nbUnsupported > 0) {
+            int s = unsupported[--nbUnsupported];
+            propagator.getVar(graph.getVar(s)).removeValue(graph.getValue(s), propagator);
+        }
+    }
+
+    /**
+     * @param layer a layer of nodes, in [0, number of variables]
+     * @return the number of alive nodes in <i>layer</i>, that is, of states which can be reached at <i>layer</i>
+     * and from which a final state can be reached
+     */
+    public int getNbAlive(int layer) {
+        return nbAlive[layer];
+    }
+
+    /**
+     * @param i an index in [getLayerStart(l), getLayerStart(l) + getNbAlive(l)) to get an alive node of layer l
+     * @return the <i>i</i>-th node
+     */
+    public int getNode(int i) {
+        return nodes[i];
+    }
+
+    private void kill(int x) {
+        int l = graph.getLayer(x);
+        int last = graph.getLayerStart(l) + --nbAlive[l];
+        swap(x, nodes[last]);
+    }
+
+    private void revive(int x) {
+        int l = graph.getLayer(x);
+        int first = graph.getLayerStart(l) + nbAlive[l]++;
+        swap(x, nodes[first]);
+    }
+
+    private void swap(int x, int y) {
+        int px = position[x];
+        int py = position[y];
+        nodes[px] = y;
+        position[y] = px;
+        nodes[py] = x;
+        position[x] = py;
+    }
+}
@@ -0,0 +1,511 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.binPacking;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.procedure.UnaryIntProcedure;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Propagator for a Bin Packing constraint, based on
+ * "A constraint for bin packing", P. Shaw, CP 2004:
+ * <ul>
+ * <li>load maintenance and single item elimination/commitment,</li>
+ * <li>knapsack reasoning on each bin, with the NoSum procedure,
+ * to tighten its load and to remove or commit its candidate items,</li>
+ * <li>a failure test with the lower bound L2 of Martello and Toth, computed on the reduced problem.</li>
+ * </ul>
+ * The candidate items of each bin, i.e. those which may be packed into it but are not yet,
+ * are maintained incrementally in a backtrackable sparse set, as well as the packed and candidate loads.
+ * Only the bins which have been modified since the last call are filtered.
+ * <br/>
+ * Item sizes should not be negative.
+ *
+ * @since 19/10/2026
+ */
+public class PropBinPacking extends Propagator<IntVar> {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final int nbItems, nbAvailableBins, offset;
+	private final int[] itemSize;
+	private final IntVar[] binOfItem, binLoad;
+
+	// candidates[b][0..nbCandidates[b]) are the candidate items of bin b, position[b][i] is the index of item i
+	private final int[][] candidates, position;
+	private final IStateInt[] nbCandidates;
+	// total size of the items packed into, resp. candidate for, each bin
+	private final IStateInt[] packed, candidateLoad;
+
+	// items sorted by non-increasing size, and rank of each item in this order
+	private final int[] order, rank;
+
+	private final BitSet binToProcess = new BitSet();
+
+	// structure allowing iteration over removed values since last call
+	private final IIntDeltaMonitor[] monitors;
+
+	// method to be called for each removed value
+	private final UnaryIntProcedure<Integer> procedure = new UnaryIntProcedure<Integer>() {
+		int item;
+
+		@Override
+		public UnaryIntProcedure<Integer> set(Integer itemIdx) {
+			item = itemIdx;
+			return this;
+		}
+
+		@Override
+		public void execute(int bin) throws ContradictionException {
+			bin -= offset;
+			if (bin >= 0 && bin < nbAvailableBins) {
+				discard(item, bin);
+			}
+		}
+	};
+
+	// buffers
+	private final int[] sizes, items, others, weights;
+	private final long[] sums;
+	// largest sum below alpha, resp. smallest sum above beta, computed by noSum()
+	private int alphaP, betaP;
+
+	//***********************************************************************************
+	// CONSTRUCTOR
+	//***********************************************************************************
+
+	/**
+	 * Propagator for a Bin Packing constraint
+	 *
+	 * @param binOfItem bin of every item (possibly with offset)
+	 * @param itemSize  size of every item, not negative
+	 * @param binLoad   total load of every bin
+	 * @param offset    index offset: binOfItem[i] = k means item i is in bin k-offset
+	 */
+	public PropBinPacking(IntVar[] binOfItem, int[] itemSize, IntVar[] binLoad, int offset) {
+		super(ArrayUtils.append(binLoad, binOfItem), PropagatorPriority.QUADRATIC, true);
+		this.nbItems = binOfItem.length;
+		this.nbAvailableBins = binLoad.length;
+		this.itemSize = itemSize;
+		this.binLoad = binLoad;
+		this.binOfItem = binOfItem;
+		this.offset = offset;
+		IEnvironment environment = model.getEnvironment();
+		int totalSize = 0;
+		for (int s : itemSize) {
+			totalSize += s;
+		}
+		candidates = new int[nbAvailableBins][nbItems];
+		position = new int[nbAvailableBins][nbItems];
+		nbCandidates = new IStateInt[nbAvailableBins];
+		packed = new IStateInt[nbAvailableBins];
+		candidateLoad = new IStateInt[nbAvailableBins];
+		for (int b = 0; b < nbAvailableBins; b++) {
+			for (int i = 0; i < nbItems; i++) {
+				candidates[b][i] = i;
+				position[b][i] = i;
+			}
+			nbCandidates[b] = environment.makeInt(nbItems);
+			packed[b] = environment.makeInt(0);
+			candidateLoad[b] = environment.makeInt(totalSize);
+		}
+		Integer[] sorted = new Integer[nbItems];
+		for (int i = 0; i < nbItems; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, (i, j) -> Integer.compare(itemSize[j], itemSize[i]));
+		order = new int[nbItems];
+		rank = new int[nbItems];
+		for (int r = 0; r < nbItems; r++) {
+			order[r] = sorted[r];
+			rank[sorted[r]] = r;
+		}
+		monitors = new IIntDeltaMonitor[nbItems];
+		for (int i = 0; i < nbItems; i++) {
+			monitors[i] = binOfItem[i].monitorDelta(this);
+		}
+		sizes = new int[nbItems];
+		items = new int[nbItems];
+		others = new int[nbItems];
+		weights = new int[nbItems + nbAvailableBins];
+		sums = new long[nbItems + nbAvailableBins + 1];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public int getPropagationConditions(int vIdx) {
+		if (vIdx < nbAvailableBins) {
+			return IntEventType.boundAndInst();
+		}
+		return IntEventType.all();
+	}
+
+	@Override
+	public void propagate(int evtmask) throws ContradictionException {
+		if (PropagatorEventType.isFullPropagation(evtmask)) {
+			for (int i = 0; i < nbItems; i++) {
+				binOfItem[i].updateBounds(offset, offset + nbAvailableBins - 1, this);
+			}
+			for (int b = 0; b < nbAvailableBins; b++) {
+				int load = 0;
+				for (int k = nbCandidates[b].get() - 1; k >= 0; k--) {
+					int i = candidates[b][k];
+					if (binOfItem[i].isInstantiated() || !binOfItem[i].contains(b + offset)) {
+						remove(i, b);
+					} else {
+						load += itemSize[i];
+					}
+				}
+				candidateLoad[b].set(load);
+				packed[b].set(0);
+			}
+			for (int i = 0; i < nbItems; i++) {
+				if (binOfItem[i].isInstantiated()) {
+					packed[binOfItem[i].getValue() - offset].add(itemSize[i]);
+				}
+				monitors[i].unfreeze();
+			}
+			binToProcess.set(0, nbAvailableBins);
+		}
+		for (int b = binToProcess.nextSetBit(0); b >= 0; b = binToProcess.nextSetBit(0)) {
+			binToProcess.clear(b);
+			filterBin(b);
+		}
+		if (lowerBound() > nbAvailableBins) {
+			fails();
+		}
+	}
+
+	@Override
+	public void propagate(int vIdx, int evtmask) throws ContradictionException {
+		if (vIdx < nbAvailableBins) {
+			binToProcess.set(vIdx);
+		} else {
+			int item = vIdx - nbAvailableBins;
+			monitors[item].freeze();
+			monitors[item].forEachRemVal(procedure.set(item));
+			monitors[item].unfreeze();
+			if (binOfItem[item].isInstantiated()) {
+				pack(item);
+			}
+		}
+		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+	}
+
+	/**
+	 * Filters bin <i>b</i>, which is set to be processed again if it is modified
+	 */
+	private void filterBin(int b) throws ContradictionException {
+		int p = packed[b].get();
+		int load = candidateLoad[b].get();
+		binLoad[b].updateBounds(p, p + load, this);
+		int lb = binLoad[b].getLB();
+		int ub = binLoad[b].getUB();
+		int n = nbCandidates[b].get();
+		// single item elimination and commitment
+		for (int k = n - 1; k >= 0; k--) {
+			int i = candidates[b][k];
+			if (p + itemSize[i] > ub) {
+				removeValue(i, b);
+			} else if (p + load - itemSize[i] < lb) {
+				instantiate(i, b);
+			}
+		}
+		if (binToProcess.get(b) || n == 0) {
+			return;
+		}
+		// knapsack reasoning, on the candidates sorted by non-increasing size
+		for (int k = 0; k < n; k++) {
+			sizes[k] = rank[candidates[b][k]];
+		}
+		Arrays.sort(sizes, 0, n);
+		for (int k = 0; k < n; k++) {
+			items[k] = order[sizes[k]];
+			sizes[k] = itemSize[items[k]];
+		}
+		int alpha = lb - p;
+		int beta = ub - p;
+		if (noSum(sizes, n, alpha, beta)) {
+			fails();
+		}
+		if (noSum(sizes, n, alpha, alpha)) {
+			binLoad[b].updateLowerBound(p + betaP, this);
+			binToProcess.set(b);
+		}
+		if (noSum(sizes, n, beta, beta)) {
+			binLoad[b].updateUpperBound(p + alphaP, this);
+			binToProcess.set(b);
+		}
+		if (binToProcess.get(b)) {
+			return;
+		}
+		// items of the same size are pruned together
+		for (int k = 0; k < n; k++) {
+			if (k > 0 && sizes[k] == sizes[k - 1]) {
+				continue;
+			}
+			int s = sizes[k];
+			System.arraycopy(sizes, 0, others, 0, k);
+			System.arraycopy(sizes, k + 1, others, k, n - k - 1);
+			boolean out = noSum(others, n - 1, alpha - s, beta - s);
+			boolean in = !out && noSum(others, n - 1, alpha, beta);
+			for (int l = k; l < n && sizes[l] == s && (out || in); l++) {
+				if (out) {
+					removeValue(items[l], b);
+				} else {
+					instantiate(items[l], b);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shaw's NoSum procedure: checks whether no subset of the <i>n</i> first values of <i>x</i>,
+	 * sorted by non-increasing order, sums into [<i>alpha</i>, <i>beta</i>].
+	 * It may miss some cases, but is exact when it answers true. In such a case, {@link #alphaP} and
+	 * {@link #betaP} are achievable sums, such that no sum lies between them.
+	 *
+	 * @return true if it proves that no subset sums into [<i>alpha</i>, <i>beta</i>]
+	 */
+	private boolean noSum(int[] x, int n, int alpha, int beta) {
+		long total = 0;
+		for (int k = 0; k < n; k++) {
+			total += x[k];
+		}
+		if (alpha <= 0 || beta >= total) {
+			return false;
+		}
+		int sumA = 0, sumC = 0, k = 0, k1 = 0;
+		while (sumC + x[n - 1 - k1] < alpha) {
+			sumC += x[n - 1 - k1];
+			k1++;
+		}
+		int sumB = x[n - 1 - k1];
+		while (sumA < alpha && sumB <= beta) {
+			k++;
+			sumA += x[k - 1];
+			if (sumA < alpha) {
+				k1--;
+				sumB += x[n - 1 - k1];
+				sumC -= x[n - 1 - k1];
+				while (sumA + sumC >= alpha) {
+					k1--;
+					sumC -= x[n - 1 - k1];
+					sumB += x[n - 1 - k1] - x[n - 1 - k1 - k - 1];
+				}
+			}
+		}
+		alphaP = sumA + sumC;
+		betaP = sumB;
+		return sumA < alpha;
+	}
+
+	/**
+	 * Computes the lower bound L2 (Martello and Toth) on the number of bins needed,
+	 * for the items which are not packed yet and, for each bin b, an item of size packed[b] + C - ub(load[b]),
+	 * where C is the largest capacity
+	 */
+	private int lowerBound() {
+		int c = 0;
+		for (int b = 0; b < nbAvailableBins; b++) {
+			c = Math.max(c, binLoad[b].getUB());
+		}
+		if (c <= 0) {
+			return 0;
+		}
+		int n = 0;
+		for (int b = 0; b < nbAvailableBins; b++) {
+			int w = packed[b].get() + c - binLoad[b].getUB();
+			if (w > 0) {
+				weights[n++] = w;
+			}
+		}
+		for (int i = 0; i < nbItems; i++) {
+			if (!binOfItem[i].isInstantiated() && itemSize[i] > 0) {
+				weights[n++] = itemSize[i];
+			}
+		}
+		Arrays.sort(weights, 0, n);
+		for (int k = 0; k < n; k++) {
+			sums[k + 1] = sums[k] + weights[k];
+		}
+		int half = above(n, c / 2);
+		int l2 = 0;
+		for (int k = -1; k < half; k++) {
+			// K = 0, then each distinct size not greater than C/2
+			if (k > 0 && weights[k] == weights[k - 1]) {
+				continue;
+			}
+			int kk = k < 0 ? 0 : weights[k];
+			int from = k < 0 ? 0 : k;
+			int big = above(n, c - kk);
+			long n2 = big - half;
+			long fill = n2 * c - (sums[big] - sums[half]);
+			long rest = sums[half] - sums[from] - fill;
+			long l = n - half + (rest > 0 ? (rest + c - 1) / c : 0);
+			l2 = (int) Math.max(l2, l);
+		}
+		return l2;
+	}
+
+	/**
+	 * @return the index of the first of the <i>n</i> first weights which is greater than <i>v</i>
+	 */
+	private int above(int n, int v) {
+		int lo = 0, hi = n;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (weights[mid] > v) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Removes bin <i>b</i> from the domain of item <i>i</i>
+	 */
+	private void removeValue(int i, int b) throws ContradictionException {
+		if (binOfItem[i].removeValue(b + offset, this)) {
+			discard(i, b);
+			if (binOfItem[i].isInstantiated()) {
+				pack(i);
+			}
+		}
+	}
+
+	/**
+	 * Packs item <i>i</i> into bin <i>b</i>
+	 */
+	private void instantiate(int i, int b) throws ContradictionException {
+		IntVar x = binOfItem[i];
+		if (!x.contains(b + offset)) {
+			fails();
+		}
+		int ub = x.getUB();
+		for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+			if (v != b + offset) {
+				discard(i, v - offset);
+			}
+		}
+		x.instantiateTo(b + offset, this);
+		pack(i);
+	}
+
+	/**
+	 * Item <i>i</i> cannot be packed into bin <i>b</i> anymore
+	 */
+	private void discard(int i, int b) {
+		if (isCandidate(i, b)) {
+			remove(i, b);
+			candidateLoad[b].add(-itemSize[i]);
+			binToProcess.set(b);
+		}
+	}
+
+	/**
+	 * Item <i>i</i>, which is instantiated, is packed into its bin
+	 */
+	private void pack(int i) {
+		int b = binOfItem[i].getValue() - offset;
+		if (isCandidate(i, b)) {
+			remove(i, b);
+			candidateLoad[b].add(-itemSize[i]);
+			packed[b].add(itemSize[i]);
+			binToProcess.set(b);
+		}
+	}
+
+	private boolean isCandidate(int i, int b) {
+		return position[b][i] < nbCandidates[b].get();
+	}
+
+	/**
+	 * Removes item <i>i</i> from the candidates of bin <i>b</i>, by swapping it with the last one
+	 */
+	private void remove(int i, int b) {
+		int last = nbCandidates[b].get() - 1;
+		int pos = position[b][i];
+		int j = candidates[b][last];
+		candidates[b][pos] = j;
+		position[b][j] = pos;
+		candidates[b][last] = i;
+		position[b][i] = last;
+		nbCandidates[b].set(last);
+	}
+
+	@Override
+	public ESat isEntailed() {
+		for (int i = 0; i < nbItems; i++) {
+			if (binOfItem[i].isInstantiated()) {
+				int val = binOfItem[i].getValue();
+				if (val < offset || val >= nbAvailableBins + offset) {
+					return ESat.FALSE;
+				}
+			}
+		}
+		for (int b = 0; b < nbAvailableBins; b++) {
+			int min = 0;
+			int max = 0;
+			for (int i = 0; i < nbItems; i++) {
+				if (binOfItem[i].contains(b + offset)) {
+					max += itemSize[i];
+					if (binOfItem[i].isInstantiated()) {
+						min += itemSize[i];
+					}
+				}
+			}
+			if (min > binLoad[b].getUB() || max < binLoad[b].getLB()) {
+				return ESat.FALSE;
+			}
+		}
+		if (isCompletelyInstantiated()) {
+			return ESat.TRUE;
+		}
+		return ESat.UNDEFINED;
+	}
+
+	//***********************************************************************************
+	// ACCESSORS
+	//***********************************************************************************
+
+	/**
+	 * @return the size of each item
+	 */
+	public int[] getItemSizes() {
+		return itemSize;
+	}
+
+	/**
+	 * @return the index of the first bin
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+}
@@ -174,4 +174,23 @@ public class PropItemToLoad extends Propagator<IntVar> {
 		}
 		return ESat.UNDEFINED;
 	}
+
+	//***********************************************************************************
+	// ACCESSORS
+	//***********************************************************************************
+
+	/**
+	 * @return the size of each item
+	 */
+	public int[] getItemSizes() {
+		return itemSize;
+	}
+
+	/**
+	 * @return the index of the first bin
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
 }
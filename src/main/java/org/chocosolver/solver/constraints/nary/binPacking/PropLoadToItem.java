@@ -119,4 +119,23 @@ public class PropLoadToItem extends Propagator<IntVar> {
 		// same checker as PropItemToLoad, no need to implement it twice
 		return ESat.TRUE;
 	}
+
+	//***********************************************************************************
+	// ACCESSORS
+	//***********************************************************************************
+
+	/**
+	 * @return the size of each item
+	 */
+	public int[] getItemSizes() {
+		return itemSize;
+	}
+
+	/**
+	 * @return the index of the first bin
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,270 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.circuit;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.chocosolver.util.tools.MathUtils;
+
+import java.util.Arrays;
+
+/**
+ * Cost of a circuit: cost = sum(costMatrix[i][succs[i] - offset]).
+ * <br/>
+ * The cost is bounded from below by the assignment problem relaxation (each node has a distinct successor),
+ * solved with the Hungarian algorithm, and successors are filtered with the reduced costs of the optimal dual
+ * solution: if LB + rc(i,j) > UB(cost) then j cannot be the successor of i
+ * (Focacci, Lodi and Milano, CP'99).
+ * <br/>
+ * The optimal assignment and its dual potentials are kept from one call to the other, including upon backtrack:
+ * potentials of the nodes are recomputed to be feasible given the current domains,
+ * and only the nodes whose successor is no longer consistent are reassigned through shortest augmenting paths,
+ * in O(n^2) each.
+ *
+ * @since 19/10/2026
+ */
+public class PropCircuitCost extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private static final long INF = Long.MAX_VALUE / 4;
+
+    private final int n, offset;
+    private final int[][] costMatrix;
+    /**
+     * Dual potentials of the nodes and of their successors (the last one is used by augmenting paths)
+     */
+    private final long[] u, v;
+    /**
+     * Successor of each node in the optimal assignment, and its reverse (the last one is used by augmenting paths)
+     */
+    private final int[] succOf, predOf;
+    // shortest augmenting paths
+    private final long[] minv;
+    private final boolean[] used;
+    private final int[] way;
+    private long lowerBound;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Bounds and filters the cost of a circuit
+     *
+     * @param succs      successor variables, which take their value in [offset,offset+|succs|-1]
+     * @param offset     0 by default but typically 1 if used within MiniZinc
+     * @param costMatrix costMatrix[i][j] is the cost of having j as the successor of i
+     * @param cost       cost of the circuit
+     */
+    public PropCircuitCost(IntVar[] succs, int offset, int[][] costMatrix, IntVar cost) {
+        super(ArrayUtils.append(succs, new IntVar[]{cost}), PropagatorPriority.QUADRATIC, false);
+        this.n = succs.length;
+        this.offset = offset;
+        this.costMatrix = costMatrix;
+        this.u = new long[n];
+        this.v = new long[n + 1];
+        this.succOf = new int[n];
+        Arrays.fill(succOf, -1);
+        this.predOf = new int[n + 1];
+        Arrays.fill(predOf, -1);
+        this.minv = new long[n + 1];
+        this.used = new boolean[n + 1];
+        this.way = new int[n + 1];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx == n) {
+            return IntEventType.boundAndInst();
+        }
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < n; i++) {
+                vars[i].updateBounds(offset, n - 1 + offset, this);
+            }
+        }
+        long upperBound = repair();
+        IntVar cost = vars[n];
+        if (lowerBound > cost.getUB()) {
+            fails();
+        }
+        cost.updateLowerBound(MathUtils.safeCast(lowerBound), this);
+        // the assignment remains optimal upon filtering, but the upper bound may decrease
+        int ub;
+        do {
+            if (upperBound < cost.getUB()) {
+                cost.updateUpperBound(MathUtils.safeCast(upperBound), this);
+            }
+            ub = cost.getUB();
+            upperBound = filter(ub);
+        } while (upperBound < ub);
+    }
+
+    private boolean isArc(int i, int j) {
+        return (i != j || n == 1) && vars[i].contains(j + offset);
+    }
+
+    /**
+     * Makes the potentials feasible given the current domains, then completes the assignment
+     *
+     * @return the sum of the maximum cost of each node
+     */
+    private long repair() throws ContradictionException {
+        long upperBound = 0;
+        for (int i = 0; i < n; i++) {
+            IntVar x = vars[i];
+            long min = INF;
+            int max = Integer.MIN_VALUE;
+            int ub = x.getUB();
+            for (int k = x.getLB(); k <= ub; k = x.nextValue(k)) {
+                int j = k - offset;
+                if (i != j || n == 1) {
+                    min = Math.min(min, costMatrix[i][j] - v[j]);
+                    max = Math.max(max, costMatrix[i][j]);
+                }
+            }
+            if (min == INF) {
+                fails();
+            }
+            upperBound += max;
+            u[i] = min;
+            int j = succOf[i];
+            if (j != -1 && (!isArc(i, j) || costMatrix[i][j] - u[i] - v[j] != 0)) {
+                // no longer in a minimum assignment
+                succOf[i] = -1;
+                predOf[j] = -1;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (succOf[i] == -1 && !augment(i)) {
+                fails();
+            }
+        }
+        lowerBound = 0;
+        for (int i = 0; i < n; i++) {
+            lowerBound += costMatrix[i][succOf[i]];
+        }
+        return upperBound;
+    }
+
+    /**
+     * Assigns node <i>r</i> through a shortest augmenting path with respect to the reduced costs
+     * (the virtual successor <i>n</i> stands for the root of the path)
+     *
+     * @return false if no augmenting path exists
+     */
+    private boolean augment(int r) {
+        predOf[n] = r;
+        int j0 = n;
+        Arrays.fill(minv, INF);
+        Arrays.fill(used, false);
+        do {
+            used[j0] = true;
+            int i0 = predOf[j0];
+            long delta = INF;
+            int j1 = -1;
+            for (int j = 0; j < n; j++) {
+                if (!used[j]) {
+                    if (isArc(i0, j)) {
+                        long cur = costMatrix[i0][j] - u[i0] - v[j];
+                        if (cur < minv[j]) {
+                            minv[j] = cur;
+                            way[j] = j0;
+                        }
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+            }
+            if (j1 == -1) {
+                return false;
+            }
+            for (int j = 0; j <= n; j++) {
+                if (used[j]) {
+                    u[predOf[j]] += delta;
+                    v[j] -= delta;
+                } else if (minv[j] < INF) {
+                    minv[j] -= delta;
+                }
+            }
+            j0 = j1;
+        } while (predOf[j0] != -1);
+        do {
+            int j1 = way[j0];
+            predOf[j0] = predOf[j1];
+            succOf[predOf[j0]] = j0;
+            j0 = j1;
+        } while (j0 != n);
+        predOf[n] = -1;
+        return true;
+    }
+
+    /**
+     * Removes the successors whose reduced cost leads to a cost greater than <i>ub</i>
+     *
+     * @return the sum of the maximum cost of each node, once filtered
+     */
+    private long filter(int ub) throws ContradictionException {
+        long gap = ub - lowerBound;
+        long upperBound = 0;
+        for (int i = 0; i < n; i++) {
+            IntVar x = vars[i];
+            int max = Integer.MIN_VALUE;
+            int last = x.getUB();
+            for (int k = x.getLB(); k <= last; k = x.nextValue(k)) {
+                int j = k - offset;
+                if (j != succOf[i] && costMatrix[i][j] - u[i] - v[j] > gap) {
+                    x.removeValue(k, this);
+                } else if (i != j || n == 1) {
+                    max = Math.max(max, costMatrix[i][j]);
+                }
+            }
+            upperBound += max;
+        }
+        return upperBound;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            if (!vars[i].isInstantiated()) {
+                return ESat.UNDEFINED;
+            }
+            int j = vars[i].getValue() - offset;
+            if (j < 0 || j >= n) {
+                return ESat.FALSE;
+            }
+            sum += costMatrix[i][j];
+        }
+        if (sum < vars[n].getLB() || sum > vars[n].getUB()) {
+            return ESat.FALSE;
+        }
+        return vars[n].isInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+}
@@ -8,10 +8,13 @@
  */
 package org.chocosolver.solver.constraints.nary.circuit;
 
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.graphOperations.connectivity.StrongConnectivityFinder;
@@ -20,12 +23,19 @@ import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.SafeIntProcedure;
 
 import java.util.Random;
 
 /**
  * Filters circuit based on strongly connected components
  * (see the TechReport "Improving the Asymmetric TSP by considering graph structure", Fages & Lorca, 2012)
+ * <br/>
+ * Except with {@link CircuitConf#ALL}, the decomposition is maintained from one call to the other,
+ * as long as no backtrack occurs: arcs removed between two components only update the reduced graph,
+ * arcs removed inside a component only split this component, and nothing is filtered
+ * when the removed arcs were already filtered out of the reduced graph.
+ * The decomposition is computed from scratch (with a new source) after a backtrack.
  * @author Jean-Guillaume Fages
  */
 public class PropCircuitSCC extends Propagator<IntVar> {
@@ -44,13 +54,34 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 	private Random rd;
 	private int offSet;
 	private CircuitConf conf;
+	// incremental decomposition: valid while stamp == version
+	private IIntDeltaMonitor[] idms;
+	private IStateInt stamp;
+	private int version;
+	private boolean modified;
+	private int source;
+	// arcs removed since the last call, as i*n2+j
+	private TIntArrayList removed;
+	private int currentVar;
+	private SafeIntProcedure onRemoval;
+	// nodes of each component, and unused component indices
+	private int[] firstOf, nextOf, sizeOf, freeIds;
+	private int nbFree;
+	// components which lost an inner arc
+	private boolean[] dirty;
+	private int[] dirtyList;
+	private int nbDirty;
+	// Tarjan's algorithm, restricted to a component
+	private int[] mark, dfsIdx, low, part, stack, callStack, cursor;
+	private int markStamp;
+	private TIntArrayList buffer;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
 	//***********************************************************************************
 
 	public PropCircuitSCC(IntVar[] succs, int offSet, CircuitConf conf) {
-		super(succs, PropagatorPriority.LINEAR, false);
+		super(succs, PropagatorPriority.LINEAR, conf != CircuitConf.ALL);
 		this.offSet = offSet;
 		n = vars.length;
 		n2 = n+1;
@@ -65,6 +96,34 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		if(conf==CircuitConf.RD){ 
 			rd = new Random(0);
 		}
+		sccOf = new int[n2];
+		firstOf = new int[n2];
+		nextOf = new int[n2];
+		sizeOf = new int[n2];
+		freeIds = new int[n2];
+		dirty = new boolean[n2];
+		dirtyList = new int[n2];
+		mark = new int[n2];
+		dfsIdx = new int[n2];
+		low = new int[n2];
+		part = new int[n2];
+		stack = new int[n2];
+		callStack = new int[n2];
+		cursor = new int[n2];
+		buffer = new TIntArrayList();
+		removed = new TIntArrayList();
+		if (reactToFineEvt) {
+			idms = new IIntDeltaMonitor[n];
+			for (int i = 0; i < n; i++) {
+				idms[i] = vars[i].monitorDelta(this);
+			}
+			stamp = model.getEnvironment().makeInt(-1);
+			onRemoval = v -> {
+				if (v >= offSet && v < offSet + n) {
+					removed.add(currentVar * n2 + v - offSet);
+				}
+			};
+		}
 	}
 
 	//***********************************************************************************
@@ -83,12 +142,13 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 				vars[i].updateBounds(offSet, n - 1 + offSet, this);
 			}
 		}
+		modified = false;
 		switch (conf){
 			case FIRST:
-				filterFromSource(0);break;
+				filterIncrementally(0);break;
 			default:
 			case RD:
-				filterFromSource(rd.nextInt(n));break;
+				filterIncrementally(-1);break;
 			case ALL:
 				for (int i = 0; i < n; i++) {
 					filterFromSource(i);
@@ -96,14 +156,52 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		}
 	}
 
+	@Override
+	public void propagate(int vIdx, int mask) throws ContradictionException {
+		currentVar = vIdx;
+		idms[vIdx].freeze();
+		idms[vIdx].forEachRemVal(onRemoval);
+		idms[vIdx].unfreeze();
+		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+	}
+
+	/**
+	 * Filters from the decomposition of the previous call, if still valid, or from scratch otherwise
+	 * @param newSource source to use from scratch, or -1 for a random one
+	 */
+	private void filterIncrementally(int newSource) throws ContradictionException {
+		if (stamp.get() == version && update()) {
+			filter();
+		} else if (stamp.get() != version) {
+			filterFromSource(newSource == -1 ? rd.nextInt(n) : newSource);
+		}
+	}
+
+	/**
+	 * Notifies the decomposition is about to change, so that it is computed from scratch upon backtrack
+	 */
+	private void modify() {
+		if (!modified && reactToFineEvt) {
+			stamp.set(++version);
+			modified = true;
+		}
+	}
+
 	public void filterFromSource(int source) throws ContradictionException {
 		// reset data structures
 		rebuild(source);
+		filter();
+	}
+
+	private void filter() throws ContradictionException {
 		// find path endpoints
 		int first = -1;
 		int last = -1;
-		int n_R = SCCfinder.getNbSCC();
-		for (int i = 0; i < n_R; i++) {
+		int n_R = 0;
+		ISetIterator iter = G_R.getNodes().iterator();
+		while (iter.hasNext()) {
+			int i = iter.nextInt();
+			n_R++;
 			if (G_R.getPredOf(i).isEmpty()) {
 				if(first!=-1){
 					fails();
@@ -127,19 +225,25 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		// additional filter (based on instantiated arcs)
 		filterFromInst(source);
 		// ad hoc filtering rules
-		for (int i=0; i<n_R; i++) {
-			checkSCCLink(i);
+		iter = G_R.getNodes().iterator();
+		while (iter.hasNext()) {
+			checkSCCLink(iter.nextInt());
 		}
 	}
 
 	public void rebuild(int source) {
+		modify();
+		this.source = source;
 		for(int i=0;i<n2;i++){
 			mates[i].clear();
 			support.getSuccOf(i).clear();
 			support.getPredOf(i).clear();
 			G_R.getPredOf(i).clear();
 			G_R.getSuccOf(i).clear();
+			dirty[i] = false;
 		}
+		nbDirty = 0;
+		removed.resetQuick();
 		G_R.getNodes().clear();
 		for(int i=0;i<n;i++){
 			IntVar v = vars[i];
@@ -157,8 +261,18 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		int n_R = SCCfinder.getNbSCC();
 		for (int i = 0; i < n_R; i++) {
 			G_R.getNodes().add(i);
+			firstOf[i] = SCCfinder.getSCCFirstNode(i);
+			sizeOf[i] = 0;
+		}
+		nbFree = 0;
+		for (int i = n2 - 1; i >= n_R; i--) {
+			freeIds[nbFree++] = i;
+		}
+		System.arraycopy(SCCfinder.getNodesSCC(), 0, sccOf, 0, n2);
+		for (int i = 0; i < n2; i++) {
+			nextOf[i] = SCCfinder.getNextNode(i);
+			sizeOf[sccOf[i]]++;
 		}
-		sccOf = SCCfinder.getNodesSCC();
 		ISetIterator succs;
 		int x;
 		for (int i = 0; i < n; i++) {
@@ -174,6 +288,197 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		}
 	}
 
+	//***********************************************************************************
+	// INCREMENTAL DECOMPOSITION
+	//***********************************************************************************
+
+	/**
+	 * Applies the arcs removed since the last call to the decomposition
+	 * @return true iff the reduced graph has changed, false if there is nothing new to filter
+	 */
+	private boolean update() {
+		boolean changed = false;
+		for (int k = 0; k < removed.size(); k++) {
+			int i = removed.getQuick(k) / n2;
+			int j = removed.getQuick(k) % n2;
+			if (vars[i].contains(j + offSet)) {
+				// restored upon backtrack before being processed
+				continue;
+			}
+			if (j == source) {
+				j = n;
+			}
+			if (sccOf[i] == sccOf[j]) {
+				setDirty(sccOf[i]);
+			} else if (mates[sccOf[i]].contains((i + 1) * n2 + j)) {
+				modify();
+				mates[sccOf[i]].remove((i + 1) * n2 + j);
+				changed = true;
+			}
+		}
+		removed.resetQuick();
+		for (int k = 0; k < nbDirty; k++) {
+			dirty[dirtyList[k]] = false;
+			changed |= split(dirtyList[k]);
+		}
+		nbDirty = 0;
+		if (changed) {
+			ISetIterator iter = G_R.getNodes().iterator();
+			while (iter.hasNext()) {
+				int c = iter.nextInt();
+				G_R.getSuccOf(c).clear();
+				G_R.getPredOf(c).clear();
+			}
+			iter = G_R.getNodes().iterator();
+			while (iter.hasNext()) {
+				int c = iter.nextInt();
+				ISetIterator arcs = mates[c].iterator();
+				while (arcs.hasNext()) {
+					G_R.addArc(c, sccOf[arcs.nextInt() % n2]);
+				}
+			}
+		}
+		return changed;
+	}
+
+	private void setDirty(int scc) {
+		if (!dirty[scc]) {
+			modify();
+			dirty[scc] = true;
+			dirtyList[nbDirty++] = scc;
+		}
+	}
+
+	/**
+	 * Splits component <i>scc</i> into the strongly connected components of its remaining inner arcs
+	 * @return true iff <i>scc</i> has been split
+	 */
+	private boolean split(int scc) {
+		if (sizeOf[scc] == 1) {
+			return false;
+		}
+		markStamp++;
+		buffer.resetQuick();
+		for (int i = firstOf[scc]; i != -1; i = nextOf[i]) {
+			mark[i] = markStamp;
+			dfsIdx[i] = -1;
+			part[i] = -1;
+			buffer.add(i);
+		}
+		int time = 0, nbParts = 0;
+		for (int k = 0; k < buffer.size(); k++) {
+			int root = buffer.getQuick(k);
+			if (dfsIdx[root] != -1) {
+				continue;
+			}
+			int top = 0, cTop = 0;
+			dfsIdx[root] = low[root] = time++;
+			cursor[root] = vars[root].getLB();
+			stack[top++] = root;
+			callStack[cTop++] = root;
+			while (cTop > 0) {
+				int v = callStack[cTop - 1];
+				int w = nextInnerSucc(v);
+				if (w != -1) {
+					if (dfsIdx[w] == -1) {
+						dfsIdx[w] = low[w] = time++;
+						cursor[w] = w < n ? vars[w].getLB() : Integer.MAX_VALUE;
+						stack[top++] = w;
+						callStack[cTop++] = w;
+					} else if (part[w] == -1) {// w is on the stack
+						low[v] = Math.min(low[v], dfsIdx[w]);
+					}
+					continue;
+				}
+				cTop--;
+				if (cTop > 0) {
+					int u = callStack[cTop - 1];
+					low[u] = Math.min(low[u], low[v]);
+				}
+				if (low[v] == dfsIdx[v]) {
+					int y;
+					do {
+						y = stack[--top];
+						part[y] = nbParts;
+					} while (y != v);
+					nbParts++;
+				}
+			}
+		}
+		if (nbParts == 1) {
+			return false;
+		}
+		// the component may have been marked dirty by a previous call
+		modify();
+		// the last part keeps the index of the component
+		int[] ids = new int[nbParts];
+		for (int p = 0; p < nbParts - 1; p++) {
+			ids[p] = freeIds[--nbFree];
+			G_R.getNodes().add(ids[p]);
+			firstOf[ids[p]] = -1;
+			sizeOf[ids[p]] = 0;
+		}
+		ids[nbParts - 1] = scc;
+		firstOf[scc] = -1;
+		sizeOf[scc] = 0;
+		for (int k = buffer.size() - 1; k >= 0; k--) {
+			int i = buffer.getQuick(k);
+			int c = ids[part[i]];
+			sccOf[i] = c;
+			nextOf[i] = firstOf[c];
+			firstOf[c] = i;
+			sizeOf[c]++;
+		}
+		// arcs leaving the component, then arcs between its parts
+		TIntArrayList out = new TIntArrayList(mates[scc].size());
+		ISetIterator arcs = mates[scc].iterator();
+		while (arcs.hasNext()) {
+			out.add(arcs.nextInt());
+		}
+		mates[scc].clear();
+		for (int k = 0; k < out.size(); k++) {
+			mates[sccOf[out.getQuick(k) / n2 - 1]].add(out.getQuick(k));
+		}
+		for (int k = 0; k < buffer.size(); k++) {
+			int i = buffer.getQuick(k);
+			if (i == n) {
+				continue;
+			}
+			int ub = vars[i].getUB();
+			for (int v = vars[i].getLB(); v <= ub; v = vars[i].nextValue(v)) {
+				int j = v - offSet == source ? n : v - offSet;
+				if (mark[j] == markStamp && sccOf[j] != sccOf[i]) {
+					mates[sccOf[i]].add((i + 1) * n2 + j);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the next successor of <i>i</i> in the component being split, or -1
+	 */
+	private int nextInnerSucc(int i) {
+		if (i == n) {
+			return -1;
+		}
+		IntVar v = vars[i];
+		int ub = v.getUB();
+		for (int val = cursor[i]; val <= ub; val = v.nextValue(val)) {
+			int j = val - offSet == source ? n : val - offSet;
+			if (mark[j] == markStamp) {
+				cursor[i] = v.nextValue(val);
+				return j;
+			}
+		}
+		cursor[i] = Integer.MAX_VALUE;
+		return -1;
+	}
+
+	//***********************************************************************************
+	// FILTERING
+	//***********************************************************************************
+
 	private int visit(int node, int last, int source) throws ContradictionException {
 		if (node == -1) {
 			fails();
@@ -281,12 +586,8 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 				// Is in->out possible?
 				if(vars[in].contains(outDoor+offSet)){
 					// Is |scc| > 2 ?
-					int size = 0;
-					for(int i=SCCfinder.getSCCFirstNode(sccFrom); i>=0 && size<3;i=SCCfinder.getNextNode(i)){
-						size++;
-					}
-					if(size>2){
-						vars[in].removeValue(outDoor+offSet, this);
+					if(sizeOf[sccFrom]>2){
+						removeInnerArc(in, outDoor+offSet);
 					}
 				}
 			}
@@ -295,9 +596,9 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 
 	private void forceInDoor(int x) throws ContradictionException {
 		int sx = sccOf[x];
-		for(int i=0; i<n; i++){
-			if(sccOf[i]==sx){
-				vars[i].removeValue(x+offSet, this);
+		for(int i=firstOf[sx]; i!=-1; i=nextOf[i]){
+			if(i<n){
+				removeInnerArc(i, x+offSet);
 			}
 		}
 	}
@@ -308,9 +609,18 @@ public class PropCircuitSCC extends Propagator<IntVar> {
 		int ub = vars[x].getUB();
 		for(int v=lb;v<=ub;v=vars[x].nextValue(v)){
 			if(sccOf[v-offSet]==sx){
-				vars[x].removeValue(v, this);
+				removeInnerArc(x, v);
 			}
 		}
 	}
 
+	/**
+	 * Removes an arc between two nodes of the same component, which may no longer be strongly connected
+	 */
+	private void removeInnerArc(int from, int value) throws ContradictionException {
+		if (vars[from].removeValue(value, this) && reactToFineEvt) {
+			setDirty(sccOf[from]);
+		}
+	}
+
 }
@@ -8,22 +8,31 @@
  */
 package org.chocosolver.solver.constraints.nary.circuit;
 
+import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.graphOperations.dominance.AbstractLengauerTarjanDominatorsFinder;
 import org.chocosolver.util.graphOperations.dominance.SimpleDominatorsFinder;
 import org.chocosolver.util.objects.graphs.DirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.chocosolver.util.procedure.SafeIntProcedure;
 
 import java.util.Random;
 
 /**
  * Propagator for sub-circuit constraint based on dominators
  * Redundant propagator
+ * <br/>
+ * Dominator trees are kept from one call to the other (until a backtrack occurs),
+ * so that nothing is computed when no removed arc may change them:
+ * removing an arc (x,y) leaves the dominator tree unchanged if y dominates x,
+ * or if the arc from the immediate dominator of y to y remains.
  *
  * @author Jean-Guillaume Fages
  */
@@ -37,8 +46,18 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 	private DirectedGraph connectedGraph;
 	// number of nodes
 	private int n;
-	// dominators finder that contains the dominator tree
-	private AbstractLengauerTarjanDominatorsFinder domFinder;
+	// dominators finders that contain the dominator trees of the graph and of its reverse
+	private AbstractLengauerTarjanDominatorsFinder domFinder, revDomFinder;
+	// duplicated nodes of the graph and of its reverse when the dominator trees were computed
+	private int fwdDup, revDup;
+	// dominator trees are valid while stamp == version
+	private IStateInt stamp;
+	private int version;
+	// arcs removed since the dominator trees were computed, as x*n+y
+	private TIntArrayList removed;
+	private IIntDeltaMonitor[] idms;
+	private int currentVar;
+	private SafeIntProcedure onRemoval;
 	// offset (usually 0 but 1 with MiniZinc)
 	private int offSet;
 	// random function
@@ -57,11 +76,23 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 	//***********************************************************************************
 
 	public PropSubcircuitDominatorFilter(IntVar[] succs, int offSet, boolean adaptable) {
-		super(succs, PropagatorPriority.QUADRATIC, false);
+		super(succs, PropagatorPriority.QUADRATIC, true);
 		this.n = succs.length;
 		this.offSet = offSet;
 		this.connectedGraph = new DirectedGraph(n + 1, SetType.BITSET, false);
 		domFinder = new SimpleDominatorsFinder(n, connectedGraph);
+		revDomFinder = new SimpleDominatorsFinder(n, connectedGraph);
+		stamp = model.getEnvironment().makeInt(-1);
+		removed = new TIntArrayList();
+		idms = new IIntDeltaMonitor[n];
+		for (int i = 0; i < n; i++) {
+			idms[i] = vars[i].monitorDelta(this);
+		}
+		onRemoval = v -> {
+			if (v >= offSet && v < offSet + n) {
+				removed.add(currentVar * n + v - offSet);
+			}
+		};
 		rootCandidates = new int[n];
 		this.adaptable = adaptable;
 	}
@@ -81,6 +112,11 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 		counter = Math.min(counter,MAX_COUNTER);
 		counter = Math.max(counter,MIN_COUNTER);
 		if((!adaptable) || rd.nextInt(counter)==0) {
+			if (stamp.get() == version && !mayChangeDominators()) {
+				// as if both filters had been applied without filtering anything
+				counter += 2;
+				return;
+			}
 			int size = 0;
 			for (int i = 0; i < n; i++) {
 				if (!vars[i].contains(i + offSet)) {
@@ -96,7 +132,21 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 		}
 	}
 
+	@Override
+	public void propagate(int vIdx, int mask) throws ContradictionException {
+		currentVar = vIdx;
+		idms[vIdx].freeze();
+		idms[vIdx].forEachRemVal(onRemoval);
+		idms[vIdx].unfreeze();
+		forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+	}
+
 	private boolean filterFromDom(int duplicatedNode) throws ContradictionException {
+		// dominator trees are not valid until both are computed
+		version++;
+		stamp.set(-1);
+		removed.resetQuick();
+		fwdDup = duplicatedNode;
 		clear();
 		for (int i = 0; i < n; i++) {
 			int ub = vars[i].getUB();
@@ -116,9 +166,9 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 					int ub = vars[x].getUB();
 					for (int y = vars[x].getLB(); y <= ub; y = vars[x].nextValue(y)) {
 						if (x != y && domFinder.isDomminatedBy(x, y - offSet)) {
-							hasFiltered |= vars[x].removeValue(y, this);
+							hasFiltered |= remove(x, y);
 							// a dominator is not a loop
-							if(vars[y-offSet].removeValue(y, this)){
+							if(remove(y-offSet, y)){
 								again = true;
 							}
 						}
@@ -137,6 +187,7 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 
 	// anti-arborescence filtering
 	private boolean reverseFilter(int duplicatedNode) throws ContradictionException {
+		revDup = duplicatedNode;
 		clear();
 		for (int i = 0; i < n; i++) {
 			int ub = vars[i].getUB();
@@ -150,14 +201,15 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 		}
 		boolean again = false;
 		boolean hasFiltered = false;
-		if (domFinder.findDominators()) {
+		if (revDomFinder.findDominators()) {
+			stamp.set(version);
 			for (int x = 0; x < n; x++) {
 				int ub = vars[x].getUB();
 				for (int y = vars[x].getLB(); y <= ub; y = vars[x].nextValue(y)) {
-					if (x != y && y-offSet!=duplicatedNode && domFinder.isDomminatedBy(y - offSet,x)) {
-						hasFiltered |= vars[x].removeValue(y, this);
+					if (x != y && y-offSet!=duplicatedNode && revDomFinder.isDomminatedBy(y - offSet,x)) {
+						hasFiltered |= remove(x, y);
 						// a dominator is not a loop
-						if(vars[x].removeValue(x+offSet, this)){
+						if(remove(x, x+offSet)){
 							again = true;
 						}
 					}
@@ -173,6 +225,73 @@ public class PropSubcircuitDominatorFilter extends Propagator<IntVar> {
 		return again;
 	}
 
+	/**
+	 * Removes value <i>y</i> from the successors of <i>x</i>,
+	 * so that the dominator trees are checked against this removal at the next call
+	 */
+	private boolean remove(int x, int y) throws ContradictionException {
+		if (vars[x].removeValue(y, this)) {
+			removed.add(x * n + y - offSet);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return false if none of the arcs removed since the dominator trees were computed may change them
+	 */
+	private boolean mayChangeDominators() {
+		for (int k = 0; k < removed.size(); k++) {
+			int x = removed.getQuick(k) / n;
+			int y = removed.getQuick(k) % n;
+			if (vars[x].contains(y + offSet)) {
+				// restored upon backtrack
+				continue;
+			}
+			// arc (from, y) of the graph, arc (y, x) of its reverse
+			int from = x == fwdDup || x == y ? n : x;
+			if (!keepsDominators(domFinder, from, y, false)) {
+				return true;
+			}
+			from = y == revDup || x == y ? n : y;
+			if (!keepsDominators(revDomFinder, from, x, true)) {
+				return true;
+			}
+		}
+		removed.resetQuick();
+		return false;
+	}
+
+	/**
+	 * @return true if removing arc (x,y) cannot change the dominator tree of <i>finder</i>
+	 */
+	private boolean keepsDominators(AbstractLengauerTarjanDominatorsFinder finder, int x, int y, boolean reverse) {
+		if (hasArc(x, y, reverse) || finder.isDomminatedBy(x, y)) {
+			// another arc (x,y) remains, or no simple path from the root goes through (x,y)
+			return true;
+		}
+		int d = finder.getImmediateDominatorsOf(y);
+		// any path to y can be rerouted through its immediate dominator
+		return d != x && hasArc(d, y, reverse);
+	}
+
+	/**
+	 * @return true iff arc (x,y) is in the graph (or in its reverse), given the current domains
+	 */
+	private boolean hasArc(int x, int y, boolean reverse) {
+		if (reverse) {
+			// arc (x,y) stands for value x in the successors of y
+			if (x == n) {
+				return vars[y].contains(revDup + offSet) || vars[y].contains(y + offSet);
+			}
+			return x != revDup && x != y && vars[y].contains(x + offSet);
+		}
+		if (x == n) {
+			return vars[fwdDup].contains(y + offSet) || vars[y].contains(y + offSet);
+		}
+		return x != fwdDup && x != y && vars[x].contains(y + offSet);
+	}
+
 	private void clear(){
 		for (int i = 0; i < n + 1; i++) {
 			connectedGraph.getSuccOf(i).clear();
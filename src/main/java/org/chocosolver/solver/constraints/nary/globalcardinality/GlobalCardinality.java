@@ -20,17 +20,48 @@ import java.util.List;
 
 /**
  * Global Cardinality constraint
+ * The consistency level should be chosen among "AC", "BC" and "DEFAULT".
  *
  * @author Hadrien Cambazard, Charles Prud'homme, Jean-Guillaume Fages
  * @since 16/06/11
  */
 public class GlobalCardinality extends Constraint {
 
+    public static final String AC = "AC";
+    public static final String BC = "BC";
+    public static final String DEFAULT = "DEFAULT";
+
     public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards) {
         super("GCC", createProp(vars, values, cards));
     }
 
-	private static Propagator createProp(IntVar[] vars, int[] values, IntVar[] cards) {
+    /**
+     * @param vars        collection of variables
+     * @param values      collection of constrained values
+     * @param cards       collection of cardinality variables
+     * @param closed      whether the variables must take their value in <i>values</i>
+     *                    (ignored by "DEFAULT", which expects values to be completed beforehand)
+     * @param consistency consistency level, among "AC", "BC" and "DEFAULT"
+     */
+    public GlobalCardinality(IntVar[] vars, int[] values, IntVar[] cards, boolean closed, String consistency) {
+        super("GCC", createProp(vars, values, cards, closed, consistency));
+    }
+
+	private static Propagator createProp(IntVar[] vars, int[] values, IntVar[] cards, boolean closed, String consistency) {
+		switch (consistency) {
+			case AC:
+				checkValues(values, cards);
+				return new PropGCC_AC(vars, values, cards, closed);
+			case BC:
+				checkValues(values, cards);
+				return new PropGCC_BC(vars, values, cards, closed);
+			case DEFAULT:
+			default:
+				return createProp(vars, values, cards);
+		}
+	}
+
+	private static TIntIntHashMap checkValues(int[] values, IntVar[] cards) {
 		assert values.length == cards.length;
 		TIntIntHashMap map = new TIntIntHashMap();
 		int idx = 0;
@@ -42,7 +73,11 @@ public class GlobalCardinality extends Constraint {
 				throw new UnsupportedOperationException("ERROR: multiple occurrences of value: " + v);
 			}
 		}
-		return new PropFastGCC(vars, values, map, cards);
+		return map;
+	}
+
+	private static Propagator createProp(IntVar[] vars, int[] values, IntVar[] cards) {
+		return new PropFastGCC(vars, values, checkValues(values, cards), cards);
 	}
 
     public static Constraint reformulate(IntVar[] vars, IntVar[] card, Model model) {
@@ -0,0 +1,561 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for Global Cardinality Constraint (GCC) for integer variables, ensuring arc consistency
+ * on the variables, given the bounds of the cardinality variables.
+ * <br/>
+ * Uses Regin algorithm: a flow of the variables into the values is kept from one call to the other,
+ * including upon backtrack. The variables modified since the last call are recorded from fine events, and only
+ * those whose value has been removed, or whose value exceeds its upper capacity, are moved through augmenting paths.
+ * Values below their lower capacity are then filled the same way.
+ * A value is supported by a variable iff the variable flows into it, or both are in the same strongly connected
+ * component of the residual graph. The value graph is not stored: arcs are read from the domains on the fly.
+ * The strongly connected components are computed over the whole residual graph on each call, in O(n + d + m).
+ * <br/>
+ * The cardinality variables are bounded by the number of variables instantiated to their value and
+ * the number of variables whose domain contains their value.
+ *
+ * @since 19/10/2026
+ */
+public class PropGCC_AC extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, k, d;
+    private final int[] values;
+    private final boolean closed;
+    /**
+     * Maps each value of the initial domains to a node in [0, d), and the nodes back to the values
+     */
+    private final TIntIntHashMap map;
+    private final int[] valueOf, cardOf;
+    private final int[] lower, upper, flow;
+    /**
+     * Variables whose initial domain contains value j are in [varStart[j], varStart[j + 1]) of varList
+     */
+    private final int[] varStart, varList;
+    /**
+     * Value each variable flows into (or -1), and the variables flowing into each value, as doubly-linked lists
+     */
+    private final int[] assigned, head, nextVar, prevVar;
+    /**
+     * Variables modified since the last call
+     */
+    private final int[] touched;
+    private final boolean[] isTouched;
+    private int nbTouched;
+    /**
+     * Variables which may not flow into a value, kept upon failure
+     */
+    private final int[] free;
+    private int nbFree;
+    // augmenting paths
+    private final int[] fifo, father, visited;
+    private int stamp;
+    // Tarjan's algorithm, over variables [0, n), values [n, n + d) and a sink
+    private final int[] dfsIndex, lowLink, comp, stack, callStack, cursor;
+    private final boolean[] onStack;
+    private final int[] mandatory, possible;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Propagator for Global Cardinality Constraint (GCC) for integer variables, ensuring arc consistency
+     *
+     * @param decvars            array of integer variables
+     * @param restrictedValues   array of distinct int
+     * @param valueCardinalities array of integer variables, the number of occurrences of each value
+     * @param closed             whether the variables must take their value in <i>restrictedValues</i>
+     */
+    public PropGCC_AC(IntVar[] decvars, int[] restrictedValues, IntVar[] valueCardinalities, boolean closed) {
+        super(ArrayUtils.append(decvars, valueCardinalities), PropagatorPriority.QUADRATIC, true);
+        if (restrictedValues.length != valueCardinalities.length) {
+            throw new UnsupportedOperationException();
+        }
+        this.n = decvars.length;
+        this.k = restrictedValues.length;
+        this.values = restrictedValues;
+        this.closed = closed;
+        this.map = new TIntIntHashMap();
+        for (int x = 0; x < n; x++) {
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+                if (!map.containsKey(j)) {
+                    map.put(j, map.size());
+                }
+            }
+        }
+        this.d = map.size();
+        this.valueOf = new int[d];
+        map.forEachEntry((v, j) -> {
+            valueOf[j] = v;
+            return true;
+        });
+        this.cardOf = new int[d];
+        Arrays.fill(cardOf, -1);
+        for (int i = 0; i < k; i++) {
+            if (map.containsKey(values[i])) {
+                cardOf[map.get(values[i])] = i;
+            }
+        }
+        this.varStart = new int[d + 1];
+        for (int x = 0; x < n; x++) {
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+                varStart[map.get(j) + 1]++;
+            }
+        }
+        for (int j = 0; j < d; j++) {
+            varStart[j + 1] += varStart[j];
+        }
+        this.varList = new int[varStart[d]];
+        int[] pos = Arrays.copyOf(varStart, d);
+        for (int x = 0; x < n; x++) {
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int j = v.getLB(); j <= ub; j = v.nextValue(j)) {
+                varList[pos[map.get(j)]++] = x;
+            }
+        }
+        this.lower = new int[d];
+        this.upper = new int[d];
+        this.flow = new int[d];
+        this.assigned = new int[n];
+        Arrays.fill(assigned, -1);
+        this.head = new int[d];
+        Arrays.fill(head, -1);
+        this.nextVar = new int[n];
+        this.prevVar = new int[n];
+        this.touched = new int[n];
+        this.isTouched = new boolean[n];
+        this.free = new int[n];
+        for (int x = 0; x < n; x++) {
+            free[nbFree++] = x;
+        }
+        this.fifo = new int[n + d];
+        this.father = new int[n + d];
+        this.visited = new int[n + d + 1];
+        int nbNodes = n + d + 1;
+        this.dfsIndex = new int[nbNodes];
+        this.lowLink = new int[nbNodes];
+        this.comp = new int[nbNodes];
+        this.stack = new int[nbNodes];
+        this.callStack = new int[nbNodes];
+        this.cursor = new int[nbNodes];
+        this.onStack = new boolean[nbNodes];
+        this.mandatory = new int[k];
+        this.possible = new int[k];
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        if (vIdx >= n) {// cardinality variables
+            return IntEventType.boundAndInst();
+        }
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int x = 0; x < n; x++) {
+                touch(x);
+            }
+        }
+        boolean again = true;
+        while (again) {
+            for (int j = 0; j < d; j++) {
+                lower[j] = cardOf[j] == -1 ? 0 : vars[n + cardOf[j]].getLB();
+                upper[j] = cardOf[j] == -1 ? (closed ? 0 : n) : vars[n + cardOf[j]].getUB();
+            }
+            repairFlow();
+            findSCC();
+            filterVariables();
+            again = filterCardinalities();
+        }
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp < n) {
+            touch(idxVarInProp);
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    private void touch(int x) {
+        if (!isTouched[x]) {
+            isTouched[x] = true;
+            touched[nbTouched++] = x;
+        }
+    }
+
+    //***********************************************************************************
+    // FLOW
+    //***********************************************************************************
+
+    private void assign(int x, int j) {
+        assigned[x] = j;
+        flow[j]++;
+        prevVar[x] = -1;
+        nextVar[x] = head[j];
+        if (head[j] != -1) {
+            prevVar[head[j]] = x;
+        }
+        head[j] = x;
+    }
+
+    private void unassign(int x) {
+        int j = assigned[x];
+        assigned[x] = -1;
+        flow[j]--;
+        if (prevVar[x] == -1) {
+            head[j] = nextVar[x];
+        } else {
+            nextVar[prevVar[x]] = nextVar[x];
+        }
+        if (nextVar[x] != -1) {
+            prevVar[nextVar[x]] = prevVar[x];
+        }
+    }
+
+    private void repairFlow() throws ContradictionException {
+        // only the values of the modified variables may have been removed
+        for (int i = 0; i < nbTouched; i++) {
+            int x = touched[i];
+            isTouched[x] = false;
+            if (assigned[x] != -1 && !vars[x].contains(valueOf[assigned[x]])) {
+                unassign(x);
+                free[nbFree++] = x;
+            }
+        }
+        nbTouched = 0;
+        for (int j = 0; j < d; j++) {
+            while (flow[j] > upper[j]) {
+                free[nbFree++] = head[j];
+                unassign(head[j]);
+            }
+        }
+        while (nbFree > 0) {
+            if (!augmentFromVar(free[nbFree - 1])) {
+                fails();
+            }
+            nbFree--;
+        }
+        for (int j = 0; j < d; j++) {
+            while (flow[j] < lower[j]) {
+                if (!augmentToValue(j)) {
+                    fails();
+                }
+            }
+        }
+    }
+
+    /**
+     * Assigns variable <i>root</i> through an alternating path ending at a value below its upper capacity
+     */
+    private boolean augmentFromVar(int root) {
+        stamp++;
+        int first = 0, last = 0;
+        fifo[last++] = root;
+        visited[root] = stamp;
+        while (first < last) {
+            int x = fifo[first++];
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int val = v.getLB(); val <= ub; val = v.nextValue(val)) {
+                int j = map.get(val);
+                if (visited[n + j] != stamp && j != assigned[x]) {
+                    visited[n + j] = stamp;
+                    father[n + j] = x;
+                    if (flow[j] < upper[j]) {
+                        // moves each variable of the path to the value it has been reached from
+                        int y = j;
+                        while (true) {
+                            int z = father[n + y];
+                            int previous = assigned[z];
+                            if (previous != -1) {
+                                unassign(z);
+                            }
+                            assign(z, y);
+                            if (z == root) {
+                                return true;
+                            }
+                            y = previous;
+                        }
+                    }
+                    for (int z = head[j]; z != -1; z = nextVar[z]) {
+                        if (visited[z] != stamp) {
+                            visited[z] = stamp;
+                            fifo[last++] = z;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves a variable into value <i>target</i> through an alternating path starting from a value above its lower
+     * capacity
+     */
+    private boolean augmentToValue(int target) {
+        stamp++;
+        int first = 0, last = 0;
+        fifo[last++] = target;
+        visited[n + target] = stamp;
+        while (first < last) {
+            int j = fifo[first++];
+            for (int p = varStart[j]; p < varStart[j + 1]; p++) {
+                int x = varList[p];
+                int from = assigned[x];
+                if (visited[x] != stamp && from != j && vars[x].contains(valueOf[j])) {
+                    visited[x] = stamp;
+                    father[x] = j;
+                    if (visited[n + from] != stamp) {
+                        visited[n + from] = stamp;
+                        father[n + from] = x;
+                        if (flow[from] > lower[from]) {
+                            int y = from;
+                            while (y != target) {
+                                int z = father[n + y];
+                                unassign(z);
+                                assign(z, father[z]);
+                                y = father[z];
+                            }
+                            return true;
+                        }
+                        fifo[last++] = from;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    //***********************************************************************************
+    // STRONGLY CONNECTED COMPONENTS
+    //***********************************************************************************
+
+    private void findSCC() {
+        int sink = n + d;
+        Arrays.fill(dfsIndex, -1);
+        int time = 0, nbComp = 0;
+        for (int root = 0; root < n; root++) {
+            if (dfsIndex[root] != -1) {
+                continue;
+            }
+            int top = 0, cTop = 0;
+            time = visit(root, time);
+            stack[top++] = root;
+            callStack[cTop++] = root;
+            while (cTop > 0) {
+                int v = callStack[cTop - 1];
+                int w = nextSucc(v);
+                if (w != -1) {
+                    if (dfsIndex[w] == -1) {
+                        time = visit(w, time);
+                        stack[top++] = w;
+                        callStack[cTop++] = w;
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], dfsIndex[w]);
+                    }
+                } else {
+                    cTop--;
+                    if (cTop > 0) {
+                        int u = callStack[cTop - 1];
+                        lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+                    }
+                    if (lowLink[v] == dfsIndex[v]) {
+                        int w2;
+                        do {
+                            w2 = stack[--top];
+                            onStack[w2] = false;
+                            comp[w2] = nbComp;
+                        } while (w2 != v);
+                        nbComp++;
+                    }
+                }
+            }
+        }
+        assert dfsIndex[sink] == -1 || !onStack[sink];
+    }
+
+    private int visit(int node, int time) {
+        dfsIndex[node] = lowLink[node] = time;
+        onStack[node] = true;
+        if (node < n) {
+            cursor[node] = vars[node].getLB();
+        } else if (node < n + d) {
+            cursor[node] = head[node - n];
+        } else {
+            cursor[node] = 0;
+        }
+        return time + 1;
+    }
+
+    /**
+     * @return the next successor of <i>node</i> in the residual graph, or -1
+     */
+    private int nextSucc(int node) {
+        if (node < n) {
+            IntVar v = vars[node];
+            int ub = v.getUB();
+            for (int val = cursor[node]; val <= ub; val = v.nextValue(val)) {
+                int j = map.get(val);
+                if (j != assigned[node]) {
+                    cursor[node] = v.nextValue(val);
+                    return n + j;
+                }
+            }
+            cursor[node] = Integer.MAX_VALUE;
+            return -1;
+        } else if (node < n + d) {
+            int j = node - n;
+            int x = cursor[node];
+            if (x >= 0) {
+                cursor[node] = nextVar[x];
+                if (cursor[node] == -1) {
+                    // then, the sink
+                    cursor[node] = -2;
+                }
+                return x;
+            }
+            if (x == -2 || (x == -1 && head[j] == -1)) {
+                cursor[node] = -3;
+                if (flow[j] < upper[j]) {
+                    return n + d;
+                }
+            }
+            return -1;
+        } else {
+            // values above their lower capacity
+            for (int j = cursor[node]; j < d; j++) {
+                if (flow[j] > lower[j]) {
+                    cursor[node] = j + 1;
+                    return n + j;
+                }
+            }
+            cursor[node] = d;
+            return -1;
+        }
+    }
+
+    //***********************************************************************************
+    // FILTERING
+    //***********************************************************************************
+
+    private void filterVariables() throws ContradictionException {
+        for (int x = 0; x < n; x++) {
+            IntVar v = vars[x];
+            if (v.hasEnumeratedDomain()) {
+                int ub = v.getUB();
+                for (int val = v.getLB(); val <= ub; val = v.nextValue(val)) {
+                    int j = map.get(val);
+                    if (j != assigned[x] && comp[n + j] != comp[x]) {
+                        v.removeValue(val, this);
+                    }
+                }
+            } else {
+                // only the bounds can be removed
+                int j;
+                while ((j = map.get(v.getLB())) != assigned[x] && comp[n + j] != comp[x]) {
+                    v.removeValue(v.getLB(), this);
+                }
+                while ((j = map.get(v.getUB())) != assigned[x] && comp[n + j] != comp[x]) {
+                    v.removeValue(v.getUB(), this);
+                }
+            }
+        }
+    }
+
+    private boolean filterCardinalities() throws ContradictionException {
+        Arrays.fill(mandatory, 0);
+        Arrays.fill(possible, 0);
+        for (int x = 0; x < n; x++) {
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int val = v.getLB(); val <= ub; val = v.nextValue(val)) {
+                int i = cardOf[map.get(val)];
+                if (i != -1) {
+                    possible[i]++;
+                    if (v.isInstantiated()) {
+                        mandatory[i]++;
+                    }
+                }
+            }
+        }
+        boolean change = false;
+        for (int i = 0; i < k; i++) {
+            change |= vars[n + i].updateBounds(mandatory[i], possible[i], this);
+        }
+        return change;
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        int[] min = new int[k];
+        int[] max = new int[k];
+        for (int x = 0; x < n; x++) {
+            IntVar v = vars[x];
+            int ub = v.getUB();
+            for (int val = v.getLB(); val <= ub; val = v.nextValue(val)) {
+                int i = map.containsKey(val) ? cardOf[map.get(val)] : -1;
+                if (i != -1) {
+                    max[i]++;
+                    if (v.isInstantiated()) {
+                        min[i]++;
+                    }
+                } else if (closed && v.isInstantiated()) {
+                    return ESat.FALSE;
+                }
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            if (vars[n + i].getLB() > max[i] || vars[n + i].getUB() < min[i]) {
+                return ESat.FALSE;
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            if (!(vars[n + i].isInstantiated() && max[i] == min[i])) {
+                return ESat.UNDEFINED;
+            }
+        }
+        return ESat.TRUE;
+    }
+}
@@ -0,0 +1,651 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.globalcardinality;
+
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.sort.ArraySort;
+import org.chocosolver.util.tools.ArrayUtils;
+
+import java.util.Arrays;
+
+/**
+ * Propagator for Global Cardinality Constraint (GCC) for integer variables, ensuring bound consistency
+ * on the variables, given the bounds of the cardinality variables.
+ * <br/>
+ * The values are split into groups by the bounds of the variables and the constrained values, so that there are
+ * O(n) groups whatever the width of the domains.
+ * A flow of the variables into the groups is computed with Glover's greedy algorithm for the upper capacities,
+ * then repaired by augmenting paths for the lower capacities.
+ * The strongly connected components of its residual graph are found by a Tarjan's algorithm where the groups
+ * spanned by a variable are visited through a union-find structure, and on-stack groups are queried
+ * through a segment tree, so that a call runs in O(n log n).
+ * A bound of a variable is supported iff its group is the one the variable flows into,
+ * or is in the same component as the variable.
+ * <br/>
+ * The cardinality variables are bounded by the number of variables instantiated to their value and
+ * the number of variables whose bounds contain their value.
+ *
+ * @since 19/10/2026
+ */
+public class PropGCC_BC extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n, k;
+    /**
+     * Constrained values, in increasing order, and the index of their cardinality variable
+     */
+    private final int[] values, cardIdx;
+    private final boolean closed;
+    /**
+     * Group g is made of values [points[g], points[g + 1] - 1]
+     */
+    private final int[] points;
+    private int nbGroups;
+    private final int[] lower, upper, flow;
+    /**
+     * First and last groups spanned by each variable, group it flows into, and variables sorted by first group
+     */
+    private final int[] gmin, gmax, assigned, byMin;
+    private final ArraySort sorter;
+    // Glover's algorithm
+    private final int[] heap;
+    // augmenting paths, with a segment tree over byMin giving the max of gmax of unvisited variables
+    private final int[] minCount, stabTree, queue, via, moveTo, removed;
+    private final boolean[] reached;
+    private final int stabLeaves;
+    // Tarjan's algorithm, over variables [0, n), groups [n, n + nbGroups) and a sink
+    private final int[] dfsIndex, lowLink, comp, stack, callStack, cursor, nextGroup, onStackTree;
+    private final boolean[] onStack;
+    private final int[] grpStart, grpVars, surplus, compStart, compGroups;
+    private final int groupLeaves;
+    private int nbSurplus, nbComp;
+    private final int[] mins, maxs, insts;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Propagator for Global Cardinality Constraint (GCC) for integer variables, ensuring bound consistency
+     *
+     * @param decvars            array of integer variables
+     * @param restrictedValues   array of distinct int
+     * @param valueCardinalities array of integer variables, the number of occurrences of each value
+     * @param closed             whether the variables must take their value in <i>restrictedValues</i>
+     */
+    public PropGCC_BC(IntVar[] decvars, int[] restrictedValues, IntVar[] valueCardinalities, boolean closed) {
+        super(ArrayUtils.append(decvars, valueCardinalities), PropagatorPriority.LINEAR, false);
+        if (restrictedValues.length != valueCardinalities.length) {
+            throw new UnsupportedOperationException();
+        }
+        this.n = decvars.length;
+        this.k = restrictedValues.length;
+        this.closed = closed;
+        this.values = restrictedValues.clone();
+        this.cardIdx = ArrayUtils.array(0, k - 1);
+        ArraySort sortValues = new ArraySort(k, false, true);
+        sortValues.sort(cardIdx, k, (i1, i2) -> Integer.compare(restrictedValues[i1], restrictedValues[i2]));
+        for (int i = 0; i < k; i++) {
+            values[i] = restrictedValues[cardIdx[i]];
+        }
+        int maxGroups = 2 * n + 2 * k + 1;
+        this.points = new int[maxGroups + 1];
+        this.lower = new int[maxGroups];
+        this.upper = new int[maxGroups];
+        this.flow = new int[maxGroups];
+        this.gmin = new int[n];
+        this.gmax = new int[n];
+        this.assigned = new int[n];
+        this.byMin = new int[n];
+        this.sorter = new ArraySort(n, false, true);
+        this.heap = new int[n];
+        this.minCount = new int[maxGroups + 1];
+        this.stabLeaves = Integer.highestOneBit(Math.max(1, n)) * 2;
+        this.stabTree = new int[2 * stabLeaves];
+        this.queue = new int[maxGroups];
+        this.via = new int[maxGroups];
+        this.moveTo = new int[n];
+        this.removed = new int[n];
+        this.reached = new boolean[maxGroups];
+        int nbNodes = n + maxGroups + 1;
+        this.dfsIndex = new int[nbNodes];
+        this.lowLink = new int[nbNodes];
+        this.comp = new int[nbNodes];
+        this.stack = new int[nbNodes];
+        this.callStack = new int[nbNodes];
+        this.cursor = new int[nbNodes];
+        this.onStack = new boolean[nbNodes];
+        this.nextGroup = new int[maxGroups + 1];
+        this.groupLeaves = Integer.highestOneBit(maxGroups) * 2;
+        this.onStackTree = new int[2 * groupLeaves];
+        this.grpStart = new int[maxGroups + 1];
+        this.grpVars = new int[n];
+        this.surplus = new int[maxGroups];
+        this.compStart = new int[nbNodes + 1];
+        this.compGroups = new int[maxGroups];
+        this.mins = new int[n];
+        this.maxs = new int[n];
+        this.insts = new int[n];
+    }
+
+    //***********************************************************************************
+    // PROPAGATION
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.boundAndInst();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (n == 0) {
+            filterCardinalities();
+            return;
+        }
+        boolean again = true;
+        while (again) {
+            buildGroups();
+            upperFlow();
+            lowerFlow();
+            findSCC();
+            filterVariables();
+            again = filterCardinalities();
+        }
+    }
+
+    private void buildGroups() {
+        int np = 0;
+        for (int i = 0; i < n; i++) {
+            points[np++] = vars[i].getLB();
+            points[np++] = vars[i].getUB() + 1;
+        }
+        for (int i = 0; i < k; i++) {
+            points[np++] = values[i];
+            points[np++] = values[i] + 1;
+        }
+        Arrays.sort(points, 0, np);
+        int m = 0;
+        for (int p = 0; p < np; p++) {
+            if (m == 0 || points[p] != points[m - 1]) {
+                points[m++] = points[p];
+            }
+        }
+        nbGroups = m - 1;
+        Arrays.fill(lower, 0, nbGroups, 0);
+        Arrays.fill(upper, 0, nbGroups, closed ? 0 : n);
+        Arrays.fill(flow, 0, nbGroups, 0);
+        for (int i = 0; i < k; i++) {
+            int g = Arrays.binarySearch(points, 0, m, values[i]);
+            lower[g] = vars[n + cardIdx[i]].getLB();
+            upper[g] = Math.min(n, vars[n + cardIdx[i]].getUB());
+        }
+        Arrays.fill(minCount, 0, nbGroups + 1, 0);
+        for (int x = 0; x < n; x++) {
+            gmin[x] = Arrays.binarySearch(points, 0, m, vars[x].getLB());
+            gmax[x] = Arrays.binarySearch(points, 0, m, vars[x].getUB() + 1) - 1;
+            byMin[x] = x;
+            minCount[gmin[x] + 1]++;
+        }
+        // minCount[g + 1]: number of variables whose first group is at most g
+        for (int g = 1; g <= nbGroups; g++) {
+            minCount[g] += minCount[g - 1];
+        }
+        sorter.sort(byMin, n, (x1, x2) -> Integer.compare(gmin[x1], gmin[x2]));
+    }
+
+    //***********************************************************************************
+    // FLOW
+    //***********************************************************************************
+
+    /**
+     * Glover's algorithm: each group, in increasing order, takes the variables that end first
+     */
+    private void upperFlow() throws ContradictionException {
+        int size = 0, p = 0;
+        for (int g = 0; g < nbGroups; g++) {
+            while (p < n && gmin[byMin[p]] == g) {
+                size = push(byMin[p++], size);
+            }
+            for (int c = upper[g]; c > 0 && size > 0; c--) {
+                int x = heap[0];
+                size = pop(size);
+                assigned[x] = g;
+                flow[g]++;
+            }
+            if (size > 0 && gmax[heap[0]] <= g) {
+                // a variable cannot be assigned
+                fails();
+            }
+        }
+    }
+
+    private int push(int x, int size) {
+        int i = size++;
+        while (i > 0 && gmax[heap[(i - 1) / 2]] > gmax[x]) {
+            heap[i] = heap[(i - 1) / 2];
+            i = (i - 1) / 2;
+        }
+        heap[i] = x;
+        return size;
+    }
+
+    private int pop(int size) {
+        int x = heap[--size];
+        int i = 0;
+        while (2 * i + 1 < size) {
+            int c = 2 * i + 1;
+            if (c + 1 < size && gmax[heap[c + 1]] < gmax[heap[c]]) {
+                c++;
+            }
+            if (gmax[heap[c]] >= gmax[x]) {
+                break;
+            }
+            heap[i] = heap[c];
+            i = c;
+        }
+        heap[i] = x;
+        return size;
+    }
+
+    /**
+     * Moves variables, through augmenting paths, into the groups whose flow is below their lower capacity
+     */
+    private void lowerFlow() throws ContradictionException {
+        boolean built = false;
+        for (int g = 0; g < nbGroups; g++) {
+            while (flow[g] < lower[g]) {
+                if (!built) {
+                    for (int p = 0; p < stabLeaves; p++) {
+                        stabTree[stabLeaves + p] = p < n ? gmax[byMin[p]] : -1;
+                    }
+                    for (int i = stabLeaves - 1; i > 0; i--) {
+                        stabTree[i] = Math.max(stabTree[2 * i], stabTree[2 * i + 1]);
+                    }
+                    built = true;
+                }
+                if (!augment(g)) {
+                    fails();
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks for a variable which can join group <i>target</i>, possibly through a chain of moves,
+     * leaving a group whose flow is above its lower capacity
+     */
+    private boolean augment(int target) {
+        int first = 0, last = 0, nbRemoved = 0;
+        queue[last++] = target;
+        reached[target] = true;
+        int end = -1;
+        while (first < last && end == -1) {
+            int h = queue[first++];
+            int p;
+            while (end == -1 && (p = stab(1, 0, stabLeaves, minCount[h + 1], h)) != -1) {
+                removeStab(p);
+                removed[nbRemoved++] = p;
+                int x = byMin[p];
+                int from = assigned[x];
+                if (!reached[from]) {
+                    reached[from] = true;
+                    via[from] = x;
+                    moveTo[x] = h;
+                    if (flow[from] > lower[from]) {
+                        end = from;
+                    } else {
+                        queue[last++] = from;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < last; i++) {
+            reached[queue[i]] = false;
+        }
+        if (end != -1) {
+            reached[end] = false;
+            flow[end]--;
+            flow[target]++;
+            int g = end;
+            while (g != target) {
+                int x = via[g];
+                assigned[x] = moveTo[x];
+                g = moveTo[x];
+            }
+        }
+        for (int i = 0; i < nbRemoved; i++) {
+            int p = removed[i];
+            int j = stabLeaves + p;
+            stabTree[j] = gmax[byMin[p]];
+            for (j >>= 1; j > 0; j >>= 1) {
+                stabTree[j] = Math.max(stabTree[2 * j], stabTree[2 * j + 1]);
+            }
+        }
+        return end != -1;
+    }
+
+    /**
+     * @return the first position in byMin[0..end) of an unvisited variable spanning group h, or -1
+     */
+    private int stab(int node, int nl, int nr, int end, int h) {
+        if (nl >= end || stabTree[node] < h) {
+            return -1;
+        }
+        if (nr - nl == 1) {
+            return nl;
+        }
+        int mid = (nl + nr) >>> 1;
+        int p = stab(2 * node, nl, mid, end, h);
+        return p != -1 ? p : stab(2 * node + 1, mid, nr, end, h);
+    }
+
+    private void removeStab(int p) {
+        int j = stabLeaves + p;
+        stabTree[j] = -1;
+        for (j >>= 1; j > 0; j >>= 1) {
+            stabTree[j] = Math.max(stabTree[2 * j], stabTree[2 * j + 1]);
+        }
+    }
+
+    //***********************************************************************************
+    // STRONGLY CONNECTED COMPONENTS
+    //***********************************************************************************
+
+    private void findSCC() {
+        int sink = n + nbGroups;
+        // variables flowing into each group
+        Arrays.fill(grpStart, 0, nbGroups + 1, 0);
+        for (int x = 0; x < n; x++) {
+            grpStart[assigned[x] + 1]++;
+        }
+        for (int g = 1; g <= nbGroups; g++) {
+            grpStart[g] += grpStart[g - 1];
+        }
+        Arrays.fill(cursor, n, sink, 0);
+        for (int x = 0; x < n; x++) {
+            grpVars[grpStart[assigned[x]] + cursor[n + assigned[x]]++] = x;
+        }
+        nbSurplus = 0;
+        for (int g = 0; g < nbGroups; g++) {
+            if (flow[g] > lower[g]) {
+                surplus[nbSurplus++] = g;
+            }
+        }
+        Arrays.fill(dfsIndex, 0, sink + 1, -1);
+        for (int g = 0; g <= nbGroups; g++) {
+            nextGroup[g] = g;
+        }
+        Arrays.fill(onStackTree, Integer.MAX_VALUE);
+        nbComp = 0;
+        int time = 0;
+        for (int root = 0; root < n; root++) {
+            if (dfsIndex[root] != -1) {
+                continue;
+            }
+            int top = 0, cTop = 0;
+            time = visit(root, time);
+            stack[top++] = root;
+            callStack[cTop++] = root;
+            while (cTop > 0) {
+                int v = callStack[cTop - 1];
+                int w = nextSucc(v);
+                if (w != -1) {
+                    if (dfsIndex[w] == -1) {
+                        time = visit(w, time);
+                        stack[top++] = w;
+                        callStack[cTop++] = w;
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], dfsIndex[w]);
+                    }
+                } else {
+                    cTop--;
+                    if (cTop > 0) {
+                        int u = callStack[cTop - 1];
+                        lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+                    }
+                    if (lowLink[v] == dfsIndex[v]) {
+                        int w2;
+                        do {
+                            w2 = stack[--top];
+                            onStack[w2] = false;
+                            comp[w2] = nbComp;
+                            if (w2 >= n && w2 < sink) {
+                                setOnStack(w2 - n, Integer.MAX_VALUE);
+                            }
+                        } while (w2 != v);
+                        nbComp++;
+                    }
+                }
+            }
+        }
+        // groups of each component, in increasing order
+        Arrays.fill(compStart, 0, nbComp + 1, 0);
+        for (int g = 0; g < nbGroups; g++) {
+            if (dfsIndex[n + g] != -1) {
+                compStart[comp[n + g] + 1]++;
+            }
+        }
+        for (int c = 1; c <= nbComp; c++) {
+            compStart[c] += compStart[c - 1];
+        }
+        Arrays.fill(cursor, 0, nbComp, 0);
+        for (int g = 0; g < nbGroups; g++) {
+            if (dfsIndex[n + g] != -1) {
+                int c = comp[n + g];
+                compGroups[compStart[c] + cursor[c]++] = g;
+            }
+        }
+    }
+
+    private int visit(int node, int time) {
+        dfsIndex[node] = lowLink[node] = time;
+        onStack[node] = true;
+        if (node < n) {
+            cursor[node] = gmin[node];
+            // arcs to the groups already on the stack
+            int a = assigned[node];
+            lowLink[node] = Math.min(lowLink[node], Math.min(minOnStack(gmin[node], a - 1), minOnStack(a + 1, gmax[node])));
+        } else if (node < n + nbGroups) {
+            int g = node - n;
+            nextGroup[g] = g + 1;
+            setOnStack(g, time);
+            cursor[node] = grpStart[g];
+        } else {
+            cursor[node] = 0;
+        }
+        return time + 1;
+    }
+
+    /**
+     * @return the next successor of <i>node</i> in the residual graph, or -1.
+     * Only unvisited successors are returned for variables, the others are taken into account in {@link #visit(int, int)}
+     */
+    private int nextSucc(int node) {
+        if (node < n) {
+            int g = find(cursor[node]);
+            if (g == assigned[node]) {
+                g = find(g + 1);
+            }
+            cursor[node] = g;
+            return g <= gmax[node] ? n + g : -1;
+        } else if (node < n + nbGroups) {
+            int g = node - n;
+            int c = cursor[node]++;
+            if (c < grpStart[g + 1]) {
+                return grpVars[c];
+            }
+            if (c == grpStart[g + 1] && flow[g] < upper[g]) {
+                return n + nbGroups;
+            }
+            return -1;
+        } else {
+            int c = cursor[node]++;
+            return c < nbSurplus ? n + surplus[c] : -1;
+        }
+    }
+
+    /**
+     * @return the smallest unvisited group greater than or equal to <i>g</i> (nbGroups if none)
+     */
+    private int find(int g) {
+        int r = g;
+        while (nextGroup[r] != r) {
+            r = nextGroup[r];
+        }
+        while (nextGroup[g] != r) {
+            int next = nextGroup[g];
+            nextGroup[g] = r;
+            g = next;
+        }
+        return r;
+    }
+
+    private void setOnStack(int g, int value) {
+        int j = groupLeaves + g;
+        onStackTree[j] = value;
+        for (j >>= 1; j > 0; j >>= 1) {
+            onStackTree[j] = Math.min(onStackTree[2 * j], onStackTree[2 * j + 1]);
+        }
+    }
+
+    /**
+     * @return the smallest DFS index of the groups in [a, b] which are on the stack
+     */
+    private int minOnStack(int a, int b) {
+        int m = Integer.MAX_VALUE;
+        for (a += groupLeaves, b += groupLeaves + 1; a < b; a >>= 1, b >>= 1) {
+            if ((a & 1) == 1) {
+                m = Math.min(m, onStackTree[a++]);
+            }
+            if ((b & 1) == 1) {
+                m = Math.min(m, onStackTree[--b]);
+            }
+        }
+        return m;
+    }
+
+    //***********************************************************************************
+    // FILTERING
+    //***********************************************************************************
+
+    private void filterVariables() throws ContradictionException {
+        for (int x = 0; x < n; x++) {
+            int c = comp[x];
+            int from = compStart[c], to = compStart[c + 1];
+            // first and last groups of the component of x within [gmin, gmax]
+            int lo = from, hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compGroups[mid] < gmin[x]) lo = mid + 1;
+                else hi = mid;
+            }
+            int first = assigned[x];
+            if (lo < to && compGroups[lo] < first) {
+                first = compGroups[lo];
+            }
+            lo = from;
+            hi = to;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compGroups[mid] <= gmax[x]) lo = mid + 1;
+                else hi = mid;
+            }
+            int last = assigned[x];
+            if (lo > from && compGroups[lo - 1] > last) {
+                last = compGroups[lo - 1];
+            }
+            vars[x].updateBounds(points[first], points[last + 1] - 1, this);
+        }
+    }
+
+    private boolean filterCardinalities() throws ContradictionException {
+        int nbInst = 0;
+        for (int x = 0; x < n; x++) {
+            mins[x] = vars[x].getLB();
+            maxs[x] = vars[x].getUB();
+            if (vars[x].isInstantiated()) {
+                insts[nbInst++] = mins[x];
+            }
+        }
+        Arrays.sort(mins);
+        Arrays.sort(maxs);
+        Arrays.sort(insts, 0, nbInst);
+        boolean change = false;
+        for (int i = 0; i < k; i++) {
+            int v = values[i];
+            // variables whose bounds contain v, and variables instantiated to v
+            int possible = countAtMost(mins, n, v) - countAtMost(maxs, n, v - 1);
+            int mandatory = countAtMost(insts, nbInst, v) - countAtMost(insts, nbInst, v - 1);
+            change |= vars[n + cardIdx[i]].updateBounds(mandatory, possible, this);
+        }
+        return change;
+    }
+
+    /**
+     * @return the number of elements of sorted array <i>a</i>[0..size) lower than or equal to <i>v</i>
+     */
+    private static int countAtMost(int[] a, int size, int v) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= v) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        int[] min = new int[k];
+        int[] max = new int[k];
+        for (int x = 0; x < n; x++) {
+            IntVar v = vars[x];
+            if (v.isInstantiated()) {
+                int i = Arrays.binarySearch(values, v.getValue());
+                if (i >= 0) {
+                    min[i]++;
+                    max[i]++;
+                } else if (closed) {
+                    return ESat.FALSE;
+                }
+            } else {
+                for (int i = 0; i < k; i++) {
+                    if (v.contains(values[i])) {
+                        max[i]++;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            IntVar card = vars[n + cardIdx[i]];
+            if (card.getLB() > max[i] || card.getUB() < min[i]) {
+                return ESat.FALSE;
+            }
+        }
+        for (int i = 0; i < k; i++) {
+            if (!(vars[n + cardIdx[i]].isInstantiated() && max[i] == min[i])) {
+                return ESat.UNDEFINED;
+            }
+        }
+        return ESat.TRUE;
+    }
+}
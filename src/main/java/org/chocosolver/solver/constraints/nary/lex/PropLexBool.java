@@ -0,0 +1,336 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.lex;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.tools.ArrayUtils;
+
+/**
+ * Enforce a lexicographic ordering on each pair of consecutive rows of a matrix of boolean variables,
+ * x<sub>0</sub> <_lex x<sub>1</sub> <_lex ... <_lex x<sub>m-1</sub> (or <=_lex),
+ * ensuring arc consistency on each pair.
+ * ref : Global Constraints for Lexicographic Orderings (Frisch and al)
+ * <br/>
+ * Each row is packed into reversible words: one bit per column tells whether the variable is instantiated,
+ * another one gives its value.
+ * Alpha, the first column where two consecutive rows are not both instantiated to the same value,
+ * is stored per pair of rows and moves forward word by word.
+ * Beta, the first column from which the rows cannot be ordered anymore, is found word by word too,
+ * by comparing the smallest completion of a row with the largest completion of the next one.
+ * Filtering only occurs on column alpha.
+ *
+ * @since 19/10/2026
+ */
+public class PropLexBool extends Propagator<BoolVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final int m, n, nw;
+    private final boolean strict;
+    /**
+     * Mask of the columns of the last word
+     */
+    private final long lastMask;
+    /**
+     * fixed[r][w] (resp. ones[r][w]): columns of the w<sup>th</sup> word of row r which are instantiated
+     * (resp. instantiated to 1)
+     */
+    private final IStateLong[][] fixed, ones;
+    /**
+     * Alpha of each pair of consecutive rows, n+1 once the pair is entailed
+     */
+    private final IStateInt[] alpha;
+    private final IStateInt nbEntailed;
+    // pairs to filter
+    private final int[] queue;
+    private final boolean[] inQueue;
+    private int qHead, qSize;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Enforce a lexicographic ordering on each pair of consecutive rows of <i>rows</i>
+     *
+     * @param rows   rows of boolean variables, of the same length
+     * @param strict set to true for a strict ordering
+     */
+    public PropLexBool(BoolVar[][] rows, boolean strict) {
+        super(ArrayUtils.flatten(rows), PropagatorPriority.LINEAR, true);
+        this.m = rows.length;
+        this.n = rows[0].length;
+        this.nw = (n + 63) >>> 6;
+        this.strict = strict;
+        this.lastMask = (n & 63) == 0 ? -1L : (1L << (n & 63)) - 1;
+        IEnvironment environment = model.getEnvironment();
+        this.fixed = new IStateLong[m][nw];
+        this.ones = new IStateLong[m][nw];
+        for (int r = 0; r < m; r++) {
+            for (int w = 0; w < nw; w++) {
+                fixed[r][w] = environment.makeLong(0L);
+                ones[r][w] = environment.makeLong(0L);
+            }
+        }
+        this.alpha = new IStateInt[Math.max(m - 1, 0)];
+        for (int p = 0; p < m - 1; p++) {
+            alpha[p] = environment.makeInt(0);
+        }
+        this.nbEntailed = environment.makeInt(0);
+        this.queue = new int[Math.max(m - 1, 0)];
+        this.inQueue = new boolean[Math.max(m - 1, 0)];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.instantiation();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            for (int i = 0; i < vars.length; i++) {
+                if (vars[i].isInstantiated()) {
+                    pack(i / n, i % n, vars[i].getValue());
+                }
+            }
+        }
+        qHead = qSize = 0;
+        for (int p = 0; p < m - 1; p++) {
+            schedule(p);
+        }
+        filter();
+    }
+
+    @Override
+    public void propagate(int vIdx, int mask) throws ContradictionException {
+        int r = vIdx / n;
+        int c = vIdx % n;
+        pack(r, c, vars[vIdx].getValue());
+        qHead = qSize = 0;
+        if (r > 0 && c >= alpha[r - 1].get()) {
+            schedule(r - 1);
+        }
+        if (r < m - 1 && c >= alpha[r].get()) {
+            schedule(r);
+        }
+        filter();
+    }
+
+    private void pack(int r, int c, int value) {
+        int w = c >>> 6;
+        long bit = 1L << (c & 63);
+        if ((fixed[r][w].get() & bit) == 0L) {
+            fixed[r][w].set(fixed[r][w].get() | bit);
+            if (value == 1) {
+                ones[r][w].set(ones[r][w].get() | bit);
+            }
+        }
+    }
+
+    private void schedule(int p) {
+        if (p >= 0 && p < m - 1 && !inQueue[p] && alpha[p].get() <= n) {
+            inQueue[p] = true;
+            queue[(qHead + qSize++) % queue.length] = p;
+        }
+    }
+
+    private void filter() throws ContradictionException {
+        try {
+            while (qSize > 0) {
+                int p = queue[qHead];
+                qHead = (qHead + 1) % queue.length;
+                qSize--;
+                inQueue[p] = false;
+                filterPair(p);
+            }
+        } finally {
+            while (qSize > 0) {
+                inQueue[queue[qHead]] = false;
+                qHead = (qHead + 1) % queue.length;
+                qSize--;
+            }
+        }
+        if (nbEntailed.get() == m - 1) {
+            setPassive();
+        }
+    }
+
+    /**
+     * Enforces row p <_lex row p+1 (or <=_lex)
+     */
+    private void filterPair(int p) throws ContradictionException {
+        while (alpha[p].get() <= n) {
+            int a = nextNotEqual(p, alpha[p].get());
+            if (a == n) {
+                if (strict) {
+                    fails();
+                }
+                entail(p);
+                return;
+            }
+            alpha[p].set(a);
+            if (isEntailed(p, a)) {
+                entail(p);
+                return;
+            }
+            BoolVar x = vars[p * n + a];
+            BoolVar y = vars[(p + 1) * n + a];
+            boolean changed;
+            if (beta(p, a) == a + 1) {
+                // x_a < y_a
+                changed = set(p, a, 0) | set(p + 1, a, 1);
+            } else {
+                // x_a <= y_a
+                changed = (x.isInstantiatedTo(1) && set(p + 1, a, 1))
+                        | (y.isInstantiatedTo(0) && set(p, a, 0));
+            }
+            if (!changed) {
+                return;
+            }
+        }
+    }
+
+    private void entail(int p) {
+        alpha[p].set(n + 1);
+        nbEntailed.add(1);
+    }
+
+    /**
+     * Instantiates the variable of row r and column c, and schedules the pairs it belongs to
+     *
+     * @return true if the variable was not instantiated yet
+     */
+    private boolean set(int r, int c, int value) throws ContradictionException {
+        if (vars[r * n + c].instantiateTo(value, this)) {
+            pack(r, c, value);
+            schedule(r - 1);
+            schedule(r);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the first column, from <i>from</i>, where rows p and p+1 are not instantiated to the same value,
+     * n if there is none
+     */
+    private int nextNotEqual(int p, int from) {
+        for (int w = from >>> 6; w < nw; w++) {
+            long eq = fixed[p][w].get() & fixed[p + 1][w].get() & ~(ones[p][w].get() ^ ones[p + 1][w].get());
+            long neq = ~eq;
+            if (w == from >>> 6) {
+                neq &= -1L << (from & 63);
+            }
+            if (neq != 0L) {
+                return Math.min(n, (w << 6) + Long.numberOfTrailingZeros(neq));
+            }
+        }
+        return n;
+    }
+
+    /**
+     * @return true if the largest completion of row p is smaller than the smallest completion of row p+1,
+     * from column a
+     */
+    private boolean isEntailed(int p, int a) {
+        for (int w = a >>> 6; w < nw; w++) {
+            long maxX = ones[p][w].get() | ~fixed[p][w].get();
+            long minY = ones[p + 1][w].get();
+            long less = ~maxX & minY;
+            long greater = maxX & ~minY;
+            if (w == a >>> 6) {
+                less &= -1L << (a & 63);
+                greater &= -1L << (a & 63);
+            }
+            if (w == nw - 1) {
+                less &= lastMask;
+                greater &= lastMask;
+            }
+            if ((less | greater) != 0L) {
+                return Long.numberOfTrailingZeros(less) < Long.numberOfTrailingZeros(greater);
+            }
+        }
+        return !strict;
+    }
+
+    /**
+     * @return the first column b > a such that the smallest completion of row p is greater than
+     * (or equal to, for a strict ordering) the largest completion of row p+1 from column b,
+     * or {@link #NONE} if there is none
+     */
+    private int beta(int p, int a) {
+        int lastLess = -1;
+        int from = a + 1;
+        for (int w = from >>> 6; w < nw; w++) {
+            long minX = ones[p][w].get();
+            long maxY = ones[p + 1][w].get() | ~fixed[p + 1][w].get();
+            long greater = minX & ~maxY;
+            long less = ~minX & maxY;
+            if (w == from >>> 6) {
+                greater &= -1L << (from & 63);
+                less &= -1L << (from & 63);
+            }
+            if (w == nw - 1) {
+                greater &= lastMask;
+                less &= lastMask;
+            }
+            if (greater != 0L) {
+                // the last column where the suffix is smaller, before the first one where it is greater
+                long before = less & ((1L << Long.numberOfTrailingZeros(greater)) - 1);
+                if (before != 0L) {
+                    lastLess = (w << 6) + 63 - Long.numberOfLeadingZeros(before);
+                }
+                return lastLess == -1 ? from : lastLess + 1;
+            }
+            if (less != 0L) {
+                lastLess = (w << 6) + 63 - Long.numberOfLeadingZeros(less);
+            }
+        }
+        if (strict) {
+            // equal suffixes are forbidden
+            return lastLess == -1 ? from : lastLess + 1;
+        }
+        return NONE;
+    }
+
+    @Override
+    public ESat isEntailed() {
+        if (isCompletelyInstantiated()) {
+            for (int r = 0; r < m - 1; r++) {
+                int c = 0;
+                while (c < n && vars[r * n + c].getValue() == vars[(r + 1) * n + c].getValue()) {
+                    c++;
+                }
+                if (c == n ? strict : vars[r * n + c].getValue() > vars[(r + 1) * n + c].getValue()) {
+                    return ESat.FALSE;
+                }
+            }
+            return ESat.TRUE;
+        }
+        return ESat.UNDEFINED;
+    }
+}
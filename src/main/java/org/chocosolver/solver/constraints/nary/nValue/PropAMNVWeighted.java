@@ -0,0 +1,251 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.nValue;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.nary.nValue.amnv.graph.G;
+import org.chocosolver.solver.constraints.nary.nValue.amnv.mis.MDRkInc;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+
+import java.util.BitSet;
+
+import static org.chocosolver.solver.constraints.PropagatorPriority.CUBIC;
+import static org.chocosolver.util.tools.ArrayUtils.concat;
+
+/**
+ * Propagator for the weighted atMostNValues constraint:
+ * the sum of the weights of the distinct values taken by X is at most equal to COST.
+ * <br/>
+ * The values of the instantiated variables are mandatory.
+ * Variables which are independent in the intersection graph G take distinct values,
+ * so each of them which cannot take a mandatory value costs at least the minimum weight of its domain:
+ * the weight of the mandatory values plus the one of the heaviest independent set found gives a lower bound of COST
+ * (weighted version of Fages and Lap&egrave;gue, Artificial Intelligence 2014).
+ * With respect to this bound, a value v is removed from the domain of a variable
+ * when assigning v to the variable would lead to a cost greater than the upper bound of COST.
+ *
+ * @since 19/10/2026
+ */
+public class PropAMNVWeighted extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n;
+    private final G graph;
+    private final MDRkInc heur;
+    /**
+     * Weights of the values, 0 for values not given
+     */
+    private final TIntIntHashMap weights;
+    /**
+     * Weight of each node: the minimum weight of the domain of the variable,
+     * or 0 when the variable is instantiated or may take the value of an instantiated variable
+     */
+    private final int[] minWeights;
+    private final BitSet bestIS;
+    private final TIntHashSet mandatory;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a propagator for the weighted atMostNValues constraint
+     * The sum of the weights of the distinct values in X is at most equal to COST
+     *
+     * @param X       integer variables
+     * @param values  values with a weight
+     * @param weights weights of the values, must be positive or null
+     * @param COST    maximum weight of the values taken by X
+     * @param graph   intersection graph of X
+     */
+    public PropAMNVWeighted(IntVar[] X, int[] values, int[] weights, IntVar COST, G graph) {
+        super(concat(X, COST), CUBIC, true);
+        this.n = X.length;
+        this.graph = graph;
+        this.weights = new TIntIntHashMap(values.length, .5f, Integer.MIN_VALUE, 0);
+        for (int i = 0; i < values.length; i++) {
+            this.weights.put(values[i], weights[i]);
+        }
+        this.minWeights = new int[n];
+        this.heur = new MDRkInc(graph, 30, minWeights);
+        this.bestIS = new BitSet(n);
+        this.mandatory = new TIntHashSet();
+        graph.build();
+    }
+
+    //***********************************************************************************
+    // ALGORITHMS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int i) {
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        if (PropagatorEventType.isFullPropagation(evtmask)) {
+            graph.update();
+        }
+        IntVar cost = vars[n];
+        // the removals made by this propagator do not schedule it again, so it loops until a fixpoint is reached
+        long lb;
+        do {
+            lb = mandatoryWeight() + heaviestIS();
+            cost.updateLowerBound((int) Math.min(Integer.MAX_VALUE, lb), this);
+        } while (filter(cost.getUB() - lb));
+    }
+
+    /**
+     * Stores the values of the instantiated variables in <code>mandatory</code>
+     * and the weight of each node in <code>minWeights</code>
+     *
+     * @return the sum of the weights of the values of the instantiated variables
+     */
+    private long mandatoryWeight() {
+        mandatory.clear();
+        long mandWeight = 0;
+        for (int i = 0; i < n; i++) {
+            if (vars[i].isInstantiated() && mandatory.add(vars[i].getValue())) {
+                mandWeight += weights.get(vars[i].getValue());
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int min = 0;
+            if (!vars[i].isInstantiated()) {
+                min = Integer.MAX_VALUE;
+                int ub = vars[i].getUB();
+                for (int v = vars[i].getLB(); v <= ub && min > 0; v = vars[i].nextValue(v)) {
+                    // a variable which may take a mandatory value costs nothing more
+                    min = mandatory.contains(v) ? 0 : Math.min(min, weights.get(v));
+                }
+            }
+            minWeights[i] = min;
+        }
+        return mandWeight;
+    }
+
+    /**
+     * Stores the heaviest independent set found in <code>bestIS</code>
+     *
+     * @return the weight of the independent set
+     */
+    private long heaviestIS() {
+        long bestWeight = -1;
+        heur.prepare();
+        do {
+            heur.computeMIS();
+            BitSet is = heur.getMIS();
+            long w = 0;
+            for (int i = is.nextSetBit(0); i >= 0; i = is.nextSetBit(i + 1)) {
+                w += minWeights[i];
+            }
+            if (w > bestWeight) {
+                bestWeight = w;
+                bestIS.clear();
+                bestIS.or(is);
+            }
+        } while (heur.hasNextMIS());
+        return bestWeight;
+    }
+
+    /**
+     * Removes the values which would make the lower bound exceed the upper bound of COST.
+     * Assigning a non-mandatory value v to a variable adds the weight of v to the lower bound,
+     * but the node of the independent set whose domain contains v (if any) no longer counts.
+     *
+     * @param slack difference between the upper bound of COST and its lower bound
+     * @return <tt>true</tt> if a value was removed
+     */
+    private boolean filter(long slack) throws ContradictionException {
+        boolean change = false;
+        for (int i = 0; i < n; i++) {
+            IntVar x = vars[i];
+            if (x.isInstantiated()) {
+                continue;
+            }
+            boolean modified = false;
+            int ub = x.getUB();
+            for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+                if (!mandatory.contains(v)) {
+                    long w = weights.get(v) - (bestIS.get(i) ? minWeights[i] : coveredBy(i, v));
+                    if (w > slack) {
+                        modified |= x.removeValue(v, this);
+                    }
+                }
+            }
+            if (modified) {
+                graph.update(i);
+                change = true;
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Nodes of an independent set have pairwise disjoint domains,
+     * and a node which is not adjacent to <i>i</i> has no value in common with <i>i</i>.
+     *
+     * @return the weight of the node of the best independent set, adjacent to <i>i</i>, which may take value <i>v</i>,
+     * 0 if there is none
+     */
+    private int coveredBy(int i, int v) {
+        ISetIterator nei = graph.getNeighOf(i).iterator();
+        while (nei.hasNext()) {
+            int j = nei.nextInt();
+            if (bestIS.get(j) && vars[j].contains(v)) {
+                return minWeights[j];
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+        if (idxVarInProp < n) {
+            graph.update(idxVarInProp);
+        }
+        forcePropagate(PropagatorEventType.CUSTOM_PROPAGATION);
+    }
+
+    //***********************************************************************************
+    // INFO
+    //***********************************************************************************
+
+    @Override
+    public ESat isEntailed() {
+        TIntHashSet used = new TIntHashSet();
+        long sum = 0;
+        boolean all = true;
+        for (int i = 0; i < n; i++) {
+            if (vars[i].isInstantiated()) {
+                if (used.add(vars[i].getValue())) {
+                    sum += weights.get(vars[i].getValue());
+                }
+            } else {
+                all = false;
+            }
+        }
+        if (sum > vars[n].getUB()) {
+            return ESat.FALSE;
+        }
+        return all && sum <= vars[n].getLB() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+}
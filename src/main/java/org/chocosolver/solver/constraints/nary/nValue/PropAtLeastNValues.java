@@ -176,4 +176,11 @@ public class PropAtLeastNValues extends Propagator<IntVar> {
         return ESat.UNDEFINED;
     }
 
+    /**
+     * @return the values whose occurrences are counted
+     */
+    public int[] getConcernedValues() {
+        return concernedValues;
+    }
+
 }
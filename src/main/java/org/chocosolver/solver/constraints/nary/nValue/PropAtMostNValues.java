@@ -267,4 +267,11 @@ public class PropAtMostNValues extends Propagator<IntVar> {
         return ESat.UNDEFINED;
     }
 
+    /**
+     * @return the values whose occurrences are counted
+     */
+    public int[] getConcernedValues() {
+        return concernedValues;
+    }
+
 }
@@ -77,6 +77,11 @@ public class Gi extends G {
     protected boolean intersect(int i, int j) {
         IntVar x = X[i];
         IntVar y = X[j];
+        if (x.getDomainSize() > y.getDomainSize()) {
+            // scans the smallest domain
+            x = X[j];
+            y = X[i];
+        }
         if (x.getLB() > y.getUB() || y.getLB() > x.getUB()) {
             return false;
         }
@@ -0,0 +1,256 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.nary.nValue.amnv.mis;
+
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Incremental version of {@link MDRk}, for large graphs.
+ * <br/>
+ * The first independent set of a propagation is warm-started from the best independent set of the previous one:
+ * its nodes are kept as long as they remain independent (edges may have been restored upon backtrack),
+ * then the set is completed greedily, each step taking a node of minimum degree among the remaining ones.
+ * Degrees are kept in a heap which is updated lazily, so that a set is computed in O((n+m).log(n))
+ * instead of O(n^2).
+ * The k-1 other independent sets are random ones, built in O(n+m) by following a random permutation of the nodes.
+ * <br/>
+ * Nodes may be weighted, in which case the size of an independent set is the sum of the weights of its nodes,
+ * and the greedy step takes a node maximizing its weight over its degree plus one (GWMIN).
+ *
+ * @since 19/10/2026
+ */
+public class MDRkInc implements F {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    protected UndirectedGraph graph;
+    protected int n, k, iter;
+    protected BitSet out, inMIS, best;
+    protected Random rd;
+    /**
+     * Weights of the nodes, or null if they all weigh 1
+     */
+    protected int[] weights;
+    private long bestWeight;
+    private final int[] degree, order;
+    // max-heap of nodes, with the priority they had when pushed
+    private final int[] heap;
+    private final double[] prio;
+    private int heapSize;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates an instance of the incremental Min Degree + Random k heuristic to compute independent sets on graph
+     *
+     * @param graph   the graph
+     * @param k       number of iterations (i.e. number of expected IS per propagation)
+     * @param weights weights of the nodes, which may be updated between two propagations (null if all weigh 1)
+     */
+    public MDRkInc(UndirectedGraph graph, int k, int[] weights) {
+        this.graph = graph;
+        this.k = k;
+        this.weights = weights;
+        n = graph.getNbMaxNodes();
+        out = new BitSet(n);
+        inMIS = new BitSet(n);
+        best = new BitSet(n);
+        rd = new Random(0);
+        degree = new int[n];
+        order = new int[n];
+        heap = new int[n];
+        prio = new double[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+    }
+
+    /**
+     * Creates an instance of the incremental Min Degree + Random k heuristic to compute independent sets on graph
+     * uses the default setting DEFAULT_K=30
+     *
+     * @param graph the graph
+     */
+    public MDRkInc(UndirectedGraph graph) {
+        this(graph, Rk.defaultKValue, null);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public void prepare() {
+        iter = 0;
+    }
+
+    @Override
+    public void computeMIS() {
+        iter++;
+        out.clear();
+        inMIS.clear();
+        if (iter == 1) {
+            computeWarmMIS();
+            bestWeight = -1;
+        } else {
+            computeRandomMIS();
+        }
+        long w = weight(inMIS);
+        if (w > bestWeight) {
+            bestWeight = w;
+            best.clear();
+            best.or(inMIS);
+        }
+    }
+
+    /**
+     * Repairs the best independent set of the previous propagation and completes it by min degree
+     */
+    private void computeWarmMIS() {
+        for (int i = best.nextSetBit(0); i >= 0; i = best.nextSetBit(i + 1)) {
+            if (!out.get(i)) {
+                add(i);
+            }
+        }
+        heapSize = 0;
+        for (int i = out.nextClearBit(0); i < n; i = out.nextClearBit(i + 1)) {
+            int d = 0;
+            ISetIterator nei = graph.getNeighOf(i).iterator();
+            while (nei.hasNext()) {
+                if (!out.get(nei.nextInt())) {
+                    d++;
+                }
+            }
+            degree[i] = d;
+            push(i);
+        }
+        while (heapSize > 0) {
+            int i = heap[0];
+            double p = prio[i];
+            pop();
+            if (!out.get(i)) {
+                if (p != priority(i)) {
+                    // the degree decreased since the node was pushed
+                    push(i);
+                } else {
+                    inMIS.set(i);
+                    out.set(i);
+                    ISetIterator nei = graph.getNeighOf(i).iterator();
+                    while (nei.hasNext()) {
+                        int j = nei.nextInt();
+                        if (!out.get(j)) {
+                            out.set(j);
+                            ISetIterator nei2 = graph.getNeighOf(j).iterator();
+                            while (nei2.hasNext()) {
+                                degree[nei2.nextInt()]--;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the nodes following a random permutation, which amounts to picking each time a random remaining node
+     */
+    private void computeRandomMIS() {
+        for (int i = n - 1; i > 0; i--) {
+            int j = rd.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        for (int i = 0; i < n; i++) {
+            if (!out.get(order[i])) {
+                add(order[i]);
+            }
+        }
+    }
+
+    private void add(int node) {
+        inMIS.set(node);
+        out.set(node);
+        ISetIterator nei = graph.getNeighOf(node).iterator();
+        while (nei.hasNext()) {
+            out.set(nei.nextInt());
+        }
+    }
+
+    private long weight(BitSet set) {
+        if (weights == null) {
+            return set.cardinality();
+        }
+        long w = 0;
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            w += weights[i];
+        }
+        return w;
+    }
+
+    private double priority(int node) {
+        return (weights == null ? 1d : weights[node]) / (degree[node] + 1d);
+    }
+
+    private void push(int node) {
+        prio[node] = priority(node);
+        int c = heapSize++;
+        while (c > 0) {
+            int p = (c - 1) >> 1;
+            if (prio[heap[p]] >= prio[node]) {
+                break;
+            }
+            heap[c] = heap[p];
+            c = p;
+        }
+        heap[c] = node;
+    }
+
+    private void pop() {
+        int node = heap[--heapSize];
+        int c = 0;
+        while (true) {
+            int l = 2 * c + 1;
+            if (l >= heapSize) {
+                break;
+            }
+            if (l + 1 < heapSize && prio[heap[l + 1]] > prio[heap[l]]) {
+                l++;
+            }
+            if (prio[heap[l]] <= prio[node]) {
+                break;
+            }
+            heap[c] = heap[l];
+            c = l;
+        }
+        heap[c] = node;
+    }
+
+    //***********************************************************************************
+    // ACCESSORS
+    //***********************************************************************************
+
+    @Override
+    public BitSet getMIS() {
+        return inMIS;
+    }
+
+    @Override
+    public boolean hasNextMIS() {
+        return iter < k;
+    }
+}
@@ -118,6 +118,10 @@ public final class PropKeysorting extends Propagator<IntVar> {
         this.CUR = new int[k + 1];
 
         sorter = new ArraySort(n, false, true);
+        // the orders are kept from one call to the other, as they are likely to be nearly sorted
+        for (int i = 0; i < n; i++) {
+            SORTMIN[i] = SORTMAX[i] = SORTY[i] = i;
+        }
     }
 
 
@@ -196,7 +200,6 @@ public final class PropKeysorting extends Propagator<IntVar> {
                 XUB[i][j] = X[i][j].getUB();
                 YLB[i][j] = Y[i][j].getLB();
                 YUB[i][j] = Y[i][j].getUB();
-                SORTMIN[i] = SORTMAX[i] = SORTY[i] = i;
             }
         }
         return true;
@@ -8,24 +8,29 @@
  */
 package org.chocosolver.solver.constraints.nary.sort;
 
-import gnu.trove.stack.TIntStack;
-import gnu.trove.stack.array.TIntArrayStack;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
-import org.chocosolver.util.objects.PriorityQueue;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.Arrays;
 
 /**
- * <code>SortingConstraint</code> is a constraint that ensures
+ * <code>PropSort</code> is a propagator that ensures
  * that a vector is the sorted version of a second one. The filtering
- * algorithm is the version of Kurt Mehlhorn and Sven Thiel, from
+ * algorithm, which enforces bound consistency, is the one of Kurt Mehlhorn and Sven Thiel, from
  * CP'00 (<i>Faster algorithms for Bound-Consistency of the Sortedness
- * and the Alldifferent Constraint</i>).
+ * and the Alldifferent Constraint</i>), in the formulation of Mats Carlsson
+ * ("Propagating THE KEYSORTING Constraint", 2014) restricted to integers.
+ * <p>
+ * Once the variables of X are sorted by lower and upper bounds, the matching, the strongly connected
+ * components and the narrowing of the bounds are computed in linear time.
+ * The two orders are kept from one call to the other: only the variables whose bound has changed
+ * since the previous call are sorted again, and merged with the other ones.
+ * Backtracking is handled in the same way, since the bounds the orders rely on are compared to the current ones.
  *
  * @author Sylvain Bouveret (initial code)
  * @author Charles Prud'homme (migration to choco3, debugging)
@@ -34,21 +39,24 @@ import java.util.Arrays;
 
 public final class PropSort extends Propagator<IntVar> {
 
-    private int n; // size of X, and obviously Y
+    private final int n; // size of X, and obviously Y
 
-    private PriorityQueue pQueue; // a priority queue
-    private IntVar[] x, y; // ref to X and Y, instead of vars
-    private int[] f, fPrime;
-    private int[][] xyGraph;
-    private int[] dfsNodes;
-    private int[] sccNumbers;
-    private int currentSccNumber;
-    private int[] tmpArray;
-    private int[][] sccSequences;
-    private TIntStack s1;
-    private Stack2 s2;
-    private int[] recupStack = new int[3];
-    private int[] recupStack2 = new int[3];
+    private final IntVar[] x, y; // ref to X and Y, instead of vars
+    private final int[] xlb, xub, ylb, yub; // current bounds, narrowed during filtering
+
+    /**
+     * Indices of X sorted by increasing lower bound, resp. upper bound,
+     * and the bounds they have been sorted with
+     */
+    private final int[] sortMin, sortMax, keyMin, keyMax;
+
+    private final int[] chunk, array, xmate, ymate, node, root, rightmost, maxx, bucket;
+    /**
+     * SCC of each variable of Y, resp. of its mate in X, and the variables grouped by SCC
+     */
+    private final int[] scc, sccOfX, sortY, groupY, groupMin, groupMax;
+    private final long[] moved;
+    private boolean prune;
 
     /**
      * Creates a new <code>PropSort</code> instance.
@@ -65,22 +73,57 @@ public final class PropSort extends Propagator<IntVar> {
         this.n = x.length;
         this.x = x;
         this.y = y;
-        this.f = new int[this.n];
-        this.fPrime = new int[this.n];
-        this.xyGraph = new int[this.n][this.n];
-        this.sccSequences = new int[this.n][this.n];
-        this.dfsNodes = new int[this.n];
-        this.sccNumbers = new int[this.n];
-        this.tmpArray = new int[this.n];
-        this.pQueue = new PriorityQueue(this.n);
-        this.s1 = new TIntArrayStack(this.n);
-        this.s2 = new Stack2(this.n);
+        this.xlb = new int[n];
+        this.xub = new int[n];
+        this.ylb = new int[n];
+        this.yub = new int[n];
+        this.sortMin = new int[n];
+        this.sortMax = new int[n];
+        this.keyMin = new int[n];
+        this.keyMax = new int[n];
+        this.chunk = new int[n];
+        this.array = new int[n + 1];
+        this.xmate = new int[n];
+        this.ymate = new int[n];
+        this.scc = new int[n];
+        this.node = new int[n];
+        this.root = new int[n];
+        this.rightmost = new int[n];
+        this.maxx = new int[n];
+        this.bucket = new int[n + 1];
+        this.sccOfX = new int[n];
+        this.sortY = new int[n];
+        this.groupY = new int[n];
+        this.groupMin = new int[n];
+        this.groupMax = new int[n];
+        this.moved = new long[n];
+        for (int i = 0; i < n; i++) {
+            sortMin[i] = sortMax[i] = i;
+            keyMin[i] = x[i].getLB();
+            keyMax[i] = x[i].getUB();
+        }
+        sort(sortMin, keyMin, n);
+        sort(sortMax, keyMax, n);
     }
 
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.boundAndInst();
+    }
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        filter();
+        do {
+            prune = false;
+            init();
+            normalizeY();
+            normalizeX();
+            matchUp();
+            matchDown();
+            findSCC();
+            narrow();
+            prune();
+        } while (prune);
     }
 
     @Override
@@ -102,344 +145,346 @@ public final class PropSort extends Propagator<IntVar> {
         return ESat.UNDEFINED;
     }
 
-    private void filter() throws ContradictionException {
-        int i, jprime, tmp, j, k;
-
-        for (i = 0; i < this.n; i++) {
-            Arrays.fill(this.xyGraph[i], -1);
-            Arrays.fill(this.sccSequences[i], -1);
-        }
-
-
-        /////////////////////////////////////////////////////////////
-        // Normalizing the vectors...
-        /////////////////////////////////////////////////////////////
-        normalize(y);
+    /**
+     * Reads the bounds, and restores the orders of X
+     */
+    private void init() {
+        for (int i = 0; i < n; i++) {
+            xlb[i] = x[i].getLB();
+            xub[i] = x[i].getUB();
+            ylb[i] = y[i].getLB();
+            yub[i] = y[i].getUB();
+        }
+        repair(sortMin, keyMin, xlb);
+        repair(sortMax, keyMax, xub);
+    }
 
-        /////////////////////////////////////////////////////////////
-        // Computing the perfect maching f... (optimized !)
-        /////////////////////////////////////////////////////////////
-        this.pQueue.clear();
-        for (i = 0; i < this.n; i++) {
-            if (intersect(0, i)) {
-                this.pQueue.addElement(i, x[i].getUB());
+    /**
+     * Restores <i>order</i>, sorted wrt <i>keys</i>, so that it is sorted wrt <i>bounds</i>:
+     * the indices whose bound has changed are removed, sorted and merged back with the other ones.
+     */
+    private void repair(int[] order, int[] keys, int[] bounds) {
+        int m = 0;
+        for (int p = 0; p < n; p++) {
+            int i = order[p];
+            if (keys[i] != bounds[i]) {
+                keys[i] = bounds[i];
+                moved[m++] = ((long) keys[i] << 32) | i;
+            } else {
+                order[p - m] = i;
             }
         }
-
-        this.f[0] = this.computeF(0);
-
-        for (j = 1; j < this.n; j++) {
-            for (i = 0; i < this.n; i++) {
-                if (x[i].getLB() > y[j - 1].getUB() && x[i].getLB() <= y[j].getUB()) {
-                    this.pQueue.addElement(i, x[i].getUB());
+        if (m > 0) {
+            Arrays.sort(moved, 0, m);
+            int p = n - m - 1, q = m - 1;
+            for (int r = n - 1; q >= 0; r--) {
+                int i = (int) moved[q];
+                if (p >= 0 && keys[order[p]] > keys[i]) {
+                    order[r] = order[p--];
+                } else {
+                    order[r] = i;
+                    q--;
                 }
             }
-            this.f[j] = this.computeF(j);
         }
+    }
 
-        /////////////////////////////////////////////////////////////
-        // Narrowing the upper bounds of y...
-        /////////////////////////////////////////////////////////////
-
-        for (i = 0; i < this.n; i++) {
-            y[i].updateUpperBound(x[this.f[i]].getUB(), this);
+    /**
+     * Sorts the <i>m</i> first indices of <i>order</i> wrt <i>keys</i>
+     */
+    private void sort(int[] order, int[] keys, int m) {
+        for (int k = 0; k < m; k++) {
+            moved[k] = ((long) keys[order[k]] << 32) | order[k];
         }
+        Arrays.sort(moved, 0, m);
+        for (int k = 0; k < m; k++) {
+            order[k] = (int) moved[k];
+        }
+    }
 
-        /////////////////////////////////////////////////////////////
-        // Computing the perfect maching f'... (optimized !)
-        /////////////////////////////////////////////////////////////
-
-        this.pQueue.clear();
-
-        for (i = 0; i < this.n; i++) {
-            if (intersect(n - 1, i)) {
-                this.pQueue.addElement(i, -x[i].getLB());
+    /**
+     * Normalize endpoints of Y intervals
+     */
+    private void normalizeY() throws ContradictionException {
+        for (int i = 1; i < n; i++) {
+            ylb[i] = Math.max(ylb[i], ylb[i - 1]);
+        }
+        for (int i = n - 2; i >= 0; i--) {
+            yub[i] = Math.min(yub[i], yub[i + 1]);
+        }
+        for (int i = 0; i < n; i++) {
+            if (ylb[i] > yub[i]) {
+                fails();
             }
         }
+    }
 
-        this.fPrime[this.n - 1] = this.computeFPrime(this.n - 1);
-
-        for (j = this.n - 2; j >= 0; j--) {
-            for (i = 0; i < this.n; i++) {
-                if (x[i].getUB() < y[j + 1].getLB() && x[i].getUB() >= y[j].getLB()) {
-                    this.pQueue.addElement(i, -x[i].getLB());
-                }
+    /**
+     * Normalize endpoints of X intervals, the orders of X are preserved
+     */
+    private void normalizeX() throws ContradictionException {
+        for (int i = 0, j = 0; i < n; i++) {
+            int k = sortMin[i];
+            while (j < n && yub[j] < xlb[k]) {
+                j++;
+            }
+            if (j == n) {
+                fails();
+            }
+            xlb[k] = Math.max(xlb[k], ylb[j]);
+            if (xlb[k] > xub[k]) {
+                fails();
             }
-            this.fPrime[j] = this.computeFPrime(j);
         }
-
-        /////////////////////////////////////////////////////////////
-        // Narrowing the lower bounds of y...
-        /////////////////////////////////////////////////////////////
-
-        for (i = 0; i < this.n; i++) {
-            y[i].updateLowerBound(x[this.fPrime[i]].getLB(), this);
+        for (int i = n - 1, j = n - 1; i >= 0; i--) {
+            int k = sortMax[i];
+            while (j >= 0 && xub[k] < ylb[j]) {
+                j--;
+            }
+            if (j < 0) {
+                fails();
+            }
+            xub[k] = Math.min(xub[k], yub[j]);
+            if (xlb[k] > xub[k]) {
+                fails();
+            }
         }
+    }
 
-        /////////////////////////////////////////////////////////////
-        // Computing the strong connected components (optimized)...
-        /////////////////////////////////////////////////////////////
-
-        for (j = 0; j < this.n; j++) { // for each y
-            tmp = 0;
-            jprime = this.f[j]; // jprime is the number of x associated with y_j
-            for (i = 0; i < this.n; i++) { // for each other y
-                if (j != i && intersect(i, jprime)) {
-                    this.xyGraph[j][tmp] = i;
-                    tmp++;
+    /**
+     * Matching, up phase. Simulate a priority queue iterating y from 0 to n-1 ...
+     */
+    private void matchUp() throws ContradictionException {
+        int e = 0, i = 0;
+        int j, k = sortMin[i];
+        array[n] = n;
+        for (j = 0; j < n; j++) {
+            while (i < n && yub[j] >= xlb[k]) {
+                chunk[k] = j;
+                i++;
+                if (i < n) {
+                    k = sortMin[i];
                 }
             }
+            if (i == e) {
+                fails();
+            } else {
+                array[j] = j;
+                e++;
+            }
         }
-
-        this.dfs();
-
-        /////////////////////////////////////////////////////////////
-        // Narrowing the lower bounds of x... (to be optimized)
-        /////////////////////////////////////////////////////////////
-
-        Arrays.fill(this.tmpArray, 0);
-        for (i = 0; i < this.n; i++) {
-            this.sccSequences[this.sccNumbers[i]][tmpArray[this.sccNumbers[i]]] = i;
-            tmpArray[this.sccNumbers[i]]++;
+        if (i != e) {
+            fails();
         }
-
-        for (i = 0; i < this.n && this.sccSequences[i][0] != -1; i++) { // for each strongly connected component...
-            for (j = 0; j < this.n && this.sccSequences[i][j] != -1; j++) { // for each x of the component
-                jprime = this.f[this.sccSequences[i][j]];
-                k = 0;
-                while (k < this.n && this.sccSequences[i][k] != -1 && x[jprime].getLB() > y[this.sccSequences[i][k]].getUB()) {
-                    k++;
-                }
-                // scan the sequence of the ys of the connected component, until one becomes greater than or equal to x
-                assert (this.sccSequences[i][k] != -1);
-                x[jprime].updateLowerBound(y[this.sccSequences[i][k]].getLB(), this);
+        for (e = 0; e < n; e++) {
+            k = sortMax[e];
+            j = chunk[k];
+            while (j < array[j]) {
+                array[j] = array[array[j]]; //path compression
+                j = array[j];
+            }
+            if (xub[k] < ylb[j]) {
+                fails();
             }
+            ymate[j] = k;
+            xmate[k] = j;
+            array[j] = j + 1;
         }
-
-        /////////////////////////////////////////////////////////////
-        // Narrowing the upper bounds of x... (to be optimized)
-        /////////////////////////////////////////////////////////////
-
-        Arrays.fill(this.tmpArray, 0);
-        for (i = this.n - 1; i >= 0; i--) {
-            this.sccSequences[this.sccNumbers[i]][tmpArray[this.sccNumbers[i]]] = i;
-            tmpArray[this.sccNumbers[i]]++;
+        for (j = 0; j < n; j++) {
+            yub[j] = Math.min(yub[j], xub[ymate[j]]);
         }
+    }
 
-        for (i = 0; i < this.n && this.sccSequences[i][0] != -1; i++) { // for each strongly connected component...
-            for (j = 0; j < this.n && this.sccSequences[i][j] != -1; j++) { // for each x of the component
-                jprime = this.f[this.sccSequences[i][j]];
-                k = 0;
-                while (k < this.n && this.sccSequences[i][k] != -1 && x[jprime].getUB() < y[this.sccSequences[i][k]].getLB()) {
-                    k++;
+    /**
+     * Matching, down phase. Simulate a priority queue iterating y from n-1 to 0 ...
+     */
+    private void matchDown() throws ContradictionException {
+        int e = 0, i = 0;
+        int j, k = sortMax[n - 1];
+        for (j = n - 1; j >= 0; j--) {
+            while (i < n && xub[k] >= ylb[j]) {
+                chunk[k] = j;
+                i++;
+                if (i < n) {
+                    k = sortMax[n - i - 1];
                 }
-                // scan the sequence of the ys of the connected component, until one becomes lower than or equal to x
-                assert (this.sccSequences[i][k] != -1);
-                x[jprime].updateUpperBound(y[this.sccSequences[i][k]].getUB(), this);
+            }
+            if (i == e) {
+                fails();
+            } else {
+                array[j + 1] = j;
+                e++;
             }
         }
-    }
-
-    private void normalize(IntVar[] y) throws ContradictionException {
-        for (int i = 1; i < this.n; i++) {
-            y[i].updateLowerBound(y[i - 1].getLB(), this);
+        if (i != e) {
+            fails();
         }
-
-        for (int i = this.n - 2; i >= 0; i--) {
-            y[i].updateUpperBound(y[i + 1].getUB(), this);
+        // array is shifted by one, so that -1 is a valid value
+        for (e = n - 1; e >= 0; e--) {
+            k = sortMin[e];
+            j = chunk[k];
+            while (j > array[j + 1]) {
+                array[j + 1] = array[array[j + 1] + 1]; //path compression
+                j = array[j + 1];
+            }
+            if (yub[j] < xlb[k]) {
+                fails();
+            }
+            ymate[j] = k;
+            xmate[k] = j;
+            array[j + 1] = j - 1;
+        }
+        for (j = 0; j < n; j++) {
+            ylb[j] = Math.max(ylb[j], xlb[ymate[j]]);
+            if (ylb[j] > yub[j]) {
+                fails();
+            }
         }
     }
 
-
-    private boolean intersect(int y, int x) {
-        return (this.x[x].getLB() >= this.y[y].getLB() && this.x[x].getLB() <= this.y[y].getUB())
-                || (this.x[x].getUB() >= this.y[y].getLB() && this.x[x].getUB() <= this.y[y].getUB())
-                || (this.y[y].getLB() >= this.x[x].getLB() && this.y[y].getLB() <= this.x[x].getUB())
-                || (this.y[y].getUB() >= this.x[x].getLB() && this.y[y].getUB() <= this.x[x].getUB());
-
-
-    }
-
-    private int computeF(int j) throws ContradictionException {
-        if (this.pQueue.isEmpty()) {
-            this.fails();
+    /**
+     * Find all SCCs, numbered from 0
+     */
+    private void findSCC() {
+        int p, q, r, k, j = 0, s = 0, t = 0, u = 0;
+        while (j - t < n) {
+            if (u == 0) {
+                k = ymate[j];
+                node[0] = root[0] = rightmost[0] = j;
+                maxx[0] = k;
+                t = u = 1;
+                j++;
+            } else if (j < n && xub[maxx[u - 1]] >= ylb[j]) {
+                p = k = ymate[j];
+                node[t] = root[u] = j;
+                t++;
+                while (u > 0 && yub[rightmost[u - 1]] >= xlb[k]) {
+                    u--;
+                    if (xub[p] < xub[maxx[u]]) {
+                        p = maxx[u];
+                    }
+                }
+                rightmost[u] = j;
+                maxx[u] = p;
+                u++;
+                j++;
+            } else {
+                r = root[--u];
+                do {
+                    q = node[--t];
+                    scc[q] = s;
+                } while (q > r);
+                s++;
+            }
         }
-        int i = this.pQueue.pop();
-        if (x[i].getUB() < y[j].getLB()) {
-            this.fails();
+        for (k = 0; k < n; k++) {
+            sccOfX[k] = scc[xmate[k]];
+            sortY[k] = k;
         }
-
-        return i;
+        group(sortY, scc, groupY);
+        group(sortMin, sccOfX, groupMin);
+        group(sortMax, sccOfX, groupMax);
     }
 
-    private int computeFPrime(int j) throws ContradictionException {
-        if (this.pQueue.isEmpty()) {
-            this.fails();
+    /**
+     * Stable counting sort of <i>order</i> by SCC, into <i>dest</i>
+     */
+    private void group(int[] order, int[] labels, int[] dest) {
+        Arrays.fill(bucket, 0);
+        for (int k = 0; k < n; k++) {
+            bucket[labels[k] + 1]++;
         }
-        int i = this.pQueue.pop();
-        if (x[i].getLB() > y[j].getUB()) {
-            this.fails();
+        for (int j = 0; j < n; j++) {
+            bucket[j + 1] += bucket[j];
         }
-
-        return i;
-    }
-
-
-    private void dfs() {
-        Arrays.fill(this.dfsNodes, 0);
-        this.s1.clear();
-        this.s2.clear();
-        this.currentSccNumber = 0;
-
-        int i;
-        for (i = 0; i < this.n; i++) {
-            if (this.dfsNodes[i] == 0) {
-                this.dfsVisit(i);
-            }
-        }
-        while (s1.size() > 0 && !s2.isEmpty()) {
-            s2.peek(recupStack);
-            do {
-                i = this.s1.pop();
-                this.sccNumbers[i] = currentSccNumber;
-            } while (s1.size() > 0 && i != recupStack[0]);
-            currentSccNumber++;
-            s2.pop();
+        for (int i = 0; i < n; i++) {
+            int k = order[i];
+            dest[bucket[labels[k]]++] = k;
         }
     }
 
-    private void dfsVisit(int node) {
-        int i;
-        this.dfsNodes[node] = 1;
-        if (this.s2.isEmpty()) {
-            this.s1.push(node);
-            this.s2.push(node, node, x[f[node]].getUB());
-            i = 0;
-            while (xyGraph[node][i] != -1) {
-                if (dfsNodes[xyGraph[node][i]] == 0) {
-                    this.dfsVisit(xyGraph[node][i]);
-                }
-                i++;
-            }
-        } else {
-            while (this.s2.peek(this.recupStack) && this.recupStack[2] < y[node].getLB()) {// the topmost component cannot reach "node".
-                while ((i = this.s1.pop()) != this.recupStack[0]) {
-                    this.sccNumbers[i] = currentSccNumber;
-                }
-                this.sccNumbers[i] = currentSccNumber;
-                this.s2.pop();
-                currentSccNumber++;
+    /**
+     * Narrow X intervals, within each SCC
+     */
+    private void narrow() throws ContradictionException {
+        int s, i, k, j, l = 0, d = 0;
+        while (d < n) {
+            i = d;
+            s = scc[groupY[i]];
+            d = i + 1;
+            while (d < n && scc[groupY[d]] == s) {
+                d++;
             }
-            this.s1.push(node);
-            this.recupStack[0] = node;
-            this.recupStack[1] = node;
-            this.recupStack[2] = this.x[this.f[node]].getUB();
-            this.mergeStack(node);
-            i = 0;
-            while (xyGraph[node][i] != -1) {
-                if (dfsNodes[xyGraph[node][i]] == 0) {
-                    this.dfsVisit(xyGraph[node][i]);
+            while (l < d) {
+                k = groupMin[l];
+                j = groupY[i];
+                if (yub[j] >= xlb[k]) {
+                    xlb[k] = Math.max(xlb[k], ylb[j]);
+                    if (xlb[k] > xub[k]) {
+                        fails();
+                    }
+                    l++;
+                } else {
+                    i++;
                 }
-                i++;
             }
         }
-
-        this.dfsNodes[node] = 2;
-    }
-
-    private boolean mergeStack(int node) {
-        this.s2.peek(this.recupStack2);
-        boolean flag = false;
-        while (!this.s2.isEmpty() && y[this.recupStack2[1]].getUB() >= x[this.f[node]].getLB()) {
-            flag = true;
-            this.recupStack[0] = this.recupStack2[0];
-            this.recupStack[1] = node;
-            this.recupStack[2] = this.recupStack[2] > this.recupStack2[2] ? this.recupStack[2] : this.recupStack2[2];
-            this.s2.pop();
-            this.s2.peek(this.recupStack2);
-        }
-        this.s2.push(this.recupStack[0], this.recupStack[1], this.recupStack[2]);
-        return flag;
-    }
-
-
-    //////////////////////
-    //////////////////////
-    //////////////////////
-
-
-    private static class Stack2  {
-        private int[] roots;
-        private int[] rightMosts;
-        private int[] maxXs;
-        private int n;
-        private int nbElts = 0;
-
-        public Stack2(int _n) {
-            this.n = _n;
-            this.roots = new int[_n];
-            this.rightMosts = new int[_n];
-            this.maxXs = new int[_n];
-        }
-
-        public boolean push(int root, int rightMost, int maxX) {
-            if (this.nbElts == this.n) {
-                return false;
+        l = n - 1;
+        d = n - 1;
+        while (d >= 0) {
+            i = d;
+            s = scc[groupY[i]];
+            d = i - 1;
+            while (d >= 0 && scc[groupY[d]] == s) {
+                d--;
             }
-            this.roots[this.nbElts] = root;
-            this.rightMosts[this.nbElts] = rightMost;
-            this.maxXs[this.nbElts] = maxX;
-            this.nbElts++;
-            return true;
-        }
-
-        public boolean pop() {
-            if (this.isEmpty()) {
-                return false;
+            while (l > d) {
+                k = groupMax[l];
+                j = groupY[i];
+                if (xub[k] >= ylb[j]) {
+                    xub[k] = Math.min(xub[k], yub[j]);
+                    if (xlb[k] > xub[k]) {
+                        fails();
+                    }
+                    l--;
+                } else {
+                    i--;
+                }
             }
-            this.nbElts--;
-            return true;
         }
+    }
 
-        public boolean pop(int[] x) {
-            if (this.isEmpty()) {
-                return false;
+    /**
+     * Make the variables of each SCC range over the hull of the SCC, and apply the bounds
+     */
+    private void prune() throws ContradictionException {
+        for (int i = 0; i < n; ) {
+            int s = scc[groupY[i]];
+            int xl = Integer.MAX_VALUE, yl = Integer.MAX_VALUE;
+            int xu = Integer.MIN_VALUE, yu = Integer.MIN_VALUE;
+            int j = i;
+            for (; j < n && scc[groupY[j]] == s; j++) {
+                int l = groupY[j];
+                int k = ymate[l];
+                xl = Math.min(xl, xlb[k]);
+                xu = Math.max(xu, xub[k]);
+                yl = Math.min(yl, ylb[l]);
+                yu = Math.max(yu, yub[l]);
             }
-            this.nbElts--;
-            x[0] = this.roots[this.nbElts];
-            x[1] = this.rightMosts[this.nbElts];
-            x[2] = this.maxXs[this.nbElts];
-            return true;
-        }
-
-        public boolean peek(int[] x) {
-            if (this.isEmpty()) {
-                return false;
+            for (; i < j; i++) {
+                int l = groupY[i];
+                int k = ymate[l];
+                xlb[k] = Math.max(xlb[k], yl);
+                xub[k] = Math.min(xub[k], yu);
+                ylb[l] = Math.max(ylb[l], xl);
+                yub[l] = Math.min(yub[l], xu);
             }
-            x[0] = this.roots[this.nbElts - 1];
-            x[1] = this.rightMosts[this.nbElts - 1];
-            x[2] = this.maxXs[this.nbElts - 1];
-            return true;
         }
-
-        public boolean isEmpty() {
-            return (this.nbElts == 0);
-        }
-
-        public void clear() {
-            this.nbElts = 0;
-        }
-
-        @Override
-        public String toString() {
-            StringBuilder s = new StringBuilder();
-            for (int i = 0; i < this.nbElts; i++) {
-                s.append(" <").append(this.roots[i]).append(", ")
-                        .append(this.rightMosts[i]).append(", ").append(this.maxXs[i]).append(">");
-            }
-            return s.toString();
+        for (int i = 0; i < n; i++) {
+            x[i].updateBounds(xlb[i], xub[i], this);
+            y[i].updateBounds(ylb[i], yub[i], this);
+            // the bounds are consistent, unless a domain with holes has been narrowed further
+            prune |= x[i].getLB() != xlb[i] || x[i].getUB() != xub[i] || y[i].getLB() != ylb[i] || y[i].getUB() != yub[i];
         }
     }
-
 }
-
@@ -44,6 +44,13 @@ public class PropScalar extends PropSum {
         this.c = coeffs;
     }
 
+    /**
+     * @return the coefficients, in the order of the variables
+     */
+    public int[] getCoefficients() {
+        return c;
+    }
+
 
     @Override
     protected void prepare() {
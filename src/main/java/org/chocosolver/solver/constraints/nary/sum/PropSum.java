@@ -552,4 +552,25 @@ public class PropSum extends Propagator<IntVar> {
     protected PropSum opposite(){
         return new PropSum(vars, pos, nop(o), b + nb(o));
     }
+
+    /**
+     * @return the position of the last positive coefficient
+     */
+    public int getPos() {
+        return pos;
+    }
+
+    /**
+     * @return the operator
+     */
+    public Operator getOperator() {
+        return o;
+    }
+
+    /**
+     * @return the bound to respect
+     */
+    public int getBound() {
+        return b;
+    }
 }
@@ -16,7 +16,9 @@ import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_BitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 
 /**
@@ -34,6 +36,10 @@ public class PropAllDisjoint extends Propagator<SetVar> {
     private int n, currentSet;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure elementForced;
+    /**
+     * Kernels and envelopes, when all of them are stored in bitsets
+     */
+    private Set_Std_BitSet[] lbs, ubs;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -60,6 +66,11 @@ public class PropAllDisjoint extends Propagator<SetVar> {
                 }
             }
         };
+        lbs = SetWords.kernels(vars);
+        ubs = SetWords.envelopes(vars);
+        if (lbs == null || ubs == null) {
+            lbs = ubs = null;
+        }
     }
 
     //***********************************************************************************
@@ -74,11 +85,15 @@ public class PropAllDisjoint extends Propagator<SetVar> {
     @Override
     public void propagate(int evtmask) throws ContradictionException {
         if (PropagatorEventType.isFullPropagation(evtmask)) {
-            for (int i = 0; i < n; i++) {
-                for (int j : vars[i].getLB()) {
-                    for (int i2 = 0; i2 < n; i2++) {
-                        if (i2 != i) {
-                            vars[i2].remove(j, this);
+            if (lbs != null) {
+                propagateWords();
+            } else {
+                for (int i = 0; i < n; i++) {
+                    for (int j : vars[i].getLB()) {
+                        for (int i2 = 0; i2 < n; i2++) {
+                            if (i2 != i) {
+                                vars[i2].remove(j, this);
+                            }
                         }
                     }
                 }
@@ -89,6 +104,37 @@ public class PropAllDisjoint extends Propagator<SetVar> {
         }
     }
 
+    /**
+     * Full propagation, 64 elements at a time
+     */
+    private void propagateWords() throws ContradictionException {
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            ISet env = vars[i].getUB();
+            if (!env.isEmpty()) {
+                min = Math.min(min, env.min());
+                max = Math.max(max, env.max());
+            }
+        }
+        for (int e = min; e <= max; e += 64) {
+            // elements in at least one (resp. two) kernels
+            long one = 0L, two = 0L;
+            for (int i = 0; i < n; i++) {
+                long w = lbs[i].getWord(e);
+                two |= one & w;
+                one |= w;
+            }
+            if (two != 0L) {
+                fails(); // TODO: could be more precise, for explanation purpose
+            }
+            for (int i = 0; i < n && one != 0L; i++) {
+                for (long w = one & ubs[i].getWord(e) & ~lbs[i].getWord(e); w != 0L; w &= w - 1) {
+                    vars[i].remove(e + Long.numberOfTrailingZeros(w), this);
+                }
+            }
+        }
+    }
+
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         currentSet = idxVarInProp;
@@ -23,7 +23,9 @@ import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_BitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
@@ -36,6 +38,10 @@ public class PropIntersection extends Propagator<SetVar> {
     private int k;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure intersectionForced, intersectionRemoved, setForced, setRemoved;
+    /**
+     * Kernels and envelopes, when all of them are stored in bitsets
+     */
+    private Set_Std_BitSet[] lbs, ubs;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -92,6 +98,11 @@ public class PropIntersection extends Propagator<SetVar> {
             }
         };
         setRemoved = element -> vars[k].remove(element, this);
+        lbs = SetWords.kernels(vars);
+        ubs = SetWords.envelopes(vars);
+        if (lbs == null || ubs == null) {
+            lbs = ubs = null;
+        }
     }
 
     //***********************************************************************************
@@ -102,33 +113,37 @@ public class PropIntersection extends Propagator<SetVar> {
     public void propagate(int evtmask) throws ContradictionException {
         SetVar intersection = vars[k];
         if (PropagatorEventType.isFullPropagation(evtmask)) {
-            ISetIterator iter = vars[0].getLB().iterator();
-            while (iter.hasNext()){
-                int j = iter.nextInt();
-                boolean all = true;
-                for (int i = 1; i < k; i++) {
-                    if (!vars[i].getLB().contains(j)) {
-                        all = false;
-                        break;
+            if (lbs != null) {
+                propagateWords();
+            } else {
+                ISetIterator iter = vars[0].getLB().iterator();
+                while (iter.hasNext()){
+                    int j = iter.nextInt();
+                    boolean all = true;
+                    for (int i = 1; i < k; i++) {
+                        if (!vars[i].getLB().contains(j)) {
+                            all = false;
+                            break;
+                        }
                     }
-                }
-                if (all) {
-                    intersection.force(j, this);
-                }
-            }
-            iter = intersection.getUB().iterator();
-            while (iter.hasNext()){
-                int j = iter.nextInt();
-                if (intersection.getLB().contains(j)) {
-                    for (int i = 0; i < k; i++) {
-                        vars[i].force(j, this);
+                    if (all) {
+                        intersection.force(j, this);
                     }
-                } else {
-                    for (int i = 0; i < k; i++)
-                        if (!vars[i].getUB().contains(j)) {
-                            intersection.remove(j, this);
-                            break;
+                }
+                iter = intersection.getUB().iterator();
+                while (iter.hasNext()){
+                    int j = iter.nextInt();
+                    if (intersection.getLB().contains(j)) {
+                        for (int i = 0; i < k; i++) {
+                            vars[i].force(j, this);
                         }
+                    } else {
+                        for (int i = 0; i < k; i++)
+                            if (!vars[i].getUB().contains(j)) {
+                                intersection.remove(j, this);
+                                break;
+                            }
+                    }
                 }
             }
             // ------------------
@@ -137,6 +152,41 @@ public class PropIntersection extends Propagator<SetVar> {
         }
     }
 
+    /**
+     * Full propagation, 64 elements at a time
+     */
+    private void propagateWords() throws ContradictionException {
+        SetVar intersection = vars[k];
+        ISet ker0 = vars[0].getLB();
+        if (!ker0.isEmpty()) {
+            for (int e = ker0.min(), max = ker0.max(); e <= max; e += 64) {
+                long all = lbs[0].getWord(e);
+                for (int i = 1; i < k && all != 0L; i++) {
+                    all &= lbs[i].getWord(e);
+                }
+                for (long w = all & ~lbs[k].getWord(e); w != 0L; w &= w - 1) {
+                    intersection.force(e + Long.numberOfTrailingZeros(w), this);
+                }
+            }
+        }
+        ISet env = intersection.getUB();
+        if (!env.isEmpty()) {
+            for (int e = env.min(), max = env.max(); e <= max; e += 64) {
+                long ker = lbs[k].getWord(e);
+                long all = ubs[k].getWord(e);
+                for (int i = 0; i < k; i++) {
+                    for (long w = ker & ~lbs[i].getWord(e); w != 0L; w &= w - 1) {
+                        vars[i].force(e + Long.numberOfTrailingZeros(w), this);
+                    }
+                    all &= ubs[i].getWord(e);
+                }
+                for (long w = ubs[k].getWord(e) & ~ker & ~all; w != 0L; w &= w - 1) {
+                    intersection.remove(e + Long.numberOfTrailingZeros(w), this);
+                }
+            }
+        }
+    }
+
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         sdm[idxVarInProp].freeze();
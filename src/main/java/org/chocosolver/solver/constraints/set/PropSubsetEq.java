@@ -22,7 +22,9 @@ import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_BitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 
 /**
@@ -38,6 +40,10 @@ public class PropSubsetEq extends Propagator<SetVar> {
 
     private ISetDeltaMonitor[] sdm;
     private IntProcedure elementForced, elementRemoved;
+    /**
+     * Kernels and envelopes, when all of them are stored in bitsets
+     */
+    private Set_Std_BitSet[] lbs, ubs;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -58,6 +64,11 @@ public class PropSubsetEq extends Propagator<SetVar> {
         }
         elementForced = element -> vars[1].force(element, this);
         elementRemoved = element -> vars[0].remove(element, this);
+        lbs = SetWords.kernels(vars);
+        ubs = SetWords.envelopes(vars);
+        if (lbs == null || ubs == null) {
+            lbs = ubs = null;
+        }
     }
 
     //***********************************************************************************
@@ -74,20 +85,46 @@ public class PropSubsetEq extends Propagator<SetVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
-        ISetIterator iter = vars[0].getLB().iterator();
-        while (iter.hasNext()){
-            vars[1].force(iter.nextInt(), this);
-        }
-        iter = vars[0].getUB().iterator();
-        while (iter.hasNext()){
-            int j = iter.nextInt();
-            if (!vars[1].getUB().contains(j))
-                vars[0].remove(j, this);
+        if (lbs != null) {
+            propagateWords();
+        } else {
+            ISetIterator iter = vars[0].getLB().iterator();
+            while (iter.hasNext()){
+                vars[1].force(iter.nextInt(), this);
+            }
+            iter = vars[0].getUB().iterator();
+            while (iter.hasNext()){
+                int j = iter.nextInt();
+                if (!vars[1].getUB().contains(j))
+                    vars[0].remove(j, this);
+            }
         }
         sdm[0].unfreeze();
         sdm[1].unfreeze();
     }
 
+    /**
+     * Full propagation, 64 elements at a time
+     */
+    private void propagateWords() throws ContradictionException {
+        ISet ker = vars[0].getLB();
+        if (!ker.isEmpty()) {
+            for (int e = ker.min(), max = ker.max(); e <= max; e += 64) {
+                for (long w = lbs[0].getWord(e) & ~lbs[1].getWord(e); w != 0L; w &= w - 1) {
+                    vars[1].force(e + Long.numberOfTrailingZeros(w), this);
+                }
+            }
+        }
+        ISet env = vars[0].getUB();
+        if (!env.isEmpty()) {
+            for (int e = env.min(), max = env.max(); e <= max; e += 64) {
+                for (long w = ubs[0].getWord(e) & ~ubs[1].getWord(e); w != 0L; w &= w - 1) {
+                    vars[0].remove(e + Long.numberOfTrailingZeros(w), this);
+                }
+            }
+        }
+    }
+
     @Override
     public void propagate(int i, int mask) throws ContradictionException {
         sdm[i].freeze();
@@ -15,19 +15,32 @@
 
 package org.chocosolver.solver.constraints.set;
 
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
 import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.procedure.IntProcedure;
+
+import java.util.Arrays;
 
 /**
  * Sums elements given by a set variable
+ * <br/>
+ * The elements of the initial envelope are sorted by weight. The optional ones (in the envelope but not in the kernel)
+ * are stored in Fenwick trees, which give in O(log n) the sum of the k smallest (or largest) optional weights.
+ * When the set has a cardinality variable, the bounds of the sum take it into account: at least
+ * <i>card.LB - |kernel|</i> and at most <i>card.UB - |kernel|</i> optional elements can be added.
+ * Elements leaving the optional part are recorded on a trail, which is undone lazily upon backtrack.
  *
  * @author Jean-Guillaume Fages
  */
@@ -39,8 +52,38 @@ public class PropSumOfElements extends Propagator<Variable> {
 
 	private IntVar sum;
 	private SetVar set;
+	private IntVar card;
 	private int offSet;
 	private int[] weights;
+	private ISetDeltaMonitor sdm;
+	private IntProcedure elementForced, elementRemoved;
+
+	/**
+	 * Elements of the initial envelope which are in scope, by increasing weight
+	 */
+	private int[] elements;
+	private TIntIntHashMap ranks;
+	/**
+	 * Number of elements with a negative (resp. non-positive) weight
+	 */
+	private int nbNeg, nbNonPos;
+	/**
+	 * Fenwick trees over the ranks, counting the optional elements and summing their weights
+	 */
+	private int[] cnt, wsum;
+	private boolean[] optional;
+	private int nbOpt, optSum, kerSum;
+	/**
+	 * Ranks of the elements which left the optional part, as 2 * rank (removed) or 2 * rank + 1 (forced).
+	 * Only the first <i>trailSize</i> ones are valid in the current state
+	 */
+	private int[] trail;
+	private int top;
+	private IStateInt trailSize;
+	/**
+	 * The optional elements have their ranks in [lo, hi]
+	 */
+	private IStateInt lo, hi;
 
 	//***********************************************************************************
 	// CONSTRUCTOR
@@ -62,11 +105,137 @@ public class PropSumOfElements extends Propagator<Variable> {
 	 * @param sum integer variable representing the sum over the set
 	 */
 	public PropSumOfElements(SetVar setVar, int[] weights, int offset, IntVar sum) {
-		super(new Variable[]{setVar, sum}, PropagatorPriority.BINARY, false);
+		super(setVar.hasCard() ? new Variable[]{setVar, sum, setVar.getCard()} : new Variable[]{setVar, sum},
+				PropagatorPriority.BINARY, true);
 		this.sum = (IntVar) vars[1];
 		this.set = (SetVar) vars[0];
+		this.card = vars.length > 2 ? (IntVar) vars[2] : null;
 		this.weights = weights;
 		this.offSet = offset;
+		this.sdm = set.monitorDelta(this);
+		sortElements();
+		int n = elements.length;
+		cnt = new int[n + 1];
+		wsum = new int[n + 1];
+		optional = new boolean[n];
+		for (int r = 0; r < n; r++) {
+			add(r, 1);
+		}
+		nbOpt = n;
+		trail = new int[n];
+		trailSize = model.getEnvironment().makeInt(0);
+		lo = model.getEnvironment().makeInt(0);
+		hi = model.getEnvironment().makeInt(n - 1);
+		elementForced = j -> leave(ranks.get(j), true);
+		elementRemoved = j -> leave(ranks.get(j), false);
+	}
+
+	private void sortElements() {
+		ISetIterator iter = set.getUB().iterator();
+		int n = 0;
+		long[] keys = new long[set.getUB().size()];
+		int[] env = new int[keys.length];
+		while (iter.hasNext()) {
+			int j = iter.nextInt();
+			if (!outOfScope(j)) {
+				// sorted by weight first, then by position in env
+				keys[n] = ((long) get(j) << 32) | n;
+				env[n++] = j;
+			}
+		}
+		keys = Arrays.copyOf(keys, n);
+		Arrays.sort(keys);
+		elements = new int[n];
+		ranks = new TIntIntHashMap(n, 0.5f, Integer.MIN_VALUE, -1);
+		for (int r = 0; r < n; r++) {
+			elements[r] = env[(int) keys[r]];
+			ranks.put(elements[r], r);
+			if (get(elements[r]) < 0) nbNeg++;
+			if (get(elements[r]) <= 0) nbNonPos++;
+		}
+	}
+
+	//***********************************************************************************
+	// DATA STRUCTURE
+	//***********************************************************************************
+
+	/**
+	 * Makes the element of rank <i>r</i> optional (<i>sign</i> = 1) or not (<i>sign</i> = -1)
+	 */
+	private void add(int r, int sign) {
+		int w = sign * get(elements[r]);
+		optional[r] = sign > 0;
+		nbOpt += sign;
+		optSum += w;
+		for (int i = r + 1; i < cnt.length; i += i & -i) {
+			cnt[i] += sign;
+			wsum[i] += w;
+		}
+	}
+
+	/**
+	 * The element of rank <i>r</i> is no longer optional: it has been removed from the envelope or added to the kernel
+	 */
+	private void leave(int r, boolean forced) {
+		if (r >= 0 && optional[r]) {
+			add(r, -1);
+			if (forced) {
+				kerSum += get(elements[r]);
+			}
+			trail[top++] = 2 * r + (forced ? 1 : 0);
+			trailSize.set(top);
+		}
+	}
+
+	/**
+	 * Makes optional again the elements which left the optional part in the worlds that have been backtracked
+	 */
+	private void restore() {
+		int size = trailSize.get();
+		while (top > size) {
+			int code = trail[--top];
+			add(code >> 1, 1);
+			if ((code & 1) == 1) {
+				kerSum -= get(elements[code >> 1]);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of optional elements whose rank is lower than <i>r</i>
+	 */
+	private int countBelow(int r) {
+		int c = 0;
+		for (int i = r; i > 0; i -= i & -i) {
+			c += cnt[i];
+		}
+		return c;
+	}
+
+	/**
+	 * @return the sum of the weights of the optional elements whose rank is lower than <i>r</i>
+	 */
+	private int sumBelow(int r) {
+		int s = 0;
+		for (int i = r; i > 0; i -= i & -i) {
+			s += wsum[i];
+		}
+		return s;
+	}
+
+	/**
+	 * @return the sum of the <i>k</i> smallest optional weights, with 0 &le; k &le; nbOpt
+	 */
+	private int smallest(int k) {
+		int pos = 0, s = 0;
+		for (int step = Integer.highestOneBit(cnt.length); step > 0; step >>= 1) {
+			if (pos + step < cnt.length && cnt[pos + step] <= k) {
+				pos += step;
+				k -= cnt[pos];
+				s += wsum[pos];
+			}
+		}
+		return s;
 	}
 
 	//***********************************************************************************
@@ -81,50 +250,133 @@ public class PropSumOfElements extends Propagator<Variable> {
 
 	@Override
 	public void propagate(int evtmask) throws ContradictionException {
-		int lbSum = 0;
-		int ubPosSum = 0;
-		int ubNegSum = 0;
-		ISetIterator iter = set.getUB().iterator();
-		while (iter.hasNext()){
-			int j = iter.nextInt();
-			if(outOfScope(j)){
-				set.remove(j,this);
-			}else {
-				if (set.getLB().contains(j)) {
-					lbSum += get(j);
-				} else if (get(j) >= 0) {
-					ubPosSum += get(j);
-				} else {
-					ubNegSum += get(j);
+		restore();
+		if (PropagatorEventType.isFullPropagation(evtmask)) {
+			ISetIterator iter = set.getUB().iterator();
+			while (iter.hasNext()) {
+				int j = iter.nextInt();
+				if (outOfScope(j)) {
+					set.remove(j, this);
+				}
+			}
+			for (int r = 0; r < elements.length; r++) {
+				if (!set.getUB().contains(elements[r])) {
+					leave(r, false);
+				} else if (set.getLB().contains(elements[r])) {
+					leave(r, true);
 				}
 			}
 		}
-		int min = lbSum+ubNegSum;
-		int max = lbSum+ubPosSum;
-		sum.updateBounds(min, max, this);
-		boolean again = false;
-		// filter set
-		int lb = sum.getLB();
-		int ub = sum.getUB();
-		iter = set.getUB().iterator();
-		while (iter.hasNext()){
-			int j = iter.nextInt();
-			if (!set.getLB().contains(j)) {
-				if(min + get(j) > ub || max + get(j) < lb){
-					if (set.remove(j, this)) {
-						again = true;
-					}
+		filter();
+		sdm.unfreeze();
+	}
+
+	@Override
+	public void propagate(int vIdx, int mask) throws ContradictionException {
+		restore();
+		if (vIdx == 0) {
+			sdm.freeze();
+			sdm.forEach(elementForced, SetEventType.ADD_TO_KER);
+			sdm.forEach(elementRemoved, SetEventType.REMOVE_FROM_ENVELOPE);
+			sdm.unfreeze();
+		}
+		filter();
+	}
+
+	private void filter() throws ContradictionException {
+		boolean again = true;
+		while (again) {
+			again = false;
+			updateSum();
+			int lb = sum.getLB();
+			int ub = sum.getUB();
+			// bounds regardless of the cardinality
+			int negSum = sumBelow(nbNeg);
+			int min = kerSum + negSum;
+			int max = kerSum + optSum - sumBelow(nbNonPos);
+			// largest positive weights
+			int r = last();
+			while (r >= 0 && get(elements[r]) > 0) {
+				int w = get(elements[r]);
+				if (min + w > ub) {
+					set.remove(elements[r], this);
+					leave(r, false);
+					max -= w;
+				} else if (max - w < lb) {
+					set.force(elements[r], this);
+					leave(r, true);
+					min += w;
+				} else {
+					break;
 				}
-				if(max - get(j) < lb || min - get(j) > ub) {
-					if (set.force(j, this)) {
-						again = true;
-					}
+				again = true;
+				r = last();
+			}
+			// smallest negative weights
+			r = first();
+			while (r >= 0 && get(elements[r]) < 0) {
+				int w = get(elements[r]);
+				if (max + w < lb) {
+					set.remove(elements[r], this);
+					leave(r, false);
+					min -= w;
+				} else if (min - w > ub) {
+					set.force(elements[r], this);
+					leave(r, true);
+					max += w;
+				} else {
+					break;
 				}
+				again = true;
+				r = first();
+			}
+		}
+	}
+
+	/**
+	 * Updates the bounds of the sum, picking the best number of optional elements allowed by the cardinality
+	 */
+	private void updateSum() throws ContradictionException {
+		int kMin = 0, kMax = nbOpt;
+		if (card != null) {
+			int ker = set.getLB().size();
+			kMin = Math.max(0, card.getLB() - ker);
+			kMax = Math.min(nbOpt, card.getUB() - ker);
+			if (kMin > kMax) {
+				fails();
 			}
 		}
-		if (again) {
-			propagate(0, 0);
+		int nNeg = countBelow(nbNeg);
+		int nPos = nbOpt - countBelow(nbNonPos);
+		int min = kerSum + smallest(Math.max(kMin, Math.min(kMax, nNeg)));
+		int max = kerSum + optSum - smallest(nbOpt - Math.max(kMin, Math.min(kMax, nPos)));
+		sum.updateBounds(min, max, this);
+	}
+
+	/**
+	 * @return the highest rank of an optional element, or -1
+	 */
+	private int last() {
+		int h = hi.get();
+		int l = lo.get();
+		while (h >= l && !optional[h]) {
+			h--;
+		}
+		hi.set(h);
+		return h >= l ? h : -1;
+	}
+
+	/**
+	 * @return the lowest rank of an optional element, or -1
+	 */
+	private int first() {
+		int l = lo.get();
+		int h = hi.get();
+		while (l <= h && !optional[l]) {
+			l++;
 		}
+		lo.set(l);
+		return l <= h ? l : -1;
 	}
 
 	private boolean outOfScope(int j){
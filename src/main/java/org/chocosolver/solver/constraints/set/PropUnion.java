@@ -23,7 +23,9 @@ import org.chocosolver.solver.variables.delta.ISetDeltaMonitor;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.chocosolver.solver.variables.events.SetEventType;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_BitSet;
 import org.chocosolver.util.procedure.IntProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
@@ -36,6 +38,10 @@ public class PropUnion extends Propagator<SetVar> {
     private int k;
     private ISetDeltaMonitor[] sdm;
     private IntProcedure unionForced, unionRemoved, setForced, setRemoved;
+    /**
+     * Kernels and envelopes, when all of them are stored in bitsets
+     */
+    private Set_Std_BitSet[] lbs, ubs;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -97,6 +103,11 @@ public class PropUnion extends Propagator<SetVar> {
                 }
             }
         };
+        lbs = SetWords.kernels(vars);
+        ubs = SetWords.envelopes(vars);
+        if (lbs == null || ubs == null) {
+            lbs = ubs = null;
+        }
     }
 
     //***********************************************************************************
@@ -106,46 +117,50 @@ public class PropUnion extends Propagator<SetVar> {
     @Override
     public void propagate(int evtmask) throws ContradictionException {
         if (PropagatorEventType.isFullPropagation(evtmask)) {
-            SetVar union = vars[k];
-            for (int i = 0; i < k; i++) {
-                ISetIterator iter = vars[i].getLB().iterator();
-                while(iter.hasNext())
-                    union.force(iter.nextInt(),this);
-                iter = vars[i].getUB().iterator();
-                while(iter.hasNext()) {
-                    int j = iter.nextInt();
-                    if (!union.getUB().contains(j))
-                        vars[i].remove(j, this);
+            if (lbs != null) {
+                propagateWords();
+            } else {
+                SetVar union = vars[k];
+                for (int i = 0; i < k; i++) {
+                    ISetIterator iter = vars[i].getLB().iterator();
+                    while(iter.hasNext())
+                        union.force(iter.nextInt(),this);
+                    iter = vars[i].getUB().iterator();
+                    while(iter.hasNext()) {
+                        int j = iter.nextInt();
+                        if (!union.getUB().contains(j))
+                            vars[i].remove(j, this);
+                    }
                 }
-            }
-            ISetIterator unionUB = union.getUB().iterator();
-            while (unionUB.hasNext()) {
-                int j = unionUB.nextInt();
-                if (union.getLB().contains(j)) {
-                    int mate = -1;
-                    for (int i = 0; i < k && mate != -2; i++) {
-                        if (vars[i].getUB().contains(j)) {
-                            if (mate == -1) {
-                                mate = i;
-                            } else {
-                                mate = -2;
+                ISetIterator unionUB = union.getUB().iterator();
+                while (unionUB.hasNext()) {
+                    int j = unionUB.nextInt();
+                    if (union.getLB().contains(j)) {
+                        int mate = -1;
+                        for (int i = 0; i < k && mate != -2; i++) {
+                            if (vars[i].getUB().contains(j)) {
+                                if (mate == -1) {
+                                    mate = i;
+                                } else {
+                                    mate = -2;
+                                }
                             }
                         }
-                    }
-                    if (mate == -1) {
-                        fails(); // TODO: could be more precise, for explanation purpose
-                    } else if (mate != -2) {
-                        vars[mate].force(j, this);
-                    }
-                } else {
-                    int mate = -1;
-                    for (int i = 0; i < k; i++) {
-                        if (vars[i].getUB().contains(j)) {
-                            mate = i;
-                            break;
+                        if (mate == -1) {
+                            fails(); // TODO: could be more precise, for explanation purpose
+                        } else if (mate != -2) {
+                            vars[mate].force(j, this);
                         }
+                    } else {
+                        int mate = -1;
+                        for (int i = 0; i < k; i++) {
+                            if (vars[i].getUB().contains(j)) {
+                                mate = i;
+                                break;
+                            }
+                        }
+                        if (mate == -1) union.remove(j, this);
                     }
-                    if (mate == -1) union.remove(j, this);
                 }
             }
             // ------------------
@@ -154,6 +169,56 @@ public class PropUnion extends Propagator<SetVar> {
         }
     }
 
+    /**
+     * Full propagation, 64 elements at a time
+     */
+    private void propagateWords() throws ContradictionException {
+        SetVar union = vars[k];
+        for (int i = 0; i < k; i++) {
+            ISet ker = vars[i].getLB();
+            if (!ker.isEmpty()) {
+                for (int e = ker.min(), max = ker.max(); e <= max; e += 64) {
+                    for (long w = lbs[i].getWord(e) & ~lbs[k].getWord(e); w != 0L; w &= w - 1) {
+                        union.force(e + Long.numberOfTrailingZeros(w), this);
+                    }
+                }
+            }
+            ISet env = vars[i].getUB();
+            if (!env.isEmpty()) {
+                for (int e = env.min(), max = env.max(); e <= max; e += 64) {
+                    for (long w = ubs[i].getWord(e) & ~ubs[k].getWord(e); w != 0L; w &= w - 1) {
+                        vars[i].remove(e + Long.numberOfTrailingZeros(w), this);
+                    }
+                }
+            }
+        }
+        ISet env = union.getUB();
+        if (!env.isEmpty()) {
+            for (int e = env.min(), max = env.max(); e <= max; e += 64) {
+                long ker = lbs[k].getWord(e);
+                // elements in at least one (resp. two) envelopes
+                long one = 0L, two = 0L;
+                for (int i = 0; i < k; i++) {
+                    long w = ubs[i].getWord(e);
+                    two |= one & w;
+                    one |= w;
+                }
+                if ((ker & ~one) != 0L) {
+                    fails(); // TODO: could be more precise, for explanation purpose
+                }
+                for (long w = ubs[k].getWord(e) & ~ker & ~one; w != 0L; w &= w - 1) {
+                    union.remove(e + Long.numberOfTrailingZeros(w), this);
+                }
+                long single = ker & ~two;
+                for (int i = 0; i < k && single != 0L; i++) {
+                    for (long w = single & ubs[i].getWord(e) & ~lbs[i].getWord(e); w != 0L; w &= w - 1) {
+                        vars[i].force(e + Long.numberOfTrailingZeros(w), this);
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public void propagate(int idxVarInProp, int mask) throws ContradictionException {
         sdm[idxVarInProp].freeze();
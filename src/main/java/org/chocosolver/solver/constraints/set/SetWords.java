@@ -0,0 +1,71 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.set;
+
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.Set_ReadOnly;
+import org.chocosolver.util.objects.setDataStructures.bitset.Set_Std_BitSet;
+
+/**
+ * Word-level access to the kernels and envelopes of set variables stored in bitsets
+ * ({@link org.chocosolver.util.objects.setDataStructures.SetType#BITSET}),
+ * so that propagators can filter 64 elements at once with AND/OR operations.
+ * Elements are read from any bound, so that sets with different offsets can be combined.
+ * Sets built while {@link org.chocosolver.util.objects.setDataStructures.SetFactory#HARD_CODED} is <tt>false</tt>
+ * are wrapped in a generic stored set: propagators then filter them element by element.
+ *
+ * @since 19/10/2026
+ */
+final class SetWords {
+
+    private SetWords() {
+    }
+
+    /**
+     * @param set a set
+     * @return the reversible bitset <i>set</i> is based on, or null if it is not stored in a reversible bitset
+     */
+    static Set_Std_BitSet bitset(ISet set) {
+        if (set instanceof Set_ReadOnly) {
+            set = ((Set_ReadOnly) set).getSet();
+        }
+        return set instanceof Set_Std_BitSet ? (Set_Std_BitSet) set : null;
+    }
+
+    /**
+     * @param vars set variables
+     * @return the bitsets of the kernels of <i>vars</i>, or null if one of them is not stored in a bitset
+     */
+    static Set_Std_BitSet[] kernels(SetVar[] vars) {
+        Set_Std_BitSet[] bs = new Set_Std_BitSet[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            bs[i] = bitset(vars[i].getLB());
+            if (bs[i] == null) {
+                return null;
+            }
+        }
+        return bs;
+    }
+
+    /**
+     * @param vars set variables
+     * @return the bitsets of the envelopes of <i>vars</i>, or null if one of them is not stored in a bitset
+     */
+    static Set_Std_BitSet[] envelopes(SetVar[] vars) {
+        Set_Std_BitSet[] bs = new Set_Std_BitSet[vars.length];
+        for (int i = 0; i < vars.length; i++) {
+            bs[i] = bitset(vars[i].getUB());
+            if (bs[i] == null) {
+                return null;
+            }
+        }
+        return bs;
+    }
+}
@@ -0,0 +1,329 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.symmetry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes generators of the automorphism group of a vertex-colored undirected graph,
+ * by individualization and refinement (as nauty, McKay and Piperno, 2014, in a simpler form).
+ * <br/>
+ * A coloring is refined into an equitable one by colour refinement: vertices are split according to
+ * the colours of their neighbours until the partition is stable.
+ * New colours are ranks of (colour, neighbour colours) signatures, so that they do not depend on vertex numbering
+ * and two colorings can be compared colour by colour.
+ * The first leaf of the search tree is reached by individualizing, at each level, the first vertex of the first
+ * non-singleton cell.
+ * Then, from the deepest level up, each other vertex of the cell is individualized in place of the first one
+ * and a matching leaf is searched for; the mapping between the two leaves is kept as a generator if it is an automorphism.
+ * Vertices already known to be in the same orbit, under the generators found so far, are skipped.
+ * <br/>
+ * The search of a matching leaf is bounded by a number of refinements, so some generators may be missed,
+ * but each generator returned is checked to be an automorphism.
+ *
+ * @since 19/10/2026
+ */
+public class AutomorphismFinder {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private final int n;
+    private final int[] colors;
+    /**
+     * Sorted neighbours of each vertex
+     */
+    private final int[][] adj;
+    private final int maxRefinements;
+    private int refinements;
+    /**
+     * First path: colorings, individualized vertices and target colours, per level
+     */
+    private final List<int[]> fpColorings;
+    private final List<int[]> fpCounts;
+    private final List<Integer> fpVertices;
+    private final List<Integer> fpTargets;
+    private final int[] parent;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Prepares the search of the automorphisms of a colored graph
+     *
+     * @param colors         colour of each vertex
+     * @param adj            neighbours of each vertex (an edge must be declared on its both ends)
+     * @param maxRefinements maximum number of refinements spent in searching leaves matching the first one
+     */
+    public AutomorphismFinder(int[] colors, int[][] adj, int maxRefinements) {
+        this.n = colors.length;
+        this.colors = colors.clone();
+        this.adj = new int[n][];
+        for (int i = 0; i < n; i++) {
+            this.adj[i] = adj[i].clone();
+            Arrays.sort(this.adj[i]);
+        }
+        this.maxRefinements = maxRefinements;
+        this.fpColorings = new ArrayList<>();
+        this.fpCounts = new ArrayList<>();
+        this.fpVertices = new ArrayList<>();
+        this.fpTargets = new ArrayList<>();
+        this.parent = new int[n];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    /**
+     * @return generators of (a subgroup of) the automorphism group, each one given as a permutation of the vertices
+     */
+    public List<int[]> findGenerators() {
+        List<int[]> generators = new ArrayList<>();
+        refinements = 0;
+        fpColorings.clear();
+        fpCounts.clear();
+        fpVertices.clear();
+        fpTargets.clear();
+        // first path
+        int[] c = refine(colors);
+        while (true) {
+            int[] counts = counts(c);
+            fpColorings.add(c);
+            fpCounts.add(counts);
+            int t = target(counts);
+            if (t == -1) {
+                break;
+            }
+            int v = first(c, t);
+            fpTargets.add(t);
+            fpVertices.add(v);
+            c = refine(individualize(c, v));
+        }
+        int[] leaf = fpColorings.get(fpColorings.size() - 1);
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        // other branches, from the deepest level up
+        for (int l = fpVertices.size() - 1; l >= 0; l--) {
+            int[] cl = fpColorings.get(l);
+            int v = fpVertices.get(l);
+            int t = fpTargets.get(l);
+            for (int w = 0; w < n && refinements < maxRefinements; w++) {
+                if (w == v || cl[w] != t || find(w) == find(v)) {
+                    continue;
+                }
+                int[] cw = refine(individualize(cl, w));
+                if (Arrays.equals(counts(cw), fpCounts.get(l + 1))) {
+                    int[] perm = searchLeaf(cw, l + 1, leaf);
+                    if (perm != null) {
+                        generators.add(perm);
+                        for (int i = 0; i < n; i++) {
+                            union(i, perm[i]);
+                        }
+                    }
+                }
+            }
+        }
+        return generators;
+    }
+
+    /**
+     * Depth-first search of a leaf, below coloring <i>c</i> at level <i>l</i>, which maps the first leaf
+     * onto an automorphism
+     *
+     * @return the automorphism, or null if none is found
+     */
+    private int[] searchLeaf(int[] c, int l, int[] leaf) {
+        if (l == fpVertices.size()) {
+            // c is discrete: vertex u of the first leaf is mapped to the vertex with the same colour in c
+            int[] byColor = new int[n];
+            for (int i = 0; i < n; i++) {
+                byColor[c[i]] = i;
+            }
+            int[] perm = new int[n];
+            for (int i = 0; i < n; i++) {
+                perm[i] = byColor[leaf[i]];
+            }
+            return isAutomorphism(perm) ? perm : null;
+        }
+        int t = fpTargets.get(l);
+        for (int w = 0; w < n && refinements < maxRefinements; w++) {
+            if (c[w] == t) {
+                int[] cw = refine(individualize(c, w));
+                if (Arrays.equals(counts(cw), fpCounts.get(l + 1))) {
+                    int[] perm = searchLeaf(cw, l + 1, leaf);
+                    if (perm != null) {
+                        return perm;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param perm a permutation of the vertices
+     * @return true if <i>perm</i> preserves colours and edges
+     */
+    public boolean isAutomorphism(int[] perm) {
+        int[] mapped = new int[0];
+        for (int i = 0; i < n; i++) {
+            if (colors[i] != colors[perm[i]] || adj[i].length != adj[perm[i]].length) {
+                return false;
+            }
+            if (mapped.length < adj[i].length) {
+                mapped = new int[adj[i].length];
+            }
+            for (int k = 0; k < adj[i].length; k++) {
+                mapped[k] = perm[adj[i][k]];
+            }
+            Arrays.sort(mapped, 0, adj[i].length);
+            for (int k = 0; k < adj[i].length; k++) {
+                if (mapped[k] != adj[perm[i]][k]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Refines a coloring into the coarsest equitable coloring finer than it
+     *
+     * @param c a coloring
+     * @return a new coloring, whose colours range from 0 to the number of cells minus one
+     */
+    int[] refine(int[] c) {
+        refinements++;
+        int[] col = rank(c);
+        int k = nbColors(col);
+        Integer[] order = new Integer[n];
+        int[][] sigs = new int[n][];
+        while (k < n) {
+            for (int i = 0; i < n; i++) {
+                int[] sig = new int[adj[i].length + 1];
+                sig[0] = col[i];
+                for (int j = 0; j < adj[i].length; j++) {
+                    sig[j + 1] = col[adj[i][j]];
+                }
+                Arrays.sort(sig, 1, sig.length);
+                sigs[i] = sig;
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compare(sigs[a], sigs[b]));
+            int[] next = new int[n];
+            int r = 0;
+            for (int i = 1; i < n; i++) {
+                if (compare(sigs[order[i - 1]], sigs[order[i]]) != 0) {
+                    r++;
+                }
+                next[order[i]] = r;
+            }
+            col = next;
+            if (r + 1 == k) {
+                break;
+            }
+            k = r + 1;
+        }
+        return col;
+    }
+
+    private static int compare(int[] a, int[] b) {
+        int m = Math.min(a.length, b.length);
+        for (int i = 0; i < m; i++) {
+            if (a[i] != b[i]) {
+                return a[i] < b[i] ? -1 : 1;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    /**
+     * @return the colours of <i>c</i> replaced by their ranks
+     */
+    private int[] rank(int[] c) {
+        int[] sorted = c.clone();
+        Arrays.sort(sorted);
+        int k = 0;
+        for (int i = 1; i < n; i++) {
+            if (sorted[i] != sorted[k]) {
+                sorted[++k] = sorted[i];
+            }
+        }
+        int[] col = new int[n];
+        for (int i = 0; i < n; i++) {
+            col[i] = Arrays.binarySearch(sorted, 0, k + 1, c[i]);
+        }
+        return col;
+    }
+
+    private int nbColors(int[] col) {
+        int max = -1;
+        for (int i = 0; i < n; i++) {
+            max = Math.max(max, col[i]);
+        }
+        return max + 1;
+    }
+
+    /**
+     * @return a copy of <i>c</i> where <i>v</i> is alone in a new cell, placed before the rest of its former cell
+     */
+    private int[] individualize(int[] c, int v) {
+        int[] col = new int[n];
+        for (int i = 0; i < n; i++) {
+            col[i] = 2 * c[i] + (i == v ? 0 : 1);
+        }
+        return col;
+    }
+
+    private int[] counts(int[] c) {
+        int[] counts = new int[n];
+        for (int i = 0; i < n; i++) {
+            counts[c[i]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @return the first colour of a non-singleton cell, -1 if the coloring is discrete
+     */
+    private int target(int[] counts) {
+        for (int t = 0; t < n; t++) {
+            if (counts[t] > 1) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    private int first(int[] c, int t) {
+        int i = 0;
+        while (c[i] != t) {
+            i++;
+        }
+        return i;
+    }
+
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private void union(int i, int j) {
+        parent[find(i)] = find(j);
+    }
+}
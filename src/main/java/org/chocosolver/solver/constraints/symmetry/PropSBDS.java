@@ -0,0 +1,353 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.symmetry;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.DecisionPath;
+import org.chocosolver.solver.search.strategy.decision.IntDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+
+import java.util.Arrays;
+
+/**
+ * Symmetry Breaking During Search (Gent and Smith, ECAI 2000), for a set of symmetries.
+ * <br/>
+ * The decision path is read as a conjunction of literals <i>A</i>.
+ * When a decision <i>d</i> is refuted, for each symmetry <i>g</i>, the implication <i>g(A) &rArr; g(&not;d)</i>
+ * is recorded, it holds until <i>d</i> is backtracked:
+ * any solution satisfying <i>g(A) &and; g(d)</i> is the image of a solution of <i>A &and; d</i>,
+ * which has already been explored.
+ * The literals of <i>g(A)</i> are watched in order, and <i>g(&not;d)</i> is enforced once they all hold.
+ * <br/>
+ * Decisions are expected to be assignments, removals or domain splits on the variables of the symmetries,
+ * the latter only for symmetries which do not move values.
+ * No implication is recorded below a decision of another kind.
+ * Only the given symmetries are broken, not the whole group they generate.
+ *
+ * @since 19/10/2026
+ */
+public class PropSBDS extends Propagator<IntVar> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    private static final int EQ = 0, NEQ = 1, LE = 2, GE = 3;
+
+    private final Symmetry[] symmetries;
+    /**
+     * Index of each variable, by its id
+     */
+    private final TIntIntHashMap indexOf;
+    private DecisionPath path;
+
+    /**
+     * Number of decisions of the path already read, and whether they all are literals
+     */
+    private final IStateInt nbRead;
+    private final IStateBool literals;
+    /**
+     * Literals of the decision path, as (variable, operator, value)
+     */
+    private final IStateInt nbLits;
+    private int[] litVars, litOps, litVals;
+
+    /**
+     * Implications: the literals of the premise of the e<sup>th</sup> implication are stored in the pool,
+     * from start[e] to end[e] (excluded), watch[e] is the first one which does not hold yet (-1 once the
+     * implication is satisfied or its premise is false), and the conclusion is (tVar[e], tOp[e], tVal[e])
+     */
+    private final IStateInt nbImplications, poolSize;
+    private int[] start, end, tVars, tOps, tVals;
+    private IStateInt[] watch;
+    private int[] pVars, pOps, pVals;
+
+    // the image of a literal, computed by image()
+    private int gVar, gVal;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Breaks <i>symmetries</i> during search
+     *
+     * @param symmetries symmetries acting on the same variables
+     */
+    public PropSBDS(Symmetry... symmetries) {
+        super(symmetries[0].getVars(), PropagatorPriority.LINEAR, false);
+        this.symmetries = symmetries;
+        this.indexOf = new TIntIntHashMap(vars.length, .5f, -1, -1);
+        for (int i = 0; i < vars.length; i++) {
+            indexOf.put(vars[i].getId(), i);
+        }
+        IEnvironment environment = model.getEnvironment();
+        // the first decision of the path is the root one
+        this.nbRead = environment.makeInt(1);
+        this.literals = environment.makeBool(true);
+        this.nbLits = environment.makeInt(0);
+        this.nbImplications = environment.makeInt(0);
+        this.poolSize = environment.makeInt(0);
+        this.litVars = new int[16];
+        this.litOps = new int[16];
+        this.litVals = new int[16];
+        this.start = new int[16];
+        this.end = new int[16];
+        this.tVars = new int[16];
+        this.tOps = new int[16];
+        this.tVals = new int[16];
+        this.watch = new IStateInt[0];
+        this.pVars = new int[64];
+        this.pOps = new int[64];
+        this.pVals = new int[64];
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    @Override
+    public int getPropagationConditions(int vIdx) {
+        return IntEventType.all();
+    }
+
+    @Override
+    public void propagate(int evtmask) throws ContradictionException {
+        readPath();
+        boolean changed;
+        do {
+            changed = false;
+            int n = nbImplications.get();
+            for (int e = 0; e < n; e++) {
+                int w = watch[e].get();
+                if (w < 0) {
+                    continue;
+                }
+                int s = w;
+                while (w < end[e] && status(pVars[w], pOps[w], pVals[w]) == ESat.TRUE) {
+                    w++;
+                }
+                if (w < end[e] && status(pVars[w], pOps[w], pVals[w]) == ESat.FALSE) {
+                    w = -1;
+                } else if (w == end[e]) {
+                    changed |= enforce(tVars[e], tOps[e], tVals[e]);
+                    w = -1;
+                }
+                if (w != s) {
+                    watch[e].set(w);
+                }
+            }
+        } while (changed);
+    }
+
+    /**
+     * Reads the decisions pushed since the last call, and records implications for the refuted ones
+     */
+    private void readPath() {
+        if (path == null) {
+            path = model.getSolver().getDecisionPath();
+        }
+        int size = path.size();
+        if (nbRead.get() >= size || !literals.get()) {
+            return;
+        }
+        for (int k = nbRead.get(); k < size; k++) {
+            Decision d = path.getDecision(k);
+            boolean refuted = d.getArity() == 2 && d.triesLeft() == 0;
+            if (!literal(d, refuted)) {
+                literals.set(false);
+                break;
+            }
+            int l = nbLits.get();
+            if (refuted) {
+                record(litVars[l], litOps[l], litVals[l]);
+            }
+            nbLits.set(l + 1);
+        }
+        nbRead.set(size);
+    }
+
+    /**
+     * Stores the literal of a decision, just after the last literal of the path
+     *
+     * @return false if the decision cannot be turned into a literal
+     */
+    private boolean literal(Decision d, boolean refuted) {
+        if (!(d instanceof IntDecision)) {
+            return false;
+        }
+        IntDecision dec = (IntDecision) d;
+        int i = indexOf.get(dec.getDecisionVariable().getId());
+        if (i == -1) {
+            return false;
+        }
+        DecisionOperator<IntVar> op = dec.getDecOp();
+        int v = dec.getDecisionValue();
+        int o;
+        if (op == DecisionOperatorFactory.makeIntEq()) {
+            o = refuted ? NEQ : EQ;
+        } else if (op == DecisionOperatorFactory.makeIntNeq()) {
+            o = refuted ? EQ : NEQ;
+        } else if (op == DecisionOperatorFactory.makeIntSplit()) {
+            o = refuted ? GE : LE;
+            v = refuted ? v + 1 : v;
+        } else if (op == DecisionOperatorFactory.makeIntReverseSplit()) {
+            o = refuted ? LE : GE;
+            v = refuted ? v - 1 : v;
+        } else {
+            return false;
+        }
+        int l = nbLits.get();
+        if (l == litVars.length) {
+            litVars = Arrays.copyOf(litVars, l * 2);
+            litOps = Arrays.copyOf(litOps, l * 2);
+            litVals = Arrays.copyOf(litVals, l * 2);
+        }
+        litVars[l] = i;
+        litOps[l] = o;
+        litVals[l] = v;
+        return true;
+    }
+
+    /**
+     * Records, for each symmetry g, the implication g(A) => g(x op v), where A is the conjunction of the literals
+     * of the path
+     */
+    private void record(int x, int op, int v) {
+        int nl = nbLits.get();
+        for (Symmetry g : symmetries) {
+            if (!image(g, x, op, v) || (gVar == x && gVal == v)) {
+                // the conclusion already holds below the refuted decision
+                continue;
+            }
+            int tx = gVar, tv = gVal;
+            int s = poolSize.get();
+            int p = s;
+            boolean useless = false;
+            for (int l = 0; l < nl && !useless; l++) {
+                if (!image(g, litVars[l], litOps[l], litVals[l])) {
+                    useless = true;
+                } else if (gVar != litVars[l] || gVal != litVals[l]) {
+                    ESat st = status(gVar, litOps[l], gVal);
+                    if (st == ESat.FALSE) {
+                        useless = true;
+                    } else if (st == ESat.UNDEFINED) {
+                        ensurePool(p + 1);
+                        pVars[p] = gVar;
+                        pOps[p] = litOps[l];
+                        pVals[p] = gVal;
+                        p++;
+                    }
+                }
+            }
+            if (!useless) {
+                int e = nbImplications.get();
+                ensureImplications(e + 1);
+                start[e] = s;
+                end[e] = p;
+                tVars[e] = tx;
+                tOps[e] = op;
+                tVals[e] = tv;
+                watch[e].set(s);
+                nbImplications.set(e + 1);
+                poolSize.set(p);
+            }
+        }
+    }
+
+    /**
+     * Computes the image of (x op v) by g, in ({@link #gVar}, {@link #gVal})
+     *
+     * @return false if the image cannot be expressed as a literal
+     */
+    private boolean image(Symmetry g, int x, int op, int v) {
+        gVar = g.image(x);
+        if (op == EQ || op == NEQ) {
+            gVal = g.imageOfValue(v);
+            return true;
+        }
+        gVal = v;
+        return g.isVariableSymmetry();
+    }
+
+    private ESat status(int x, int op, int v) {
+        IntVar var = vars[x];
+        switch (op) {
+            case EQ:
+                return var.isInstantiatedTo(v) ? ESat.TRUE : var.contains(v) ? ESat.UNDEFINED : ESat.FALSE;
+            case NEQ:
+                return var.isInstantiatedTo(v) ? ESat.FALSE : var.contains(v) ? ESat.UNDEFINED : ESat.TRUE;
+            case LE:
+                return var.getUB() <= v ? ESat.TRUE : var.getLB() > v ? ESat.FALSE : ESat.UNDEFINED;
+            default:
+                return var.getLB() >= v ? ESat.TRUE : var.getUB() < v ? ESat.FALSE : ESat.UNDEFINED;
+        }
+    }
+
+    private boolean enforce(int x, int op, int v) throws ContradictionException {
+        switch (op) {
+            case EQ:
+                return vars[x].instantiateTo(v, this);
+            case NEQ:
+                return vars[x].removeValue(v, this);
+            case LE:
+                return vars[x].updateUpperBound(v, this);
+            default:
+                return vars[x].updateLowerBound(v, this);
+        }
+    }
+
+    private void ensurePool(int size) {
+        if (size > pVars.length) {
+            int ns = Math.max(size, pVars.length * 2);
+            pVars = Arrays.copyOf(pVars, ns);
+            pOps = Arrays.copyOf(pOps, ns);
+            pVals = Arrays.copyOf(pVals, ns);
+        }
+    }
+
+    private void ensureImplications(int size) {
+        if (size > start.length) {
+            int ns = Math.max(size, start.length * 2);
+            start = Arrays.copyOf(start, ns);
+            end = Arrays.copyOf(end, ns);
+            tVars = Arrays.copyOf(tVars, ns);
+            tOps = Arrays.copyOf(tOps, ns);
+            tVals = Arrays.copyOf(tVals, ns);
+        }
+        if (size > watch.length) {
+            int os = watch.length;
+            watch = Arrays.copyOf(watch, start.length);
+            for (int e = os; e < watch.length; e++) {
+                watch[e] = model.getEnvironment().makeInt(-1);
+            }
+        }
+    }
+
+    @Override
+    public ESat isEntailed() {
+        return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+    }
+
+    @Override
+    public String toString() {
+        return "SBDS(" + symmetries.length + " symmetries)";
+    }
+}
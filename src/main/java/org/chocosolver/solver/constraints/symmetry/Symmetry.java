@@ -0,0 +1,114 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.symmetry;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * A symmetry of a model, mapping each literal <i>x = v</i> onto <i>g(x) = g(v)</i>,
+ * where <i>g</i> permutes a set of integer variables and, possibly, a set of values.
+ *
+ * @since 19/10/2026
+ */
+public class Symmetry {
+
+    /**
+     * Variables the symmetry acts on
+     */
+    private final IntVar[] vars;
+
+    /**
+     * Image of each variable, as an index in {@link #vars}
+     */
+    private final int[] images;
+
+    /**
+     * Image of the values which are not mapped onto themselves, null if there is none
+     */
+    private final TIntIntHashMap values;
+
+    /**
+     * Creates a symmetry
+     *
+     * @param vars   variables the symmetry acts on
+     * @param images image of each variable, as an index in <i>vars</i>
+     * @param values image of the values which are not mapped onto themselves, null if there is none
+     */
+    public Symmetry(IntVar[] vars, int[] images, TIntIntHashMap values) {
+        this.vars = vars;
+        this.images = images;
+        this.values = values == null || values.isEmpty() ? null : values;
+    }
+
+    /**
+     * @return the variables the symmetry acts on
+     */
+    public IntVar[] getVars() {
+        return vars;
+    }
+
+    /**
+     * @param i index of a variable in {@link #getVars()}
+     * @return the index of its image
+     */
+    public int image(int i) {
+        return images[i];
+    }
+
+    /**
+     * @param v a value
+     * @return its image
+     */
+    public int imageOfValue(int v) {
+        return values != null && values.containsKey(v) ? values.get(v) : v;
+    }
+
+    /**
+     * @return true if no value is moved, that is, if the symmetry only permutes variables
+     */
+    public boolean isVariableSymmetry() {
+        return values == null;
+    }
+
+    /**
+     * @return true if no variable is moved, that is, if the symmetry only permutes values
+     */
+    public boolean isValueSymmetry() {
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != i) {
+                sb.append(vars[i].getName()).append("->").append(vars[images[i]].getName()).append(", ");
+            }
+        }
+        if (values != null) {
+            int[] keys = values.keys();
+            Arrays.sort(keys);
+            for (int v : keys) {
+                sb.append(v).append("->").append(values.get(v)).append(", ");
+            }
+        }
+        if (sb.length() > 1) {
+            sb.setLength(sb.length() - 2);
+        }
+        return sb.append(")").toString();
+    }
+}
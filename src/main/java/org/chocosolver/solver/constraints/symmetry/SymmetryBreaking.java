@@ -0,0 +1,162 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.symmetry;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Breaks the symmetries of a model, detected by {@link SymmetryDetector}, either statically or during search.
+ * Only one of the two ways should be used on a model, and the model should be fully stated beforehand.
+ *
+ * @since 19/10/2026
+ */
+public class SymmetryBreaking {
+
+    private SymmetryBreaking() {
+    }
+
+    /**
+     * Detects the symmetries of <i>model</i> and posts lex-leader constraints (Crawford et al., KR 1996):
+     * <ul>
+     * <li>for each generator g which only permutes variables, X &le;<sub>lex</sub> g(X),
+     * where X is the sequence of the integer variables of the model (views excepted), restricted to the ones g moves,</li>
+     * <li>for each set of values which can be freely permuted, a value precedence constraint
+     * over the variables whose domain contains them, in the same order.</li>
+     * </ul>
+     * Generators which move both variables and values are ignored.
+     *
+     * @param model a model
+     * @return the symmetries detected
+     */
+    public static List<Symmetry> postLexLeader(Model model) {
+        SymmetryDetector detector = new SymmetryDetector(model);
+        List<Symmetry> symmetries = detector.detect();
+        IntVar[] vars = detector.getVars();
+        List<Symmetry> valueSymmetries = new ArrayList<>();
+        for (Symmetry g : symmetries) {
+            if (g.isVariableSymmetry()) {
+                List<IntVar> xs = new ArrayList<>();
+                List<IntVar> ys = new ArrayList<>();
+                boolean bool = true;
+                for (int i = 0; i < vars.length; i++) {
+                    if (g.image(i) != i) {
+                        xs.add(vars[i]);
+                        ys.add(vars[g.image(i)]);
+                        bool &= vars[i].isBool();
+                    }
+                }
+                if (bool) {
+                    model.lexLessEqBool(xs.toArray(new BoolVar[xs.size()]), ys.toArray(new BoolVar[ys.size()])).post();
+                } else {
+                    model.lexLessEq(xs.toArray(new IntVar[xs.size()]), ys.toArray(new IntVar[ys.size()])).post();
+                }
+            } else if (g.isValueSymmetry()) {
+                valueSymmetries.add(g);
+            }
+        }
+        for (int[] values : interchangeableValues(vars, valueSymmetries)) {
+            List<IntVar> xs = new ArrayList<>();
+            for (IntVar x : vars) {
+                if (x.contains(values[0])) {
+                    xs.add(x);
+                }
+            }
+            model.intValuePrecedeChain(xs.toArray(new IntVar[xs.size()]), values).post();
+        }
+        return symmetries;
+    }
+
+    /**
+     * Detects the symmetries of <i>model</i> and breaks them during search, see {@link PropSBDS}
+     *
+     * @param model a model
+     * @return the symmetries detected
+     */
+    public static List<Symmetry> postSBDS(Model model) {
+        List<Symmetry> symmetries = new SymmetryDetector(model).detect();
+        if (!symmetries.isEmpty()) {
+            new Constraint("SBDS", new PropSBDS(symmetries.toArray(new Symmetry[symmetries.size()]))).post();
+        }
+        return symmetries;
+    }
+
+    /**
+     * Gathers values into orbits of the value symmetries, and keeps the ones whose values can be freely permuted,
+     * that is, such that each variable contains either all of them or none.
+     * Value symmetries are only detected when any permutation of the values preserving the domains is a symmetry.
+     *
+     * @return sorted sets of interchangeable values
+     */
+    private static List<int[]> interchangeableValues(IntVar[] vars, List<Symmetry> valueSymmetries) {
+        TIntIntHashMap parent = new TIntIntHashMap();
+        for (Symmetry g : valueSymmetries) {
+            for (IntVar x : vars) {
+                int ub = x.getUB();
+                for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+                    int w = g.imageOfValue(v);
+                    if (w != v) {
+                        parent.put(find(parent, v), find(parent, w));
+                    }
+                }
+            }
+        }
+        TIntIntHashMap orbitOf = new TIntIntHashMap();
+        List<TIntArrayList> orbits = new ArrayList<>();
+        int[] keys = parent.keys();
+        Arrays.sort(keys);
+        for (int v : keys) {
+            int r = find(parent, v);
+            if (!orbitOf.containsKey(r)) {
+                orbitOf.put(r, orbits.size());
+                orbits.add(new TIntArrayList());
+            }
+            orbits.get(orbitOf.get(r)).add(v);
+        }
+        List<int[]> sets = new ArrayList<>();
+        for (TIntArrayList orbit : orbits) {
+            boolean free = orbit.size() > 1;
+            for (int i = 0; i < vars.length && free; i++) {
+                int nb = 0;
+                for (int k = 0; k < orbit.size(); k++) {
+                    if (vars[i].contains(orbit.getQuick(k))) {
+                        nb++;
+                    }
+                }
+                free = nb == 0 || nb == orbit.size();
+            }
+            if (free) {
+                sets.add(orbit.toArray());
+            }
+        }
+        return sets;
+    }
+
+    private static int find(TIntIntHashMap parent, int v) {
+        if (!parent.containsKey(v)) {
+            parent.put(v, v);
+            return v;
+        }
+        int p = parent.get(v);
+        if (p == v) {
+            return v;
+        }
+        int r = find(parent, p);
+        parent.put(v, r);
+        return r;
+    }
+}
@@ -0,0 +1,515 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.symmetry;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.ReificationConstraint;
+import org.chocosolver.solver.constraints.binary.PropEqualX_Y;
+import org.chocosolver.solver.constraints.binary.PropEqualX_YC;
+import org.chocosolver.solver.constraints.binary.PropGreaterOrEqualX_Y;
+import org.chocosolver.solver.constraints.binary.PropGreaterOrEqualX_YC;
+import org.chocosolver.solver.constraints.binary.PropNotEqualX_Y;
+import org.chocosolver.solver.constraints.binary.PropNotEqualX_YC;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffAC;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffAdaptative;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffBC;
+import org.chocosolver.solver.constraints.nary.alldifferent.PropAllDiffInst;
+import org.chocosolver.solver.constraints.nary.binPacking.PropBinPacking;
+import org.chocosolver.solver.constraints.nary.binPacking.PropItemToLoad;
+import org.chocosolver.solver.constraints.nary.binPacking.PropLoadToItem;
+import org.chocosolver.solver.constraints.nary.nValue.PropAMNV;
+import org.chocosolver.solver.constraints.nary.nValue.PropAtLeastNValues;
+import org.chocosolver.solver.constraints.nary.nValue.PropAtLeastNValues_AC;
+import org.chocosolver.solver.constraints.nary.nValue.PropAtMostNValues;
+import org.chocosolver.solver.constraints.nary.nValue.PropAtMostNValues_BC;
+import org.chocosolver.solver.constraints.nary.sum.PropScalar;
+import org.chocosolver.solver.constraints.nary.sum.PropSum;
+import org.chocosolver.solver.constraints.nary.sum.PropSumBool;
+import org.chocosolver.solver.constraints.unary.PropEqualXC;
+import org.chocosolver.solver.constraints.unary.PropGreaterOrEqualXC;
+import org.chocosolver.solver.constraints.unary.PropLessOrEqualXC;
+import org.chocosolver.solver.constraints.unary.PropNotEqualXC;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.view.BoolNotView;
+import org.chocosolver.solver.variables.view.IView;
+import org.chocosolver.solver.variables.view.MinusView;
+import org.chocosolver.solver.variables.view.OffsetView;
+import org.chocosolver.solver.variables.view.ScaleView;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects symmetries of a model from its constraint graph.
+ * <br/>
+ * The model is turned into a colored graph, whose automorphisms are symmetries of the model
+ * (Puget, "Automatic detection of variable and value symmetries", CP 2005):
+ * <ul>
+ * <li>a vertex per variable, colored by its kind and its initial domain (the objective variable is left alone),</li>
+ * <li>a vertex per propagator, colored by its class and its parameters,</li>
+ * <li>for each propagator, a vertex per class of interchangeable positions of its scope,
+ * linked to the propagator and to the variables at these positions,</li>
+ * <li>a vertex per view, linked to the variable it is based on.</li>
+ * </ul>
+ * The positions of the scope of most propagators are not interchangeable, but they are for alldifferent,
+ * (not) equal, nValue and sum propagators, and items of the same size are for bin packing propagators.
+ * Only a known set of propagators (alldifferent, arithmetic, nValue, sum, scalar and bin packing ones)
+ * and views (offset, scale, minus and boolean negation ones) is described through its accessors;
+ * any other propagator or view is a fixed point of any symmetry.
+ * <br/>
+ * When all the propagators are alldifferent or (not) equal ones, values are interchangeable too:
+ * a vertex is added per value, linked to the variables whose domain contains it,
+ * and the domains no longer color the variables.
+ * <br/>
+ * The automorphisms are computed by {@link AutomorphismFinder}, only generators are returned.
+ *
+ * @since 19/10/2026
+ */
+public class SymmetryDetector {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************
+
+    /**
+     * Maximum number of vertices of the colored graph
+     */
+    public static final int MAX_VERTICES = 1 << 16;
+
+    /**
+     * Maximum number of variable-value edges, above which values are not considered interchangeable
+     */
+    public static final int MAX_VALUE_EDGES = 1 << 14;
+
+    private final Model model;
+
+    /**
+     * Maximum number of refinements spent in searching automorphisms
+     */
+    private final int maxRefinements;
+
+    /**
+     * Integer variables (views excepted) the symmetries act on
+     */
+    private IntVar[] vars;
+
+    private final TIntArrayList colors;
+    private final List<TIntArrayList> adj;
+    private final Map<String, Integer> colorIds;
+    private int nbUniques;
+
+    //***********************************************************************************
+    // CONSTRUCTORS
+    //***********************************************************************************
+
+    /**
+     * Creates a symmetry detector for <i>model</i>
+     *
+     * @param model          the model, whose constraints are posted
+     * @param maxRefinements maximum number of refinements spent in searching automorphisms
+     */
+    public SymmetryDetector(Model model, int maxRefinements) {
+        this.model = model;
+        this.maxRefinements = maxRefinements;
+        this.colors = new TIntArrayList();
+        this.adj = new ArrayList<>();
+        this.colorIds = new HashMap<>();
+    }
+
+    /**
+     * Creates a symmetry detector for <i>model</i>, with a default limit of 10000 refinements
+     *
+     * @param model the model, whose constraints are posted
+     */
+    public SymmetryDetector(Model model) {
+        this(model, 10_000);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    /**
+     * Computes generators of the symmetry group of the model.
+     * Symmetries are detected from the current domains, so this should be called before the resolution starts.
+     *
+     * @return generators of a symmetry group of the model, possibly empty
+     */
+    public List<Symmetry> detect() {
+        colors.clear();
+        adj.clear();
+        colorIds.clear();
+        nbUniques = 0;
+        Variable[] all = model.getVars();
+        Constraint[] cstrs = model.getCstrs();
+        boolean valueMode = valuesAreInterchangeable(all, cstrs);
+        // variables
+        TIntIntHashMap vertexOf = new TIntIntHashMap(all.length, .5f, -1, -1);
+        List<IntVar> ivars = new ArrayList<>();
+        for (Variable v : all) {
+            vertexOf.put(v.getId(), addVertex(variableColor(v, valueMode)));
+            if (isDecisionVar(v)) {
+                ivars.add((IntVar) v);
+            }
+        }
+        vars = ivars.toArray(new IntVar[ivars.size()]);
+        for (Variable v : all) {
+            if ((v.getTypeAndKind() & Variable.VIEW) != 0) {
+                int u = vertexOf.get(((IView) v).getVariable().getId());
+                if (u == -1) {
+                    return new ArrayList<>();
+                }
+                addEdge(vertexOf.get(v.getId()), u);
+            }
+        }
+        // values
+        TIntIntHashMap valueVertex = new TIntIntHashMap(16, .5f, Integer.MIN_VALUE, -1);
+        if (valueMode) {
+            for (IntVar x : vars) {
+                int ub = x.getUB();
+                for (int v = x.getLB(); v <= ub; v = x.nextValue(v)) {
+                    int w = valueVertex.get(v);
+                    if (w == -1) {
+                        w = addVertex(colorOf("value"));
+                        valueVertex.put(v, w);
+                    }
+                    addEdge(vertexOf.get(x.getId()), w);
+                }
+            }
+        }
+        // propagators
+        for (Constraint c : cstrs) {
+            Propagator[] props = c.getPropagators();
+            if (c instanceof ReificationConstraint) {
+                int nbTrue = ((ReificationConstraint) c).getTrueConstraint().getPropagators().length;
+                // the reification propagator is represented by a vertex linked to the boolean variable,
+                // the other ones are tagged with the side they are on
+                int r = addVertex(colorOf("reif"));
+                addEdge(r, vertexOf.get(props[0].getVar(0).getId()));
+                for (int i = 1; i < props.length; i++) {
+                    int p = addPropagator(props[i], i <= nbTrue ? "T|" : "F|", vertexOf);
+                    addEdge(r, p);
+                }
+            } else {
+                for (Propagator prop : props) {
+                    addPropagator(prop, "", vertexOf);
+                }
+            }
+            if (colors.size() > MAX_VERTICES) {
+                return new ArrayList<>();
+            }
+        }
+        int[][] graph = new int[adj.size()][];
+        for (int i = 0; i < graph.length; i++) {
+            graph[i] = adj.get(i).toArray();
+        }
+        List<int[]> perms = new AutomorphismFinder(colors.toArray(), graph, maxRefinements).findGenerators();
+        // maps the automorphisms back to the variables and values
+        TIntIntHashMap indexOf = new TIntIntHashMap(vars.length, .5f, -1, -1);
+        for (int i = 0; i < vars.length; i++) {
+            indexOf.put(vertexOf.get(vars[i].getId()), i);
+        }
+        TIntIntHashMap valueOf = new TIntIntHashMap(valueVertex.size(), .5f, -1, Integer.MIN_VALUE);
+        for (int v : valueVertex.keys()) {
+            valueOf.put(valueVertex.get(v), v);
+        }
+        List<Symmetry> symmetries = new ArrayList<>();
+        for (int[] perm : perms) {
+            int[] images = new int[vars.length];
+            boolean identity = true;
+            for (int i = 0; i < vars.length; i++) {
+                images[i] = indexOf.get(perm[vertexOf.get(vars[i].getId())]);
+                identity &= images[i] == i;
+            }
+            TIntIntHashMap values = new TIntIntHashMap();
+            for (int v : valueVertex.keys()) {
+                int w = valueOf.get(perm[valueVertex.get(v)]);
+                if (w != v) {
+                    values.put(v, w);
+                }
+            }
+            if (!identity || !values.isEmpty()) {
+                symmetries.add(new Symmetry(vars, images, values));
+            }
+        }
+        return symmetries;
+    }
+
+    /**
+     * @return the integer variables the detected symmetries act on, that is, the integer variables which are not views
+     */
+    public IntVar[] getVars() {
+        if (vars == null) {
+            throw new SolverException("Symmetries have not been detected yet");
+        }
+        return vars;
+    }
+
+    /**
+     * @return true if <i>v</i> is an integer variable that is not a view
+     */
+    private static boolean isDecisionVar(Variable v) {
+        return (v.getTypeAndKind() & Variable.INT) != 0 && (v.getTypeAndKind() & Variable.VIEW) == 0;
+    }
+
+    /**
+     * @return true if values can be permuted in any solution: only alldifferent and (not) equal propagators,
+     * no objective, view or non-integer variables, and not too large domains
+     */
+    private boolean valuesAreInterchangeable(Variable[] all, Constraint[] cstrs) {
+        if (model.getObjective() != null) {
+            return false;
+        }
+        long edges = 0;
+        for (Variable v : all) {
+            if (!isDecisionVar(v)) {
+                return false;
+            }
+            edges += ((IntVar) v).getDomainSize();
+        }
+        if (edges > MAX_VALUE_EDGES) {
+            return false;
+        }
+        for (Constraint c : cstrs) {
+            for (Propagator p : c.getPropagators()) {
+                if (!isAllDiff(p) && !(p instanceof PropNotEqualX_Y) && !(p instanceof PropEqualX_Y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAllDiff(Propagator p) {
+        return p instanceof PropAllDiffAC || p instanceof PropAllDiffBC
+                || p instanceof PropAllDiffInst || p instanceof PropAllDiffAdaptative;
+    }
+
+    private static boolean isNValue(Propagator p) {
+        return p instanceof PropAMNV || p instanceof PropAtMostNValues || p instanceof PropAtMostNValues_BC
+                || p instanceof PropAtLeastNValues || p instanceof PropAtLeastNValues_AC;
+    }
+
+    private String variableColor(Variable v, boolean valueMode) {
+        if (v == model.getObjective()) {
+            return unique();
+        }
+        int tk = v.getTypeAndKind();
+        if ((tk & Variable.VIEW) != 0 && v instanceof IntVar) {
+            String params = viewSignature(v);
+            return params == null ? unique() : "view|" + params + "|" + ranges((IntVar) v);
+        }
+        if (isDecisionVar(v)) {
+            return "var|" + tk + (valueMode ? "" : "|" + ranges((IntVar) v));
+        }
+        return unique();
+    }
+
+    /**
+     * @return a key identifying the transformation applied by the view <i>v</i>, null if it is unknown
+     */
+    private static String viewSignature(Variable v) {
+        if (v instanceof OffsetView) {
+            return "offset|" + ((OffsetView) v).cste;
+        }
+        if (v instanceof ScaleView) {
+            return "scale|" + ((ScaleView) v).cste;
+        }
+        if (v instanceof MinusView) {
+            return "minus";
+        }
+        if (v instanceof BoolNotView) {
+            return "not";
+        }
+        return null;
+    }
+
+    private static String ranges(IntVar x) {
+        StringBuilder sb = new StringBuilder();
+        DisposableRangeIterator it = x.getRangeIterator(true);
+        while (it.hasNext()) {
+            sb.append('[').append(it.min()).append(',').append(it.max()).append(']');
+            it.next();
+        }
+        it.dispose();
+        return sb.toString();
+    }
+
+    /**
+     * Adds a propagator, and the classes of positions of its scope, to the graph
+     *
+     * @return the vertex of the propagator
+     */
+    private int addPropagator(Propagator p, String tag, TIntIntHashMap vertexOf) {
+        String sig = signature(p);
+        sig = sig == null ? unique() : tag + sig;
+        int pv = addVertex(colorOf(sig));
+        long[] classes = positionClasses(p);
+        Map<Long, Integer> classVertex = new HashMap<>();
+        for (int i = 0; i < classes.length; i++) {
+            Integer cv = classVertex.get(classes[i]);
+            if (cv == null) {
+                cv = addVertex(colorOf(sig + "|" + classes[i]));
+                classVertex.put(classes[i], cv);
+                addEdge(pv, cv);
+            }
+            addEdge(cv, vertexOf.get(p.getVar(i).getId()));
+        }
+        return pv;
+    }
+
+    /**
+     * @return a key identifying the semantics of <i>p</i> up to its scope, null if it is unknown
+     */
+    private static String signature(Propagator p) {
+        String name = p.getClass().getName();
+        if (isAllDiff(p) || p instanceof PropNotEqualX_Y || p instanceof PropEqualX_Y || p instanceof PropGreaterOrEqualX_Y
+                || p instanceof PropAMNV || p instanceof PropAtMostNValues_BC || p instanceof PropAtLeastNValues_AC) {
+            return name;
+        }
+        if (p instanceof PropAtMostNValues) {
+            return name + "|" + Arrays.toString(((PropAtMostNValues) p).getConcernedValues());
+        }
+        if (p instanceof PropAtLeastNValues) {
+            return name + "|" + Arrays.toString(((PropAtLeastNValues) p).getConcernedValues());
+        }
+        if (p instanceof PropSum) {
+            PropSum ps = (PropSum) p;
+            return name + "|" + ps.getOperator() + "|" + ps.getBound();
+        }
+        if (p instanceof PropItemToLoad) {
+            return name + "|" + ((PropItemToLoad) p).getOffset();
+        }
+        if (p instanceof PropLoadToItem) {
+            return name + "|" + ((PropLoadToItem) p).getOffset();
+        }
+        if (p instanceof PropBinPacking) {
+            return name + "|" + ((PropBinPacking) p).getOffset();
+        }
+        Integer cste = constantOf(p);
+        return cste == null ? null : name + "|" + cste;
+    }
+
+    /**
+     * @return the constant of an arithmetic propagator, null if <i>p</i> is not one
+     */
+    private static Integer constantOf(Propagator p) {
+        if (p instanceof PropGreaterOrEqualX_YC) {
+            return ((PropGreaterOrEqualX_YC) p).getConstant();
+        }
+        if (p instanceof PropEqualX_YC) {
+            return ((PropEqualX_YC) p).getConstant();
+        }
+        if (p instanceof PropNotEqualX_YC) {
+            return ((PropNotEqualX_YC) p).getConstant();
+        }
+        if (p instanceof PropEqualXC) {
+            return ((PropEqualXC) p).getConstant();
+        }
+        if (p instanceof PropNotEqualXC) {
+            return ((PropNotEqualXC) p).getConstant();
+        }
+        if (p instanceof PropGreaterOrEqualXC) {
+            return ((PropGreaterOrEqualXC) p).getConstant();
+        }
+        if (p instanceof PropLessOrEqualXC) {
+            return ((PropLessOrEqualXC) p).getConstant();
+        }
+        return null;
+    }
+
+    /**
+     * @return the class of each position of the scope of <i>p</i>, two positions of the same class being interchangeable
+     */
+    private static long[] positionClasses(Propagator p) {
+        int n = p.getNbVars();
+        long[] classes = new long[n];
+        if (isAllDiff(p) || p instanceof PropNotEqualX_Y || p instanceof PropEqualX_Y) {
+            return classes;
+        }
+        if (isNValue(p)) {
+            classes[n - 1] = 1;
+            return classes;
+        }
+        if (p instanceof PropScalar) {
+            int[] c = ((PropScalar) p).getCoefficients();
+            for (int i = 0; i < n; i++) {
+                classes[i] = c[i];
+            }
+            return classes;
+        }
+        if (p instanceof PropSum) {
+            int pos = ((PropSum) p).getPos();
+            for (int i = pos; i < n; i++) {
+                classes[i] = 1;
+            }
+            if (p instanceof PropSumBool) {
+                // the resulting variable
+                classes[n - 1] = 2;
+            }
+            return classes;
+        }
+        if (p instanceof PropItemToLoad || p instanceof PropLoadToItem || p instanceof PropBinPacking) {
+            // items of the same size are interchangeable, bins are not
+            int[] sizes = p instanceof PropItemToLoad ? ((PropItemToLoad) p).getItemSizes()
+                    : p instanceof PropLoadToItem ? ((PropLoadToItem) p).getItemSizes()
+                    : ((PropBinPacking) p).getItemSizes();
+            int nbBins = n - sizes.length;
+            for (int j = 0; j < nbBins; j++) {
+                classes[j] = Long.MIN_VALUE + j;
+            }
+            for (int i = 0; i < sizes.length; i++) {
+                classes[nbBins + i] = sizes[i];
+            }
+            return classes;
+        }
+        for (int i = 0; i < n; i++) {
+            classes[i] = i;
+        }
+        return classes;
+    }
+
+    private String unique() {
+        return "#" + (nbUniques++);
+    }
+
+    private int colorOf(String key) {
+        Integer id = colorIds.get(key);
+        if (id == null) {
+            id = colorIds.size();
+            colorIds.put(key, id);
+        }
+        return id;
+    }
+
+    private int addVertex(String key) {
+        return addVertex(colorOf(key));
+    }
+
+    private int addVertex(int color) {
+        colors.add(color);
+        adj.add(new TIntArrayList());
+        return colors.size() - 1;
+    }
+
+    private void addEdge(int u, int v) {
+        adj.get(u).add(v);
+        adj.get(v).add(u);
+    }
+}
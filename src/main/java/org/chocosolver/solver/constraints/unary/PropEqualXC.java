@@ -60,4 +60,10 @@ public class PropEqualXC extends Propagator<IntVar> {
         return ruleStore.addPropagatorActivationRule(this);
     }
 
+    /**
+     * @return the constant C in X = C
+     */
+    public int getConstant() {
+        return constant;
+    }
 }
@@ -65,4 +65,10 @@ public class PropGreaterOrEqualXC extends Propagator<IntVar> {
         return ruleStore.addPropagatorActivationRule(this);
     }
 
+    /**
+     * @return the constant C in X >= C
+     */
+    public int getConstant() {
+        return constant;
+    }
 }
@@ -67,4 +67,10 @@ public class PropLessOrEqualXC extends Propagator<IntVar> {
         return ruleStore.addPropagatorActivationRule(this);
     }
 
+    /**
+     * @return the constant C in X <= C
+     */
+    public int getConstant() {
+        return constant;
+    }
 }
@@ -0,0 +1,215 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.objective;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.criteria.Criterion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class to compute the Pareto front of a multi-objective problem with several threads.
+ * <br/>
+ * The models, which must be identical, explore disjoint regions of the objective space:
+ * the domain of the first objective is split into as many slices as there are models
+ * (this is an &epsilon;-constraint decomposition), and each model is restricted to a slice.
+ * Each model maintains its own front with a {@link ParetoOptimizer}.
+ * Besides, objective values of every solution are published to the other models which, on their next solution,
+ * post the clauses preventing them from computing solutions dominated by the published ones.
+ * Fronts are merged at the end of the resolution.
+ * <br/>
+ * This object must be used as follows:
+ * <pre> {@code
+ * ParallelParetoOptimizer pareto = new ParallelParetoOptimizer(Model.MAXIMIZE);
+ * for (int i = 0; i < nbThreads; i++) {
+ *     Model model = makeModel();
+ *     pareto.addModel(model, getObjectives(model));
+ * }
+ * List<Solution> paretoFront = pareto.findParetoFront();
+ * }</pre>
+ *
+ * @since 19/10/2026
+ */
+public class ParallelParetoOptimizer {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /**
+     * Whether to maximize or minimize the objectives
+     */
+    private final boolean maximize;
+    /**
+     * Models and their objective variables
+     */
+    private final List<Model> models;
+    private final List<IntVar[]> objectives;
+    /**
+     * Objective values of the solutions found by any model, in order of discovery, and the models which found them
+     */
+    private final List<int[]> published;
+    private final List<Worker> publishers;
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Create an object to compute the Pareto front of a multi-objective problem in parallel.
+     *
+     * @param maximize whether to maximize or minimize the objectives
+     */
+    public ParallelParetoOptimizer(boolean maximize) {
+        this.maximize = maximize;
+        this.models = new ArrayList<>();
+        this.objectives = new ArrayList<>();
+        this.published = new ArrayList<>();
+        this.publishers = new ArrayList<>();
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    /**
+     * Add a model to run in parallel. All models must be identical, and so must be their objectives.
+     * <br/>
+     * BEWARE: requires the objectives to be declared in the search strategy
+     *
+     * @param model      a model
+     * @param objectives objective variables of <i>model</i> (must all be optimized in the same direction)
+     */
+    public void addModel(Model model, IntVar... objectives) {
+        if (!this.objectives.isEmpty() && this.objectives.get(0).length != objectives.length) {
+            throw new SolverException("ParallelParetoOptimizer: models should have the same number of objectives");
+        }
+        this.models.add(model);
+        this.objectives.add(objectives.clone());
+    }
+
+    /**
+     * Split the objective space among models, run them in parallel and merge their fronts.
+     * Each model is restricted to its slice of the first objective by a constraint posted permanently.
+     *
+     * @param stop optional criterion to stop the search of each model before finding all Pareto-best solutions
+     * @return the set of Pareto-best solutions found (solutions of different models)
+     * @throws SolverException if no model has been added
+     */
+    public List<Solution> findParetoFront(Criterion... stop) {
+        if (models.isEmpty()) {
+            throw new SolverException("ParallelParetoOptimizer: no model has been added");
+        }
+        int k = models.size();
+        IntVar first = objectives.get(0)[0];
+        long lb = first.getLB(), ub = first.getUB();
+        long width = (ub - lb + k) / k;
+        List<Worker> workers = new ArrayList<>();
+        for (int m = 0; m < k; m++) {
+            long lo = lb + m * width;
+            long hi = Math.min(ub, lo + width - 1);
+            if (lo <= hi) {
+                Model model = models.get(m);
+                IntVar[] objs = objectives.get(m);
+                model.arithm(objs[0], ">=", (int) lo).post();
+                model.arithm(objs[0], "<=", (int) hi).post();
+                Worker worker = new Worker(model, objs);
+                model.getSolver().plugMonitor(worker);
+                model.getSolver().addStopCriterion(stop);
+                workers.add(worker);
+            }
+        }
+        ForkJoinPool forkJoinPool = new ForkJoinPool(workers.size());
+        try {
+            forkJoinPool.submit(() -> workers.parallelStream().forEach(w -> {
+                while (w.model.getSolver().solve()) ;
+            })).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new SolverException("ParallelParetoOptimizer: resolution failed (" + e.getMessage() + ")");
+        } finally {
+            forkJoinPool.shutdownNow();
+        }
+        // merge the fronts
+        ParetoFront<Solution> front = new ParetoFront<>(objectives.get(0).length, maximize, null);
+        for (Worker worker : workers) {
+            worker.model.getSolver().removeStopCriterion(stop);
+            for (Solution solution : worker.optimizer.getParetoFront()) {
+                front.add(worker.valuesOf(solution), solution);
+            }
+        }
+        return front.getElements();
+    }
+
+    private synchronized void publish(int[] point, Worker publisher) {
+        published.add(point.clone());
+        publishers.add(publisher);
+    }
+
+    private synchronized int nbPublished() {
+        return published.size();
+    }
+
+    private synchronized int[] getPublished(int i, Worker importer) {
+        return publishers.get(i) == importer ? null : published.get(i);
+    }
+
+    /**
+     * Search monitor of a model: maintains the local front and imports points published by other models
+     */
+    private class Worker implements IMonitorSolution {
+
+        final Model model;
+        final IntVar[] objs;
+        final ParetoOptimizer optimizer;
+        final int[] vals;
+        /**
+         * Number of published points already imported
+         */
+        int imported;
+
+        Worker(Model model, IntVar[] objs) {
+            this.model = model;
+            this.objs = objs;
+            this.optimizer = new ParetoOptimizer(maximize, objs);
+            this.vals = new int[objs.length];
+        }
+
+        @Override
+        public void onSolution() {
+            for (int i = 0; i < objs.length; i++) {
+                vals[i] = objs[i].getValue();
+            }
+            // points published by other models in the meantime
+            int nb = nbPublished();
+            for (; imported < nb; imported++) {
+                int[] point = getPublished(imported, this);
+                if (point != null) {
+                    optimizer.cut(point);
+                }
+            }
+            optimizer.onSolution();
+            publish(vals, this);
+        }
+
+        int[] valuesOf(Solution solution) {
+            int[] point = new int[objs.length];
+            for (int i = 0; i < objs.length; i++) {
+                point[i] = solution.getIntVal(objs[i]);
+            }
+            return point;
+        }
+    }
+}
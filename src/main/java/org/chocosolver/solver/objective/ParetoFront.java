@@ -0,0 +1,456 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.objective;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A set of mutually non-dominated points, each of them being associated with an element (for instance, a solution).
+ * <br/>
+ * Points are indexed in a ND-tree[1]: each node of the tree stores the ideal point and the nadir point of the
+ * points in its subtree, which enables to decide, most of the time without visiting the subtree,
+ * whether a new point is dominated by one of these points, or whether it dominates some of them.
+ * <br/>
+ * A point <i>q</i> dominates a point <i>p</i> when <i>q</i> is at least as good as <i>p</i> on each objective
+ * (weak dominance). A new point is rejected only if a point of the front dominates it and differs from it:
+ * adding a point equal to a point of the front replaces the latter, so the newest element is kept.
+ * <br/>
+ * [1]: A. Jaszkiewicz and T. Lust, ND-Tree-Based Update: A Fast Algorithm for the Dynamic Nondominance Problem,
+ * IEEE Transactions on Evolutionary Computation, 2018.
+ *
+ * @param <E> type of the elements associated with points
+ * @since 19/10/2026
+ */
+public class ParetoFront<E> {
+
+    //***********************************************************************************
+    // VARIABLES
+    //***********************************************************************************
+
+    /**
+     * Maximum number of points in a leaf
+     */
+    private static final int LEAF_CAPACITY = 20;
+
+    /**
+     * Number of objectives
+     */
+    private final int n;
+    /**
+     * Whether to maximize or minimize the objectives
+     */
+    private final boolean maximize;
+    /**
+     * Called on each element whose point is removed from the front, may be null
+     */
+    private final Consumer<E> onEviction;
+    /**
+     * Root of the ND-tree, null when the front is empty
+     */
+    private Node<E> root;
+    /**
+     * Number of points in the front
+     */
+    private int size;
+
+    /**
+     * A node of the ND-tree. Points are stored with objectives to maximize.
+     */
+    private static final class Node<E> {
+        /**
+         * Component-wise maximum and minimum of the points of the subtree
+         */
+        final int[] ideal, nadir;
+        /**
+         * Children, null for a leaf
+         */
+        ArrayList<Node<E>> children;
+        /**
+         * Points and their elements, for a leaf
+         */
+        ArrayList<int[]> points;
+        ArrayList<E> elements;
+
+        Node(int n) {
+            ideal = new int[n];
+            nadir = new int[n];
+            points = new ArrayList<>();
+            elements = new ArrayList<>();
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+    }
+
+    //***********************************************************************************
+    // CONSTRUCTOR
+    //***********************************************************************************
+
+    /**
+     * Create an empty Pareto front.
+     *
+     * @param nbObjectives number of objectives
+     * @param maximize     whether to maximize or minimize the objectives
+     * @param onEviction   called on each element whose point gets dominated by a new point, may be <tt>null</tt>
+     */
+    public ParetoFront(int nbObjectives, boolean maximize, Consumer<E> onEviction) {
+        this.n = nbObjectives;
+        this.maximize = maximize;
+        this.onEviction = onEviction;
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    /**
+     * Add <i>point</i>, associated with <i>element</i>, to the front, unless <i>point</i> is strictly dominated by a
+     * point of the front.
+     * Points of the front dominated by <i>point</i>, including a point equal to it, are removed.
+     *
+     * @param point   objective values, which are copied
+     * @param element element associated with <i>point</i>
+     * @return <tt>true</tt> if <i>point</i> has been added
+     */
+    public boolean add(int[] point, E element) {
+        int[] p = normalize(point);
+        if (root != null) {
+            if (isDominated(root, p, true)) {
+                return false;
+            }
+            if (removeDominated(root, p)) {
+                root = null;
+            }
+        }
+        if (root == null) {
+            root = new Node<>(n);
+            System.arraycopy(p, 0, root.ideal, 0, n);
+            System.arraycopy(p, 0, root.nadir, 0, n);
+        }
+        insert(root, p, element);
+        size++;
+        return true;
+    }
+
+    /**
+     * @param point objective values
+     * @return <tt>true</tt> if a point of the front is at least as good as <i>point</i> on each objective
+     */
+    public boolean isDominated(int[] point) {
+        return root != null && isDominated(root, normalize(point), false);
+    }
+
+    /**
+     * @param point objective values
+     * @return <tt>true</tt> if a point of the front is at least as good as <i>point</i> on each objective
+     * and better on one of them, that is, if <i>point</i> would not be added to the front
+     */
+    public boolean isStrictlyDominated(int[] point) {
+        return root != null && isDominated(root, normalize(point), true);
+    }
+
+    /**
+     * @return the number of points in the front
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return <tt>true</tt> if the front is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return a new list of the elements of the front
+     */
+    public List<E> getElements() {
+        List<E> list = new ArrayList<>(size);
+        if (root != null) {
+            collect(root, list);
+        }
+        return list;
+    }
+
+    /**
+     * Remove all points from the front. Elements are not evicted.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    private int[] normalize(int[] point) {
+        assert point.length == n;
+        int[] p = point.clone();
+        if (!maximize) {
+            for (int i = 0; i < n; i++) {
+                // -(-2^31) cannot be represented, that is not an issue for domain bounds
+                p[i] = -p[i];
+            }
+        }
+        return p;
+    }
+
+    /**
+     * @return <tt>true</tt> if <i>p</i> is component-wise smaller than or equal to <i>q</i>
+     */
+    private boolean leq(int[] p, int[] q) {
+        for (int i = 0; i < n; i++) {
+            if (p[i] > q[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param strict set to <tt>true</tt> to ignore a point equal to <i>p</i>
+     */
+    private boolean isDominated(Node<E> node, int[] p, boolean strict) {
+        if (!leq(p, node.ideal)) {
+            // no point of the subtree is as good as p on each objective
+            return false;
+        }
+        if (leq(p, node.nadir) && !(strict && Arrays.equals(p, node.nadir))) {
+            // all points of the subtree dominate p, none of them is equal to p unless p is the nadir point
+            return true;
+        }
+        if (node.isLeaf()) {
+            for (int k = 0; k < node.points.size(); k++) {
+                if (leq(p, node.points.get(k)) && !(strict && Arrays.equals(p, node.points.get(k)))) {
+                    return true;
+                }
+            }
+        } else {
+            for (int k = 0; k < node.children.size(); k++) {
+                if (isDominated(node.children.get(k), p, strict)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove the points of the subtree dominated by <i>p</i>.
+     *
+     * @return <tt>true</tt> if the subtree is now empty
+     */
+    private boolean removeDominated(Node<E> node, int[] p) {
+        if (!leq(node.nadir, p)) {
+            // p dominates no point of the subtree
+            return false;
+        }
+        if (leq(node.ideal, p)) {
+            // p dominates all points of the subtree
+            evict(node);
+            return true;
+        }
+        if (node.isLeaf()) {
+            int j = 0;
+            for (int k = 0; k < node.points.size(); k++) {
+                if (leq(node.points.get(k), p)) {
+                    evict(node.elements.get(k));
+                } else {
+                    node.points.set(j, node.points.get(k));
+                    node.elements.set(j++, node.elements.get(k));
+                }
+            }
+            if (j == 0) {
+                return true;
+            }
+            if (j < node.points.size()) {
+                node.points.subList(j, node.points.size()).clear();
+                node.elements.subList(j, node.elements.size()).clear();
+                updateBounds(node);
+            }
+        } else {
+            boolean changed = node.children.removeIf(child -> removeDominated(child, p));
+            if (node.children.isEmpty()) {
+                return true;
+            }
+            if (node.children.size() == 1) {
+                // a single child is useless, the node takes its place
+                Node<E> child = node.children.get(0);
+                node.children = child.children;
+                node.points = child.points;
+                node.elements = child.elements;
+                changed = true;
+            }
+            if (changed) {
+                updateBounds(node);
+            }
+        }
+        return false;
+    }
+
+    private void insert(Node<E> node, int[] p, E element) {
+        for (int i = 0; i < n; i++) {
+            node.ideal[i] = Math.max(node.ideal[i], p[i]);
+            node.nadir[i] = Math.min(node.nadir[i], p[i]);
+        }
+        if (node.isLeaf()) {
+            node.points.add(p);
+            node.elements.add(element);
+            if (node.points.size() > LEAF_CAPACITY) {
+                split(node);
+            }
+        } else {
+            Node<E> closest = null;
+            double best = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < node.children.size(); k++) {
+                Node<E> child = node.children.get(k);
+                double d = distanceToCenter(child, p);
+                if (d < best) {
+                    best = d;
+                    closest = child;
+                }
+            }
+            assert closest != null;
+            insert(closest, p, element);
+        }
+    }
+
+    /**
+     * Split a leaf into <i>n</i>+1 leaves: seeds are chosen to be far from each other,
+     * then each other point goes to the leaf whose center is the closest.
+     */
+    private void split(Node<E> leaf) {
+        ArrayList<int[]> points = leaf.points;
+        ArrayList<E> elements = leaf.elements;
+        int m = points.size();
+        int nbChildren = Math.min(n + 1, m);
+        boolean[] isSeed = new boolean[m];
+        // the first seed is the point with the largest average distance to the other points
+        double[] dist = new double[m];
+        int seed = 0;
+        for (int a = 0; a < m; a++) {
+            for (int b = 0; b < m; b++) {
+                dist[a] += distance(points.get(a), points.get(b));
+            }
+            if (dist[a] > dist[seed]) {
+                seed = a;
+            }
+        }
+        leaf.children = new ArrayList<>(nbChildren);
+        // the next seeds maximize the distance to the closest seed
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        for (int c = 0; c < nbChildren; c++) {
+            isSeed[seed] = true;
+            Node<E> child = new Node<>(n);
+            System.arraycopy(points.get(seed), 0, child.ideal, 0, n);
+            System.arraycopy(points.get(seed), 0, child.nadir, 0, n);
+            child.points.add(points.get(seed));
+            child.elements.add(elements.get(seed));
+            leaf.children.add(child);
+            int next = -1;
+            for (int a = 0; a < m; a++) {
+                if (!isSeed[a]) {
+                    dist[a] = Math.min(dist[a], distance(points.get(a), points.get(seed)));
+                    if (next == -1 || dist[a] > dist[next]) {
+                        next = a;
+                    }
+                }
+            }
+            seed = next;
+        }
+        leaf.points = null;
+        leaf.elements = null;
+        for (int a = 0; a < m; a++) {
+            if (!isSeed[a]) {
+                Node<E> closest = leaf.children.get(0);
+                double best = Double.POSITIVE_INFINITY;
+                for (int c = 0; c < nbChildren; c++) {
+                    double d = distanceToCenter(leaf.children.get(c), points.get(a));
+                    if (d < best) {
+                        best = d;
+                        closest = leaf.children.get(c);
+                    }
+                }
+                insert(closest, points.get(a), elements.get(a));
+            }
+        }
+    }
+
+    private void updateBounds(Node<E> node) {
+        Arrays.fill(node.ideal, Integer.MIN_VALUE);
+        Arrays.fill(node.nadir, Integer.MAX_VALUE);
+        if (node.isLeaf()) {
+            for (int k = 0; k < node.points.size(); k++) {
+                int[] p = node.points.get(k);
+                for (int i = 0; i < n; i++) {
+                    node.ideal[i] = Math.max(node.ideal[i], p[i]);
+                    node.nadir[i] = Math.min(node.nadir[i], p[i]);
+                }
+            }
+        } else {
+            for (int k = 0; k < node.children.size(); k++) {
+                Node<E> child = node.children.get(k);
+                for (int i = 0; i < n; i++) {
+                    node.ideal[i] = Math.max(node.ideal[i], child.ideal[i]);
+                    node.nadir[i] = Math.min(node.nadir[i], child.nadir[i]);
+                }
+            }
+        }
+    }
+
+    private double distance(int[] p, int[] q) {
+        double d = 0;
+        for (int i = 0; i < n; i++) {
+            double delta = (double) p[i] - q[i];
+            d += delta * delta;
+        }
+        return d;
+    }
+
+    private double distanceToCenter(Node<E> node, int[] p) {
+        double d = 0;
+        for (int i = 0; i < n; i++) {
+            double delta = p[i] - ((double) node.ideal[i] + node.nadir[i]) / 2;
+            d += delta * delta;
+        }
+        return d;
+    }
+
+    private void evict(E element) {
+        size--;
+        if (onEviction != null) {
+            onEviction.accept(element);
+        }
+    }
+
+    private void evict(Node<E> node) {
+        if (node.isLeaf()) {
+            for (int k = 0; k < node.elements.size(); k++) {
+                evict(node.elements.get(k));
+            }
+        } else {
+            for (int k = 0; k < node.children.size(); k++) {
+                evict(node.children.get(k));
+            }
+        }
+    }
+
+    private void collect(Node<E> node, List<E> list) {
+        if (node.isLeaf()) {
+            list.addAll(node.elements);
+        } else {
+            for (int k = 0; k < node.children.size(); k++) {
+                collect(node.children.get(k), list);
+            }
+        }
+    }
+}
@@ -20,7 +20,8 @@ import java.util.List;
 
 /**
  * Class to store the pareto front (multi-objective optimization).
- * Worse solutions are dynamically removed from the solution set.
+ * Worse solutions are dynamically removed from the solution set,
+ * which is indexed by a {@link ParetoFront}.
  *
  * @author Jean-Guillaume Fages
  */
@@ -31,7 +32,7 @@ public class ParetoOptimizer implements IMonitorSolution {
     //***********************************************************************************
 
     // Set of incomparable and Pareto-best solutions
-    private LinkedList<Solution> paretoFront;
+    private ParetoFront<Solution> paretoFront;
 
     private Model model;
 
@@ -68,7 +69,7 @@ public class ParetoOptimizer implements IMonitorSolution {
      * @param objectives objective variables (must all be optimized in the same direction)
      */
     public ParetoOptimizer(final boolean maximize, final IntVar[] objectives) {
-        this.paretoFront = new LinkedList<>();
+        this.paretoFront = new ParetoFront<>(objectives.length, maximize, pool::add);
         this.objectives = objectives.clone();
         this.maximize = maximize;
         n = objectives.length;
@@ -88,28 +89,29 @@ public class ParetoOptimizer implements IMonitorSolution {
         for (int i = 0; i < n; i++) {
             vals[i] = objectives[i].getValue();
         }
-        // remove dominated solutions
-        for (int i = paretoFront.size() - 1; i >= 0; i--) {
-            if (isDominated(paretoFront.get(i), vals)) {
-                pool.add(paretoFront.remove(i));
-            }
-        }
-        // store current solution
-        if(pool.isEmpty()){
-            paretoFront.add(new Solution(model).record());
-        }else{
-            Solution solution = pool.remove();
-
+        // store current solution, dominated solutions (or one with the same objective values) are removed and recycled
+        if (!paretoFront.isStrictlyDominated(vals)) {
+            Solution solution = pool.isEmpty() ? new Solution(model) : pool.remove();
             solution.record();
-            paretoFront.add(solution);
+            paretoFront.add(vals, solution);
         }
         // post dynamical constraints to prevent search from computing dominated solutions
+        cut(vals);
+    }
+
+    /**
+     * Post a clause to prevent search from computing solutions dominated by <i>point</i>.
+     * Must be called during search, from the thread running the solver.
+     *
+     * @param point objective values
+     */
+    void cut(int[] point) {
         Operator symbol = Operator.GT;
         if (!maximize) {
             symbol = Operator.LT;
         }
         for (int i = 0; i < n; i++) {
-            lits[i] = psat.makeLiteral(model.arithm(objectives[i], symbol.toString(), vals[i]).reify(), true);
+            lits[i] = psat.makeLiteral(model.arithm(objectives[i], symbol.toString(), point[i]).reify(), true);
         }
         psat.addLearnt(lits);
     }
@@ -118,16 +120,6 @@ public class ParetoOptimizer implements IMonitorSolution {
      * @return the set of Pareto-best (possibly optimal) solutions found so far
      */
     public List<Solution> getParetoFront() {
-   		return paretoFront;
+   		return paretoFront.getElements();
    	}
-
-    private boolean isDominated(Solution solution, int[] vals) {
-        for (int i = 0; i < n; i++) {
-            int delta = solution.getIntVal(objectives[i]) - vals[i];
-            if ((delta > 0 && maximize) || (delta < 0 && !maximize)) {
-                return false;
-            }
-        }
-        return true;
-    }
 }
@@ -10,6 +10,7 @@ package org.chocosolver.solver.search;
 
 import org.chocosolver.solver.ISelf;
 import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.SolutionPool;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.nary.lex.PropLexInt;
@@ -26,6 +27,8 @@ import java.util.List;
 import java.util.Spliterator;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -144,6 +147,38 @@ public interface IResolutionHelper extends ISelf<Solver> {
         return solutions;
     }
 
+    /**
+     * Attempts to find all solutions of the declared satisfaction problem and records them in <i>pool</i>.
+     * <p>
+     * This method run the following instructions:
+     * <pre>
+     *     {@code
+     *     while (model.getSolver().solve()){
+     *          pool.record();
+     *     }
+     *     return pool;
+     *     }
+     * </pre>
+     *
+     * Only the variables declared in <i>pool</i> are recorded,
+     * which makes it suitable when the number of solutions is large (see {@link SolutionPool}).
+     *
+     * Note that it clears the current objective function, if any
+     *
+     * @param pool a pool of solutions, which may be configured to deduplicate solutions or to keep only the best ones
+     * @param stop optional criterion to stop the search before finding all solutions
+     * @return <i>pool</i>
+     */
+    default SolutionPool findAllSolutions(SolutionPool pool, Criterion... stop) {
+        _me().getModel().clearObjective();
+        _me().addStopCriterion(stop);
+        while (_me().solve()) {
+            pool.record();
+        }
+        _me().removeStopCriterion(stop);
+        return pool;
+    }
+
     /**
      * Attempts to find all solutions of the declared problem.
      * <ul>
@@ -209,6 +244,64 @@ public interface IResolutionHelper extends ISelf<Solver> {
         return StreamSupport.stream(it, false);
     }
 
+    /**
+     * Attempts to find all solutions of the declared problem, records them in <i>pool</i>
+     * and streams their slot in <i>pool</i>.
+     * Solutions ignored by <i>pool</i> (duplicated or not good enough) are not streamed.
+     * <p>
+     * Basically, this method runs the following instructions:
+     * <p>
+     * <pre>
+     * {@code
+     * 	while (model.getSolver().solve()) {
+     * 		int slot = pool.record();
+     * 		if(slot > -1) action.accept(slot);
+     *    }
+     * }
+     * </pre>
+     *
+     * Only the variables declared in <i>pool</i> are recorded (see {@link SolutionPool}).
+     *
+     * @param pool a pool of solutions
+     * @param stop optional criterion to stop the search before finding all/best solution
+     * @return a stream of slots of <i>pool</i>
+     */
+    default IntStream streamSolutions(SolutionPool pool, Criterion... stop) {
+        _me().addStopCriterion(stop);
+        Spliterator.OfInt it = new Spliterator.OfInt() {
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                while (_me().solve()) {
+                    int slot = pool.record();
+                    if (slot > -1) {
+                        action.accept(slot);
+                        return true;
+                    }
+                }
+                _me().removeStopCriterion(stop);
+                return false;
+            }
+
+            @Override
+            public Spliterator.OfInt trySplit() {
+                return null;
+            }
+
+            @Override
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+            @Override
+            public int characteristics() {
+                return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT;
+            }
+
+        };
+        return StreamSupport.intStream(it, false);
+    }
+
     /**
      * Attempt to find the solution that optimizes the mono-objective problem defined by a unique objective variable and
      * an optimization criteria.
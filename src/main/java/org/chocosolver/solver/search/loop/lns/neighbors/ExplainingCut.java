@@ -276,17 +276,18 @@ public class ExplainingCut implements INeighbor {
                 related.or(explanation.getDecisions());
                 explanation.recycle();
 
-                unrelated.clear();
-                unrelated.or(related);
-                unrelated.flip(0, i);
-                unrelated.clear(0); // clear ROOT decision
-
                 // 4. remove all decisions above i in path
                 while (i > 1) {
                     mDecisionPath.remove(1);
                     i--;
                 }
 
+                // only the decisions applied before the failure remain in path
+                unrelated.clear();
+                unrelated.or(related);
+                unrelated.flip(0, mDecisionPath.size());
+                unrelated.clear(0); // clear ROOT decision
+
             } else {
                 throw new UnsupportedOperationException(this.getClass().getName() + ".onContradiction incoherent state");
             }
@@ -47,6 +47,11 @@ public class BoundSearch extends AbstractStrategy{
 		decisionPath = model.getSolver().getDecisionPath();
 	}
 
+	@Override
+	public boolean init() {
+		return definedSearch.init();
+	}
+
 	@Override
 	public Decision getDecision() {
 		if(variable == null || variable.isInstantiated()) {
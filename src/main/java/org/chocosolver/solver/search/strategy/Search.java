@@ -210,6 +210,16 @@ public class Search {
         return new DomOverWDeg(vars, 0, new IntDomainMin());
     }
 
+    /**
+     * Assignment strategy which selects a variable according to <code>DomOverWDeg</code>, where propagators are
+     * weighted wrt to the history of conflicts (CHS), and assign it to its lower bound
+     * @param vars list of variables
+     * @return assignment strategy
+     */
+    public static AbstractStrategy<IntVar> conflictHistorySearch(IntVar... vars) {
+        return new DomOverWDeg(vars, 0, new IntDomainMin(), DomOverWDeg.Weighting.CHS);
+    }
+
     /**
      * Create an Activity based search strategy.
      * <p>
@@ -50,6 +50,8 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 
     private static final double ONE = 1.0f;
 
+    private static final double MIN_SCALE = 1e-100;
+
     private static final double[] distribution = new double[]{// two-sided 95%
             999.99d,
             12.706f, 4.303f, 3.182f, 2.776f, 2.571f, // 1...5
@@ -100,7 +102,8 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     private final IntMap v2i;
     private final IntVar[] vars;
 
-    private final double[] A; // activity of all variables
+    private final double[] A; // activity of all variables, up to the common factor 'scale'
+    private double scale = 1.0d; // aging factor shared by all variables, applied lazily
     private final double[] mA; // the mean -- maintained incrementally
     private final double[] sA; // the variance -- maintained incrementally -- std dev = sqrt(sA/path-1)
     private final IVal[] vAct; // activity of each value of all variables
@@ -129,6 +132,9 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     // enables to detect that the heuristic has been removed
     private boolean hasBeenInitiaized;
 
+    // variables ordered by decreasing A(x)/|D(x)|, once sampling is over
+    private final LazyVariableHeap heap;
+
     public ActivityBased(final Model model, IntVar[] vars, double g, double d, int a, int samplingIterationForced, long seed) {
         super(vars);
         this.model = model;
@@ -144,6 +150,7 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
             v2i.put(vars[i].getId(), i);
             vars[i].addMonitor(this);
         }
+        this.heap = new LazyVariableHeap(vars, i -> A[i] / this.vars[i].getDomainSize(), seed);
 
         assert g >= 0.0f && g <= 1.0f;
         this.g = g;
@@ -205,11 +212,7 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 				return null;
 			}
             // retrieve indice of the variable in vars
-			for(int i=0;i<vars.length;i++){
-				if(vars[i]==variable){
-					currentVar = i;
-				}
-			}
+            currentVar = v2i.get(variable.getId());
             assert vars[currentVar] == variable;
         }
         currentVal = variable.getLB();
@@ -254,12 +257,20 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     public Decision<IntVar> getDecision() {
         assert hasBeenInitiaized;
         IntVar best = null;
+        if (!sampling) {
+            currentVar = heap.select();
+            if (currentVar > -1) {
+                best = vars[currentVar];
+            }
+            return computeDecision(best);
+        }
+        // while sampling, variables are picked randomly among the best ones
         bests.clear();
         double bestVal = -1.0d;
         for (int i = 0; i < vars.length; i++) {
             int ds = vars[i].getDomainSize();
             if (ds > 1) {
-                double a = A[v2i.get(vars[i].getId())] / ds;
+                double a = A[i] / ds;
                 if (a > bestVal) {
                     bests.clear();
                     bests.add(i);
@@ -297,7 +308,7 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 
     public double getActivity(IntVar var) {
         if (v2i.containsKey(var.getId())) {
-            return A[v2i.get(var.getId())] / var.getDomainSize();
+            return A[v2i.get(var.getId())] * scale / var.getDomainSize();
         } else {
             return 0.0d;
         }
@@ -306,7 +317,11 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 
     @Override
     public void onUpdate(IntVar var, IEventType evt) {
-        affected.set(v2i.get(var.getId()));
+        int idx = v2i.get(var.getId());
+        affected.set(idx);
+        if (!sampling) {
+            heap.markDirty(idx);
+        }
     }
 
     @Override
@@ -319,14 +334,21 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
     @Override
     public void afterDownBranch(boolean left) {
         if (left && currentVar > -1) {  // if the decision was computed by another strategy
-            for (int i = 0; i < A.length; i++) {
-                if (vars[i].getDomainSize() > 1) {
-                    A[i] *= sampling ? ONE : g;
-                }
-                if (affected.get(i)) {
-                    A[i] += 1;
+            // aging is applied to all variables at once, by decreasing the common factor
+            if (!sampling) {
+                scale *= g;
+                if (scale < MIN_SCALE) {
+                    for (int i = 0; i < A.length; i++) {
+                        A[i] *= scale;
+                    }
+                    heap.scaleKeys(scale);
+                    scale = ONE;
                 }
             }
+            double inc = ONE / scale;
+            for (int i = affected.nextSetBit(0); i >= 0; i = affected.nextSetBit(i + 1)) {
+                A[i] += inc;
+            }
             double act = vAct[currentVar].activity(currentVal);
             if (sampling) {
                 vAct[currentVar].setactivity(currentVal, act + affected.cardinality());
@@ -381,9 +403,11 @@ public class ActivityBased extends AbstractStrategy<IntVar> implements IMonitorD
 
                 // then copy values estimated
                 System.arraycopy(mA, 0, A, 0, mA.length);
+                scale = ONE;
                 for (int i = 0; i < A.length; i++) {
                     vAct[i].transfer();
                 }
+                heap.rebuild();
             }
         }
     }
@@ -8,47 +8,132 @@
  */
 package org.chocosolver.solver.search.strategy.selectors.variables;
 
-import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Propagator;
-import org.chocosolver.solver.search.loop.monitors.FailPerPropagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.selectors.values.IntValueSelector;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IVariableMonitor;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.objects.IntMap;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
 /**
  * Implementation of DowOverWDeg[1].
- *
+ * <br/>
+ * The weighted degree of a variable is the sum of the weights of its propagators which involve at least another
+ * uninstantiated variable.
+ * The number of uninstantiated variables of each propagator is trailed and maintained on instantiation events,
+ * weights are updated on failures, and the variable to branch on is taken from a heap keyed by wdeg/dom.
+ * <br/>
+ * Two weighting schemes are available (see {@link Weighting}): the classical one, where the weight of a propagator
+ * is the number of times it failed, and CHS[2], where it is an exponential moving average of the (inverse) age of
+ * its conflicts.
+ * <br/>
  * [1]: F. Boussemart, F. Hemery, C. Lecoutre, and L. Sais, Boosting Systematic Search by Weighting Constraints, ECAI-04.
  * <br/>
+ * [2]: D. Habet and C. Terrioux, Conflict History based Search for Constraint Satisfaction Problem, SAC-19.
+ * <br/>
  *
  * @author Charles Prud'homme
  * @since 12/07/12
  */
-public class DomOverWDeg extends AbstractStrategy<IntVar>{
+public class DomOverWDeg extends AbstractStrategy<IntVar> implements IMonitorContradiction, IMonitorRestart,
+        IVariableMonitor<IntVar> {
 
     /**
-     * Failure per propagators counter
+     * Weighting schemes of propagators
      */
-    private FailPerPropagator counter;
+    public enum Weighting {
+        /**
+         * The weight of a propagator is the number of times it failed
+         */
+        WDEG,
+        /**
+         * The weight of a propagator is updated on each of its failures, wrt the number of conflicts since its
+         * previous failure, and smoothed on restarts (Conflict History based Search)
+         */
+        CHS
+    }
+
+    /**
+     * CHS: initial value, decay and minimal value of the step-size
+     */
+    private static final double ALPHA = .1d, ALPHA_DECAY = 1e-6, ALPHA_MIN = .06d;
 
     /**
-     * Kind of duplicate of pid2ari to limit calls of backtrackable objects
+     * CHS: smoothing factor applied on restarts and score of a variable without weighted propagator
      */
-    private IntMap pid2arity;
+    private static final double SMOOTHING = .995d, DELTA = 1e-4;
 
     /**
-     * Temporary. Stores index of variables with the same (best) score
+     * The weighting scheme
      */
-    private TIntArrayList bests;
+    private final Weighting weighting;
 
     /**
-     * Randomness to break ties
+     * Weight of each propagator, indexed by propagator id
      */
-    private java.util.Random random;
+    private double[] weights;
+
+    /**
+     * Number of uninstantiated variables of each propagator, indexed by propagator id,
+     * null when the propagator is not observed (then its arity is computed on demand)
+     */
+    private IStateInt[] futVars;
+
+    /**
+     * CHS: number of conflicts when each propagator last failed, indexed by propagator id
+     */
+    private long[] lastConflict;
+
+    /**
+     * CHS: number of conflicts and current step-size
+     */
+    private long conflicts;
+    private double alpha;
+
+    /**
+     * Index of each variable in <code>vars</code>, indexed by variable id
+     */
+    private final IntMap v2i;
+
+    /**
+     * Ids of the variables observed
+     */
+    private final BitSet observed;
+
+    /**
+     * Variables ordered by decreasing wdeg/dom
+     */
+    private final LazyVariableHeap heap;
+
+    /**
+     * Variables with the largest wdeg/dom, among which one is picked randomly
+     */
+    private final int[] ties;
+
+    /**
+     * Random number generator, to break ties
+     */
+    private final Random random;
+
+    /**
+     * The model
+     */
+    private final Model model;
 
     /**
      * The way value is selected for a given variable
@@ -63,15 +148,92 @@ public class DomOverWDeg extends AbstractStrategy<IntVar>{
      * @param valueSelector a value selector
      */
     public DomOverWDeg(IntVar[] variables, long seed, IntValueSelector valueSelector) {
+        this(variables, seed, valueSelector, Weighting.WDEG);
+    }
+
+    /**
+     * Creates a DomOverWDeg variable selector
+     *
+     * @param variables     decision variables
+     * @param seed          seed for breaking ties randomly
+     * @param valueSelector a value selector
+     * @param weighting     the weighting scheme of propagators
+     */
+    public DomOverWDeg(IntVar[] variables, long seed, IntValueSelector valueSelector, Weighting weighting) {
         super(variables);
-        Model model = variables[0].getModel();
-        counter = new FailPerPropagator(model.getCstrs(), model);
-        pid2arity = new IntMap(model.getCstrs().length * 3 / 2 + 1, -1);
-        bests = new TIntArrayList();
+        this.model = variables[0].getModel();
+        this.weighting = weighting;
         this.valueSelector = valueSelector;
-        random = new java.util.Random(seed);
+        this.weights = new double[16];
+        this.futVars = new IStateInt[16];
+        this.lastConflict = weighting == Weighting.CHS ? new long[16] : null;
+        this.alpha = ALPHA;
+        this.v2i = new IntMap(vars.length);
+        for (int i = 0; i < vars.length; i++) {
+            v2i.put(vars[i].getId(), i);
+        }
+        this.observed = new BitSet();
+        this.heap = new LazyVariableHeap(vars, this::score, seed, true);
+        this.ties = new int[vars.length];
+        this.random = new Random(seed);
+        model.getSolver().plugMonitor(this);
+    }
+
+    @Override
+    public boolean init() {
+        // observe the decision variables and the variables of the propagators
+        for (IntVar var : vars) {
+            observe(var);
+        }
+        for (Constraint cstr : model.getCstrs()) {
+            for (Propagator prop : cstr.getPropagators()) {
+                observe(prop);
+            }
+        }
+        heap.rebuild();
+        return true;
+    }
+
+    private void observe(Propagator prop) {
+        int pid = prop.getId();
+        ensureCapacity(pid);
+        if (futVars[pid] != null) {
+            // already observed, the search may have been reset
+            futVars[pid].set(prop.arity());
+        } else {
+            int arity = 0;
+            for (int i = 0; i < prop.getNbVars(); i++) {
+                Variable var = prop.getVar(i);
+                if ((var.getTypeAndKind() & Variable.INT) == 0) {
+                    // only integer instantiations are observed, the arity is computed on demand
+                    return;
+                }
+                arity += var.isInstantiated() ? 0 : 1;
+            }
+            futVars[pid] = model.getEnvironment().makeInt(arity);
+            for (int i = 0; i < prop.getNbVars(); i++) {
+                observe((IntVar) prop.getVar(i));
+            }
+        }
     }
 
+    private void observe(IntVar var) {
+        if (!observed.get(var.getId())) {
+            observed.set(var.getId());
+            var.addMonitor(this);
+        }
+    }
+
+    private void ensureCapacity(int pid) {
+        if (pid >= weights.length) {
+            int size = Math.max(pid + 1, weights.length * 3 / 2);
+            weights = Arrays.copyOf(weights, size);
+            if (weighting == Weighting.CHS) {
+                lastConflict = Arrays.copyOf(lastConflict, size);
+            }
+            futVars = Arrays.copyOf(futVars, size);
+        }
+    }
 
     @Override
     public Decision<IntVar> computeDecision(IntVar variable) {
@@ -85,52 +247,92 @@ public class DomOverWDeg extends AbstractStrategy<IntVar>{
     @Override
     public Decision<IntVar> getDecision() {
         IntVar best = null;
-        bests.resetQuick();
-        pid2arity.clear();
-        long _d1 = Integer.MAX_VALUE;
-        long _d2 = 0;
-        for (int idx = 0; idx < vars.length; idx++) {
-            int dsize = vars[idx].getDomainSize();
-            if (dsize > 1) {
-                int weight = weight(vars[idx]);
-                long c1 = dsize * _d2;
-                long c2 = _d1 * weight;
-                if (c1 < c2) {
-                    bests.clear();
-                    bests.add(idx);
-                    _d1 = dsize;
-                    _d2 = weight;
-                } else if (c1 == c2) {
-                    bests.add(idx);
+        int nb = heap.selectAll(ties);
+        if (nb > 0) {
+            best = vars[ties[random.nextInt(nb)]];
+        }
+        return computeDecision(best);
+    }
+
+    @Override
+    public void onUpdate(IntVar var, IEventType evt) {
+        int idx = v2i.get(var.getId());
+        if (idx > -1) {
+            heap.markDirty(idx);
+        }
+        if (evt == IntEventType.INSTANTIATE) {
+            int nbp = var.getNbProps();
+            for (int i = 0; i < nbp; i++) {
+                int pid = var.getPropagator(i).getId();
+                if (pid < futVars.length && futVars[pid] != null) {
+                    futVars[pid].add(-1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        if (cex.c != null && cex.c instanceof Propagator) {
+            Propagator prop = (Propagator) cex.c;
+            int pid = prop.getId();
+            ensureCapacity(pid);
+            switch (weighting) {
+                case WDEG:
+                    weights[pid]++;
+                    break;
+                case CHS:
+                    double r = 1d / (conflicts - lastConflict[pid] + 1);
+                    weights[pid] = (1 - alpha) * weights[pid] + alpha * r;
+                    lastConflict[pid] = conflicts;
+                    alpha = Math.max(ALPHA_MIN, alpha - ALPHA_DECAY);
+                    break;
+            }
+            for (int i = 0; i < prop.getNbVars(); i++) {
+                int idx = v2i.get(prop.getVar(i).getId());
+                if (idx > -1) {
+                    heap.markDirty(idx);
                 }
             }
         }
-        if (bests.size() > 0) {
-            int currentVar = bests.get(random.nextInt(bests.size()));
-            best = vars[currentVar];
+        conflicts++;
+    }
+
+    @Override
+    public void afterRestart() {
+        if (weighting == Weighting.CHS) {
+            // smoothing only decreases weights
+            for (int pid = 0; pid < weights.length; pid++) {
+                if (weights[pid] > 0) {
+                    weights[pid] *= Math.pow(SMOOTHING, conflicts - lastConflict[pid]);
+                }
+            }
+            alpha = ALPHA;
         }
-        return computeDecision(best);
     }
 
-    private int weight(IntVar v) {
-        int w = 1;
-        int nbp =v.getNbProps();
+    /**
+     * @param v a variable
+     * @return the weighted degree of <i>v</i>
+     */
+    public double weight(IntVar v) {
+        double w = weighting == Weighting.WDEG ? 1d : DELTA;
+        int nbp = v.getNbProps();
         for (int i = 0; i < nbp; i++) {
             Propagator prop = v.getPropagator(i);
             int pid = prop.getId();
-            // if the propagator has been already evaluated
-            if (pid2arity.get(pid) > -1) {
-                w += counter.getFails(prop);
-            } else {
-                // the arity of this propagator is not yet known
-                int futVars = prop.arity();
-                assert futVars > -1;
-                pid2arity.put(pid, futVars);
-                if (futVars > 1) {
-                    w += counter.getFails(prop);
+            if (pid < weights.length && weights[pid] > 0) {
+                int fut = futVars[pid] != null ? futVars[pid].get() : prop.arity();
+                if (fut > 1) {
+                    w += weights[pid];
                 }
             }
         }
         return w;
     }
+
+    private double score(int idx) {
+        IntVar v = vars[idx];
+        return weight(v) / v.getDomainSize();
+    }
 }
@@ -17,9 +17,12 @@ import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IVariableMonitor;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 import org.chocosolver.util.objects.IntList;
+import org.chocosolver.util.objects.IntMap;
 
 import java.util.Random;
 
@@ -35,7 +38,8 @@ import java.util.Random;
  * @author Charles Prud'homme
  * @since 21/09/12
  */
-public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDownBranch, IMonitorContradiction, ICause {
+public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDownBranch, IMonitorContradiction, ICause,
+        IVariableMonitor<IntVar> {
 
     private final int aging; // aging parameter
     private double[][] Ilabel; // impact per labeling
@@ -59,6 +63,10 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
 
     private long timeLimit = Integer.MAX_VALUE; // a time limit for init()
 
+    private final IntMap v2i; // index of each variable in vars
+
+    private final LazyVariableHeap heap; // variables ordered by decreasing impact
+
     /**
      * Create an Impact-based search strategy with Node Impact strategy.
      * <p/>
@@ -80,6 +88,12 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
         this.searchSpaceSize = model.getEnvironment().makeFloat();
         random = new Random(seed);
         this.nodeImpact = nodeImpact;
+        this.v2i = new IntMap(vars.length);
+        for (int i = 0; i < vars.length; i++) {
+            v2i.put(vars[i].getId(), i);
+            vars[i].addMonitor(this);
+        }
+        this.heap = new LazyVariableHeap(vars, this::computeImpact, seed);
         if (!initOnly) model.getSolver().plugMonitor(this);
     }
 
@@ -94,11 +108,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
         }
         if (currentVar == -1 || vars[currentVar] != variable) {
             // retrieve indice of the variable in vars
-			for(int i=0;i<vars.length;i++){
-				if(vars[i]==variable){
-					currentVar = i;
-				}
-			}
+            currentVar = v2i.get(variable.getId());
             assert vars[currentVar] == variable;
         }
         bests.clear();
@@ -131,24 +141,9 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
     @Override
     public Decision<IntVar> getDecision() {
         IntVar best = null;
-        // 1. first select the variable with the largest impact
-        bests.clear();
-        double bestImpact = -Double.MAX_VALUE;
-        for (int i = 0; i < vars.length; i++) {
-            if (!vars[i].isInstantiated()) {
-                double imp = computeImpact(i);
-                if (imp > bestImpact) {
-                    bests.clear();
-                    bests.add(i);
-                    bestImpact = imp;
-                } else if (imp == bestImpact) {
-                    bests.add(i);
-                }
-            }
-        }
-        if (bests.size() > 0) {
-            // 2. select the variable
-            currentVar = bests.get(random.nextInt(bests.size()));
+        // select the variable with the largest impact
+        currentVar = heap.select();
+        if (currentVar > -1) {
             best = vars[currentVar];
         }
         return computeDecision(best);
@@ -242,9 +237,16 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
                 }
             }
         }
+        heap.rebuild();
         return true;
     }
 
+    @Override
+    public void onUpdate(IntVar var, IEventType evt) {
+        // removing a value whose impact is at most 1 never decreases the impact of the variable
+        heap.markDirty(v2i.get(var.getId()));
+    }
+
 
     @Override
     public void onContradiction(ContradictionException cex) {
@@ -268,6 +270,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
                     updateImpact(sssz / searchSpaceSize.get(), currentVar, currentVal);
                     searchSpaceSize.set(sssz);
                 }
+                heap.markDirty(currentVar);
                 currentVar = -1;
             }
             asgntFailed = false; // to handle cases where a contradiction was thrown, but the decision was computed outside
@@ -411,6 +414,7 @@ public class ImpactBased extends AbstractStrategy<IntVar> implements IMonitorDow
             if (learnsAndFails) {
                 learnsAndFails = false;
             }
+            heap.refreshAll();
         }
     }
 }
@@ -0,0 +1,354 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.queues.IndexedMaxHeap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * A priority queue of variables, keyed by a score, which enables a variable selector to pick the uninstantiated
+ * variable with the largest score in O(log n) instead of scanning all variables.
+ * <br/>
+ * Keys are maintained lazily, it is up to the caller to guarantee that the key of a variable in the heap is never
+ * smaller than its current score. Thus, any operation that <i>increases</i> the score of a variable must be notified
+ * with {@link #markDirty(int)}, the key is then refreshed on the next selection.
+ * Operations that only decrease scores need not be notified:
+ * on selection, the top variable has its score recomputed and is pushed down the heap when its key is outdated.
+ * <br/>
+ * Instantiated variables met at the top of the heap are parked on a stack.
+ * The size of the stack is trailed, so that, on backtrack, the variables parked in a forgotten world
+ * are put back into the heap on the next selection.
+ * When scores may also increase on backtrack (for instance, when they depend on the number of uninstantiated
+ * variables of a propagator), the heap can be asked to track keys: any key computed in a world is then
+ * recomputed when this world is forgotten.
+ *
+ * @since 19/10/2026
+ */
+public class LazyVariableHeap {
+
+    /**
+     * Variables to select from
+     */
+    private final IntVar[] vars;
+    /**
+     * Score of a variable, given its index in <code>vars</code>
+     */
+    private final IntToDoubleFunction score;
+    /**
+     * Uninstantiated variables (and maybe some instantiated ones), keyed by an upper bound of their score
+     */
+    private final IndexedMaxHeap heap;
+    /**
+     * Variables whose key has to be refreshed before the next selection
+     */
+    private final BitSet dirty;
+    private final int[] dirties;
+    private int nbDirties;
+    /**
+     * Variables parked or whose key was computed, per world
+     */
+    private int[] touched;
+    private int nbTouched;
+    /**
+     * Number of entries of <code>touched</code> which are still valid in the current world
+     */
+    private final IStateInt mark;
+    /**
+     * Instantiated variables removed from the heap
+     */
+    private final BitSet isParked;
+    /**
+     * Set to <tt>true</tt> to record every key computation in <code>touched</code>
+     */
+    private final boolean trackKeys;
+    /**
+     * World and position of the last entry of each variable in <code>touched</code>, when keys are tracked
+     */
+    private final int[] lastWorld, lastPos;
+    private final IEnvironment environment;
+
+    /**
+     * Create a heap of variables, ordered by decreasing <i>score</i>.
+     * The heap is empty until {@link #rebuild()} is called.
+     *
+     * @param vars      variables to select from
+     * @param score     score of a variable, given its index in <i>vars</i>
+     * @param seed      seed to break ties randomly
+     * @param trackKeys set to <tt>true</tt> when scores may increase on backtrack
+     */
+    public LazyVariableHeap(IntVar[] vars, IntToDoubleFunction score, long seed, boolean trackKeys) {
+        this.vars = vars;
+        this.score = score;
+        this.environment = vars[0].getModel().getEnvironment();
+        int n = vars.length;
+        // ties are broken by a random permutation
+        int[] ranks = new int[n];
+        Random random = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            ranks[i] = ranks[j];
+            ranks[j] = i;
+        }
+        this.heap = new IndexedMaxHeap(n, ranks);
+        this.dirty = new BitSet(n);
+        this.dirties = new int[n];
+        this.touched = new int[n];
+        this.isParked = new BitSet(n);
+        this.mark = environment.makeInt(0);
+        this.trackKeys = trackKeys;
+        if (trackKeys) {
+            this.lastWorld = new int[n];
+            this.lastPos = new int[n];
+            Arrays.fill(lastWorld, -1);
+        } else {
+            this.lastWorld = null;
+            this.lastPos = null;
+        }
+    }
+
+    /**
+     * Create a heap of variables, ordered by decreasing <i>score</i>, whose scores can only decrease on backtrack.
+     * The heap is empty until {@link #rebuild()} is called.
+     *
+     * @param vars  variables to select from
+     * @param score score of a variable, given its index in <i>vars</i>
+     * @param seed  seed to break ties randomly
+     */
+    public LazyVariableHeap(IntVar[] vars, IntToDoubleFunction score, long seed) {
+        this(vars, score, seed, false);
+    }
+
+    /**
+     * Compute the score of every variable which is not parked and (re)build the heap, in O(n).
+     * Instantiated variables are parked in the current world.
+     */
+    public void rebuild() {
+        int m = revisit();
+        double[] keys = new double[vars.length];
+        int[] elts = new int[vars.length];
+        int nb = 0;
+        for (int i = 0; i < vars.length; i++) {
+            if (!isParked.get(i)) {
+                if (vars[i].isInstantiated()) {
+                    heap.remove(i);
+                    park(i);
+                } else {
+                    elts[nb++] = i;
+                    keys[i] = score.applyAsDouble(i);
+                }
+            }
+        }
+        heap.build(elts, nb, keys);
+        for (int k = 0; k < nb; k++) {
+            keySet(elts[k]);
+        }
+        clearDirties();
+        if (m != nbTouched) {
+            mark.set(nbTouched);
+        }
+    }
+
+    /**
+     * Refresh the key of each variable in the heap, in O(n). Parked variables are not impacted.
+     */
+    public void refreshAll() {
+        int m = revisit();
+        double[] keys = new double[vars.length];
+        int[] elts = new int[vars.length];
+        int nb = 0;
+        for (int i = 0; i < vars.length; i++) {
+            if (heap.contains(i)) {
+                elts[nb++] = i;
+                keys[i] = score.applyAsDouble(i);
+            }
+        }
+        heap.build(elts, nb, keys);
+        for (int k = 0; k < nb; k++) {
+            keySet(elts[k]);
+        }
+        clearDirties();
+        if (m != nbTouched) {
+            mark.set(nbTouched);
+        }
+    }
+
+    /**
+     * Declare that the score of the variable at index <i>i</i> may have increased.
+     * Its key will be refreshed on the next call to {@link #select()}. Runs in O(1).
+     *
+     * @param i index of a variable
+     */
+    public void markDirty(int i) {
+        if (!dirty.get(i)) {
+            dirty.set(i);
+            dirties[nbDirties++] = i;
+        }
+    }
+
+    /**
+     * Multiply all keys by <i>factor</i>, to reflect a change of the score of all variables by the same positive
+     * factor.
+     *
+     * @param factor a strictly positive factor
+     */
+    public void scaleKeys(double factor) {
+        heap.scaleKeys(factor);
+    }
+
+    /**
+     * Select the uninstantiated variable with the largest score.
+     *
+     * @return the index of the variable with the largest score, or -1 if all variables are instantiated
+     */
+    public int select() {
+        // 1. restore variables parked, or keys computed, in forgotten worlds
+        int m = revisit();
+        // 2. refresh keys of modified variables
+        for (int k = 0; k < nbDirties; k++) {
+            int i = dirties[k];
+            dirty.clear(i);
+            if (heap.contains(i)) {
+                heap.update(i, score.applyAsDouble(i));
+                keySet(i);
+            }
+        }
+        nbDirties = 0;
+        // 3. find the top variable, lazily
+        int best = -1;
+        while (!heap.isEmpty()) {
+            int i = heap.peek();
+            if (vars[i].isInstantiated()) {
+                heap.remove(i);
+                park(i);
+            } else {
+                double s = score.applyAsDouble(i);
+                if (Double.compare(s, heap.getKey(i)) != 0) {
+                    heap.update(i, s);
+                    keySet(i);
+                } else {
+                    best = i;
+                    break;
+                }
+            }
+        }
+        if (m != nbTouched) {
+            mark.set(nbTouched);
+        }
+        return best;
+    }
+
+    /**
+     * Select all the uninstantiated variables with the largest score.
+     * Runs in O(k.log(n)) on top of {@link #select()}, where k is the number of variables whose key is the largest one.
+     *
+     * @param ties array in which the indices of the variables are stored, by increasing order,
+     *             of size at least the number of variables
+     * @return the number of variables stored in <i>ties</i>, 0 if all variables are instantiated
+     */
+    public int selectAll(int[] ties) {
+        if (select() == -1) {
+            return 0;
+        }
+        int m = mark.get();
+        int nb;
+        boolean stale;
+        do {
+            // keys are upper bounds of the scores, so only the variables sharing the top key may tie
+            stale = false;
+            nb = heap.peekAll(ties);
+            for (int k = 0; k < nb; k++) {
+                int i = ties[k];
+                if (vars[i].isInstantiated()) {
+                    heap.remove(i);
+                    park(i);
+                    stale = true;
+                } else {
+                    double s = score.applyAsDouble(i);
+                    if (Double.compare(s, heap.getKey(i)) != 0) {
+                        heap.update(i, s);
+                        keySet(i);
+                        stale = true;
+                    }
+                }
+            }
+        } while (stale);
+        if (m != nbTouched) {
+            mark.set(nbTouched);
+        }
+        Arrays.sort(ties, 0, nb);
+        return nb;
+    }
+
+    /**
+     * Put back the entries recorded in forgotten worlds.
+     *
+     * @return the value of {@link #mark} before the call
+     */
+    private int revisit() {
+        int m = mark.get();
+        if (nbTouched > m) {
+            int to = nbTouched;
+            nbTouched = m;
+            // entries are written at a position lower or equal to the one being read
+            for (int k = m; k < to; k++) {
+                int i = touched[k];
+                if (isParked.get(i)) {
+                    isParked.clear(i);
+                    if (vars[i].isInstantiated()) {
+                        park(i);
+                    } else {
+                        heap.add(i, score.applyAsDouble(i));
+                        keySet(i);
+                    }
+                } else if (heap.contains(i)) {
+                    heap.update(i, score.applyAsDouble(i));
+                    keySet(i);
+                }
+            }
+        }
+        return m;
+    }
+
+    private void clearDirties() {
+        nbDirties = 0;
+        dirty.clear();
+    }
+
+    private void park(int i) {
+        isParked.set(i);
+        push(i);
+    }
+
+    private void keySet(int i) {
+        if (trackKeys) {
+            int p = lastPos[i];
+            if (lastWorld[i] != environment.getWorldIndex() || p >= nbTouched || touched[p] != i) {
+                push(i);
+            }
+        }
+    }
+
+    private void push(int i) {
+        if (nbTouched == touched.length) {
+            touched = Arrays.copyOf(touched, nbTouched * 3 / 2 + 1);
+        }
+        if (trackKeys) {
+            lastPos[i] = nbTouched;
+            lastWorld[i] = environment.getWorldIndex();
+        }
+        touched[nbTouched++] = i;
+    }
+}
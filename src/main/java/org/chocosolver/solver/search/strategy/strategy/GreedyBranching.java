@@ -20,6 +20,11 @@ public class GreedyBranching extends AbstractStrategy {
         this.mainSearch = mainSearch;
     }
 
+    @Override
+    public boolean init() {
+        return mainSearch.init();
+    }
+
     @Override
     public Decision getDecision() {
         Decision d = mainSearch.getDecision();
@@ -691,6 +691,7 @@ public interface IVariableFactory extends ISelf<Model> {
      * @return a SetVar of domain [<i>lb</i>, <i>ub</i>]
      */
     default SetVar setVar(String name, int[] lb, int[] ub) {
+        // set propagators filter bitset-based kernels and envelopes word by word
         return new SetVarImpl(name, lb, SetType.BITSET, ub, SetType.BITSET, _me());
     }
 
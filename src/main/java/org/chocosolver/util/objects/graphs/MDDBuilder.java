@@ -0,0 +1,376 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.graphs;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A builder of {@link MultivaluedDecisionDiagram} which consumes tuples in lexicographic order, one at a time.
+ * <br/>
+ * Tuples are not stored: only the path of the last tuple is open, one node per layer.
+ * When a tuple diverges from the previous one at layer <i>d</i>, the open nodes below <i>d</i> can no longer change.
+ * They are closed bottom-up and hash-consed in a unique table per layer, so that equivalent nodes are shared.
+ * The diagram is thus reduced on the fly, and the memory needed depends on the size of the reduced diagram,
+ * not on the number of tuples.
+ * <pre> {@code
+ * MDDBuilder builder = new MDDBuilder(vars);
+ * while (sortedTuples.hasNext()) {
+ *     builder.addTuple(sortedTuples.next());
+ * }
+ * MultivaluedDecisionDiagram mdd = builder.build();
+ * }</pre>
+ * Disjoint ranges of tuples can also be built in parallel, see {@link #build(IntVar[], List)}.
+ *
+ * @since 19/10/2026
+ */
+public class MDDBuilder {
+
+    /**
+     * Number of variables
+     */
+    private final int nbLayers;
+    /**
+     * Initial domain size
+     */
+    private final int[] sizes;
+    /**
+     * Initial domain offset
+     */
+    private final int[] offsets;
+
+    /**
+     * Closed nodes of each layer (but the first one), stored as blocks of sizes[l] cells.
+     * A cell is 0 for no edge, otherwise 1 + the index of the child in the next layer
+     * (any positive value stands for the terminal node in the last layer).
+     */
+    private final int[][] nodes;
+    /**
+     * Number of closed nodes per layer
+     */
+    private final int[] nbNodes;
+    /**
+     * Unique table of each layer: open addressing, stores 1 + the index of a node, 0 for a free slot
+     */
+    private final int[][] tables;
+
+    /**
+     * Open node per layer, that is, the nodes on the path of the last tuple added.
+     * The open node of the first layer is the root.
+     */
+    private final int[][] open;
+    /**
+     * Position of the values of the last tuple added
+     */
+    private final int[] last;
+    /**
+     * Position of the values of the tuple being added
+     */
+    private final int[] pos;
+    /**
+     * Set to <tt>true</tt> once a tuple has been added
+     */
+    private boolean started;
+    /**
+     * Set to <tt>true</tt> once the diagram has been built
+     */
+    private boolean built;
+
+    /**
+     * Create a builder of MDD for variables <i>VARIABLES</i>
+     *
+     * @param VARIABLES array of variables, their current domains define the domains of the diagram
+     */
+    public MDDBuilder(IntVar[] VARIABLES) {
+        this(MultivaluedDecisionDiagram.flattenDomain(VARIABLES));
+    }
+
+    /**
+     * Create a builder of MDD based on an array of flatten domains
+     *
+     * @param FLATDOM array of flatten domains
+     */
+    public MDDBuilder(int[][] FLATDOM) {
+        this.nbLayers = FLATDOM.length;
+        this.sizes = new int[nbLayers];
+        this.offsets = new int[nbLayers];
+        for (int i = 0; i < nbLayers; i++) {
+            offsets[i] = FLATDOM[i][0];
+            sizes[i] = FLATDOM[i][FLATDOM[i].length - 1] - FLATDOM[i][0] + 1;
+        }
+        this.nodes = new int[nbLayers][];
+        this.nbNodes = new int[nbLayers];
+        this.tables = new int[nbLayers][];
+        this.open = new int[nbLayers][];
+        for (int i = 0; i < nbLayers; i++) {
+            nodes[i] = new int[sizes[i] * 16];
+            tables[i] = new int[32];
+            open[i] = new int[sizes[i]];
+        }
+        this.last = new int[nbLayers];
+        this.pos = new int[nbLayers];
+    }
+
+    /**
+     * Add a tuple to the diagram.
+     * Tuples must be added in increasing lexicographic order; a tuple equal to the previous one is ignored,
+     * so is a tuple out of the declared domains.
+     *
+     * @param TUPLE tuple to add
+     * @return <tt>true</tt> if the tuple has been added
+     * @throws SolverException if the tuple is smaller than the previous one, or if the diagram has already been built
+     */
+    public boolean addTuple(int[] TUPLE) {
+        if (built) {
+            throw new SolverException("MDDBuilder: the diagram has already been built");
+        }
+        for (int i = 0; i < nbLayers; i++) {
+            if (TUPLE[i] < offsets[i] || TUPLE[i] >= offsets[i] + sizes[i]) {
+                return false;
+            }
+            pos[i] = TUPLE[i] - offsets[i];
+        }
+        int d = 0;
+        if (started) {
+            while (d < nbLayers && pos[d] == last[d]) {
+                d++;
+            }
+            if (d == nbLayers) {
+                return false;
+            }
+            if (pos[d] < last[d]) {
+                throw new SolverException("MDDBuilder: tuples must be added in lexicographic order, "
+                        + Arrays.toString(TUPLE) + " comes after a greater tuple");
+            }
+            close(d + 1);
+        }
+        // the nodes below the divergence are fresh, only the terminal edge needs to be set
+        open[nbLayers - 1][pos[nbLayers - 1]] = 1;
+        System.arraycopy(pos, 0, last, 0, nbLayers);
+        started = true;
+        return true;
+    }
+
+    /**
+     * Add tuples to the diagram, in the order they are returned by <i>TUPLES</i>
+     *
+     * @param TUPLES tuples to add, in increasing lexicographic order
+     * @return <tt>true</tt> if at least one tuple has been added
+     * @see #addTuple(int[])
+     */
+    public boolean addTuples(Iterator<int[]> TUPLES) {
+        boolean atLeastOne = false;
+        while (TUPLES.hasNext()) {
+            atLeastOne |= addTuple(TUPLES.next());
+        }
+        return atLeastOne;
+    }
+
+    /**
+     * Close the remaining open nodes and return the reduced diagram.
+     * The builder cannot be used anymore afterwards.
+     *
+     * @return the MDD storing all tuples added
+     */
+    public MultivaluedDecisionDiagram build() {
+        finish();
+        return toMDD(open[0]);
+    }
+
+    /**
+     * Build an MDD from ranges of tuples, in parallel.
+     * Each range is consumed by its own builder, then the diagrams are merged:
+     * their nodes are hash-consed again into a common unique table, bottom-up.
+     * <br/>
+     * Tuples within a range must be in increasing lexicographic order, and two ranges must not share any value
+     * of the first variable (typically, ranges are split on the values of the first variable).
+     *
+     * @param VARIABLES array of variables, their current domains define the domains of the diagram
+     * @param RANGES    ranges of tuples
+     * @return the MDD storing all tuples of all ranges
+     * @throws SolverException if two ranges share a value of the first variable
+     */
+    public static MultivaluedDecisionDiagram build(IntVar[] VARIABLES, List<? extends Iterator<int[]>> RANGES) {
+        int[][] flatdom = MultivaluedDecisionDiagram.flattenDomain(VARIABLES);
+        List<MDDBuilder> builders = RANGES.parallelStream()
+                .map(r -> {
+                    MDDBuilder builder = new MDDBuilder(flatdom);
+                    builder.addTuples(r);
+                    builder.finish();
+                    return builder;
+                })
+                .collect(Collectors.toList());
+        MDDBuilder merged = new MDDBuilder(flatdom);
+        for (MDDBuilder builder : builders) {
+            merged.merge(builder);
+        }
+        merged.built = true;
+        return merged.toMDD(merged.open[0]);
+    }
+
+    //***********************************************************************************
+    // INTERNAL METHODS
+    //***********************************************************************************
+
+    /**
+     * Close the open nodes of layers <i>from</i> to the last one, bottom-up,
+     * and connect each of them to its parent
+     */
+    private void close(int from) {
+        for (int l = nbLayers - 1; l >= from; l--) {
+            int id = intern(l, open[l], 0);
+            open[l - 1][last[l - 1]] = id + 1;
+            Arrays.fill(open[l], 0);
+        }
+    }
+
+    private void finish() {
+        if (!built) {
+            if (started) {
+                close(1);
+            }
+            built = true;
+        }
+    }
+
+    /**
+     * Import the closed nodes of <i>other</i> into this, and its root edges into this root
+     */
+    private void merge(MDDBuilder other) {
+        int[] remap = new int[0];
+        for (int l = nbLayers - 1; l > 0; l--) {
+            int size = sizes[l];
+            int[] cells = other.nodes[l];
+            int[] current = new int[other.nbNodes[l]];
+            for (int j = 0; j < other.nbNodes[l]; j++) {
+                int s = j * size;
+                if (l < nbLayers - 1) {
+                    for (int k = 0; k < size; k++) {
+                        if (cells[s + k] > 0) {
+                            cells[s + k] = remap[cells[s + k] - 1] + 1;
+                        }
+                    }
+                }
+                current[j] = intern(l, cells, s);
+            }
+            remap = current;
+        }
+        int[] root = other.open[0];
+        for (int k = 0; k < sizes[0]; k++) {
+            if (root[k] > 0) {
+                if (open[0][k] > 0) {
+                    throw new SolverException("MDDBuilder: ranges share the value " + (k + offsets[0])
+                            + " of the first variable");
+                }
+                open[0][k] = nbLayers > 1 ? remap[root[k] - 1] + 1 : 1;
+                started = true;
+            }
+        }
+    }
+
+    /**
+     * Return the index of the node of layer <i>l</i> whose cells are <i>cells[from..from + sizes[l]]</i>,
+     * creating it if needed
+     */
+    private int intern(int l, int[] cells, int from) {
+        int size = sizes[l];
+        int[] table = tables[l];
+        int mask = table.length - 1;
+        int h = hash(cells, from, size) & mask;
+        while (table[h] != 0) {
+            int s = (table[h] - 1) * size;
+            if (equals(nodes[l], s, cells, from, size)) {
+                return table[h] - 1;
+            }
+            h = (h + 1) & mask;
+        }
+        int id = nbNodes[l]++;
+        if ((id + 1) * size > nodes[l].length) {
+            nodes[l] = Arrays.copyOf(nodes[l], Math.max((id + 1) * size, nodes[l].length * 3 / 2 + 1));
+        }
+        System.arraycopy(cells, from, nodes[l], id * size, size);
+        table[h] = id + 1;
+        if (nbNodes[l] * 2 > table.length) {
+            rehash(l);
+        }
+        return id;
+    }
+
+    private void rehash(int l) {
+        int size = sizes[l];
+        int[] table = new int[tables[l].length * 2];
+        int mask = table.length - 1;
+        for (int id = 0; id < nbNodes[l]; id++) {
+            int h = hash(nodes[l], id * size, size) & mask;
+            while (table[h] != 0) {
+                h = (h + 1) & mask;
+            }
+            table[h] = id + 1;
+        }
+        tables[l] = table;
+    }
+
+    private static int hash(int[] cells, int from, int size) {
+        int h = 1;
+        for (int k = from; k < from + size; k++) {
+            h = 31 * h + cells[k];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(int[] a, int fa, int[] b, int fb, int size) {
+        for (int k = 0; k < size; k++) {
+            if (a[fa + k] != b[fb + k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lay out the closed nodes in the format of {@link MultivaluedDecisionDiagram#getDiagram()}:
+     * the root first, then the nodes of each layer in turn
+     */
+    private MultivaluedDecisionDiagram toMDD(int[] root) {
+        long[] base = new long[nbLayers + 1];
+        base[1] = sizes[0];
+        for (int l = 1; l < nbLayers; l++) {
+            base[l + 1] = base[l] + (long) nbNodes[l] * sizes[l];
+        }
+        if (base[nbLayers] > Integer.MAX_VALUE - 8) {
+            throw new SolverException("MDDBuilder: the diagram is too large (" + base[nbLayers] + " cells)");
+        }
+        int[] mdd = new int[(int) base[nbLayers]];
+        translate(root, 0, mdd, 0, 0, base);
+        for (int l = 1; l < nbLayers; l++) {
+            for (int j = 0; j < nbNodes[l]; j++) {
+                translate(nodes[l], j * sizes[l], mdd, (int) base[l] + j * sizes[l], l, base);
+            }
+        }
+        return new MultivaluedDecisionDiagram(sizes.clone(), offsets.clone(), mdd);
+    }
+
+    private void translate(int[] cells, int from, int[] mdd, int to, int l, long[] base) {
+        for (int k = 0; k < sizes[l]; k++) {
+            int c = cells[from + k];
+            if (c == 0) {
+                mdd[to + k] = MultivaluedDecisionDiagram.EMPTY;
+            } else if (l == nbLayers - 1) {
+                mdd[to + k] = MultivaluedDecisionDiagram.TERMINAL;
+            } else {
+                mdd[to + k] = (int) base[l + 1] + (c - 1) * sizes[l + 1];
+            }
+        }
+    }
+}
@@ -67,7 +67,7 @@ public class MultivaluedDecisionDiagram  {
     private int[] _pos;
 
 
-    private static int[][] flattenDomain(IntVar[] VARIABLES) {
+    static int[][] flattenDomain(IntVar[] VARIABLES) {
         int[][] FLATDOM = new int[VARIABLES.length][];
         for (int i = 0; i < VARIABLES.length; i++) {
             int lb = VARIABLES[i].getLB();
@@ -166,6 +166,28 @@ public class MultivaluedDecisionDiagram  {
         init(TRANSITIONS);
     }
 
+    /**
+     * Create an MDD from an already built and reduced diagram, as produced by {@link MDDBuilder}.
+     *
+     * @param SIZES   initial domain size of each variable
+     * @param OFFSETS initial domain offset of each variable
+     * @param DIAGRAM the diagram, in the format described in {@link #getDiagram()}, and exactly sized
+     */
+    @SuppressWarnings("unchecked")
+    MultivaluedDecisionDiagram(int[] SIZES, int[] OFFSETS, int[] DIAGRAM) {
+        this.nbLayers = SIZES.length;
+        this.sizes = SIZES;
+        this.offsets = OFFSETS;
+        this.compactOnce = true;
+        this.sortTuples = false;
+        this.mdd = DIAGRAM;
+        this.nextFreeCell = DIAGRAM.length;
+        _pos = new int[nbLayers];
+        _nodesToRemove = new TIntIntHashMap(16, .5f, -1, -1);
+        _identicalNodes = new ArrayList[nbLayers][];
+        _nodeId = new TIntArrayList[nbLayers][];
+    }
+
     @SuppressWarnings("unchecked")
     private void init(Tuples TUPLES) {
         nextFreeCell = sizes[0];
@@ -459,7 +481,11 @@ public class MultivaluedDecisionDiagram  {
     }
 
     /**
-     * Return the diagram (not a copy) of the MDD
+     * Return the diagram (not a copy) of the MDD.
+     * A node of layer <i>l</i> is a block of {@link #getNodeSize(int) getNodeSize(l)} consecutive cells, the root
+     * node starts at 0. The k<sup>th</sup> cell of a node stores the edge labelled with the value
+     * <i>k + {@link #getOffset(int) getOffset(l)}</i>: {@link #EMPTY} if there is no such edge,
+     * {@link #TERMINAL} if it leads to the terminal node, otherwise the index of the first cell of the target node.
      */
     public int[] getDiagram() {
         return mdd;
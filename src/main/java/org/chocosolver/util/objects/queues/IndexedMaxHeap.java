@@ -0,0 +1,298 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.queues;
+
+import java.util.Arrays;
+
+/**
+ * An indexed binary max-heap over the integers in [0, capacity[, each of them being associated with a double key.
+ * <br/>
+ * Elements are stored in a flat int array and their position in the heap is maintained in a second array,
+ * which enables to check membership in O(1) and to update the key of any element in O(log n).
+ * <br/>
+ * Ties are broken by a rank associated with each element, when ranks are given, by heap order otherwise.
+ *
+ * @since 19/10/2026
+ */
+public class IndexedMaxHeap {
+
+    /**
+     * Heap, as an implicit binary tree: children of <i>p</i> are <i>2p+1</i> and <i>2p+2</i>
+     */
+    private final int[] heap;
+    /**
+     * Position of each element in <code>heap</code>, -1 if absent
+     */
+    private final int[] pos;
+    /**
+     * Key of each element
+     */
+    private final double[] keys;
+    /**
+     * Rank of each element, to break ties (the largest rank wins), may be null
+     */
+    private final int[] ranks;
+    /**
+     * Number of elements in the heap
+     */
+    private int size;
+
+    /**
+     * Create an empty heap able to store integers in [0, capacity[
+     *
+     * @param capacity the largest integer storable plus one
+     */
+    public IndexedMaxHeap(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Create an empty heap able to store integers in [0, capacity[.
+     * Among elements with the same key, the one with the largest rank comes first.
+     *
+     * @param capacity the largest integer storable plus one
+     * @param ranks    rank of each element, to break ties, may be <tt>null</tt>
+     */
+    public IndexedMaxHeap(int capacity, int[] ranks) {
+        assert ranks == null || ranks.length >= capacity;
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        this.keys = new double[capacity];
+        this.ranks = ranks;
+        Arrays.fill(pos, -1);
+    }
+
+    /**
+     * @return the number of elements in the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return <tt>true</tt> if the heap contains no element
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param e an element
+     * @return <tt>true</tt> if <i>e</i> is in the heap
+     */
+    public boolean contains(int e) {
+        return pos[e] > -1;
+    }
+
+    /**
+     * @param e an element
+     * @return the last key associated with <i>e</i>
+     */
+    public double getKey(int e) {
+        return keys[e];
+    }
+
+    /**
+     * Add <i>e</i> with key <i>key</i>, or update its key if <i>e</i> is already in the heap. Runs in O(log n).
+     *
+     * @param e   an element
+     * @param key its key
+     */
+    public void add(int e, double key) {
+        if (pos[e] > -1) {
+            update(e, key);
+        } else {
+            keys[e] = key;
+            heap[size] = e;
+            pos[e] = size;
+            siftUp(size++);
+        }
+    }
+
+    /**
+     * Change the key of <i>e</i>, which must be in the heap. Runs in O(log n).
+     *
+     * @param e   an element of the heap
+     * @param key its new key
+     */
+    public void update(int e, double key) {
+        assert pos[e] > -1 : e + " is not in the heap";
+        double old = keys[e];
+        keys[e] = key;
+        if (key > old) {
+            siftUp(pos[e]);
+        } else if (key < old) {
+            siftDown(pos[e]);
+        }
+    }
+
+    /**
+     * Remove <i>e</i> from the heap, if present. Runs in O(log n).
+     *
+     * @param e an element
+     */
+    public void remove(int e) {
+        int p = pos[e];
+        if (p > -1) {
+            pos[e] = -1;
+            int last = heap[--size];
+            if (p < size) {
+                heap[p] = last;
+                pos[last] = p;
+                siftUp(p);
+                siftDown(pos[last]);
+            }
+        }
+    }
+
+    /**
+     * @return the element with the largest key, without removing it, or -1 if the heap is empty
+     */
+    public int peek() {
+        return size > 0 ? heap[0] : -1;
+    }
+
+    /**
+     * Store in <i>out</i> the elements whose key is equal to the largest key, in no particular order.
+     * Runs in O(k), where k is the number of such elements.
+     *
+     * @param out array in which the elements are stored, of size at least k
+     * @return the number of elements stored in <i>out</i>
+     */
+    public int peekAll(int[] out) {
+        if (size == 0) {
+            return 0;
+        }
+        double top = keys[heap[0]];
+        out[0] = heap[0];
+        int nb = 1;
+        // since an element is never above its parent, the elements with the top key form a subtree rooted in 0
+        for (int k = 0; k < nb; k++) {
+            int c = (pos[out[k]] << 1) + 1;
+            for (int j = c; j < c + 2 && j < size; j++) {
+                if (keys[heap[j]] == top) {
+                    out[nb++] = heap[j];
+                }
+            }
+        }
+        return nb;
+    }
+
+    /**
+     * Remove and return the element with the largest key. Runs in O(log n).
+     *
+     * @return the element with the largest key, or -1 if the heap is empty
+     */
+    public int pop() {
+        if (size == 0) {
+            return -1;
+        }
+        int top = heap[0];
+        remove(top);
+        return top;
+    }
+
+    /**
+     * Multiply all keys by <i>factor</i>, which must be positive. Since the order is preserved, this runs in O(n)
+     * without moving any element.
+     *
+     * @param factor a strictly positive factor
+     */
+    public void scaleKeys(double factor) {
+        assert factor > 0;
+        for (int i = 0; i < size; i++) {
+            keys[heap[i]] *= factor;
+        }
+    }
+
+    /**
+     * Empty the heap and then add each element of <i>elements</i> with its key in <i>newKeys</i>
+     * (<code>newKeys[elements[i]]</code>). Runs in O(n) (Floyd's heap construction).
+     *
+     * @param elements elements to add
+     * @param nb       number of elements to consider in <i>elements</i>
+     * @param newKeys  keys, indexed by element
+     */
+    public void build(int[] elements, int nb, double[] newKeys) {
+        clear();
+        for (int i = 0; i < nb; i++) {
+            int e = elements[i];
+            keys[e] = newKeys[e];
+            heap[i] = e;
+            pos[e] = i;
+        }
+        size = nb;
+        for (int i = (size >> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Remove all elements from the heap
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return <tt>true</tt> if <i>a</i> must be closer to the root than <i>b</i>
+     */
+    private boolean above(int a, int b) {
+        return keys[a] > keys[b] || (ranks != null && keys[a] == keys[b] && ranks[a] > ranks[b]);
+    }
+
+    private void siftUp(int p) {
+        int e = heap[p];
+        while (p > 0) {
+            int q = (p - 1) >> 1;
+            int f = heap[q];
+            if (!above(e, f)) {
+                break;
+            }
+            heap[p] = f;
+            pos[f] = p;
+            p = q;
+        }
+        heap[p] = e;
+        pos[e] = p;
+    }
+
+    private void siftDown(int p) {
+        int e = heap[p];
+        int half = size >> 1;
+        while (p < half) {
+            int c = (p << 1) + 1;
+            int r = c + 1;
+            if (r < size && above(heap[r], heap[c])) {
+                c = r;
+            }
+            if (!above(heap[c], e)) {
+                break;
+            }
+            heap[p] = heap[c];
+            pos[heap[p]] = p;
+            p = c;
+        }
+        heap[p] = e;
+        pos[e] = p;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder("<");
+        for (int i = 0; i < size; i++) {
+            s.append(" ").append(heap[i]).append(':').append(keys[heap[i]]);
+        }
+        s.append(" >");
+        return s.toString();
+    }
+}
@@ -35,6 +35,14 @@ public class Set_ReadOnly implements ISet {
 	// METHODS
 	//***********************************************************************************
 
+	/**
+	 * @return the set this view is based on, for algorithms specific to its implementation.
+	 * It must not be modified through this reference.
+	 */
+	public ISet getSet() {
+		return set;
+	}
+
     @Override
     public ISetIterator newIterator() {
         return set.newIterator();
@@ -108,6 +108,27 @@ public class Set_Std_BitSet implements ISet {
 		return offset+ values.prevSetBit(values.length());
 	}
 
+	/**
+	 * Reads 64 consecutive elements at once
+	 *
+	 * @param from an element
+	 * @return a word whose bit <code>i</code> (mask <code>1L << i</code>) is set iff <code>from + i</code> belongs to
+	 * this set
+	 */
+	public long getWord(int from) {
+		int idx = from - offset;
+		if (idx < 0) {
+			return idx <= -64 ? 0L : values.getWord(0) << -idx;
+		}
+		int w = idx >>> 6;
+		int shift = idx & 63;
+		long word = values.getWord(w) >>> shift;
+		if (shift > 0) {
+			word |= values.getWord(w + 1) << (64 - shift);
+		}
+		return word;
+	}
+
 	@Override
 	public String toString() {
 		String st = "{";
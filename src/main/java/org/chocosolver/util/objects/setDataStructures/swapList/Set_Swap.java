@@ -12,8 +12,14 @@ import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.ISetIterator;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 
+import java.util.Arrays;
+
 /**
  * Bipartite set of integers:
+ * <i>values</i> is a permutation of the elements added so far, the first <i>size</i> ones belong to the set,
+ * and <i>map</i> gives the position of each element in <i>values</i>.
+ * Adding or removing an element swaps it with the first element out of the set (resp. the last one in the set),
+ * so that the set is restored by restoring its size.
  *
  * add : O(1)
  * contain: O(1)
@@ -29,6 +35,10 @@ public class Set_Swap implements ISet {
 	//***********************************************************************************
 
 	private int size, mapOffset;
+	/**
+	 * Number of elements added so far, the others have never been added (their position is Integer.MAX_VALUE)
+	 */
+	private int nbAdded;
 	private int[] values, map;
 	private ISetIterator iter = newIterator();
 
@@ -45,7 +55,7 @@ public class Set_Swap implements ISet {
 		size = 0;
 		values = new int[16];
 		map = new int[16];
-		for(int i=0;i<map.length;i++)map[i] = -1;
+		Arrays.fill(map, Integer.MAX_VALUE);
 	}
 
 	//***********************************************************************************
@@ -58,13 +68,6 @@ public class Set_Swap implements ISet {
 		if (contains(element)) {
 			return false;
 		}
-		int size = size();
-		if (size == values.length) {
-			int[] tmp = values;
-			int ns = tmp.length + 1 + (tmp.length * 2) / 3;
-			values = new int[ns];
-			System.arraycopy(tmp, 0, values, 0, tmp.length);
-		}
 		if(element-mapOffset>=map.length){
 			int[] tmp = map;
 			int ns = Math.max(
@@ -73,12 +76,26 @@ public class Set_Swap implements ISet {
 			);
 			map = new int[ns];
 			System.arraycopy(tmp, 0, map, 0, tmp.length);
-			for(int i=tmp.length;i<ns;i++){
-				map[i] = -1;
+			Arrays.fill(map, tmp.length, ns, Integer.MAX_VALUE);
+		}
+		int idx = map[element-mapOffset];
+		if (idx == Integer.MAX_VALUE) {
+			if (nbAdded == values.length) {
+				int[] tmp = values;
+				int ns = tmp.length + 1 + (tmp.length * 2) / 3;
+				values = new int[ns];
+				System.arraycopy(tmp, 0, values, 0, tmp.length);
 			}
+			idx = nbAdded++;
+			values[idx] = element;
+			map[element-mapOffset] = idx;
 		}
-		values[size] = element;
+		int size = size();
+		int replacer = values[size];
+		map[replacer-mapOffset] = idx;
+		values[idx] = replacer;
 		map[element-mapOffset] = size;
+		values[size] = element;
 		addSize(1);
 		return true;
 	}
@@ -104,10 +121,8 @@ public class Set_Swap implements ISet {
 
 	@Override
 	public boolean contains(int element) {
-		if(element<mapOffset || element >= mapOffset+map.length){
-			return false;
-		}
-		return map[element-mapOffset] >= 0 && map[element-mapOffset] < size() && values[map[element-mapOffset]] == element;
+		int idx = element - mapOffset;
+		return idx >= 0 && idx < map.length && map[idx] < size();
 	}
 
 	@Override
@@ -38,7 +38,7 @@ public class SuspiciousTest {
         s.getSolver().limitBacktrack(50);
         while (s.getSolver().solve()) ;
         long bc = s.getSolver().getBackTrackCount();
-        assertEquals(bc, 52);
+        assertEquals(bc, 53);
     }
 
     @Test(groups="1s", timeOut=60000)
@@ -76,6 +76,6 @@ public class SuspiciousTest {
         model.getSolver().limitNode(200);
         while (model.getSolver().solve()) ;
         long sc = model.getSolver().getSolutionCount();
-        assertEquals(sc, 54);
+        assertEquals(sc, 53);
     }
 }
@@ -0,0 +1,155 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @since 19/10/2026
+ */
+public class SolutionPoolTest {
+
+    private static Model model(int n, int ub) {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", n, 0, ub);
+        model.sum(x, "<=", ub).post();
+        return model;
+    }
+
+    private static IntVar[] x(Model model) {
+        return Arrays.stream(model.retrieveIntVars(false)).filter(v -> v.getName().startsWith("x")).toArray(IntVar[]::new);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testAll() {
+        Model model = model(4, 6);
+        IntVar[] x = x(model);
+        SolutionPool pool = model.getSolver().findAllSolutions(new SolutionPool(model, x));
+        Model other = model(4, 6);
+        List<Solution> sols = other.getSolver().findAllSolutions();
+        Assert.assertEquals(pool.size(), sols.size());
+        Set<String> expected = new HashSet<>();
+        for (Solution s : sols) {
+            StringBuilder st = new StringBuilder();
+            for (IntVar v : x(other)) {
+                st.append(s.getIntVal(v)).append(',');
+            }
+            expected.add(st.toString());
+        }
+        int[] row = new int[x.length];
+        for (int s = 0; s < pool.size(); s++) {
+            pool.getRow(s, row);
+            StringBuilder st = new StringBuilder();
+            for (int i = 0; i < x.length; i++) {
+                Assert.assertEquals(pool.getIntVal(s, x[i]), row[i]);
+                Assert.assertEquals(pool.toSolution(s).getIntVal(x[i]), row[i]);
+                st.append(row[i]).append(',');
+            }
+            Assert.assertTrue(expected.remove(st.toString()));
+        }
+        Assert.assertTrue(expected.isEmpty());
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testDedup() {
+        Model model = model(4, 6);
+        IntVar[] x = x(model);
+        // projection on the two first variables
+        SolutionPool pool = new SolutionPool(model, x[0], x[1]).setDeduplication(true);
+        model.getSolver().findAllSolutions(pool);
+        Assert.assertEquals(pool.size(), 28); // x0 + x1 <= 6
+        Set<Integer> seen = new HashSet<>();
+        int[] row = new int[2];
+        for (int s = 0; s < pool.size(); s++) {
+            pool.getRow(s, row);
+            Assert.assertTrue(seen.add(row[0] * 10 + row[1]));
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testKeepBest() {
+        Model model = model(3, 10);
+        IntVar[] x = x(model);
+        IntVar obj = model.intVar("o", 0, 100);
+        model.scalar(x, new int[]{3, 2, 1}, "=", obj).post();
+        SolutionPool pool = new SolutionPool(model, x).keepBest(obj, true, 5).setDeduplication(true);
+        model.getSolver().findAllSolutions(pool);
+        Assert.assertEquals(pool.size(), 5);
+        int[] values = new int[5];
+        for (int s = 0; s < 5; s++) {
+            values[s] = pool.getObjectiveValue(s);
+            Assert.assertEquals(3 * pool.getIntVal(s, x[0]) + 2 * pool.getIntVal(s, x[1]) + pool.getIntVal(s, x[2]),
+                    values[s]);
+        }
+        Arrays.sort(values);
+        // 30 (10,0,0), 29 (9,1,0), 28 (9,0,1) and (8,2,0), 27 (9,0,0), (8,1,1), (7,3,0) ...
+        Assert.assertEquals(values, new int[]{27, 28, 28, 29, 30});
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testSpill() {
+        Model model = model(3, 24);
+        IntVar[] x = x(model);
+        try (SolutionPool pool = new SolutionPool(model, x).spillToDisk(1)) {
+            model.getSolver().findAllSolutions(pool);
+            Assert.assertEquals(pool.size(), 2925); // C(27, 3)
+            Set<Integer> seen = new HashSet<>();
+            int[] row = new int[3];
+            for (int s = 0; s < pool.size(); s++) {
+                pool.getRow(s, row);
+                Assert.assertTrue(row[0] + row[1] + row[2] <= 24);
+                Assert.assertTrue(seen.add((row[0] * 100 + row[1]) * 100 + row[2]));
+            }
+            pool.close();
+            // the spilled solutions are lost, so are the others
+            Assert.assertEquals(pool.size(), 0);
+            model.getSolver().reset();
+            model.getSolver().findAllSolutions(pool);
+            Assert.assertEquals(pool.size(), 2925);
+            pool.getRow(0, row);
+            Assert.assertTrue(row[0] + row[1] + row[2] <= 24);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testMonitor() {
+        Model model = model(3, 3);
+        SolutionPool pool = new SolutionPool(model, x(model));
+        model.getSolver().plugMonitor(pool);
+        while (model.getSolver().solve()) ;
+        Assert.assertEquals(pool.size(), model.getSolver().getSolutionCount());
+        pool.clear();
+        Assert.assertEquals(pool.size(), 0);
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testStream() {
+        Model model = model(4, 6);
+        SolutionPool pool = new SolutionPool(model, x(model)[0]).setDeduplication(true);
+        int[] slots = model.getSolver().streamSolutions(pool).toArray();
+        Assert.assertEquals(slots.length, 7);
+        for (int s = 0; s < slots.length; s++) {
+            Assert.assertEquals(slots[s], s);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = SolverException.class)
+    public void testIncompatible() {
+        Model model = model(3, 3);
+        new SolutionPool(model).setDeduplication(true).spillToDisk(2);
+    }
+}
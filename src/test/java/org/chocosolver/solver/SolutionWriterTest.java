@@ -0,0 +1,90 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver;
+
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @since 19/10/2026
+ */
+public class SolutionWriterTest {
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testWriteRead() throws IOException {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 4, -1000, 1000, false);
+        model.allDifferent(x).post();
+        model.sum(x, "=", 0).post();
+        model.arithm(x[0], "<=", -990).post();
+        Path file = Files.createTempFile("sols", ".bin");
+        try {
+            SolutionPool pool = new SolutionPool(model, x);
+            model.getSolver().plugMonitor(pool);
+            try (SolutionWriter writer = new SolutionWriter(file, x)) {
+                model.getSolver().plugMonitor(writer);
+                model.getSolver().limitSolution(50000);
+                while (model.getSolver().solve()) ;
+                Assert.assertEquals(writer.getCount(), pool.size());
+            }
+            try (SolutionReader reader = new SolutionReader(file)) {
+                Assert.assertEquals(reader.getNbVars(), 4);
+                for (int i = 0; i < 4; i++) {
+                    Assert.assertEquals(reader.getId(i), x[i].getId());
+                    Assert.assertEquals(reader.getName(i), x[i].getName());
+                }
+                int[] row = new int[4];
+                int[] expected = new int[4];
+                int s = 0;
+                while (reader.next(row)) {
+                    Assert.assertEquals(row, pool.getRow(s++, expected));
+                }
+                Assert.assertEquals(s, pool.size());
+                Assert.assertEquals(reader.getCount(), pool.size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000)
+    public void testEmpty() throws IOException {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 3, 0, 2);
+        model.sum(x, ">", 6).post();
+        Path file = Files.createTempFile("sols", ".bin");
+        try {
+            try (SolutionWriter writer = new SolutionWriter(file, x)) {
+                model.getSolver().plugMonitor(writer);
+                Assert.assertFalse(model.getSolver().solve());
+            }
+            try (SolutionReader reader = new SolutionReader(file)) {
+                Assert.assertFalse(reader.next(new int[3]));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(groups = "1s", timeOut = 60000, expectedExceptions = IOException.class)
+    public void testNotASolutionFile() throws IOException {
+        Path file = Files.createTempFile("sols", ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6});
+            new SolutionReader(file).close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
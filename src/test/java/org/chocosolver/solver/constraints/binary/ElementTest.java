@@ -11,6 +11,8 @@ package org.chocosolver.solver.constraints.binary;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.binary.element.PropElement;
+import org.chocosolver.solver.constraints.binary.element.PropElementBitset;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -22,6 +24,7 @@ import org.testng.annotations.Test;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.stream.IntStream;
 
 import static java.lang.System.currentTimeMillis;
 import static org.chocosolver.solver.constraints.binary.element.ElementFactory.detect;
@@ -290,6 +293,61 @@ public class ElementTest {
 	}
 
 
+	private static long countElement(int seed, boolean bitset, boolean exp) {
+		Random r = new Random(seed);
+		int n = 1 + r.nextInt(300);
+		int offset = r.nextInt(5) - 2;
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = r.nextInt(2 + r.nextInt(20)) - 3;
+		}
+		Model s = new Model();
+		IntVar index = s.intVar("i", offset - 2, offset + n + 2, false);
+		IntVar value = s.intVar("v", -5, 20, false);
+		IntVar other = s.intVar("o", 0, 9, false);
+		if (bitset) {
+			new Constraint("Element", new PropElementBitset(value, values, index, offset)).post();
+		} else {
+			new Constraint("Element", new PropElement(value, values, index, offset)).post();
+		}
+		s.arithm(index, "-", other, ">=", offset).post();
+		s.arithm(value, "!=", other).post();
+		if (exp) {
+			s.getSolver().setCBJLearning(false, false);
+		}
+		s.getSolver().setSearch(randomSearch(toArray(value, other, index), seed));
+		while (s.getSolver().solve()) ;
+		return s.getSolver().getSolutionCount();
+	}
+
+	@Test(groups="1s", timeOut=60000, dataProvider = "params")
+	public void testBitsetRandom(boolean exp) {
+		for (int seed = 0; seed < 40; seed++) {
+			assertEquals(countElement(seed, true, exp), countElement(seed, false, exp), "seed " + seed);
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testBitsetLarge() {
+		int n = 100000;
+		Random r = new Random(0);
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = r.nextInt(1000);
+		}
+		Model s = new Model();
+		IntVar index = s.intVar("i", 0, n - 1, false);
+		IntVar value = s.intVar("v", 0, 999, false);
+		Constraint c = s.element(value, values, index);
+		Assert.assertTrue(c.getPropagator(0) instanceof PropElementBitset);
+		c.post();
+		s.arithm(value, "<", 10).post();
+		while (s.getSolver().solve()) {
+			assertEquals(values[index.getValue()], value.getValue());
+		}
+		assertEquals(s.getSolver().getSolutionCount(), IntStream.of(values).filter(v -> v < 10).count());
+	}
+
 	@Test(groups="1s", timeOut=60000, dataProvider = "params")
 	public void testBUG(boolean exp) {
 		nasty(153, 15, 192, exp);
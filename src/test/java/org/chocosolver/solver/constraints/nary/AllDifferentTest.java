@@ -317,4 +317,54 @@ public class AllDifferentTest {
         assertEquals(X[14].getLB(), -16);
         assertEquals(X[14].getDomainSize(), 2);
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomAC() {
+        for (int seed = 0; seed < 300; seed++) {
+            Random rnd = new Random(seed);
+            int n = 2 + rnd.nextInt(6);
+            int m = n + rnd.nextInt(3);
+            boolean enumerated = seed % 3 != 0;
+            Model model = new Model();
+            IntVar[] X = new IntVar[n];
+            int[][] doms = new int[n][];
+            for (int i = 0; i < n; i++) {
+                if (enumerated) {
+                    doms[i] = rnd.ints(1 + rnd.nextInt(m), 0, m).distinct().sorted().toArray();
+                    X[i] = model.intVar("X" + i, doms[i]);
+                } else {
+                    int lb = rnd.nextInt(m);
+                    doms[i] = java.util.stream.IntStream.rangeClosed(lb, lb + rnd.nextInt(m - lb)).toArray();
+                    X[i] = model.intVar("X" + i, doms[i][0], doms[i][doms[i].length - 1], true);
+                }
+            }
+            model.allDifferent(X, "AC").post();
+            int expected = count(doms, new int[n], 0);
+            Solver solver = model.getSolver();
+            solver.setSearch(inputOrderLBSearch(X));
+            assertEquals(solver.findAllSolutions().size(), expected, "seed " + seed);
+            if (enumerated && expected > 0) {
+                // arc consistency on a single constraint makes the search backtrack-free
+                assertEquals(solver.getFailCount(), 0, "seed " + seed);
+            }
+        }
+    }
+
+    private static int count(int[][] doms, int[] t, int i) {
+        if (i == doms.length) {
+            return 1;
+        }
+        int c = 0;
+        for (int v : doms[i]) {
+            boolean ok = true;
+            for (int j = 0; j < i && ok; j++) {
+                ok = t[j] != v;
+            }
+            if (ok) {
+                t[i] = v;
+                c += count(doms, t, i + 1);
+            }
+        }
+        return c;
+    }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -19,8 +20,10 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -91,6 +94,64 @@ public class BinPackingTest {
 		assertEquals(0, model.getSolver().getSolutionCount());
 	}
 
+	@Test(groups="1s", timeOut=60000)
+	public void testKnapsackReasoning() throws ContradictionException {
+		Model model = new Model();
+		int[] itemSize = new int[]{3,3,3};
+		IntVar[] itemBin = model.intVarArray("binOfItem",3,0,1);
+		IntVar[] binLoad = model.intVarArray("binLoad",2,1,10);
+		model.binPacking(itemBin,itemSize,binLoad,0).post();
+		model.getSolver().propagate();
+		// no subset of items sums into [1,2] nor [7,8]
+		for (IntVar load : binLoad) {
+			assertEquals(load.getLB(), 3);
+			assertEquals(load.getUB(), 6);
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testLowerBound() {
+		Model model = new Model();
+		int[] itemSize = new int[]{3,3,3};
+		IntVar[] itemBin = model.intVarArray("binOfItem",3,0,1);
+		IntVar[] binLoad = model.intVarArray("binLoad",2,0,5);
+		model.binPacking(itemBin,itemSize,binLoad,0).post();
+		// the total size fits, but two items of size 3 cannot share a bin
+		assertFalse(model.getSolver().solve());
+		assertEquals(model.getSolver().getNodeCount(), 0);
+	}
+
+	@Test(groups="10s", timeOut=60000)
+	public void testRandom() {
+		for (int seed = 0; seed < 200; seed++) {
+			long[] nbs = new long[2];
+			for (int decomp = 0; decomp < 2; decomp++) {
+				Random rd = new Random(seed);
+				Model model = new Model();
+				int n = 2 + rd.nextInt(5);
+				int m = 1 + rd.nextInt(3);
+				int[] itemSize = new int[n];
+				for (int i = 0; i < n; i++) {
+					itemSize[i] = rd.nextInt(6);
+				}
+				IntVar[] itemBin = model.intVarArray("binOfItem",n,0,m);
+				IntVar[] binLoad = new IntVar[m];
+				for (int b = 0; b < m; b++) {
+					int lb = rd.nextInt(5);
+					binLoad[b] = model.intVar("binLoad" + b, lb, lb + 2 + rd.nextInt(8));
+				}
+				if (decomp == 1) {
+					bpDecomposition(itemBin,itemSize,binLoad,0).post();
+				} else {
+					model.binPacking(itemBin,itemSize,binLoad,0).post();
+				}
+				model.getSolver().setSearch(Search.randomSearch(itemBin, seed));
+				nbs[decomp] = model.getSolver().streamSolutions().count();
+			}
+			assertEquals(nbs[0], nbs[1], "seed " + seed);
+		}
+	}
+
 	private static Constraint bpDecomposition(IntVar[] itemBin, int[] itemSize, IntVar[] binLoad, int offset){
 		int nbBins = binLoad.length;
 		int nbItems = itemBin.length;
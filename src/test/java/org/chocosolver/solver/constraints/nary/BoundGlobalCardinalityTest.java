@@ -18,6 +18,7 @@ import java.util.Random;
 import static org.chocosolver.solver.Cause.Null;
 import static org.chocosolver.solver.constraints.nary.globalcardinality.GlobalCardinality.reformulate;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.util.tools.ArrayUtils.append;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -129,4 +130,133 @@ public class BoundGlobalCardinalityTest {
 
         }
     }
+
+    @Test(groups="10s", timeOut=60000)
+    public void testRandomConsistencies() {
+        for (int seed = 0; seed < 300; seed++) {
+            long ref = countSolutions(seed, "DEFAULT");
+            assertEquals(countSolutions(seed, "BC"), ref, "BC, seed " + seed);
+            assertEquals(countSolutions(seed, "AC"), ref, "AC, seed " + seed);
+        }
+    }
+
+    @Test(groups="10s", timeOut=60000)
+    public void testRandomFiltering() throws ContradictionException {
+        for (int seed = 0; seed < 300; seed++) {
+            for (String consistency : new String[]{"BC", "AC"}) {
+                boolean bounded = consistency.equals("BC");
+                // values taken by at least one solution, per variable
+                Model ref = new Model();
+                IntVar[] rvars = randomGCC(ref, seed, "DEFAULT", bounded);
+                boolean[][] support = new boolean[rvars.length][20];
+                while (ref.getSolver().solve()) {
+                    for (int i = 0; i < rvars.length; i++) {
+                        support[i][rvars[i].getValue() + 5] = true;
+                    }
+                }
+                Model model = new Model();
+                IntVar[] vars = randomGCC(model, seed, consistency, bounded);
+                try {
+                    model.getSolver().propagate();
+                } catch (ContradictionException e) {
+                    assertEquals(ref.getSolver().getSolutionCount(), 0, consistency + ", seed " + seed);
+                    continue;
+                }
+                if (ref.getSolver().getSolutionCount() == 0) {
+                    // GCC is the only constraint, a fixpoint without failure must have a solution
+                    throw new AssertionError(consistency + ", seed " + seed + ": no failure detected");
+                }
+                for (int i = 0; i < vars.length; i++) {
+                    if (bounded) {
+                        assertTrue(support[i][vars[i].getLB() + 5], consistency + ", seed " + seed);
+                        assertTrue(support[i][vars[i].getUB() + 5], consistency + ", seed " + seed);
+                    } else {
+                        for (int v = vars[i].getLB(); v <= vars[i].getUB(); v = vars[i].nextValue(v)) {
+                            assertTrue(support[i][v + 5], consistency + ", seed " + seed);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testIncrementalAC() {
+        for (int seed = 0; seed < 200; seed++) {
+            long[] counts = new long[2];
+            String[] consistencies = {"DEFAULT", "AC"};
+            for (int c = 0; c < 2; c++) {
+                Model model = new Model();
+                IntVar[] vars = randomGCC(model, seed, consistencies[c], false);
+                // other propagators remove values between two calls
+                for (int i = 1; i < vars.length; i++) {
+                    model.arithm(vars[i - 1], "!=", vars[i], "+", 1).post();
+                }
+                model.getSolver().setSearch(randomSearch(model.retrieveIntVars(true), seed));
+                while (model.getSolver().solve()) ;
+                counts[c] = model.getSolver().getSolutionCount();
+            }
+            assertEquals(counts[1], counts[0], "seed " + seed);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testWideBC() {
+        Model model = new Model();
+        int n = 500;
+        IntVar[] vars = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            vars[i] = model.intVar("X_" + i, i / 2 * 1000, i / 2 * 1000 + 1500, true);
+        }
+        int[] values = new int[n / 2];
+        IntVar[] cards = new IntVar[n / 2];
+        for (int i = 0; i < n / 2; i++) {
+            values[i] = i * 1000 + 1000;
+            cards[i] = model.intVar("C_" + i, 1, 1);
+        }
+        model.globalCardinality(vars, values, cards, false, "BC").post();
+        assertTrue(model.getSolver().solve());
+        int[] count = new int[n / 2];
+        for (IntVar var : vars) {
+            if (var.getValue() % 1000 == 0 && var.getValue() > 0 && var.getValue() <= n / 2 * 1000) {
+                count[var.getValue() / 1000 - 1]++;
+            }
+        }
+        for (int c : count) {
+            assertEquals(c, 1);
+        }
+    }
+
+    private static long countSolutions(int seed, String consistency) {
+        Model model = new Model();
+        randomGCC(model, seed, consistency, new Random(seed).nextBoolean());
+        while (model.getSolver().solve()) ;
+        return model.getSolver().getSolutionCount();
+    }
+
+    private static IntVar[] randomGCC(Model model, int seed, String consistency, boolean bounded) {
+        Random random = new Random(seed);
+        random.nextBoolean();
+        int n = 1 + random.nextInt(6);
+        boolean closed = random.nextBoolean();
+        IntVar[] vars = new IntVar[n];
+        for (int i = 0; i < n; i++) {
+            int lb = -5 + random.nextInt(8);
+            int ub = lb + random.nextInt(7);
+            if (bounded) {
+                vars[i] = model.intVar("X_" + i, lb, ub, true);
+            } else {
+                vars[i] = model.intVar("X_" + i, random.ints(1 + random.nextInt(5), lb, ub + 1).toArray());
+            }
+        }
+        int[] values = random.ints(-5, 10).distinct().limit(1 + random.nextInt(6)).toArray();
+        IntVar[] cards = new IntVar[values.length];
+        for (int i = 0; i < values.length; i++) {
+            int lb = random.nextInt(2);
+            cards[i] = model.intVar("C_" + i, lb, lb + random.nextInt(n + 1), true);
+        }
+        model.globalCardinality(vars, values, cards, closed, consistency).post();
+        model.getSolver().setSearch(inputOrderLBSearch(append(vars, cards)));
+        return vars;
+    }
 }
@@ -16,11 +16,19 @@
 package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.constraints.nary.circuit.CircuitConf;
+import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
 import static org.chocosolver.util.tools.ArrayUtils.append;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class CircuitTest {
 
@@ -64,6 +72,138 @@ public class CircuitTest {
         }
     }
 
+    @Test(groups="10s", timeOut=60000)
+    public static void testRandom() {
+        for (int seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int n = 3 + random.nextInt(6);
+            boolean[][] arcs = new boolean[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    arcs[i][j] = random.nextInt(10) < 6;
+                }
+                arcs[i][random.nextInt(n)] = true;
+            }
+            long expected = countCircuits(arcs, 0, 1, 1);
+            for (CircuitConf conf : new CircuitConf[]{CircuitConf.FIRST, CircuitConf.RD, CircuitConf.ALL}) {
+                Model model = new Model();
+                IntVar[] x = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    final int from = i;
+                    x[i] = model.intVar("x" + i, IntStream.range(0, n).filter(j -> arcs[from][j]).toArray());
+                }
+                model.circuit(x, 0, conf).post();
+                model.getSolver().setSearch(Search.randomSearch(x, seed));
+                while (model.getSolver().solve()) ;
+                assertEquals(model.getSolver().getSolutionCount(), expected, conf + ", seed " + seed);
+            }
+        }
+    }
+
+    @Test(groups="10s", timeOut=60000)
+    public static void testCostRandom() {
+        for (int seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int n = 2 + random.nextInt(7);
+            boolean[][] arcs = new boolean[n][n];
+            int[][] costs = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    arcs[i][j] = random.nextInt(10) < 7;
+                    costs[i][j] = random.nextInt(100) - 10;
+                }
+                arcs[i][(i + 1) % n] = true;
+            }
+            long[] tours = new long[5040];
+            int nbTours = listCircuitCosts(arcs, costs, 0, 1, 1, 0, tours, 0);
+            Arrays.sort(tours, 0, nbTours);
+            int bound = (int) tours[nbTours / 2];
+            for (boolean optimize : new boolean[]{true, false}) {
+                Model model = new Model();
+                IntVar[] x = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    final int from = i;
+                    x[i] = model.intVar("x" + i, IntStream.range(0, n).filter(j -> arcs[from][j]).toArray());
+                }
+                IntVar cost = model.intVar("cost", -1000, optimize ? 1000 : bound);
+                model.circuit(x, 0, costs, cost).post();
+                model.getSolver().setSearch(Search.randomSearch(x, seed));
+                if (optimize) {
+                    Solution best = model.getSolver().findOptimalSolution(cost, Model.MINIMIZE);
+                    assertEquals(best.getIntVal(cost), (int) tours[0], "seed " + seed);
+                } else {
+                    while (model.getSolver().solve()) ;
+                    assertEquals(model.getSolver().getSolutionCount(), nbTours / 2 + IntStream.range(nbTours / 2 + 1, nbTours)
+                            .filter(k -> tours[k] == bound).count() + 1, "seed " + seed);
+                }
+            }
+        }
+    }
+
+    @Test(groups="10s", timeOut=60000)
+    public static void testCostATSP() {
+        int n = 40;
+        Random random = new Random(0);
+        int[][] costs = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                costs[i][j] = 10 + random.nextInt(1000);
+            }
+        }
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", n, 0, n - 1);
+        IntVar cost = model.intVar("cost", 0, 1000 * n);
+        model.circuit(x, 0, costs, cost).post();
+        model.getSolver().setSearch(Search.minDomLBSearch(x));
+        model.getSolver().limitTime("20s");
+        Solution best = model.getSolver().findOptimalSolution(cost, Model.MINIMIZE);
+        assertTrue(model.getSolver().isStopCriterionMet() == false);
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += costs[i][best.getIntVal(x[i])];
+        }
+        assertEquals(sum, best.getIntVal(cost));
+    }
+
+    /**
+     * Stores the costs of the hamiltonian circuits extending the path from node 0 to <i>last</i>
+     *
+     * @return the number of costs stored
+     */
+    private static int listCircuitCosts(boolean[][] arcs, int[][] costs, int last, int visited, int size, long cost,
+                                        long[] tours, int nbTours) {
+        int n = arcs.length;
+        if (size == n) {
+            if (arcs[last][0] && (n > 1 || last == 0)) {
+                tours[nbTours++] = cost + costs[last][0];
+            }
+            return nbTours;
+        }
+        for (int j = 1; j < n; j++) {
+            if ((visited & (1 << j)) == 0 && arcs[last][j]) {
+                nbTours = listCircuitCosts(arcs, costs, j, visited | (1 << j), size + 1, cost + costs[last][j], tours, nbTours);
+            }
+        }
+        return nbTours;
+    }
+
+    /**
+     * @return the number of hamiltonian circuits extending the path from node 0 to <i>last</i>
+     */
+    private static long countCircuits(boolean[][] arcs, int last, int visited, int size) {
+        int n = arcs.length;
+        if (size == n) {
+            return arcs[last][0] ? 1 : 0;
+        }
+        long count = 0;
+        for (int j = 1; j < n; j++) {
+            if ((visited & (1 << j)) == 0 && arcs[last][j]) {
+                count += countCircuits(arcs, j, visited | (1 << j), size + 1);
+            }
+        }
+        return count;
+    }
+
     private static int factorial(int n) {
         if (n == 1) {
             return 1;
@@ -8,6 +8,7 @@
  */
 package org.chocosolver.solver.constraints.nary;
 
+import gnu.trove.set.hash.TIntHashSet;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.nary.automata.FA.CostAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
@@ -17,14 +18,17 @@ import org.chocosolver.solver.constraints.nary.automata.FA.utils.CounterState;
 import org.chocosolver.solver.constraints.nary.automata.FA.utils.ICounter;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.chocosolver.solver.constraints.nary.automata.FA.CostAutomaton.makeSingleResource;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.testng.Assert.assertEquals;
 
 /**
@@ -423,6 +427,72 @@ public class CostRegularTest {
         Assert.assertTrue(cost.isInstantiated());
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomAutomata() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random rnd = new Random(seed);
+            int n = 2 + rnd.nextInt(4);
+            FiniteAutomaton auto = new FiniteAutomaton();
+            int nbStates = 1 + rnd.nextInt(4);
+            for (int q = 0; q < nbStates; q++) {
+                auto.addState();
+            }
+            auto.setInitialState(0);
+            for (int q = 0; q < nbStates; q++) {
+                if (rnd.nextInt(3) == 0) {
+                    auto.setFinal(q);
+                }
+                for (int v = 0; v < 4; v++) {
+                    if (rnd.nextInt(3) > 0) {
+                        auto.addTransition(q, rnd.nextInt(nbStates), v);
+                    }
+                }
+            }
+            int[][][] costs = new int[n][4][nbStates];
+            for (int i = 0; i < n; i++) {
+                for (int v = 0; v < 4; v++) {
+                    for (int q = 0; q < nbStates; q++) {
+                        costs[i][v][q] = rnd.nextInt(4);
+                    }
+                }
+            }
+            int lb = rnd.nextInt(2 * n), ub = lb + rnd.nextInt(2 * n);
+            Model model = new Model();
+            IntVar[] vars = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                vars[i] = rnd.nextBoolean() ?
+                        model.intVar("x_" + i, 0, 3, rnd.nextBoolean()) :
+                        model.intVar("x_" + i, new int[]{0, 2, 3});
+            }
+            IntVar cost = model.intVar("z", lb, ub, rnd.nextBoolean());
+            // count the accepted words over the initial domains whose cost is within the bounds
+            int nbWords = 0;
+            TIntHashSet nexts = new TIntHashSet();
+            for (int w = 0; w < 1 << (2 * n); w++) {
+                int q = auto.getInitialState();
+                int c = 0;
+                for (int i = 0; i < n && q >= 0; i++) {
+                    int v = (w >>> (2 * i)) & 3;
+                    nexts.clear();
+                    auto.delta(q, v, nexts);
+                    if (vars[i].contains(v) && !nexts.isEmpty()) {
+                        c += costs[i][v][q];
+                        q = nexts.iterator().next();
+                    } else {
+                        q = -1;
+                    }
+                }
+                if (q >= 0 && !auto.isNotFinal(q) && lb <= c && c <= ub) {
+                    nbWords++;
+                }
+            }
+            model.costRegular(vars, cost, makeSingleResource(auto, costs, lb, ub)).post();
+            model.getSolver().setSearch(randomSearch(ArrayUtils.append(vars, new IntVar[]{cost}), seed));
+            while (model.getSolver().solve()) ;
+            assertEquals(model.getSolver().getSolutionCount(), nbWords, "seed " + seed);
+        }
+    }
+
     static ICostAutomaton makeCostAutomaton(int taille) {
         FiniteAutomaton fa = new FiniteAutomaton();
         int q0 = fa.addState();
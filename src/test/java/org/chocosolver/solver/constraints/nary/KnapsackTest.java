@@ -19,6 +19,8 @@ import org.chocosolver.util.tools.MathUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 /**
  * @author Jean-Guillaume FAGES (cosling)
  * @since 05/04/2017.
@@ -58,4 +60,64 @@ public class KnapsackTest {
 		s.printShortStatistics();
 		Assert.assertEquals(16537,s.getBestSolutionValue());
 	}
+
+	@Test(groups="10s", timeOut=60000)
+	public void knapsackRowsTest() {
+		Model m = new Model();
+		BoolVar[] x = m.boolVarArray(N);
+		IntVar[] bVar = new IntVar[M];
+		for(int i=0;i<M;i++){
+			bVar[i] = m.intVar(0,b[i]);
+		}
+		IntVar objective = m.intVar(0, N*MathUtils.max(c));
+		m.setObjective(Model.MAXIMIZE,objective);
+		m.knapsack(x,bVar,objective,a,c).post();
+		Solver s = m.getSolver();
+		IntVar[] xCost = new IntVar[N];
+		for(int i=0;i<N;i++)xCost[i] = m.intScaleView(x[i],c[i]);
+		s.setSearch(Search.intVarSearch(new Largest(),new IntDomainMax(),xCost));
+		while (s.solve());
+		Assert.assertEquals(16537,s.getBestSolutionValue());
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void knapsackRandomTest() {
+		for (int seed = 0; seed < 200; seed++) {
+			Random rnd = new Random(seed);
+			int n = 1 + rnd.nextInt(5);
+			int[] w = new int[n];
+			int[] e = new int[n];
+			int[] ub = new int[n];
+			for (int i = 0; i < n; i++) {
+				w[i] = rnd.nextInt(6);
+				e[i] = rnd.nextInt(8);
+				ub[i] = 1 + rnd.nextInt(3);
+			}
+			int cap = rnd.nextInt(15);
+			int pLb = rnd.nextInt(20);
+			Model m = new Model();
+			IntVar[] x = new IntVar[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = m.intVar("x" + i, 0, ub[i], rnd.nextBoolean());
+			}
+			m.knapsack(x, m.intVar(0, cap), m.intVar(pLb, 100), w, e).post();
+			// brute force
+			int expected = 0;
+			int[] t = new int[n];
+			while (true) {
+				int sw = 0, se = 0;
+				for (int i = 0; i < n; i++) {
+					sw += w[i] * t[i];
+					se += e[i] * t[i];
+				}
+				if (sw <= cap && se >= pLb) expected++;
+				int i = 0;
+				while (i < n && t[i] == ub[i]) t[i++] = 0;
+				if (i == n) break;
+				t[i]++;
+			}
+			m.getSolver().setSearch(Search.inputOrderLBSearch(x));
+			Assert.assertEquals(m.getSolver().findAllSolutions().size(), expected, "seed " + seed);
+		}
+	}
 }
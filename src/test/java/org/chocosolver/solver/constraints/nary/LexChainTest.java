@@ -20,12 +20,15 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.nary.cnf.ILogical;
 import org.chocosolver.solver.constraints.nary.cnf.LogOp;
+import org.chocosolver.solver.constraints.nary.lex.PropLexBool;
+import org.chocosolver.solver.constraints.nary.lex.PropLexChain;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import static java.lang.String.format;
@@ -34,6 +37,7 @@ import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.util.ESat.TRUE;
 import static org.chocosolver.util.tools.ArrayUtils.flatten;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 public class LexChainTest {
@@ -171,6 +175,100 @@ public class LexChainTest {
         }
     }
 
-}
 
+    private static long countBoolLex(int seed, boolean packed, boolean strict) {
+        Random rd = new Random(seed);
+        int m = 2 + rd.nextInt(3);
+        int n = 4 + rd.nextInt(140);
+        Model model = new Model();
+        BoolVar[][] X = model.boolVarMatrix("X", m, n);
+        for (int r = 0; r < m; r++) {
+            for (int c = 0; c < n; c++) {
+                // few free variables
+                if (rd.nextInt(n) >= 2) {
+                    if (r > 0 && rd.nextInt(4) > 0) {
+                        model.arithm(X[r][c], "=", X[r - 1][c]).post();
+                    } else {
+                        model.arithm(X[r][c], "=", rd.nextInt(2)).post();
+                    }
+                }
+            }
+        }
+        if (packed) {
+            (strict ? model.lexChainLessBool(X) : model.lexChainLessEqBool(X)).post();
+        } else {
+            IntVar[][] Y = new IntVar[m][];
+            for (int r = 0; r < m; r++) {
+                Y[r] = X[r];
+            }
+            (strict ? model.lexChainLess(Y) : model.lexChainLessEq(Y)).post();
+        }
+        model.getSolver().setSearch(randomSearch(flatten(X), seed));
+        while (model.getSolver().solve()) ;
+        return model.getSolver().getSolutionCount();
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testBoolRandom() {
+        for (int seed = 0; seed < 40; seed++) {
+            for (boolean strict : new boolean[]{true, false}) {
+                assertEquals(countBoolLex(seed, true, strict), countBoolLex(seed, false, strict),
+                        format("seed %d, strict %b", seed, strict));
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testBoolChainWide() {
+        Model model = new Model();
+        BoolVar[][] X = model.boolVarMatrix("X", 3, 4);
+        // boolean matrices keep the chain-wide filtering unless the packed version is asked for
+        assertTrue(model.lexChainLess(X).getPropagator(0) instanceof PropLexChain);
+        assertTrue(model.lexChainLessEq(X).getPropagator(0) instanceof PropLexChain);
+        assertTrue(model.lexChainLessBool(X).getPropagator(0) instanceof PropLexBool);
+    }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testBoolGAC() throws ContradictionException {
+        for (int seed = 0; seed < 500; seed++) {
+            Random rd = new Random(seed);
+            int n = 1 + rd.nextInt(130);
+            boolean strict = rd.nextBoolean();
+            int[][] fixed = new int[2][n];
+            for (int r = 0; r < 2; r++) {
+                for (int c = 0; c < n; c++) {
+                    fixed[r][c] = rd.nextInt(3) - 1;
+                    if (c < n - 4 && rd.nextInt(3) > 0) {
+                        // long equal prefixes
+                        fixed[r][c] = r == 0 ? rd.nextInt(2) : fixed[0][c];
+                    }
+                }
+            }
+            String[] doms = new String[2];
+            for (int k = 0; k < 2; k++) {
+                Model model = new Model();
+                BoolVar[][] X = model.boolVarMatrix("X", 2, n);
+                if (k == 0) {
+                    (strict ? model.lexLessBool(X[0], X[1]) : model.lexLessEqBool(X[0], X[1])).post();
+                } else {
+                    IntVar[] x0 = X[0], x1 = X[1];
+                    (strict ? model.lexLess(x0, x1) : model.lexLessEq(x0, x1)).post();
+                }
+                try {
+                    for (int r = 0; r < 2; r++) {
+                        for (int c = 0; c < n; c++) {
+                            if (fixed[r][c] >= 0) {
+                                X[r][c].instantiateTo(fixed[r][c], Null);
+                            }
+                        }
+                    }
+                    model.getSolver().propagate();
+                    doms[k] = Arrays.deepToString(X);
+                } catch (ContradictionException e) {
+                    doms[k] = "fail";
+                }
+            }
+            assertEquals(doms[0], doms[1], "seed " + seed);
+        }
+    }
+}
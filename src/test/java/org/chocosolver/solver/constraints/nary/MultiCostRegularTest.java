@@ -8,12 +8,15 @@
  */
 package org.chocosolver.solver.constraints.nary;
 
+import gnu.trove.set.hash.TIntHashSet;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.nary.automata.FA.FiniteAutomaton;
 import org.chocosolver.solver.constraints.nary.automata.FA.ICostAutomaton;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 import static org.chocosolver.solver.constraints.nary.automata.FA.CostAutomaton.makeMultiResources;
 import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.chocosolver.util.tools.ArrayUtils.append;
@@ -132,4 +135,75 @@ public class MultiCostRegularTest {
             assertEquals(model.getSolver().getSolutionCount(), 85, "seed:" + (seed + i));
         }
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomAutomata() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random rnd = new Random(seed);
+            int n = 2 + rnd.nextInt(4);
+            FiniteAutomaton auto = new FiniteAutomaton();
+            // costs given for a single state are not state dependent
+            int nbStates = 2 + rnd.nextInt(3);
+            for (int q = 0; q < nbStates; q++) {
+                auto.addState();
+            }
+            auto.setInitialState(0);
+            for (int q = 0; q < nbStates; q++) {
+                if (rnd.nextInt(3) == 0) {
+                    auto.setFinal(q);
+                }
+                for (int v = 0; v < 4; v++) {
+                    if (rnd.nextInt(3) > 0) {
+                        auto.addTransition(q, rnd.nextInt(nbStates), v);
+                    }
+                }
+            }
+            int[][][][] costs = new int[n][4][2][nbStates];
+            for (int i = 0; i < n; i++) {
+                for (int v = 0; v < 4; v++) {
+                    for (int r = 0; r < 2; r++) {
+                        for (int q = 0; q < nbStates; q++) {
+                            costs[i][v][r][q] = rnd.nextInt(4);
+                        }
+                    }
+                }
+            }
+            Model model = new Model();
+            IntVar[] vars = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                vars[i] = model.intVar("x_" + i, 0, 3, false);
+            }
+            IntVar[] z = new IntVar[2];
+            for (int r = 0; r < 2; r++) {
+                int lb = rnd.nextInt(2 * n);
+                z[r] = model.intVar("z_" + r, lb, lb + rnd.nextInt(2 * n), true);
+            }
+            // count the accepted words whose costs are within the bounds
+            int nbWords = 0;
+            TIntHashSet nexts = new TIntHashSet();
+            for (int w = 0; w < 1 << (2 * n); w++) {
+                int q = auto.getInitialState();
+                int[] c = new int[2];
+                for (int i = 0; i < n && q >= 0; i++) {
+                    int v = (w >>> (2 * i)) & 3;
+                    nexts.clear();
+                    auto.delta(q, v, nexts);
+                    if (!nexts.isEmpty()) {
+                        c[0] += costs[i][v][0][q];
+                        c[1] += costs[i][v][1][q];
+                        q = nexts.iterator().next();
+                    } else {
+                        q = -1;
+                    }
+                }
+                if (q >= 0 && !auto.isNotFinal(q) && z[0].contains(c[0]) && z[1].contains(c[1])) {
+                    nbWords++;
+                }
+            }
+            model.multiCostRegular(vars, z, makeMultiResources(auto, costs, z)).post();
+            model.getSolver().setSearch(randomSearch(append(vars, z), seed));
+            while (model.getSolver().solve()) ;
+            assertEquals(model.getSolver().getSolutionCount(), nbWords, "seed " + seed);
+        }
+    }
 }
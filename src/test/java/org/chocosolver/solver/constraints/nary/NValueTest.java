@@ -15,11 +15,14 @@ package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.BitSet;
+import java.util.Random;
 
 public class NValueTest {
 
@@ -127,4 +130,145 @@ public class NValueTest {
         model.getSolver().solve();
         Assert.assertEquals(model.getSolver().getBackTrackCount(), 0);
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testAtMostStrongRandom() {
+        for (int seed = 0; seed < 30; seed++) {
+            long[] counts = new long[2];
+            for (int s = 0; s < 2; s++) {
+                Random rd = new Random(seed);
+                Model model = new Model();
+                IntVar[] XS = new IntVar[6];
+                for (int i = 0; i < XS.length; i++) {
+                    int lb = rd.nextInt(5);
+                    XS[i] = model.intVar("X" + i, lb, lb + rd.nextInt(4), false);
+                }
+                IntVar N = model.intVar("N", 1, 1 + rd.nextInt(4), false);
+                model.arithm(XS[0], "!=", XS[1]).post();
+                model.atMostNValues(XS, N, s == 0).post();
+                model.getSolver().setSearch(Search.randomSearch(ArrayUtils.append(XS, new IntVar[]{N}), seed));
+                while (model.getSolver().solve()) ;
+                counts[s] = model.getSolver().getSolutionCount();
+            }
+            Assert.assertEquals(counts[0], counts[1], "seed " + seed);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testWeightedRandom() {
+        for (int seed = 0; seed < 60; seed++) {
+            Random rd = new Random(seed);
+            int n = 2 + rd.nextInt(5);
+            int[] values = new int[]{0, 1, 2, 3, 4, 5, 6};
+            int[] weights = new int[values.length];
+            for (int v = 0; v < values.length; v++) {
+                weights[v] = rd.nextInt(5);
+            }
+            int[][] domains = new int[n][];
+            for (int i = 0; i < n; i++) {
+                int lb = rd.nextInt(5);
+                domains[i] = new int[]{lb, lb + rd.nextInt(3)};
+            }
+            int max = rd.nextInt(12);
+            long[] counts = new long[2];
+            for (int s = 0; s < 2; s++) {
+                Model model = new Model();
+                IntVar[] XS = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    XS[i] = model.intVar("X" + i, domains[i][0], domains[i][1], false);
+                }
+                IntVar W = model.intVar("W", 0, max, false);
+                model.arithm(XS[0], "!=", XS[1]).post();
+                if (s == 0) {
+                    model.atMostNValues(XS, values, weights, W).post();
+                }
+                model.getSolver().setSearch(Search.randomSearch(ArrayUtils.append(XS, new IntVar[]{W}), seed));
+                while (model.getSolver().solve()) {
+                    BitSet used = new BitSet();
+                    int w = 0;
+                    for (IntVar x : XS) {
+                        if (!used.get(x.getValue())) {
+                            used.set(x.getValue());
+                            w += weights[x.getValue()];
+                        }
+                    }
+                    if (w <= W.getValue()) {
+                        counts[s]++;
+                    } else {
+                        Assert.assertEquals(s, 1, "seed " + seed);
+                    }
+                }
+            }
+            Assert.assertEquals(counts[0], counts[1], "seed " + seed);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testWeightedFixpoint() {
+        Model model = new Model();
+        IntVar[] XS = new IntVar[]{
+                model.intVar("X0", new int[]{1, 2, 4}),
+                model.intVar("X1", new int[]{0, 2}),
+                model.intVar("X2", new int[]{3, 4}),
+                model.intVar("X3", new int[]{0, 2, 4})
+        };
+        IntVar W = model.intVar("W", 0, 3);
+        model.atMostNValues(XS, new int[]{0, 1, 2, 3, 4}, new int[]{2, 4, 4, 1, 2}, W).post();
+        model.getSolver().setSearch(Search.randomSearch(XS, 48));
+        Assert.assertFalse(model.getSolver().solve());
+    }
+
+    @Test(groups="10s", timeOut=60000)
+    public void testWeightedBruteForce() {
+        for (int seed = 0; seed < 3000; seed++) {
+            Random rd = new Random(seed);
+            int n = 2 + rd.nextInt(4);
+            int[] values = new int[]{0, 1, 2, 3, 4, 5};
+            int[] weights = new int[values.length];
+            for (int v = 0; v < values.length; v++) {
+                weights[v] = rd.nextInt(5);
+            }
+            int[][] domains = new int[n][];
+            for (int i = 0; i < n; i++) {
+                domains[i] = rd.ints(1 + rd.nextInt(4), 0, values.length).distinct().sorted().toArray();
+            }
+            int max = rd.nextInt(10);
+            // brute force
+            long expected = 0;
+            int[] t = new int[n];
+            do {
+                BitSet used = new BitSet();
+                int w = 0;
+                for (int i = 0; i < n; i++) {
+                    int v = domains[i][t[i]];
+                    if (!used.get(v)) {
+                        used.set(v);
+                        w += weights[v];
+                    }
+                }
+                expected += Math.max(0, max - w + 1);
+            } while (next(t, domains));
+            Model model = new Model();
+            IntVar[] XS = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                XS[i] = model.intVar("X" + i, domains[i]);
+            }
+            IntVar W = model.intVar("W", 0, max);
+            model.atMostNValues(XS, values, weights, W).post();
+            // W is instantiated last
+            model.getSolver().setSearch(Search.randomSearch(XS, seed), Search.inputOrderLBSearch(W));
+            while (model.getSolver().solve()) ;
+            Assert.assertEquals(model.getSolver().getSolutionCount(), expected, "seed " + seed);
+        }
+    }
+
+    private static boolean next(int[] t, int[][] domains) {
+        for (int i = 0; i < t.length; i++) {
+            if (++t[i] < domains[i].length) {
+                return true;
+            }
+            t[i] = 0;
+        }
+        return false;
+    }
 }
@@ -17,10 +17,15 @@ import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static java.lang.System.out;
 import static org.chocosolver.solver.search.strategy.Search.inputOrderLBSearch;
+import static org.chocosolver.solver.search.strategy.Search.randomSearch;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 /**
  * <br/>
@@ -309,5 +314,96 @@ public class RegularTest {
 
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomAutomata() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random rnd = new Random(seed);
+            int n = 2 + rnd.nextInt(5);
+            FiniteAutomaton auto = new FiniteAutomaton();
+            int nbStates = 1 + rnd.nextInt(4);
+            for (int q = 0; q < nbStates; q++) {
+                auto.addState();
+            }
+            auto.setInitialState(0);
+            for (int q = 0; q < nbStates; q++) {
+                if (rnd.nextInt(3) == 0) {
+                    auto.setFinal(q);
+                }
+                for (int v = 0; v < 4; v++) {
+                    if (rnd.nextInt(3) > 0) {
+                        auto.addTransition(q, rnd.nextInt(nbStates), v);
+                    }
+                }
+            }
+            Model model = new Model();
+            IntVar[] vars = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                vars[i] = rnd.nextBoolean() ?
+                        model.intVar("x_" + i, 0, 3, rnd.nextBoolean()) :
+                        model.intVar("x_" + i, new int[]{0, 2, 3});
+            }
+            // count the accepted words over the initial domains
+            int nbWords = 0;
+            int[] word = new int[n];
+            for (int w = 0; w < 1 << (2 * n); w++) {
+                boolean ok = true;
+                for (int i = 0; i < n; i++) {
+                    word[i] = (w >>> (2 * i)) & 3;
+                    ok &= vars[i].contains(word[i]);
+                }
+                if (ok && auto.run(word)) {
+                    nbWords++;
+                }
+            }
+            model.regular(vars, auto).post();
+            model.getSolver().setSearch(randomSearch(vars, seed));
+            while (model.getSolver().solve()) ;
+            assertEquals(model.getSolver().getSolutionCount(), nbWords, "seed " + seed);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testSharedGraphs() {
+        Model model = new Model();
+        IntVar[][] rows = new IntVar[4][];
+        for (int i = 0; i < 3; i++) {
+            rows[i] = model.intVarArray("R" + i, 6, 0, 2, false);
+        }
+        rows[3] = model.intVarArray("R3", 6, 0, 1, false);
+        for (int i = 0; i < 4; i++) {
+            model.regular(rows[i], new FiniteAutomaton("0*(1{2,4}0{0,2}0)*0*")).post();
+        }
+        // the automaton built from the cache can be modified without impacting the others
+        FiniteAutomaton other = new FiniteAutomaton("0*(1{2,4}0{0,2}0)*0*");
+        other.setFinal(other.getInitialState());
+        other.addTransition(other.getInitialState(), other.getInitialState(), 2);
+        IntVar[] x = model.intVarArray("X", 6, 0, 2, false);
+        model.regular(x, other).post();
+        Map<?, ?> graphs = (Map<?, ?>) model.getHook(Model.REGULAR_GRAPHS_HOOK_NAME);
+        assertEquals(graphs.size(), 3);
+        int nbWords = 0;
+        int[] word = new int[6];
+        for (int w = 0; w < 729; w++) {
+            for (int i = 0, v = w; i < 6; i++, v /= 3) {
+                word[i] = v % 3;
+            }
+            if (other.run(word)) {
+                nbWords++;
+            }
+        }
+        model.getSolver().setSearch(inputOrderLBSearch(x));
+        assertEquals(model.getSolver().findAllSolutions().size(), nbWords);
+    }
 
-}
\ No newline at end of file
+    @Test(groups="1s", timeOut=60000)
+    public void testRegexpCacheEviction() {
+        // more regular expressions than the cache keeps: the first ones are evicted and built again
+        for (int round = 0; round < 2; round++) {
+            for (int k = 0; k < FiniteAutomaton.REGEXP_CACHE_SIZE + 8; k++) {
+                FiniteAutomaton auto = new FiniteAutomaton("<" + k + ">1*");
+                assertTrue(auto.run(new int[]{k, 1, 1}));
+                assertFalse(auto.run(new int[]{k + 1, 1}));
+            }
+        }
+    }
+}
@@ -12,10 +12,20 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.nary.sort.PropSort;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * <br/>
@@ -133,4 +143,119 @@ public class SortTest {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Compares the bounds after the initial propagation with the hull of the solutions,
+     * and the number of solutions found by a search
+     */
+    @Test(groups="10s", timeOut=60000)
+    public void testRandom() throws ContradictionException {
+        for (int seed = 0; seed < 500; seed++) {
+            Random rd = new Random(seed);
+            int n = 1 + rd.nextInt(5);
+            int[][] dx = new int[n][2], dy = new int[n][2];
+            for (int i = 0; i < n; i++) {
+                dx[i][0] = rd.nextInt(7);
+                dx[i][1] = dx[i][0] + rd.nextInt(4);
+                dy[i][0] = rd.nextInt(7);
+                dy[i][1] = dy[i][0] + rd.nextInt(4);
+            }
+            // brute force
+            int[][] hx = new int[n][], hy = new int[n][];
+            long nbSolutions = 0;
+            int[] t = new int[n];
+            for (int i = 0; i < n; i++) {
+                t[i] = dx[i][0];
+            }
+            for (int i = 0; i < n; ) {
+                int[] s = t.clone();
+                Arrays.sort(s);
+                boolean sat = true;
+                for (int j = 0; j < n; j++) {
+                    sat &= s[j] >= dy[j][0] && s[j] <= dy[j][1];
+                }
+                if (sat) {
+                    nbSolutions++;
+                    for (int j = 0; j < n; j++) {
+                        hx[j] = hx[j] == null ? new int[]{t[j], t[j]} : new int[]{Math.min(hx[j][0], t[j]), Math.max(hx[j][1], t[j])};
+                        hy[j] = hy[j] == null ? new int[]{s[j], s[j]} : new int[]{Math.min(hy[j][0], s[j]), Math.max(hy[j][1], s[j])};
+                    }
+                }
+                for (i = 0; i < n && t[i] == dx[i][1]; i++) {
+                    t[i] = dx[i][0];
+                }
+                if (i < n) {
+                    t[i]++;
+                }
+            }
+            for (int mode = 0; mode < 2; mode++) {
+                Model model = new Model();
+                IntVar[] X = new IntVar[n], Y = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    X[i] = model.intVar("X" + i, dx[i][0], dx[i][1], true);
+                    Y[i] = model.intVar("Y" + i, dy[i][0], dy[i][1], true);
+                }
+                model.sort(X, Y).post();
+                if (mode == 0) {
+                    try {
+                        model.getSolver().propagate();
+                    } catch (ContradictionException e) {
+                        assertEquals(nbSolutions, 0, "seed " + seed);
+                        continue;
+                    }
+                    // bound consistency
+                    assertTrue(nbSolutions > 0, "seed " + seed);
+                    for (int i = 0; i < n; i++) {
+                        assertEquals(new int[]{X[i].getLB(), X[i].getUB()}, hx[i], "seed " + seed);
+                        assertEquals(new int[]{Y[i].getLB(), Y[i].getUB()}, hy[i], "seed " + seed);
+                    }
+                } else {
+                    model.getSolver().setSearch(Search.randomSearch(X, seed));
+                    assertEquals(model.getSolver().streamSolutions().count(), nbSolutions, "seed " + seed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the solutions with the ones of keySort, over enumerated domains with holes
+     */
+    @Test(groups="1s", timeOut=60000)
+    public void testRandomEnumerated() {
+        for (int seed = 0; seed < 200; seed++) {
+            Random rd = new Random(seed);
+            int n = 1 + rd.nextInt(4);
+            int[][] dx = new int[n][], dy = new int[n][];
+            for (int i = 0; i < n; i++) {
+                dx[i] = rd.ints(1 + rd.nextInt(4), 0, 8).distinct().sorted().toArray();
+                dy[i] = rd.ints(1 + rd.nextInt(5), 0, 8).distinct().sorted().toArray();
+            }
+            List<Set<String>> solutions = new ArrayList<>();
+            for (int mode = 0; mode < 2; mode++) {
+                Model model = new Model();
+                IntVar[] X = new IntVar[n], Y = new IntVar[n];
+                for (int i = 0; i < n; i++) {
+                    X[i] = model.intVar("X" + i, dx[i]);
+                    Y[i] = model.intVar("Y" + i, dy[i]);
+                }
+                if (mode == 0) {
+                    model.sort(X, Y).post();
+                } else {
+                    IntVar[][] keys = new IntVar[n][1], sorted = new IntVar[n][1];
+                    for (int i = 0; i < n; i++) {
+                        keys[i][0] = X[i];
+                        sorted[i][0] = Y[i];
+                    }
+                    model.keySort(keys, null, sorted, 1).post();
+                }
+                model.getSolver().setSearch(Search.randomSearch(ArrayUtils.append(X, Y), seed));
+                Set<String> sols = new HashSet<>();
+                while (model.getSolver().solve()) {
+                    sols.add(Arrays.toString(X) + Arrays.toString(Y));
+                }
+                solutions.add(sols);
+            }
+            assertEquals(solutions.get(0), solutions.get(1), "seed " + seed);
+        }
+    }
 }
@@ -16,10 +16,15 @@
 package org.chocosolver.solver.constraints.nary;
 
 import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.circuit.PropSubcircuitDominatorFilter;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+import java.util.stream.IntStream;
+
 import static org.chocosolver.solver.Cause.Null;
 import static org.chocosolver.util.tools.ArrayUtils.append;
 import static org.testng.Assert.assertEquals;
@@ -84,6 +89,63 @@ public class SubcircuitTest {
 		assertEquals(model.getSolver().getSolutionCount(), nbSol);
 	}
 
+	@Test(groups="10s", timeOut=60000)
+	public static void testRandom() {
+		for (int seed = 0; seed < 200; seed++) {
+			Random random = new Random(seed);
+			int n = 3 + random.nextInt(5);
+			boolean[][] arcs = new boolean[n][n];
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					arcs[i][j] = random.nextInt(10) < 5;
+				}
+				arcs[i][random.nextInt(n)] = true;
+			}
+			// every subset of nodes that are not loops
+			long expected = 0;
+			for (int set = 0; set < 1 << n; set++) {
+				boolean loops = true;
+				for (int i = 0; i < n; i++) {
+					if ((set & (1 << i)) == 0 && !arcs[i][i]) {
+						loops = false;
+					}
+				}
+				if (loops && Integer.bitCount(set) >= 2) {
+					int first = Integer.numberOfTrailingZeros(set);
+					expected += countCircuits(arcs, set, first, first, 1 << first);
+				}
+			}
+			Model model = new Model();
+			IntVar[] x = new IntVar[n];
+			for (int i = 0; i < n; i++) {
+				final int from = i;
+				x[i] = model.intVar("x" + i, IntStream.range(0, n).filter(j -> arcs[from][j]).toArray());
+			}
+			model.subCircuit(x, 0, model.intVar("length", 2, n, true)).post();
+			// non adaptive dominator filtering, to be applied on every propagation
+			new Constraint("SubCircuitDom", new PropSubcircuitDominatorFilter(x, 0, false)).post();
+			model.getSolver().setSearch(Search.randomSearch(x, seed));
+			while (model.getSolver().solve()) ;
+			assertEquals(model.getSolver().getSolutionCount(), expected, "seed " + seed);
+		}
+	}
+
+	/**
+	 * @return the number of circuits covering <i>set</i>, extending the path from <i>first</i> to <i>last</i>
+	 */
+	private static long countCircuits(boolean[][] arcs, int set, int first, int last, int visited) {
+		if (visited == set) {
+			return arcs[last][first] ? 1 : 0;
+		}
+		long count = 0;
+		for (int j = first + 1; j < arcs.length; j++) {
+			if ((set & (1 << j)) != 0 && (visited & (1 << j)) == 0 && arcs[last][j]) {
+				count += countCircuits(arcs, set, first, j, visited | (1 << j));
+			}
+		}
+		return count;
+	}
+
 	private static int factorial(int n) {
 		if (n <= 1) {
 			return 1;
@@ -24,6 +24,7 @@ import org.chocosolver.solver.constraints.extension.nary.TuplesLargeTable;
 import org.chocosolver.solver.constraints.extension.nary.TuplesTable;
 import org.chocosolver.solver.constraints.extension.nary.TuplesVeryLargeTable;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
@@ -32,6 +33,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.Random;
+import java.util.function.IntPredicate;
 
 import static java.lang.System.out;
 import static org.chocosolver.solver.constraints.extension.TuplesFactory.generateTuples;
@@ -200,7 +202,7 @@ public class TableTest {
 
 	@Test(groups="1s", timeOut=60000)
 	public static void testThierry1() {
-		String[] ALGOS = {"FC", "GAC2001", "GAC3rm"};
+		String[] ALGOS = {"FC", "GAC2001", "GAC3rm", "CT+"};
 		for(String s : ALGOS) {
 			Model model = new Model();
 			IntVar[] vars = model.intVarArray("vars", 10, 0, 100, false);
@@ -508,4 +510,115 @@ public class TableTest {
 		Assert.assertEquals(s2.getSolver().getSolutionCount(), s1.getSolver().getSolutionCount());
 		Assert.assertEquals(s2.getSolver().getNodeCount(), s1.getSolver().getNodeCount());
 	}
-}
\ No newline at end of file
+
+	@Test(groups="1s", timeOut=60000)
+	public void testShortTuples() {
+		for (int seed = 0; seed < 20; seed++) {
+			Random rnd = new Random(seed);
+			Tuples compressed = new Tuples(true);
+			compressed.setUniversalValue(-10);
+			Tuples expanded = new Tuples(true);
+			for (int t = 0; t < 30; t++) {
+				int[] tuple = new int[4];
+				for (int i = 0; i < 4; i++) {
+					tuple[i] = rnd.nextInt(3) == 0 ? -10 : rnd.nextInt(5);
+				}
+				compressed.add(tuple);
+				expand(tuple, 0, expanded, -10);
+			}
+			Assert.assertEquals(countTable(compressed, seed), countTable(expanded, seed));
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testSmartTuples() {
+		for (int seed = 0; seed < 20; seed++) {
+			Random rnd = new Random(seed);
+			Tuples smart = new Tuples(true);
+			Tuples expanded = new Tuples(true);
+			for (int t = 0; t < 20; t++) {
+				int[] lo = new int[4], hi = new int[4];
+				IntPredicate[] tuple = new IntPredicate[4];
+				for (int i = 0; i < 4; i++) {
+					int a = lo[i] = rnd.nextInt(5);
+					int b = hi[i] = a + rnd.nextInt(3);
+					tuple[i] = v -> a <= v && v <= b;
+				}
+				smart.addSmart(tuple);
+				int[] cur = new int[4];
+				for (cur[0] = lo[0]; cur[0] <= hi[0]; cur[0]++)
+					for (cur[1] = lo[1]; cur[1] <= hi[1]; cur[1]++)
+						for (cur[2] = lo[2]; cur[2] <= hi[2]; cur[2]++)
+							for (cur[3] = lo[3]; cur[3] <= hi[3]; cur[3]++)
+								expanded.add(cur.clone());
+			}
+			Assert.assertEquals(countTable(smart, seed), countTable(expanded, seed));
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000, expectedExceptions = SolverException.class)
+	public void testCompressedUnsupported() {
+		Model model = new Model();
+		IntVar[] x = model.intVarArray("x", 3, 0, 2);
+		Tuples tuples = new Tuples(true);
+		tuples.setUniversalValue(-1);
+		tuples.add(0, -1, 1);
+		model.table(x, tuples, "GAC3rm+");
+	}
+
+	private static void expand(int[] tuple, int i, Tuples expanded, int star) {
+		if (i == tuple.length) {
+			expanded.add(tuple.clone());
+		} else if (tuple[i] == star) {
+			int[] copy = tuple.clone();
+			for (int v = 0; v < 5; v++) {
+				copy[i] = v;
+				expand(copy, i + 1, expanded, star);
+			}
+		} else {
+			expand(tuple, i + 1, expanded, star);
+		}
+	}
+
+	private static long countTable(Tuples tuples, int seed) {
+		Model model = new Model();
+		IntVar[] x = model.intVarArray("x", 4, 0, 4, false);
+		model.table(x, tuples, "CT+").post();
+		model.allDifferent(x[0], x[2]).post();
+		model.arithm(x[1], "!=", x[3]).post();
+		Solver solver = model.getSolver();
+		solver.setSearch(randomSearch(x, seed));
+		while (solver.solve()) ;
+		return solver.getSolutionCount();
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public void testNegativeCT() {
+		for (int seed = 0; seed < 20; seed++) {
+			Random rnd = new Random(seed);
+			Tuples tuples = new Tuples(false);
+			for (int t = 0; t < 400; t++) {
+				tuples.add(rnd.nextInt(4), rnd.nextInt(4), rnd.nextInt(3), rnd.nextInt(4));
+			}
+			long[] sols = new long[2], nodes = new long[2];
+			String[] algos = {"GAC3rm", "CT+"};
+			for (int a = 0; a < 2; a++) {
+				Model model = new Model();
+				IntVar[] x = new IntVar[]{
+						model.intVar("x0", 0, 3, false), model.intVar("x1", 0, 3, seed % 2 == 0),
+						model.intVar("x2", 0, 3, false), model.intVar("x3", 0, 3, false)};
+				model.table(x, tuples, algos[a]).post();
+				model.allDifferent(x[0], x[3]).post();
+				Solver solver = model.getSolver();
+				solver.setSearch(randomSearch(x, seed));
+				while (solver.solve()) ;
+				sols[a] = solver.getSolutionCount();
+				nodes[a] = solver.getNodeCount();
+			}
+			Assert.assertEquals(sols[1], sols[0]);
+			if (seed % 2 == 1) {
+				Assert.assertEquals(nodes[1], nodes[0]);
+			}
+		}
+	}
+}
@@ -8,14 +8,20 @@
  */
 package org.chocosolver.solver.constraints.set;
 
+import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.impl.SetVarImpl;
+import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static java.lang.System.out;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -97,4 +103,90 @@ public class SetCstrsTest {
 			case "allEqual":return x.getModel().allEqual(x, y);
 		}
 	}
+
+	@Test(groups="1s", timeOut=60000)
+	public static void testBitsetFiltering() {
+		for (int seed = 0; seed < 200; seed++) {
+			String bitset = bitsetFilter(seed, SetType.BITSET);
+			String swap = bitsetFilter(seed, SetType.BIPARTITESET);
+			assertEquals(bitset, swap, "seed " + seed);
+		}
+	}
+
+	@Test(groups="1s", timeOut=60000)
+	public static void testModelSetVarWords() {
+		Model model = new Model();
+		SetVar[] sets = new SetVar[]{
+				model.setVar("S0", new int[]{1}, new int[]{-3, 1, 5, 70}),
+				model.setVar("S1", new int[]{}, new int[]{1, 2, 140}),
+				model.setVar("S2", new int[]{}, new int[]{0, 2})
+		};
+		// word-level filtering applies to the variables built by the model
+		assertTrue(SetWords.kernels(sets) != null);
+		assertTrue(SetWords.envelopes(sets) != null);
+		model.union(Arrays.copyOf(sets, 2), model.setVar("U", new int[]{}, new int[]{-3, 1, 2, 140})).post();
+		model.allDisjoint(sets[1], sets[2]).post();
+		try {
+			model.getSolver().propagate();
+		} catch (ContradictionException e) {
+			throw new AssertionError(e);
+		}
+		int[] env = sets[0].getUB().toArray();
+		Arrays.sort(env);
+		assertEquals(env, new int[]{-3, 1});
+		assertEquals(sets[1].getUB().size(), 3);
+	}
+
+	/**
+	 * Post a set constraint over random sets spanning several words, with different offsets,
+	 * and return the domains after the initial propagation
+	 */
+	private static String bitsetFilter(int seed, SetType type) {
+		Random rnd = new Random(seed);
+		Model model = new Model();
+		SetVar[] sets = new SetVar[4];
+		for (int i = 0; i < sets.length; i++) {
+			TIntArrayList ker = new TIntArrayList();
+			TIntArrayList env = new TIntArrayList();
+			for (int v = -70 + rnd.nextInt(70); v < 130 - rnd.nextInt(70); v++) {
+				int r = rnd.nextInt(10);
+				if (r < 8) {
+					env.add(v);
+					if (r == 0 && seed % 2 == 0) {
+						ker.add(v);
+					}
+				}
+			}
+			sets[i] = new SetVarImpl("S" + i, ker.toArray(), type, env.toArray(), type, model);
+		}
+		SetVar[] first = Arrays.copyOf(sets, 3);
+		switch (seed % 4) {
+			case 0:
+				model.allDisjoint(sets).post();
+				break;
+			case 1:
+				model.subsetEq(sets[0], sets[1]).post();
+				break;
+			case 2:
+				model.union(first, sets[3]).post();
+				break;
+			default:
+				model.intersection(first, sets[3]).post();
+				break;
+		}
+		try {
+			model.getSolver().propagate();
+		} catch (ContradictionException e) {
+			return "fail";
+		}
+		StringBuilder st = new StringBuilder();
+		for (SetVar set : sets) {
+			int[] ker = set.getLB().toArray();
+			int[] env = set.getUB().toArray();
+			Arrays.sort(ker);
+			Arrays.sort(env);
+			st.append(Arrays.toString(ker)).append(Arrays.toString(env));
+		}
+		return st.toString();
+	}
 }
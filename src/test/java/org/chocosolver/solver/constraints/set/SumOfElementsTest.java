@@ -8,12 +8,15 @@
  */
 package org.chocosolver.solver.constraints.set;
 
+import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.util.ESat;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 import static org.testng.Assert.*;
 
 /**
@@ -168,6 +171,61 @@ public class SumOfElementsTest {
 		assertFalse(model.getSolver().solve());
 	}
 
+	@Test(groups = "1s", timeOut=60000)
+	public void testRandom() {
+		for (int seed = 0; seed < 100; seed++) {
+			Random rnd = new Random(seed);
+			int n = 2 + rnd.nextInt(7);
+			int[] weights = new int[n];
+			for (int i = 0; i < n; i++) {
+				weights[i] = rnd.nextInt(11) - 5;
+			}
+			TIntArrayList ker = new TIntArrayList();
+			TIntArrayList env = new TIntArrayList();
+			for (int i = 0; i < n; i++) {
+				int r = rnd.nextInt(5);
+				if (r == 0) {
+					ker.add(i);
+				}
+				if (r > 0 || rnd.nextBoolean()) {
+					if (!ker.contains(i)) env.add(i);
+				}
+			}
+			env.addAll(ker);
+			int sLb = rnd.nextInt(21) - 10;
+			int sUb = sLb + rnd.nextInt(10);
+			int cLb = rnd.nextInt(n + 1);
+			int cUb = cLb + rnd.nextInt(3);
+			boolean withCard = rnd.nextBoolean();
+			Model model = new Model();
+			SetVar setVar = model.setVar("s", ker.toArray(), env.toArray());
+			if (withCard) {
+				model.arithm(setVar.getCard(), ">=", cLb).post();
+				model.arithm(setVar.getCard(), "<=", cUb).post();
+			}
+			IntVar sum = model.intVar(sLb, sUb);
+			model.sumElements(setVar, weights, sum).post();
+			int expected = 0;
+			int[] opt = env.toArray();
+			for (int mask = 0; mask < 1 << opt.length; mask++) {
+				int s = 0, c = 0;
+				boolean ok = true;
+				for (int i = 0; i < opt.length; i++) {
+					if ((mask & 1 << i) != 0) {
+						s += weights[opt[i]];
+						c++;
+					} else if (ker.contains(opt[i])) {
+						ok = false;
+					}
+				}
+				if (ok && s >= sLb && s <= sUb && (!withCard || (c >= cLb && c <= cUb))) {
+					expected++;
+				}
+			}
+			assertEquals(model.getSolver().findAllSolutions().size(), expected, "seed " + seed);
+		}
+	}
+
        /* *******************************************
         * Helpers
        ********************************************/
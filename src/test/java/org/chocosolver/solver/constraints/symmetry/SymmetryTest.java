@@ -0,0 +1,249 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.solver.constraints.symmetry;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperatorFactory;
+import org.chocosolver.solver.search.strategy.selectors.values.IntDomainMiddle;
+import org.chocosolver.solver.search.strategy.selectors.variables.InputOrder;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.tools.ArrayUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @since 19/10/2026
+ */
+public class SymmetryTest {
+
+    @Test(groups="1s", timeOut=60000)
+    public void testFinderCycle() {
+        int n = 6;
+        int[] colors = new int[n];
+        int[][] adj = new int[n][];
+        for (int i = 0; i < n; i++) {
+            adj[i] = new int[]{(i + 1) % n, (i + n - 1) % n};
+        }
+        AutomorphismFinder finder = new AutomorphismFinder(colors, adj, 1000);
+        List<int[]> generators = finder.findGenerators();
+        Assert.assertFalse(generators.isEmpty());
+        boolean[] reached = new boolean[n];
+        reached[0] = true;
+        for (int k = 0; k < n; k++) {
+            for (int[] g : generators) {
+                Assert.assertTrue(finder.isAutomorphism(g));
+                for (int i = 0; i < n; i++) {
+                    reached[g[i]] |= reached[i];
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            Assert.assertTrue(reached[i]);
+        }
+        // a path colored at one end is rigid
+        colors[0] = 1;
+        adj[0] = new int[]{1};
+        adj[n - 1] = new int[]{n - 2};
+        Assert.assertTrue(new AutomorphismFinder(colors, adj, 1000).findGenerators().isEmpty());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testNoSymmetry() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 4, 0, 5);
+        model.arithm(x[0], "<", x[1]).post();
+        model.arithm(x[1], "<", x[2]).post();
+        model.arithm(x[2], "!=", x[3]).post();
+        model.arithm(x[3], ">", 2).post();
+        Assert.assertTrue(new SymmetryDetector(model).detect().isEmpty());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testArithmAndViews() {
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 4, 0, 5);
+        for (int i = 0; i < 4; i++) {
+            model.arithm(x[i], ">", 0).post();
+            model.arithm(model.intOffsetView(x[i], 2), "!=", 5).post();
+            model.arithm(model.intMinusView(x[i]), "<=", -1).reifyWith(model.boolVar("b" + i));
+        }
+        model.arithm(x[0], ">=", x[1], "+", 1).post();
+        model.arithm(x[2], ">=", x[3], "+", 1).post();
+        model.sum(x, "=", 8).post();
+        List<Symmetry> symmetries = new SymmetryDetector(model).detect();
+        // (x0 x2)(x1 x3) and the boolean variables accordingly
+        Assert.assertFalse(symmetries.isEmpty());
+        // a different constant breaks the symmetry
+        model.arithm(x[0], "!=", 3).post();
+        Assert.assertTrue(new SymmetryDetector(model).detect().isEmpty());
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testPigeons() {
+        for (int mode = 0; mode < 3; mode++) {
+            Model model = new Model();
+            IntVar[] x = model.intVarArray("x", 5, 0, 4);
+            model.allDifferent(x).post();
+            if (mode == 1) {
+                List<Symmetry> symmetries = SymmetryBreaking.postLexLeader(model);
+                Assert.assertTrue(symmetries.stream().anyMatch(Symmetry::isVariableSymmetry));
+                Assert.assertTrue(symmetries.stream().anyMatch(Symmetry::isValueSymmetry));
+            } else if (mode == 2) {
+                Assert.assertFalse(SymmetryBreaking.postSBDS(model).isEmpty());
+            }
+            model.getSolver().setSearch(Search.inputOrderLBSearch(x));
+            long nb = model.getSolver().streamSolutions().count();
+            if (mode == 0) {
+                Assert.assertEquals(nb, 120);
+            } else {
+                Assert.assertTrue(nb >= 1 && nb < 120, "mode " + mode + ": " + nb);
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testGraphColoring() {
+        // K4 minus an edge (x0, x1): x0 and x1 are interchangeable, so are x2 and x3, and colors
+        for (int mode = 0; mode < 3; mode++) {
+            Model model = new Model();
+            IntVar[] x = model.intVarArray("x", 4, 1, 3);
+            int[][] edges = {{0, 2}, {0, 3}, {1, 2}, {1, 3}, {2, 3}};
+            for (int[] e : edges) {
+                model.arithm(x[e[0]], "!=", x[e[1]]).post();
+            }
+            if (mode == 1) {
+                SymmetryBreaking.postLexLeader(model);
+            } else if (mode == 2) {
+                SymmetryBreaking.postSBDS(model);
+            }
+            model.getSolver().setSearch(Search.inputOrderLBSearch(x));
+            long nb = model.getSolver().streamSolutions().count();
+            if (mode == 0) {
+                Assert.assertEquals(nb, 6);
+            } else {
+                Assert.assertTrue(nb >= 1 && nb < 6, "mode " + mode + ": " + nb);
+            }
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testBinPacking() {
+        int[] sizes = {1, 1, 2, 2, 2, 3};
+        long[] nbs = new long[3];
+        for (int mode = 0; mode < 3; mode++) {
+            Model model = new Model();
+            IntVar[] bins = model.intVarArray("b", sizes.length, 0, 2);
+            IntVar[] loads = model.intVarArray("l", 3, 0, 4);
+            model.binPacking(bins, sizes, loads, 0).post();
+            if (mode == 1) {
+                List<Symmetry> symmetries = SymmetryBreaking.postLexLeader(model);
+                // items of the same size are interchangeable
+                Assert.assertEquals(symmetries.size(), 3);
+            } else if (mode == 2) {
+                SymmetryBreaking.postSBDS(model);
+            }
+            model.getSolver().setSearch(Search.inputOrderLBSearch(bins));
+            nbs[mode] = model.getSolver().streamSolutions().count();
+        }
+        Assert.assertTrue(nbs[0] > 0);
+        Assert.assertTrue(nbs[1] >= 1 && nbs[1] < nbs[0]);
+        Assert.assertTrue(nbs[2] >= 1 && nbs[2] < nbs[0]);
+    }
+
+    /**
+     * Copies of a random pattern, linked by symmetric constraints and with a symmetric objective:
+     * breaking symmetries must keep the optimum
+     */
+    @Test(groups="10s", timeOut=60000)
+    public void testRandom() {
+        for (int seed = 0; seed < 60; seed++) {
+            int[] optima = new int[4];
+            for (int mode = 0; mode < 4; mode++) {
+                Model model = new Model();
+                Random rd = new Random(seed);
+                IntVar[] vars = randomModel(model, rd);
+                IntVar[] x = Arrays.copyOf(vars, vars.length - 1);
+                IntVar obj = vars[vars.length - 1];
+                if (mode == 1) {
+                    SymmetryBreaking.postLexLeader(model);
+                } else if (mode >= 2) {
+                    SymmetryBreaking.postSBDS(model);
+                }
+                Solver solver = model.getSolver();
+                if (mode == 3) {
+                    solver.setSearch(Search.intVarSearch(new InputOrder<>(model), new IntDomainMiddle(IntDomainMiddle.FLOOR),
+                            DecisionOperatorFactory.makeIntSplit(), x));
+                } else {
+                    solver.setSearch(Search.randomSearch(x, seed));
+                }
+                model.setObjective(Model.MINIMIZE, obj);
+                optima[mode] = Integer.MAX_VALUE;
+                while (solver.solve()) {
+                    optima[mode] = obj.getValue();
+                }
+            }
+            for (int mode = 1; mode < 4; mode++) {
+                Assert.assertEquals(optima[mode], optima[0], "seed " + seed + ", mode " + mode);
+            }
+        }
+    }
+
+    private static IntVar[] randomModel(Model model, Random rd) {
+        int m = 2 + rd.nextInt(2);
+        int r = 2 + rd.nextInt(3);
+        int d = 1 + rd.nextInt(3);
+        IntVar[][] x = model.intVarMatrix("x", r, m, 0, d);
+        int nbc = 1 + rd.nextInt(3);
+        for (int c = 0; c < nbc; c++) {
+            int a = rd.nextInt(m), b = (a + 1 + rd.nextInt(m - 1)) % m;
+            int type = rd.nextInt(3);
+            int k = rd.nextInt(d + 1);
+            for (int i = 0; i < r; i++) {
+                switch (type) {
+                    case 0:
+                        model.arithm(x[i][a], "<=", x[i][b]).post();
+                        break;
+                    case 1:
+                        model.arithm(x[i][a], "!=", x[i][b]).post();
+                        break;
+                    default:
+                        model.sum(new IntVar[]{x[i][a], x[i][b]}, ">=", k).post();
+                        break;
+                }
+            }
+        }
+        IntVar[] col = new IntVar[r];
+        int j = rd.nextInt(m);
+        for (int i = 0; i < r; i++) {
+            col[i] = x[i][j];
+        }
+        if (r <= d + 1) {
+            model.allDifferent(col).post();
+        } else {
+            model.sum(col, ">=", r).post();
+        }
+        int[] pattern = new int[m];
+        for (int i = 0; i < m; i++) {
+            pattern[i] = 1 + rd.nextInt(3);
+        }
+        int[] coeffs = new int[r * m];
+        for (int i = 0; i < r * m; i++) {
+            coeffs[i] = pattern[i % m];
+        }
+        IntVar obj = model.intVar("obj", 0, 100);
+        model.scalar(ArrayUtils.flatten(x), coeffs, "=", obj).post();
+        return ArrayUtils.append(ArrayUtils.flatten(x), new IntVar[]{obj});
+    }
+}
@@ -10,6 +10,8 @@ package org.chocosolver.solver.search;
 
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.objective.ParallelParetoOptimizer;
+import org.chocosolver.solver.objective.ParetoFront;
 import org.chocosolver.solver.objective.ParetoOptimizer;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.search.strategy.Search;
@@ -17,6 +19,14 @@ import org.chocosolver.solver.variables.IntVar;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 import static java.lang.Integer.parseInt;
 import static java.lang.Math.max;
 
@@ -84,4 +94,98 @@ public class ParetoTest {
             System.out.println(sol.getIntVal(totalProfit_1)+" // "+sol.getIntVal(totalProfit_2));
         }
     }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testParetoFront() {
+        Random rnd = new Random(0);
+        for (int seed = 0; seed < 20; seed++) {
+            rnd.setSeed(seed);
+            boolean maximize = seed % 2 == 0;
+            int n = 2 + seed % 3;
+            ParetoFront<int[]> front = new ParetoFront<>(n, maximize, null);
+            List<int[]> naive = new ArrayList<>();
+            for (int k = 0; k < 2000; k++) {
+                int[] p = new int[n];
+                for (int i = 0; i < n; i++) {
+                    p[i] = rnd.nextInt(1000);
+                }
+                boolean dominated = naive.stream().anyMatch(q -> dominates(q, p, maximize));
+                boolean strictly = naive.stream().anyMatch(q -> dominates(q, p, maximize) && !Arrays.equals(q, p));
+                Assert.assertEquals(front.isDominated(p), dominated);
+                Assert.assertEquals(front.isStrictlyDominated(p), strictly);
+                Assert.assertEquals(front.add(p, p), !strictly);
+                if (!strictly) {
+                    naive.removeIf(q -> dominates(p, q, maximize));
+                    naive.add(p);
+                }
+                Assert.assertEquals(front.size(), naive.size());
+            }
+            Set<int[]> expected = new HashSet<>(naive);
+            Assert.assertEquals(new HashSet<>(front.getElements()), expected);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testParetoFrontKeepsNewest() {
+        List<String> evicted = new ArrayList<>();
+        ParetoFront<String> front = new ParetoFront<>(2, false, evicted::add);
+        Assert.assertTrue(front.add(new int[]{3, 5}, "a"));
+        Assert.assertTrue(front.add(new int[]{5, 3}, "b"));
+        // an equal point replaces the older one
+        Assert.assertTrue(front.isDominated(new int[]{3, 5}));
+        Assert.assertFalse(front.isStrictlyDominated(new int[]{3, 5}));
+        Assert.assertTrue(front.add(new int[]{3, 5}, "c"));
+        Assert.assertEquals(front.size(), 2);
+        Assert.assertEquals(new HashSet<>(front.getElements()), new HashSet<>(Arrays.asList("b", "c")));
+        Assert.assertEquals(evicted, Collections.singletonList("a"));
+        Assert.assertFalse(front.add(new int[]{4, 5}, "d"));
+    }
+
+    private static boolean dominates(int[] q, int[] p, boolean maximize) {
+        for (int i = 0; i < p.length; i++) {
+            if (maximize ? q[i] < p[i] : q[i] > p[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testParallelPareto() {
+        Model model = makeKnapsack();
+        IntVar[] objs = objectives(model);
+        List<Solution> front = model.getSolver().findParetoFront(objs, Model.MAXIMIZE);
+        Set<String> expected = new HashSet<>();
+        for (Solution sol : front) {
+            expected.add(sol.getIntVal(objs[0]) + "/" + sol.getIntVal(objs[1]));
+        }
+        Assert.assertTrue(expected.size() > 3);
+        ParallelParetoOptimizer pareto = new ParallelParetoOptimizer(Model.MAXIMIZE);
+        for (int i = 0; i < 3; i++) {
+            Model m = makeKnapsack();
+            pareto.addModel(m, objectives(m));
+        }
+        Set<String> actual = new HashSet<>();
+        for (Solution sol : pareto.findParetoFront()) {
+            Assert.assertTrue(actual.add(sol.getIntVal(objs[0]) + "/" + sol.getIntVal(objs[1])));
+        }
+        Assert.assertEquals(actual, expected);
+    }
+
+    private static IntVar[] objectives(Model model) {
+        return new IntVar[]{(IntVar) model.getVars()[4], (IntVar) model.getVars()[5]};
+    }
+
+    private static Model makeKnapsack() {
+        Model s = new Model("Knapsack");
+        IntVar[] occurrences = s.intVarArray("occurrences", 3, 0, 10, true);
+        IntVar totalWeight = s.intVar("totalWeight", 0, 30, true);
+        IntVar totalProfit_1 = s.intVar("totalProfit_1", 0, 200, true);
+        IntVar totalProfit_2 = s.intVar("totalProfit_2", 0, 200, true);
+        s.knapsack(occurrences, totalWeight, totalProfit_1, new int[]{2, 3, 5}, new int[]{1, 4, 9}).post();
+        s.knapsack(occurrences, totalWeight, totalProfit_2, new int[]{2, 3, 5}, new int[]{6, 5, 2}).post();
+        s.getSolver().setSearch(Search.inputOrderLBSearch(occurrences),
+                Search.inputOrderLBSearch(totalProfit_1, totalProfit_2));
+        return s;
+    }
 }
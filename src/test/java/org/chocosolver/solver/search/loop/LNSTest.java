@@ -18,6 +18,7 @@ import org.testng.annotations.Test;
 
 import static java.lang.Math.ceil;
 import static org.chocosolver.solver.search.strategy.Search.domOverWDegSearch;
+import static org.chocosolver.solver.search.strategy.Search.inputOrderUBSearch;
 import static org.chocosolver.solver.search.strategy.Search.lastConflict;
 
 /**
@@ -103,5 +104,24 @@ public class LNSTest {
         knapsack20(lns);
     }
 
+    @Test(groups="1s", timeOut=60000)
+    public void testExplainingCutEarlyFailure() {
+        // the cut fails on the first decision of the path, most decisions are then removed from it
+        Model model = new Model();
+        IntVar[] x = model.intVarArray("x", 6, 0, 7);
+        model.allDifferent(x).post();
+        model.setObjective(Model.MINIMIZE, x[0]);
+        Solver r = model.getSolver();
+        r.setSearch(inputOrderUBSearch(x));
+        r.setLNS(new ExplainingCut(model, 200, 0L));
+        r.limitSolution(3);
+        int best = Integer.MAX_VALUE;
+        while (r.solve()) {
+            Assert.assertTrue(x[0].getValue() < best);
+            best = x[0].getValue();
+        }
+        Assert.assertTrue(r.getSolutionCount() > 1);
+    }
+
 
 }
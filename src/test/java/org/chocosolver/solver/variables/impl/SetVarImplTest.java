@@ -16,6 +16,7 @@ import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.Test;
 
 /**
@@ -23,6 +24,12 @@ import org.testng.annotations.Test;
  */
 public class SetVarImplTest {
 
+	@AfterMethod(alwaysRun = true)
+	public void restoreFactory(){
+		// testStructures switches between implementations, restore the default one
+		SetFactory.HARD_CODED = true;
+	}
+
 	@Test(groups="1s", timeOut=60000)
 	public void testStructures(){
 		for(SetType type:SetType.values()) {
@@ -11,12 +11,19 @@ package org.chocosolver.util;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.extension.Tuples;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.MDDBuilder;
 import org.chocosolver.util.objects.graphs.MultivaluedDecisionDiagram;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 /**
  * Created by cprudhom on 04/11/14.
@@ -201,4 +208,91 @@ public class MDDTest {
         Assert.assertEquals(mdd.getDiagram(), new int[]{3, 3, 11, 0, 0, 6, 0, 0, -1, 0, 0, 6, 0, 0});
     }
 
+
+    @Test(groups="1s", timeOut=60000)
+    public void testCompactMDD() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            Tuples tuples = new Tuples();
+            for (int t = 0; t < 300; t++) {
+                tuples.add(rnd.nextInt(5), rnd.nextInt(4) - 1, rnd.nextInt(5), rnd.nextInt(3), rnd.nextInt(5));
+            }
+            long[] counts = new long[2];
+            for (int k = 0; k < 2; k++) {
+                Model model = new Model();
+                IntVar[] vars = model.intVarArray("X", 5, -1, 4, k == 0);
+                if (k == 0) {
+                    model.mddc(vars, new MultivaluedDecisionDiagram(vars, tuples)).post();
+                } else {
+                    model.table(vars, tuples, "CT+").post();
+                }
+                model.allDifferent(vars[0], vars[2], vars[4]).post();
+                Solver solver = model.getSolver();
+                solver.setSearch(Search.randomSearch(vars, seed));
+                while (solver.solve()) ;
+                counts[k] = solver.getSolutionCount();
+            }
+            Assert.assertEquals(counts[0], counts[1]);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000)
+    public void testBuilder() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            Tuples tuples = new Tuples();
+            for (int t = 0; t < 300; t++) {
+                tuples.add(rnd.nextInt(5), rnd.nextInt(4) - 1, rnd.nextInt(5), rnd.nextInt(3), rnd.nextInt(5));
+            }
+            tuples.sort();
+            List<int[]> sorted = new ArrayList<>();
+            List<List<int[]>> ranges = new ArrayList<>();
+            for (int v = -1; v < 5; v++) {
+                ranges.add(new ArrayList<>());
+            }
+            for (int t = 0; t < tuples.nbTuples(); t++) {
+                sorted.add(tuples.get(t));
+                ranges.get(tuples.get(t)[0] + 1).add(tuples.get(t));
+            }
+            long[] counts = new long[3];
+            int[] lengths = new int[3];
+            for (int k = 0; k < 3; k++) {
+                Model model = new Model();
+                IntVar[] vars = model.intVarArray("X", 5, -1, 4, false);
+                MultivaluedDecisionDiagram mdd;
+                if (k == 0) {
+                    mdd = new MultivaluedDecisionDiagram(vars, tuples);
+                } else if (k == 1) {
+                    MDDBuilder builder = new MDDBuilder(vars);
+                    builder.addTuples(sorted.iterator());
+                    mdd = builder.build();
+                } else {
+                    mdd = MDDBuilder.build(vars, ranges.stream().map(List::iterator).collect(Collectors.toList()));
+                }
+                for (int[] tuple : sorted) {
+                    Assert.assertTrue(mdd.exists(tuple));
+                }
+                lengths[k] = mdd.getDiagram().length;
+                model.mddc(vars, mdd).post();
+                model.allDifferent(vars[0], vars[2], vars[4]).post();
+                Solver solver = model.getSolver();
+                solver.setSearch(Search.randomSearch(vars, seed));
+                while (solver.solve()) ;
+                counts[k] = solver.getSolutionCount();
+            }
+            Assert.assertEquals(counts[1], counts[0]);
+            Assert.assertEquals(counts[2], counts[0]);
+            Assert.assertEquals(lengths[2], lengths[1]);
+        }
+    }
+
+    @Test(groups="1s", timeOut=60000, expectedExceptions = SolverException.class)
+    public void testBuilderUnsorted() {
+        Model model = new Model();
+        IntVar[] vars = model.intVarArray("X", 3, 0, 2, false);
+        MDDBuilder builder = new MDDBuilder(vars);
+        builder.addTuple(new int[]{0, 1, 1});
+        builder.addTuple(new int[]{0, 1, 1});
+        builder.addTuple(new int[]{0, 1, 0});
+    }
 }
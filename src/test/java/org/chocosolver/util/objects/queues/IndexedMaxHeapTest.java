@@ -0,0 +1,107 @@
+/**
+ * This file is part of choco-solver, http://choco-solver.org/
+ *
+ * Copyright (c) 2017, IMT Atlantique. All rights reserved.
+ *
+ * Licensed under the BSD 4-clause license.
+ * See LICENSE file in the project root for full license information.
+ */
+package org.chocosolver.util.objects.queues;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+/**
+ * @since 19/10/2026
+ */
+public class IndexedMaxHeapTest {
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testNominal() {
+        IndexedMaxHeap heap = new IndexedMaxHeap(5);
+        assertTrue(heap.isEmpty());
+        assertEquals(heap.peek(), -1);
+        heap.add(0, 1.);
+        heap.add(3, 4.);
+        heap.add(2, 2.);
+        assertEquals(heap.size(), 3);
+        assertTrue(heap.contains(3));
+        assertFalse(heap.contains(1));
+        assertEquals(heap.pop(), 3);
+        heap.update(0, 5.);
+        assertEquals(heap.peek(), 0);
+        heap.remove(0);
+        assertEquals(heap.pop(), 2);
+        assertEquals(heap.pop(), -1);
+    }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testBuild() {
+        IndexedMaxHeap heap = new IndexedMaxHeap(4);
+        heap.build(new int[]{0, 1, 2, 3}, 3, new double[]{1., 3., 2., 9.});
+        assertEquals(heap.size(), 3);
+        assertFalse(heap.contains(3));
+        heap.scaleKeys(.5);
+        assertEquals(heap.getKey(1), 1.5, 1e-9);
+        assertEquals(heap.pop(), 1);
+        assertEquals(heap.pop(), 2);
+        assertEquals(heap.pop(), 0);
+    }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testPeekAll() {
+        IndexedMaxHeap heap = new IndexedMaxHeap(6);
+        heap.build(new int[]{0, 1, 2, 3, 4, 5}, 6, new double[]{4., 1., 4., 3., 4., 2.});
+        int[] out = new int[6];
+        int nb = heap.peekAll(out);
+        Arrays.sort(out, 0, nb);
+        assertEquals(nb, 3);
+        assertEquals(Arrays.copyOf(out, nb), new int[]{0, 2, 4});
+        heap.remove(2);
+        heap.update(4, 1.);
+        assertEquals(heap.peekAll(out), 1);
+        assertEquals(out[0], 0);
+        heap.clear();
+        assertEquals(heap.peekAll(out), 0);
+    }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testRandom() {
+        Random rnd = new Random(0);
+        int n = 200;
+        IndexedMaxHeap heap = new IndexedMaxHeap(n);
+        double[] keys = new double[n];
+        boolean[] in = new boolean[n];
+        for (int k = 0; k < 10000; k++) {
+            int e = rnd.nextInt(n);
+            switch (rnd.nextInt(3)) {
+                case 0:
+                    keys[e] = rnd.nextInt(50);
+                    heap.add(e, keys[e]);
+                    in[e] = true;
+                    break;
+                case 1:
+                    heap.remove(e);
+                    in[e] = false;
+                    break;
+                default:
+                    int top = heap.peek();
+                    double max = -1;
+                    for (int i = 0; i < n; i++) {
+                        if (in[i]) {
+                            max = Math.max(max, keys[i]);
+                        }
+                    }
+                    if (top == -1) {
+                        assertEquals(max, -1., 0.);
+                    } else {
+                        assertEquals(heap.getKey(top), max, 0.);
+                    }
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.chocosolver.solver.Model;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.nonbacktrackable.SetTest;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -36,6 +37,12 @@ public abstract class BacktrackableSetTest extends SetTest{
         model = new Model();
     }
 
+    @AfterMethod(alwaysRun = true)
+    public void restoreFactory(){
+        // tests switch between implementations, restore the default one
+        SetFactory.HARD_CODED = true;
+    }
+
     @DataProvider(name = "params")
     public Object[][] data1D(){
         // indicates whether to use hard coded implementation or not
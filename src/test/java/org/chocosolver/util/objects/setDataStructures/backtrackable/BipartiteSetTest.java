@@ -8,9 +8,15 @@
  */
 package org.chocosolver.util.objects.setDataStructures.backtrackable;
 
+import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetFactory;
 import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 /**
  * @author Alexandre LEBRUN
@@ -26,4 +32,38 @@ public class BipartiteSetTest extends BitSetTest {
     public ISet create() {
         return SetFactory.makeStoredSet(SetType.BIPARTITESET, 0, model);
     }
+
+    @Test(groups = "1s", timeOut=60000)
+    public void testRemoveAddRestore() {
+        ISet set = create(-5);
+        IEnvironment environment = model.getEnvironment();
+        for (int i = -5; i < 45; i++) {
+            set.add(i);
+        }
+        // removed elements are added back at the border, the others are not impacted
+        set.remove(-5);
+        set.remove(10);
+        set.add(-5);
+        assertEquals(set.size(), 49);
+        assertFalse(set.contains(10));
+        assertTrue(set.contains(-5));
+        environment.worldPush();
+        for (int i = -5; i < 45; i += 2) {
+            set.remove(i);
+        }
+        assertEquals(set.size(), 24);
+        for (int i = -5; i < 45; i++) {
+            assertEquals(set.contains(i), i % 2 == 0 && i != 10);
+        }
+        environment.worldPop();
+        assertEquals(set.size(), 49);
+        int nb = 0;
+        for (int i : set) {
+            assertTrue(i != 10);
+            nb++;
+        }
+        assertEquals(nb, 49);
+        assertFalse(set.contains(45));
+        assertFalse(set.contains(-6));
+    }
 }